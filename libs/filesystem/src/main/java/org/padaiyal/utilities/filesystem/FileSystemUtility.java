@@ -7,16 +7,21 @@ import java.nio.file.AccessDeniedException;
 import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.FileSystems;
 import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardWatchEventKinds;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchEvent.Kind;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.PosixFilePermission;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -28,9 +33,18 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -39,6 +53,21 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.padaiyal.utilities.I18nUtility;
 import org.padaiyal.utilities.PropertyUtility;
+import org.padaiyal.utilities.filesystem.abstractions.ArchiveFormat;
+import org.padaiyal.utilities.filesystem.abstractions.FileSystemOperation;
+import org.padaiyal.utilities.filesystem.abstractions.FileSystemOperationProgress;
+import org.padaiyal.utilities.filesystem.abstractions.FileSystemProgressListener;
+import org.padaiyal.utilities.filesystem.abstractions.FileTailFollower;
+import org.padaiyal.utilities.filesystem.abstractions.InotifyWatchBudget;
+import org.padaiyal.utilities.filesystem.abstractions.PollingDirectoryWatcher;
+import org.padaiyal.utilities.filesystem.abstractions.TreeArchiveReport;
+import org.padaiyal.utilities.filesystem.abstractions.TreeArchiver;
+import org.padaiyal.utilities.filesystem.abstractions.WatchEventBatchEntry;
+import org.padaiyal.utilities.filesystem.abstractions.WatchEventBatcher;
+import org.padaiyal.utilities.filesystem.abstractions.WatchEventChangeDetector;
+import org.padaiyal.utilities.filesystem.abstractions.WatchEventFilter;
+import org.padaiyal.utilities.filesystem.abstractions.WatchEventJournal;
+import org.padaiyal.utilities.filesystem.abstractions.WatchEventJournalRecord;
 import org.padaiyal.utilities.filesystem.abstractions.WatchServiceRegisteringFileVisitor;
 import org.padaiyal.utilities.filesystem.abstractions.WatchServiceRegistrationInfo;
 
@@ -64,6 +93,47 @@ public class FileSystemUtility {
   private static final ConcurrentHashMap<String, Queue<Kind<?>>> pathToTriggeredEventMap =
       new ConcurrentHashMap<>();
 
+  /**
+   * Map of followed file paths to the FileTailFollower that reads the bytes appended to them.
+   */
+  private static final ConcurrentHashMap<String, FileTailFollower> pathToFileTailFollowerMap =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Map of the directories registered by followFile() to the number of files followed in them, so
+   * that a directory is deregistered once the last file in it is unfollowed.
+   */
+  private static final ConcurrentHashMap<String, Integer>
+      followedDirectoryToFollowedFilesCountMap = new ConcurrentHashMap<>();
+
+  /**
+   * Journal in which the generated watch events are persisted, null if they aren't persisted.
+   */
+  private static volatile WatchEventJournal watchEventJournal;
+
+  /**
+   * Roots of the directory trees whose missed events have been replayed from the journal. They are
+   * checkpointed periodically and on shutdown, so that the events journaled while running aren't
+   * generated again on the next recovery.
+   */
+  private static final Set<Path> journaledRootPaths = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Executor that periodically checkpoints the journaled directory trees and compacts the journal,
+   * created when a journal is first set.
+   */
+  private static ScheduledExecutorService journalCheckpointExecutorService;
+
+  /**
+   * Budget of the inotify watches and instances used by the registered WatchServices.
+   */
+  private static volatile InotifyWatchBudget inotifyWatchBudget;
+
+  /**
+   * Executor dedicated to the asynchronous operations, created when first needed.
+   */
+  private static ExecutorService asyncExecutorService;
+
   /**
    * Thread object that visits all files to look for events.
    */
@@ -97,6 +167,22 @@ public class FileSystemUtility {
                   logger.warn("WatchServiceRegistrationInfo is null, subPath = ({}), "
                                   + "pathToWatchServiceRegistrationInfoMapCopy = ({})", subPath,
                           pathToWatchServiceRegistrationInfoMapCopy);
+                } else if (subPathWatchServiceInfo.isPolled()) {
+                  try {
+                    List<WatchEvent<?>> watchEvents =
+                            subPathWatchServiceInfo.getPollingDirectoryWatcher().pollIfDue();
+                    processWatchEvents(
+                            subPath,
+                            subPathWatchServiceInfo,
+                            pathToWatchServiceRegistrationInfoMapCopy,
+                            watchEvents);
+                    // An active directory gets its WatchService back once the budget allows.
+                    if (!watchEvents.isEmpty()) {
+                      promoteToWatchService(subPathWatchServiceInfo);
+                    }
+                  } catch (IOException e) {
+                    logger.warn(e);
+                  }
                 } else {
                   WatchService subPathWatchService = subPathWatchServiceInfo
                           .getWatchService();
@@ -105,74 +191,11 @@ public class FileSystemUtility {
 
                     if (watchKey != null) {
                       List<WatchEvent<?>> watchEvents = watchKey.pollEvents();
-                      /* Iterate through all watch events and add another watch service
-                      for folders created within the maxDepth level. */
-                      for (WatchEvent<?> event : watchEvents) {
-
-                        Path changePath =
-                                Paths.get(subPath).resolve((Path) event.context());
-
-                        String changePathString = changePath.toAbsolutePath().toString();
-
-                        if (StandardWatchEventKinds.ENTRY_CREATE.equals(event.kind())) {
-
-                          if (Files.isDirectory(changePath.toAbsolutePath())) {
-
-                            Path basePath = changePath.toAbsolutePath();
-                            while (!pathToWatchServiceRegistrationInfoMapCopy.containsKey(
-                                    basePath.toString())) {
-                              basePath = basePath.getParent();
-                            }
-
-                            int maxDepthForBasePath =
-                                    pathToWatchServiceRegistrationInfoMapCopy
-                                            .get(basePath.toString())
-                                            .getMaxDepth();
-
-                            if (basePath.relativize(changePath).getNameCount()
-                                    <= maxDepthForBasePath) {
-                              registerWatchServiceForNotRegisteredDirectoryPath(
-                                      changePath,
-                                      maxDepthForBasePath - 1,
-                                      subPathWatchServiceInfo.getConsumer(),
-                                      subPathWatchServiceInfo.getEventsToWatch());
-
-                            } else {
-                              String messageKey =
-                                      "FileSystemUtility.skipRegistrationPathPastMaxDepth";
-                              logger.debug(() ->
-                                      I18nUtility.getFormattedString(
-                                              messageKey,
-                                              changePath,
-                                              subPathWatchServiceInfo.getMaxDepth()));
-                            }
-                          } else {
-                            String messageKey =
-                                    "FileSystemUtility.skippingRegistrationPathIsADirectory";
-                            logger.debug(() ->
-                                    I18nUtility.getFormattedString(
-                                            messageKey,
-                                            changePath));
-                          }
-                        } else if (StandardWatchEventKinds.ENTRY_DELETE.equals(event.kind())) {
-                          /* If a directory is deleted, deregister it if it has previously
-                          been registered to a watch service */
-                          if (pathToWatchServiceRegistrationInfoMap.containsKey(
-                                  changePathString)) {
-                            deRegisterWatchServiceForDirectory(changePath);
-                          }
-                        }
-
-                        pathToTriggeredEventMap.putIfAbsent(
-                                changePathString,
-                                new LinkedBlockingQueue<>()
-                        );
-                        Queue<Kind<?>> watchServiceEventsQueue =
-                                pathToTriggeredEventMap.get(changePathString);
-                        watchServiceEventsQueue.add(event.kind());
-
-                        subPathWatchServiceInfo.getConsumer().accept(changePath, event);
-                      }
+                      processWatchEvents(
+                              subPath,
+                              subPathWatchServiceInfo,
+                              pathToWatchServiceRegistrationInfoMapCopy,
+                              watchEvents);
                       watchKey.reset();
                     }
                   } catch (ClosedWatchServiceException | IOException e) {
@@ -180,9 +203,191 @@ public class FileSystemUtility {
                   }
                 }
               });
+
+      // Deliver the batches held back for longer than their max delay.
+      pathToWatchServiceRegistrationInfoMapCopy.values().forEach(watchServiceRegistrationInfo -> {
+        if (watchServiceRegistrationInfo.getConsumer() instanceof WatchEventBatcher) {
+          ((WatchEventBatcher) watchServiceRegistrationInfo.getConsumer()).flushIfDue();
+        }
+      });
     }
   };
 
+  /**
+   * Processes the watch events drained together for a registered directory. Iterates through all
+   * watch events and adds another watch service for folders created within the maxDepth level.
+   * If the consumer is a WatchEventBatcher, the events are delivered to it as one drain sharing the
+   * directory path.
+   *
+   * @param subPath                                   Registered directory the events were
+   *                                                  generated for.
+   * @param subPathWatchServiceInfo                   Registration of the directory.
+   * @param pathToWatchServiceRegistrationInfoMapCopy Snapshot of the registrations.
+   * @param watchEvents                               The generated events.
+   * @throws IOException When there is an issue registering or deregistering a directory.
+   */
+  private static void processWatchEvents(
+      String subPath,
+      WatchServiceRegistrationInfo subPathWatchServiceInfo,
+      Map<String, WatchServiceRegistrationInfo> pathToWatchServiceRegistrationInfoMapCopy,
+      List<WatchEvent<?>> watchEvents
+  ) throws IOException {
+    if (watchEvents.isEmpty()) {
+      return;
+    }
+    Path parentPath = Paths.get(subPath);
+    WatchEventBatcher watchEventBatcher =
+        subPathWatchServiceInfo.getConsumer() instanceof WatchEventBatcher
+            ? (WatchEventBatcher) subPathWatchServiceInfo.getConsumer()
+            : null;
+    if (watchEventBatcher != null) {
+      watchEventBatcher.beginDrain(parentPath);
+    }
+    try {
+      for (WatchEvent<?> event : watchEvents) {
+        processWatchEvent(
+            parentPath,
+            subPathWatchServiceInfo,
+            pathToWatchServiceRegistrationInfoMapCopy,
+            event);
+      }
+    } finally {
+      if (watchEventBatcher != null) {
+        watchEventBatcher.endDrain();
+      }
+    }
+  }
+
+  /**
+   * Processes a watch event generated for a registered directory. Directories created within the
+   * maxDepth are registered unless an exclude filter of the registration rejects them, deleted
+   * directories are deregistered, and followed files are read, irrespective of the filter. Events
+   * rejected by the filter, including modifications its change detector considers no-ops, are
+   * then dropped, and the others are recorded and delivered to the consumer. The filter is tested
+   * on the event context first, so that rejected modifications are dropped without resolving their
+   * path unless a file is followed.
+   *
+   * @param parentPath                                Registered directory the event was generated
+   *                                                  for.
+   * @param subPathWatchServiceInfo                   Registration of the directory.
+   * @param pathToWatchServiceRegistrationInfoMapCopy Snapshot of the registrations.
+   * @param event                                     The generated event.
+   * @throws IOException When there is an issue registering or deregistering a directory.
+   */
+  private static void processWatchEvent(
+      Path parentPath,
+      WatchServiceRegistrationInfo subPathWatchServiceInfo,
+      Map<String, WatchServiceRegistrationInfo> pathToWatchServiceRegistrationInfoMapCopy,
+      WatchEvent<?> event
+  ) throws IOException {
+    Path context = (Path) event.context();
+    if (context == null) {
+      // OVERFLOW events have no context, events have been lost for the registered directory.
+      logger.warn(() ->
+          I18nUtility.getFormattedString("FileSystemUtility.eventsOverflowed", parentPath));
+      subPathWatchServiceInfo.getConsumer().accept(parentPath, event);
+      return;
+    }
+    WatchEventFilter watchEventFilter = subPathWatchServiceInfo.getWatchEventFilter();
+    boolean isAccepted = watchEventFilter.test(context, event.kind());
+    if (!isAccepted
+        && StandardWatchEventKinds.ENTRY_MODIFY.equals(event.kind())
+        && pathToFileTailFollowerMap.isEmpty()) {
+      // Nothing to register, deregister or follow, so the path isn't even resolved.
+      return;
+    }
+    Path changePath = parentPath.resolve(context);
+
+    if (StandardWatchEventKinds.ENTRY_CREATE.equals(event.kind())) {
+      if (watchEventFilter.isExcluded(context, event.kind())) {
+        logger.debug(() ->
+            I18nUtility.getFormattedString(
+                "FileSystemUtility.skipRegistrationPathExcluded",
+                changePath));
+      } else if (Files.isDirectory(changePath.toAbsolutePath())) {
+        Path basePath = changePath.toAbsolutePath();
+        while (!pathToWatchServiceRegistrationInfoMapCopy.containsKey(basePath.toString())) {
+          basePath = basePath.getParent();
+        }
+
+        int maxDepthForBasePath = pathToWatchServiceRegistrationInfoMapCopy
+            .get(basePath.toString())
+            .getMaxDepth();
+
+        if (basePath.relativize(changePath).getNameCount() <= maxDepthForBasePath) {
+          registerWatchServiceForNotRegisteredDirectoryPath(
+              changePath,
+              maxDepthForBasePath - 1,
+              subPathWatchServiceInfo.getConsumer(),
+              watchEventFilter,
+              subPathWatchServiceInfo.getEventsToWatch());
+        } else {
+          logger.debug(() ->
+              I18nUtility.getFormattedString(
+                  "FileSystemUtility.skipRegistrationPathPastMaxDepth",
+                  changePath,
+                  subPathWatchServiceInfo.getMaxDepth()));
+        }
+      } else {
+        logger.debug(() ->
+            I18nUtility.getFormattedString(
+                "FileSystemUtility.skippingRegistrationPathIsADirectory",
+                changePath));
+      }
+    } else if (StandardWatchEventKinds.ENTRY_DELETE.equals(event.kind())) {
+      /* If a directory is deleted, deregister it if it has previously
+      been registered to a watch service */
+      if (pathToWatchServiceRegistrationInfoMap.containsKey(
+          changePath.toAbsolutePath().toString())) {
+        deRegisterWatchServiceForDirectory(changePath);
+      }
+    }
+
+    if (!pathToFileTailFollowerMap.isEmpty()) {
+      FileTailFollower fileTailFollower = pathToFileTailFollowerMap.get(
+          changePath.toAbsolutePath().toString());
+      if (fileTailFollower != null) {
+        try {
+          fileTailFollower.poll(changePath);
+        } catch (IOException e) {
+          logger.warn(e);
+        }
+      }
+    }
+
+    if (!isAccepted) {
+      return;
+    }
+    String changePathString = changePath.toAbsolutePath().toString();
+    WatchEventChangeDetector changeDetector = watchEventFilter.getChangeDetector();
+    if (changeDetector != null) {
+      if (StandardWatchEventKinds.ENTRY_MODIFY.equals(event.kind())) {
+        if (!changeDetector.hasChanged(changePath)) {
+          return;
+        }
+      } else {
+        // A created or deleted file is compared against its new state from its next modification.
+        changeDetector.forget(changePath);
+      }
+    }
+    subPathWatchServiceInfo.setLastEventInstant(Instant.now());
+
+    pathToTriggeredEventMap.putIfAbsent(changePathString, new LinkedBlockingQueue<>());
+    Queue<Kind<?>> watchServiceEventsQueue = pathToTriggeredEventMap.get(changePathString);
+    watchServiceEventsQueue.add(event.kind());
+
+    WatchEventJournal journal = watchEventJournal;
+    if (journal != null) {
+      try {
+        journal.append(event.kind(), changePath.toAbsolutePath());
+      } catch (IOException | IllegalArgumentException e) {
+        logger.warn(e);
+      }
+    }
+
+    subPathWatchServiceInfo.getConsumer().accept(changePath, event);
+  }
+
   static {
     initializeDependantValues();
   }
@@ -209,6 +414,21 @@ public class FileSystemUtility {
     } catch (IOException e) {
       logger.warn(e);
     }
+    if (inotifyWatchBudget == null) {
+      inotifyWatchBudget = new InotifyWatchBudget(
+          InotifyWatchBudget.DEFAULT_INOTIFY_LIMITS_PATH,
+          Double.parseDouble(
+              PropertyUtility.getProperty("FileSystemUtility.inotifyWatchBudget.thresholdRatio")
+          ),
+          Duration.ofMillis(
+              Long.parseLong(
+                  PropertyUtility.getProperty(
+                      "FileSystemUtility.inotifyWatchBudget.coldThreshold.milliseconds"
+                  )
+              )
+          )
+      );
+    }
   }
 
   /**
@@ -469,6 +689,446 @@ public class FileSystemUtility {
     }
   }
 
+  /**
+   * Archives the contents of the path whose name matches the provided pattern into a ZIP or tar.gz
+   * archive. Files are read and compressed in parallel and written in order, using the chunk size,
+   * parallelism and number of chunks in flight configured in the properties.
+   *
+   * @param path          The directory tree or file to archive.
+   * @param archive       Path of the archive to create, it must not exist.
+   * @param archiveFormat Format of the archive.
+   * @param patternString The pattern to match the file/folder names to archive with.
+   * @return Report of the archived entries and the throughput.
+   * @throws IOException When there is an issue reading the tree or writing the archive.
+   */
+  public static TreeArchiveReport archiveIfMatches(
+      Path path,
+      Path archive,
+      ArchiveFormat archiveFormat,
+      String patternString
+  ) throws IOException {
+    // Input validation
+    Objects.requireNonNull(path);
+    Objects.requireNonNull(archive);
+    Objects.requireNonNull(patternString);
+
+    TreeArchiver treeArchiver = new TreeArchiver(
+        archiveFormat,
+        entry -> matches(patternString, 0, entry.getFileName().toString()),
+        Integer.parseInt(PropertyUtility.getProperty("FileSystemUtility.archive.parallelism")),
+        Integer.parseInt(PropertyUtility.getProperty("FileSystemUtility.archive.chunkSize.bytes")),
+        Integer.parseInt(
+            PropertyUtility.getProperty("FileSystemUtility.archive.maxChunksInFlight")
+        ),
+        Integer.parseInt(PropertyUtility.getProperty("FileSystemUtility.archive.compressionLevel"))
+    );
+    TreeArchiveReport treeArchiveReport = treeArchiver.archive(path, archive);
+    logger.info(treeArchiveReport::toString);
+    return treeArchiveReport;
+  }
+
+  /**
+   * Runs an operation asynchronously on the specified executor. Cancelling the returned future
+   * stops the operation at the next entry it processes. Cancelling a future derived from it, e.g.
+   * with thenApply(), doesn't.
+   *
+   * @param operation        The operation to run.
+   * @param executor         The executor to run the operation on.
+   * @param progressListener Listener notified of every entry processed by the operation.
+   * @param <T>              Type of the result of the operation.
+   * @return Future completed with the result of the operation.
+   */
+  public static <T> CompletableFuture<T> supplyAsync(
+      FileSystemOperation<T> operation,
+      Executor executor,
+      FileSystemProgressListener progressListener
+  ) {
+    // Input validation
+    Objects.requireNonNull(operation);
+    Objects.requireNonNull(executor);
+    Objects.requireNonNull(progressListener);
+
+    CompletableFuture<T> future = new CompletableFuture<>();
+    FileSystemOperationProgress progress =
+        new FileSystemOperationProgress(future::isCancelled, progressListener);
+    try {
+      executor.execute(() -> {
+        if (future.isDone()) {
+          return;
+        }
+        try {
+          future.complete(operation.run(progress));
+        } catch (Throwable e) {
+          // Anything not delivered through the future would be lost on the executor thread.
+          future.completeExceptionally(e);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
+
+  /**
+   * Asynchronously deletes the specified folder/file on the dedicated executor.
+   *
+   * @param path The folder/file to delete.
+   * @return Future completed with the number of deleted entries.
+   */
+  public static CompletableFuture<Long> deleteRecursivelyAsync(Path path) {
+    return deleteRecursivelyAsync(path, getAsyncExecutorService(), FileSystemProgressListener.NONE);
+  }
+
+  /**
+   * Asynchronously deletes the specified folder/file. Symbolic links are deleted, not followed.
+   *
+   * @param path             The folder/file to delete.
+   * @param executor         The executor to run the deletion on.
+   * @param progressListener Listener notified of every deleted entry.
+   * @return Future completed with the number of deleted entries.
+   */
+  public static CompletableFuture<Long> deleteRecursivelyAsync(
+      Path path,
+      Executor executor,
+      FileSystemProgressListener progressListener
+  ) {
+    Objects.requireNonNull(path);
+    return supplyAsync(progress -> deleteTree(path, progress), executor, progressListener);
+  }
+
+  /**
+   * Asynchronously sets permissions to a specified file/folder and all its contents if needed, on
+   * the dedicated executor. It supports only POSIX OS (Linux, MAC OS).
+   *
+   * @param path           The path of the folder/file whose permission needs to be changed.
+   * @param permissions    The new permission to set to the folder/file specified.
+   * @param setRecursively If true and a folder is specified, it sets the specified permissions to
+   *                       all the contents in it, recursively.
+   * @return Future completed with the number of entries whose permissions were set.
+   */
+  public static CompletableFuture<Long> setPermissionsAsync(
+      Path path,
+      Set<PosixFilePermission> permissions,
+      boolean setRecursively
+  ) {
+    return setPermissionsAsync(
+        path,
+        permissions,
+        setRecursively,
+        getAsyncExecutorService(),
+        FileSystemProgressListener.NONE
+    );
+  }
+
+  /**
+   * Asynchronously sets permissions to a specified file/folder and all its contents if needed.
+   * It supports only POSIX OS (Linux, MAC OS).
+   *
+   * @param path             The path of the folder/file whose permission needs to be changed.
+   * @param permissions      The new permission to set to the folder/file specified.
+   * @param setRecursively   If true and a folder is specified, it sets the specified permissions
+   *                         to all the contents in it, recursively.
+   * @param executor         The executor to run the operation on.
+   * @param progressListener Listener notified of every entry whose permissions were set.
+   * @return Future completed with the number of entries whose permissions were set.
+   */
+  public static CompletableFuture<Long> setPermissionsAsync(
+      Path path,
+      Set<PosixFilePermission> permissions,
+      boolean setRecursively,
+      Executor executor,
+      FileSystemProgressListener progressListener
+  ) {
+    Objects.requireNonNull(path);
+    Objects.requireNonNull(permissions);
+    return supplyAsync(
+        progress -> {
+          if (!setRecursively) {
+            Files.setPosixFilePermissions(path, permissions);
+            progress.onProcessed(path);
+          } else {
+            setPermissionsInTree(path, permissions, progress);
+          }
+          return progress.getProcessedEntriesCount();
+        },
+        executor,
+        progressListener
+    );
+  }
+
+  /**
+   * Asynchronously lists the recursive folder contents/file that match the specified pattern, on
+   * the dedicated executor.
+   *
+   * @param path          The path to recursively find file name matches in.
+   * @param patternString The pattern to match the file name with.
+   * @return Future completed with the list of Path objects of the files/folder contents whose name
+   *     matches the specified pattern.
+   */
+  public static CompletableFuture<List<Path>> treeMatchesAsync(Path path, String patternString) {
+    return treeMatchesAsync(
+        path,
+        patternString,
+        getAsyncExecutorService(),
+        FileSystemProgressListener.NONE
+    );
+  }
+
+  /**
+   * Asynchronously lists the recursive folder contents/file that match the specified pattern.
+   *
+   * @param path             The path to recursively find file name matches in.
+   * @param patternString    The pattern to match the file name with.
+   * @param executor         The executor to run the search on.
+   * @param progressListener Listener notified of every visited entry.
+   * @return Future completed with the list of Path objects of the files/folder contents whose name
+   *     matches the specified pattern.
+   */
+  public static CompletableFuture<List<Path>> treeMatchesAsync(
+      Path path,
+      String patternString,
+      Executor executor,
+      FileSystemProgressListener progressListener
+  ) {
+    Objects.requireNonNull(path);
+    Objects.requireNonNull(patternString);
+    return supplyAsync(
+        progress -> {
+          List<Path> matchList = new ArrayList<>();
+          Files.walkFileTree(path, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+              return visitFile(dir, attributes);
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+              if (progress.isCancelled()) {
+                return FileVisitResult.TERMINATE;
+              }
+              if (matches(patternString, 0, file.getFileName().toString())) {
+                matchList.add(file);
+              }
+              progress.onProcessed(file);
+              return FileVisitResult.CONTINUE;
+            }
+          });
+          progress.throwIfCancelled();
+          return matchList;
+        },
+        executor,
+        progressListener
+    );
+  }
+
+  /**
+   * Asynchronously deletes contents specified by the path input if the name matches the provided
+   * pattern, on the dedicated executor.
+   *
+   * @param path    The path to perform the matched deletion in.
+   * @param pattern The pattern to match the file/folder name with.
+   * @return Future completed with the number of deleted entries.
+   */
+  public static CompletableFuture<Long> deleteIfMatchesAsync(Path path, String pattern) {
+    return deleteIfMatchesAsync(
+        path,
+        pattern,
+        getAsyncExecutorService(),
+        FileSystemProgressListener.NONE
+    );
+  }
+
+  /**
+   * Asynchronously deletes contents specified by the path input if the name matches the provided
+   * pattern. Matched directories are deleted as a whole without matching their contents.
+   *
+   * @param path             The path to perform the matched deletion in.
+   * @param pattern          The pattern to match the file/folder name with.
+   * @param executor         The executor to run the deletion on.
+   * @param progressListener Listener notified of every visited or deleted entry.
+   * @return Future completed with the number of deleted entries.
+   */
+  public static CompletableFuture<Long> deleteIfMatchesAsync(
+      Path path,
+      String pattern,
+      Executor executor,
+      FileSystemProgressListener progressListener
+  ) {
+    Objects.requireNonNull(path);
+    Objects.requireNonNull(pattern);
+    return supplyAsync(
+        progress -> {
+          if (matches(pattern, 0, path.getFileName().toString())) {
+            return deleteTree(path, progress);
+          }
+          long[] deletedEntriesCount = {0};
+          Files.walkFileTree(path, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes)
+                throws IOException {
+              if (progress.isCancelled()) {
+                return FileVisitResult.TERMINATE;
+              }
+              if (!dir.equals(path) && matches(pattern, 0, dir.getFileName().toString())) {
+                deletedEntriesCount[0] += deleteTree(dir, progress);
+                return FileVisitResult.SKIP_SUBTREE;
+              }
+              progress.onProcessed(dir);
+              return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes)
+                throws IOException {
+              if (progress.isCancelled()) {
+                return FileVisitResult.TERMINATE;
+              }
+              if (matches(pattern, 0, file.getFileName().toString())
+                  && Files.deleteIfExists(file)) {
+                deletedEntriesCount[0]++;
+              }
+              progress.onProcessed(file);
+              return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
+              if (exc instanceof NoSuchFileException) {
+                logger.warn(exc);
+                return FileVisitResult.CONTINUE;
+              }
+              throw exc;
+            }
+          });
+          progress.throwIfCancelled();
+          return deletedEntriesCount[0];
+        },
+        executor,
+        progressListener
+    );
+  }
+
+  /**
+   * Deletes a folder/file and all its contents, stopping if the operation is cancelled.
+   *
+   * @param path     The folder/file to delete.
+   * @param progress Progress of the operation, notified of every deleted entry.
+   * @return The number of deleted entries.
+   * @throws IOException When there is an issue accessing a file or directory.
+   */
+  private static long deleteTree(Path path, FileSystemOperationProgress progress)
+      throws IOException {
+    long processedEntriesCountBefore = progress.getProcessedEntriesCount();
+    Files.walkFileTree(path, new SimpleFileVisitor<>() {
+      @Override
+      public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+        return progress.isCancelled() ? FileVisitResult.TERMINATE : FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFile(Path file, BasicFileAttributes attributes)
+          throws IOException {
+        if (progress.isCancelled()) {
+          return FileVisitResult.TERMINATE;
+        }
+        Files.delete(file);
+        progress.onProcessed(file);
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+        if (exc != null) {
+          throw exc;
+        }
+        if (progress.isCancelled()) {
+          return FileVisitResult.TERMINATE;
+        }
+        Files.delete(dir);
+        progress.onProcessed(dir);
+        return FileVisitResult.CONTINUE;
+      }
+    });
+    progress.throwIfCancelled();
+    return progress.getProcessedEntriesCount() - processedEntriesCountBefore;
+  }
+
+  /**
+   * Sets permissions to a folder and all its contents, stopping if the operation is cancelled.
+   * Directories are updated before their contents are visited, and directories that can't be read
+   * are updated and then visited again, like setPermissions() does for the path specified.
+   *
+   * @param path        The path of the folder whose permission needs to be changed.
+   * @param permissions The new permission to set.
+   * @param progress    Progress of the operation, notified of every updated entry.
+   * @throws IOException When there is an issue accessing a file or directory.
+   */
+  private static void setPermissionsInTree(
+      Path path,
+      Set<PosixFilePermission> permissions,
+      FileSystemOperationProgress progress
+  ) throws IOException {
+    Files.walkFileTree(path, new SimpleFileVisitor<>() {
+      /**
+       * Directories that have been updated and visited again after failing to be read.
+       */
+      private final Set<Path> revisitedDirectories = new HashSet<>();
+
+      @Override
+      public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes)
+          throws IOException {
+        return visitFile(dir, attributes);
+      }
+
+      @Override
+      public FileVisitResult visitFile(Path file, BasicFileAttributes attributes)
+          throws IOException {
+        if (progress.isCancelled()) {
+          return FileVisitResult.TERMINATE;
+        }
+        Files.setPosixFilePermissions(file, permissions);
+        progress.onProcessed(file);
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
+        if (exc instanceof AccessDeniedException
+            && Files.isDirectory(file)
+            && revisitedDirectories.add(file)) {
+          Files.setPosixFilePermissions(file, permissions);
+          // The directory has been updated, it's counted when it's visited again.
+          Files.walkFileTree(file, this);
+          return progress.isCancelled() ? FileVisitResult.TERMINATE : FileVisitResult.CONTINUE;
+        }
+        throw exc;
+      }
+    });
+    progress.throwIfCancelled();
+  }
+
+  /**
+   * Gets the executor dedicated to the asynchronous operations, creating it if needed. Its daemon
+   * threads keep the asynchronous operations off the common ForkJoinPool used by parallel streams.
+   *
+   * @return The dedicated executor.
+   */
+  private static synchronized ExecutorService getAsyncExecutorService() {
+    if (asyncExecutorService == null) {
+      AtomicInteger threadsCount = new AtomicInteger();
+      asyncExecutorService = Executors.newFixedThreadPool(
+          Integer.parseInt(PropertyUtility.getProperty("FileSystemUtility.asyncExecutor.threads")),
+          runnable -> {
+            Thread thread =
+                new Thread(runnable, "FileSystemUtility-async-" + threadsCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+          }
+      );
+    }
+    return asyncExecutorService;
+  }
+
   /**
    * Checks if one path is a sub path of the other.
    *
@@ -528,25 +1188,50 @@ public class FileSystemUtility {
   public static void registerWatchServiceForNotRegisteredDirectoryPathAfterFileVisitor(
       Path currentPath, int maxDepth, Kind<?>[] eventTypesToWatch,
       BiConsumer<Path, WatchEvent<?>> consumer) throws IOException {
+    registerWatchServiceForNotRegisteredDirectoryPathAfterFileVisitor(
+        currentPath, maxDepth, eventTypesToWatch, consumer, WatchEventFilter.ACCEPT_ALL);
+  }
+
+  /**
+   * Registers a specified currentPath for a specific set of events with WatchService after File
+   * Visitor, applying the specified filter to the generated events.
+   *
+   * @param currentPath       Path to register and generate events.
+   * @param maxDepth          Maximum depth to register WatchService.
+   * @param eventTypesToWatch Type of events for which events have to be generated.
+   * @param consumer          The callback to invoke when a desired event is triggered.
+   * @param watchEventFilter  The filter applied to the events before they are recorded and
+   *                          delivered.
+   * @throws IOException When there is an issue accessing a file or directory.
+   */
+  public static void registerWatchServiceForNotRegisteredDirectoryPathAfterFileVisitor(
+      Path currentPath, int maxDepth, Kind<?>[] eventTypesToWatch,
+      BiConsumer<Path, WatchEvent<?>> consumer, WatchEventFilter watchEventFilter)
+      throws IOException {
     Path tempPath = currentPath.toAbsolutePath();
     if (!pathToWatchServiceRegistrationInfoMap.containsKey(tempPath.toString())
         && Files.isDirectory(tempPath)) {
-      WatchService subPathWatchService = FileSystems.getDefault().newWatchService();
-      WatchServiceRegistrationInfo watchServiceRegistrationInfo =
-          new WatchServiceRegistrationInfo(
-              tempPath, subPathWatchService, maxDepth, consumer, eventTypesToWatch);
+      WatchServiceRegistrationInfo watchServiceRegistrationInfo = null;
+      if (acquireWatch(tempPath)) {
+        watchServiceRegistrationInfo = createWatchServiceRegistration(
+            tempPath, maxDepth, eventTypesToWatch, consumer, watchEventFilter);
+      }
+
+      if (watchServiceRegistrationInfo == null) {
+        // Out of inotify watches, fall back to polling instead of failing the registration.
+        watchServiceRegistrationInfo = createPollingRegistration(
+            tempPath, maxDepth, eventTypesToWatch, consumer, watchEventFilter);
+        logger.debug(() ->
+            I18nUtility.getFormattedString(
+                "FileSystemUtility.pollingDirectoryMessage", tempPath.toString()));
+      } else {
+        logger.debug(() ->
+            I18nUtility.getFormattedString(
+                "FileSystemUtility.registeredWatchServiceMessage", tempPath.toString()));
+      }
       pathToWatchServiceRegistrationInfoMap.put(
           watchServiceRegistrationInfo.getPath().toString(), watchServiceRegistrationInfo);
 
-      currentPath.register(
-          watchServiceRegistrationInfo.getWatchService(),
-          watchServiceRegistrationInfo.getEventsToWatch()
-      );
-
-      logger.debug(() ->
-          I18nUtility.getFormattedString(
-              "FileSystemUtility.registeredWatchServiceMessage", tempPath.toString()));
-
     } else {
       logger.debug(() ->
           I18nUtility.getFormattedString(
@@ -557,12 +1242,168 @@ public class FileSystemUtility {
     }
   }
 
+  /**
+   * Reserves an inotify watch for a directory. If the budget is exhausted, the WatchService of a
+   * colder and deeper directory is given up for it.
+   *
+   * @param directory Directory that needs a WatchService.
+   * @return true if a watch was reserved, else false.
+   */
+  private static boolean acquireWatch(Path directory) {
+    InotifyWatchBudget budget = inotifyWatchBudget;
+    if (budget.tryAcquire()) {
+      return true;
+    }
+    WatchServiceRegistrationInfo registrationToDemote = budget.chooseRegistrationToDemote(
+        pathToWatchServiceRegistrationInfoMap.values(), directory);
+    return registrationToDemote != null
+        && demoteToPolling(registrationToDemote)
+        && budget.tryAcquire();
+  }
+
+  /**
+   * Creates a WatchService and registers a directory with it. The watch must have been reserved in
+   * the budget, it is released if the registration fails.
+   *
+   * @param path              Directory to register.
+   * @param maxDepth          Maximum depth to register WatchService.
+   * @param eventTypesToWatch Type of events for which events have to be generated.
+   * @param consumer          The callback to invoke when a desired event is triggered.
+   * @param watchEventFilter  The filter applied to the events before they are delivered.
+   * @return The registration, null if the registration failed.
+   */
+  private static WatchServiceRegistrationInfo createWatchServiceRegistration(
+      Path path, int maxDepth, Kind<?>[] eventTypesToWatch,
+      BiConsumer<Path, WatchEvent<?>> consumer, WatchEventFilter watchEventFilter) {
+    WatchService watchService = null;
+    try {
+      watchService = FileSystems.getDefault().newWatchService();
+      path.register(watchService, eventTypesToWatch);
+      return new WatchServiceRegistrationInfo(
+          path, watchService, maxDepth, consumer, watchEventFilter, eventTypesToWatch);
+    } catch (IOException e) {
+      // Typically the inotify limits being hit because of other processes of the same user.
+      inotifyWatchBudget.release();
+      inotifyWatchBudget.onRegistrationFailure();
+      logger.warn(() ->
+          I18nUtility.getFormattedString(
+              "FileSystemUtility.watchServiceRegistrationFailed", path, e.getMessage()));
+      if (watchService != null) {
+        try {
+          watchService.close();
+        } catch (IOException closeException) {
+          logger.warn(closeException);
+        }
+      }
+      return null;
+    }
+  }
+
+  /**
+   * Creates a registration that watches a directory by polling.
+   *
+   * @param path              Directory to register.
+   * @param maxDepth          Maximum depth to register WatchService.
+   * @param eventTypesToWatch Type of events for which events have to be generated.
+   * @param consumer          The callback to invoke when a desired event is triggered.
+   * @param watchEventFilter  The filter applied to the events before they are delivered.
+   * @return The registration.
+   * @throws IOException When there is an issue listing the directory.
+   */
+  private static WatchServiceRegistrationInfo createPollingRegistration(
+      Path path, int maxDepth, Kind<?>[] eventTypesToWatch,
+      BiConsumer<Path, WatchEvent<?>> consumer, WatchEventFilter watchEventFilter)
+      throws IOException {
+    PollingDirectoryWatcher pollingDirectoryWatcher = new PollingDirectoryWatcher(
+        path,
+        Long.parseLong(
+            PropertyUtility.getProperty("FileSystemUtility.pollingWatcher.interval.milliseconds")
+        ),
+        eventTypesToWatch
+    );
+    inotifyWatchBudget.onPollingStarted();
+    return new WatchServiceRegistrationInfo(
+        path, pollingDirectoryWatcher, maxDepth, consumer, watchEventFilter, eventTypesToWatch);
+  }
+
+  /**
+   * Moves a directory from its WatchService to polling, releasing its inotify watch.
+   *
+   * @param watchServiceRegistrationInfo Registration of the directory.
+   * @return true if the directory was moved, else false.
+   */
+  private static boolean demoteToPolling(
+      WatchServiceRegistrationInfo watchServiceRegistrationInfo) {
+    Path path = watchServiceRegistrationInfo.getPath();
+    try {
+      WatchServiceRegistrationInfo pollingRegistrationInfo = createPollingRegistration(
+          path,
+          watchServiceRegistrationInfo.getMaxDepth(),
+          watchServiceRegistrationInfo.getEventsToWatch(),
+          watchServiceRegistrationInfo.getConsumer(),
+          watchServiceRegistrationInfo.getWatchEventFilter());
+      pollingRegistrationInfo.setLastEventInstant(
+          watchServiceRegistrationInfo.getLastEventInstant());
+      if (!pathToWatchServiceRegistrationInfoMap.replace(
+          path.toString(), watchServiceRegistrationInfo, pollingRegistrationInfo)) {
+        inotifyWatchBudget.onPollingStopped();
+        return false;
+      }
+      watchServiceRegistrationInfo.getWatchService().close();
+    } catch (IOException e) {
+      logger.warn(e);
+      return false;
+    }
+    inotifyWatchBudget.release();
+    inotifyWatchBudget.onDemotion();
+    logger.info(() ->
+        I18nUtility.getFormattedString("FileSystemUtility.demotedToPollingMessage", path));
+    return true;
+  }
+
+  /**
+   * Moves a directory watched by polling back to a WatchService, if the budget allows it.
+   *
+   * @param pollingRegistrationInfo Registration of the directory.
+   */
+  private static void promoteToWatchService(WatchServiceRegistrationInfo pollingRegistrationInfo) {
+    if (!inotifyWatchBudget.tryAcquire()) {
+      return;
+    }
+    Path path = pollingRegistrationInfo.getPath();
+    WatchServiceRegistrationInfo watchServiceRegistrationInfo = createWatchServiceRegistration(
+        path,
+        pollingRegistrationInfo.getMaxDepth(),
+        pollingRegistrationInfo.getEventsToWatch(),
+        pollingRegistrationInfo.getConsumer(),
+        pollingRegistrationInfo.getWatchEventFilter());
+    if (watchServiceRegistrationInfo == null) {
+      return;
+    }
+    watchServiceRegistrationInfo.setLastEventInstant(pollingRegistrationInfo.getLastEventInstant());
+    if (pathToWatchServiceRegistrationInfoMap.replace(
+        path.toString(), pollingRegistrationInfo, watchServiceRegistrationInfo)) {
+      inotifyWatchBudget.onPollingStopped();
+      inotifyWatchBudget.onPromotion();
+      logger.info(() ->
+          I18nUtility.getFormattedString("FileSystemUtility.promotedToWatchServiceMessage", path));
+    } else {
+      inotifyWatchBudget.release();
+      try {
+        watchServiceRegistrationInfo.getWatchService().close();
+      } catch (IOException e) {
+        logger.warn(e);
+      }
+    }
+  }
+
   /**
    * Registers a specified directory path to a WatchService to keep track of specific type of events
    * within that path.
    *
    * <p>Limitations: - Actual event timestamp is not available - Large maxDepth can cause OOM and
-   * other performance issues.
+   * other performance issues. - Once the inotify watch budget is exhausted, directories are watched
+   * by polling, which delays their events by up to the polling interval.
    *
    * @param path          Directory path to register with the WatchService.
    * @param maxDepth      Maximum children depth from specified path to register and trigger
@@ -578,9 +1419,37 @@ public class FileSystemUtility {
       BiConsumer<Path, WatchEvent<?>> consumer,
       Kind<?>... eventsToWatch)
       throws IOException {
+    registerWatchServiceForNotRegisteredDirectoryPath(
+        path, maxDepth, consumer, WatchEventFilter.ACCEPT_ALL, eventsToWatch);
+  }
+
+  /**
+   * Registers a specified directory path to a WatchService to keep track of specific type of events
+   * within that path, that are accepted by the specified filter. The filter is evaluated on the
+   * name of the entry relative to its directory, before the event is recorded or delivered. Sub
+   * directories matched by an exclude filter for ENTRY_CREATE aren't registered.
+   *
+   * @param path             Directory path to register with the WatchService.
+   * @param maxDepth         Maximum children depth from specified path to register and trigger
+   *                         events.
+   * @param consumer         The callback to invoke when a desired event is triggered.
+   * @param watchEventFilter The filter applied to the events before they are recorded and
+   *                         delivered.
+   * @param eventsToWatch    Type of events to register for trigger.
+   * @throws IOException Thrown if registering a WatchService or walking through a path or modifying
+   *                     it fails.
+   */
+  public static void registerWatchServiceForNotRegisteredDirectoryPath(
+      Path path,
+      int maxDepth,
+      BiConsumer<Path, WatchEvent<?>> consumer,
+      WatchEventFilter watchEventFilter,
+      Kind<?>... eventsToWatch)
+      throws IOException {
     // Input validation
     Objects.requireNonNull(path);
     Objects.requireNonNull(consumer);
+    Objects.requireNonNull(watchEventFilter);
     Objects.requireNonNull(eventsToWatch);
     if (!Files.exists(path)) {
       throw new IllegalArgumentException(
@@ -611,7 +1480,8 @@ public class FileSystemUtility {
 
     // Register all children recursively
     WatchServiceRegisteringFileVisitor watchServiceRegisteringFileVisitor =
-        new WatchServiceRegisteringFileVisitor(tempPath, maxDepth, eventsToWatch, consumer);
+        new WatchServiceRegisteringFileVisitor(
+            tempPath, maxDepth, eventsToWatch, consumer, watchEventFilter);
 
     Files.walkFileTree(
         tempPath,
@@ -640,6 +1510,40 @@ public class FileSystemUtility {
     }
   }
 
+  /**
+   * Registers a specified directory path to a WatchService, delivering the events in batches
+   * instead of one at a time. See WatchEventBatcher for how the events are batched.
+   *
+   * @param path             Directory path to register with the WatchService.
+   * @param maxDepth         Maximum children depth from specified path to register and trigger
+   *                         events.
+   * @param batchConsumer    The callback to invoke with every batch of events.
+   * @param maxBatchSize     Maximum number of events in a batch, non positive for no limit.
+   * @param maxDelay         Maximum time an event is held back, zero to deliver the events drained
+   *                         together from a directory as one batch.
+   * @param watchEventFilter The filter applied to the events before they are recorded and
+   *                         delivered.
+   * @param eventsToWatch    Type of events to register for trigger.
+   * @return The batcher delivering the events, it can be flushed to deliver the pending events.
+   * @throws IOException Thrown if registering a WatchService or walking through a path or modifying
+   *                     it fails.
+   */
+  public static WatchEventBatcher registerBatchWatchServiceForNotRegisteredDirectoryPath(
+      Path path,
+      int maxDepth,
+      Consumer<List<WatchEventBatchEntry>> batchConsumer,
+      int maxBatchSize,
+      Duration maxDelay,
+      WatchEventFilter watchEventFilter,
+      Kind<?>... eventsToWatch)
+      throws IOException {
+    WatchEventBatcher watchEventBatcher =
+        new WatchEventBatcher(batchConsumer, maxBatchSize, maxDelay);
+    registerWatchServiceForNotRegisteredDirectoryPath(
+        path, maxDepth, watchEventBatcher, watchEventFilter, eventsToWatch);
+    return watchEventBatcher;
+  }
+
   /**
    * Remove the WatchService registered for the specified path.
    *
@@ -669,19 +1573,290 @@ public class FileSystemUtility {
     for (String registeredPath : registeredPaths) {
       Path registeredPathAbsolute = Paths.get(registeredPath).toAbsolutePath();
       if (isSubPath(path, registeredPathAbsolute)) {
-        logger.debug(() ->
-            I18nUtility.getFormattedString(
-                "FileSystemUtility.deRegisteringPathMessage", registeredPath));
-        // Remove watch service
-        WatchService watchServiceToRemove =
-            pathToWatchServiceRegistrationInfoMap.remove(registeredPath).getWatchService();
+        deRegisterWatchService(registeredPath);
+      }
+    }
+  }
+
+  /**
+   * Removes the WatchService registered for a single directory, leaving the registrations of its
+   * subdirectories untouched.
+   *
+   * @param registeredPath Absolute path of the registered directory.
+   * @throws IOException When there is an issue closing the WatchService.
+   */
+  private static void deRegisterWatchService(String registeredPath) throws IOException {
+    logger.debug(() ->
+        I18nUtility.getFormattedString(
+            "FileSystemUtility.deRegisteringPathMessage", registeredPath));
+    // Remove watch service
+    WatchServiceRegistrationInfo watchServiceRegistrationInfoToRemove =
+        pathToWatchServiceRegistrationInfoMap.remove(registeredPath);
+    if (watchServiceRegistrationInfoToRemove == null) {
+      return;
+    }
+
+    if (watchServiceRegistrationInfoToRemove.isPolled()) {
+      inotifyWatchBudget.onPollingStopped();
+    } else {
+      // Close watch service
+      watchServiceRegistrationInfoToRemove.getWatchService().close();
+      inotifyWatchBudget.release();
+    }
+  }
+
+  /**
+   * Follows a growing file (Like tail -F) and delivers the bytes appended to it to the specified
+   * FileTailFollower. The parent directory of the file is registered with a WatchService if it
+   * hasn't been registered already, and the bytes appended to the file are read whenever an event
+   * is generated for it.
+   *
+   * <p>A parent directory registered by this method is deregistered once the last file followed in
+   * it is unfollowed using unfollowFile().
+   *
+   * <p>Limitations: - If the parent directory has already been registered without ENTRY_MODIFY,
+   * appended bytes are only read when the FileTailFollower is polled explicitly.
+   *
+   * @param file             The file to follow.
+   * @param fileTailFollower The follower that reads and delivers the appended bytes.
+   * @param fromEnd          If true, only the bytes appended after this call are delivered, else
+   *                         the existing contents of the file are delivered too.
+   * @throws IOException When there is an issue opening the file or registering its parent
+   *                     directory.
+   */
+  public static synchronized void followFile(
+      Path file,
+      FileTailFollower fileTailFollower,
+      boolean fromEnd
+  ) throws IOException {
+    // Input validation
+    Objects.requireNonNull(file);
+    Objects.requireNonNull(fileTailFollower);
+
+    Path absoluteFile = file.toAbsolutePath();
+    String absoluteFileString = absoluteFile.toString();
+    if (pathToFileTailFollowerMap.containsKey(absoluteFileString)) {
+      unfollowFile(absoluteFile);
+    }
+    boolean alreadyFollowing = fileTailFollower.isFollowing(absoluteFile);
+    fileTailFollower.follow(absoluteFile, fromEnd);
+
+    // Register the parent directory before the file is looked up by the events, so that a failed
+    // registration doesn't leave the file half followed.
+    String parentPathString = absoluteFile.getParent().toString();
+    try {
+      if (followedDirectoryToFollowedFilesCountMap.containsKey(parentPathString)) {
+        followedDirectoryToFollowedFilesCountMap.merge(parentPathString, 1, Integer::sum);
+      } else if (!pathToWatchServiceRegistrationInfoMap.containsKey(parentPathString)) {
+        registerWatchServiceForNotRegisteredDirectoryPath(
+            absoluteFile.getParent(),
+            0,
+            (path, watchEvent) -> {},
+            StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_DELETE,
+            StandardWatchEventKinds.ENTRY_MODIFY
+        );
+        followedDirectoryToFollowedFilesCountMap.put(parentPathString, 1);
+      }
+    } catch (IOException | RuntimeException e) {
+      if (!alreadyFollowing) {
+        fileTailFollower.unfollow(absoluteFile);
+      }
+      throw e;
+    }
+    pathToFileTailFollowerMap.put(absoluteFileString, fileTailFollower);
+
+    // Deliver the existing contents without waiting for an event.
+    fileTailFollower.poll(absoluteFile);
+  }
+
+  /**
+   * Stops following a file that was followed using followFile().
+   *
+   * @param file The file to stop following.
+   * @throws IOException When there is an issue closing the file.
+   */
+  public static synchronized void unfollowFile(Path file) throws IOException {
+    // Input validation
+    Objects.requireNonNull(file);
+
+    Path absoluteFile = file.toAbsolutePath();
+    FileTailFollower fileTailFollower = pathToFileTailFollowerMap.remove(absoluteFile.toString());
+    if (fileTailFollower == null) {
+      return;
+    }
+    fileTailFollower.unfollow(absoluteFile);
+
+    // Directories registered by the caller are left registered.
+    String parentPathString = absoluteFile.getParent().toString();
+    if (followedDirectoryToFollowedFilesCountMap.containsKey(parentPathString)
+        && followedDirectoryToFollowedFilesCountMap.computeIfPresent(
+            parentPathString,
+            (directory, count) -> (count == 1) ? null : count - 1
+        ) == null) {
+      deRegisterWatchService(parentPathString);
+    }
+  }
+
+  /**
+   * Sets the journal in which the watch events generated from now on are persisted. The directory
+   * trees whose missed events are replayed from the journal are checkpointed periodically and when
+   * the JVM shuts down. After every periodic checkpoint, the sealed segments of the journal are
+   * compacted once their count reaches the configured threshold, so that the journal doesn't grow
+   * without bound.
+   *
+   * @param journal Journal to persist the watch events in, null to stop persisting them.
+   */
+  public static synchronized void setWatchEventJournal(WatchEventJournal journal) {
+    watchEventJournal = journal;
+    if (journal != null && journalCheckpointExecutorService == null) {
+      long checkpointIntervalInSeconds = Long.parseLong(
+          PropertyUtility.getProperty("FileSystemUtility.watchEventJournal.checkpoint.seconds")
+      );
+      journalCheckpointExecutorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "FileSystemUtility-journalCheckpoint");
+        thread.setDaemon(true);
+        return thread;
+      });
+      journalCheckpointExecutorService.scheduleWithFixedDelay(
+          FileSystemUtility::maintainWatchEventJournal,
+          checkpointIntervalInSeconds,
+          checkpointIntervalInSeconds,
+          TimeUnit.SECONDS
+      );
+      Runtime.getRuntime().addShutdownHook(
+          new Thread(
+              FileSystemUtility::checkpointJournaledRootPaths,
+              "FileSystemUtility-journalCheckpointOnShutdown"
+          )
+      );
+    }
+  }
+
+  /**
+   * Gets the journal in which the watch events are persisted.
+   *
+   * @return The journal in which the watch events are persisted, null if they aren't persisted.
+   */
+  public static WatchEventJournal getWatchEventJournal() {
+    return watchEventJournal;
+  }
+
+  /**
+   * Generates the watch events missed while the process wasn't running, by diffing the directory
+   * tree against the last checkpoint taken in the watch event journal. The generated events are
+   * appended to the journal, added to the triggered events map and delivered to the consumer in
+   * the same way as the events generated by a WatchService.
+   *
+   * @param path     Root of the directory tree to recover the missed events of.
+   * @param consumer The callback to invoke with every missed event.
+   * @return The number of missed events.
+   * @throws IOException When there is an issue walking the tree or accessing the journal.
+   */
+  public static int replayMissedWatchEvents(Path path, BiConsumer<Path, WatchEvent<?>> consumer)
+      throws IOException {
+    // Input validation
+    Objects.requireNonNull(path);
+    Objects.requireNonNull(consumer);
+    WatchEventJournal journal = watchEventJournal;
+    if (journal == null) {
+      throw new IllegalStateException(
+          I18nUtility.getString("FileSystemUtility.watchEventJournalNotSet")
+      );
+    }
 
-        // Close watch service
-        watchServiceToRemove.close();
+    List<WatchEventJournalRecord> missedEvents = journal.recoverMissedEvents(path);
+    journaledRootPaths.add(path.toAbsolutePath());
+    for (WatchEventJournalRecord missedEvent : missedEvents) {
+      String changePathString = missedEvent.getPath().toString();
+      pathToTriggeredEventMap.putIfAbsent(changePathString, new LinkedBlockingQueue<>());
+      pathToTriggeredEventMap.get(changePathString).add(missedEvent.kind());
+      consumer.accept(missedEvent.getPath(), missedEvent);
+    }
+    if (consumer instanceof WatchEventBatcher) {
+      ((WatchEventBatcher) consumer).flush();
+    }
+    return missedEvents.size();
+  }
+
+  /**
+   * Checkpoints the directory trees whose missed events have been replayed from the watch event
+   * journal, so that the events journaled until now aren't generated again on the next recovery.
+   *
+   * @throws IOException When there is an issue walking a tree or writing a checkpoint.
+   */
+  public static void checkpointWatchEventJournal() throws IOException {
+    WatchEventJournal journal = watchEventJournal;
+    if (journal == null) {
+      throw new IllegalStateException(
+          I18nUtility.getString("FileSystemUtility.watchEventJournalNotSet")
+      );
+    }
+    for (Path rootPath : journaledRootPaths) {
+      if (Files.isDirectory(rootPath)) {
+        journal.checkpoint(rootPath);
       }
     }
   }
 
+  /**
+   * Checkpoints the journaled directory trees in the background, logging the failures.
+   */
+  private static void checkpointJournaledRootPaths() {
+    if (watchEventJournal == null) {
+      return;
+    }
+    try {
+      checkpointWatchEventJournal();
+    } catch (IOException | RuntimeException e) {
+      logger.warn(e);
+    }
+  }
+
+  /**
+   * Checkpoints the journaled directory trees and compacts the sealed segments of the journal once
+   * their count reaches the configured threshold, logging the failures.
+   */
+  static void maintainWatchEventJournal() {
+    checkpointJournaledRootPaths();
+    WatchEventJournal journal = watchEventJournal;
+    if (journal == null) {
+      return;
+    }
+    int sealedSegmentsThreshold = Integer.parseInt(
+        PropertyUtility.getProperty("FileSystemUtility.watchEventJournal.compaction.sealedSegments")
+    );
+    try {
+      // The last segment is the active one, which is never compacted.
+      if (journal.getSegmentCount() - 1 >= sealedSegmentsThreshold) {
+        journal.compact();
+      }
+    } catch (IOException | RuntimeException e) {
+      logger.warn(e);
+    }
+  }
+
+  /**
+   * Gets the budget of the inotify watches and instances used by the registered WatchServices.
+   * Its metrics expose the limits, the usage and the number of directories watched by polling.
+   *
+   * @return The inotify watch budget.
+   */
+  public static InotifyWatchBudget getInotifyWatchBudget() {
+    return inotifyWatchBudget;
+  }
+
+  /**
+   * Sets the budget of the inotify watches and instances used by the registered WatchServices. It
+   * has to be set before any directory is registered, since the usage of the existing registrations
+   * isn't carried over.
+   *
+   * @param budget The inotify watch budget.
+   */
+  public static void setInotifyWatchBudget(InotifyWatchBudget budget) {
+    inotifyWatchBudget = Objects.requireNonNull(budget);
+  }
+
   /**
    * Clears the generated triggered events map.
    */
@@ -0,0 +1,16 @@
+package org.padaiyal.utilities.filesystem.abstractions;
+
+/**
+ * Formats of the archives created by TreeArchiver.
+ */
+public enum ArchiveFormat {
+  /**
+   * ZIP archive with DEFLATE compressed files. Limited to 65535 entries and 4 GiB, as ZIP64 isn't
+   * supported.
+   */
+  ZIP,
+  /**
+   * POSIX ustar archive compressed with gzip, as a series of concatenated gzip members.
+   */
+  TAR_GZ
+}
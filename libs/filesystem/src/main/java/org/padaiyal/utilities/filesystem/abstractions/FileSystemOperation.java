@@ -0,0 +1,22 @@
+package org.padaiyal.utilities.filesystem.abstractions;
+
+import java.io.IOException;
+
+/**
+ * An operation on the file system run asynchronously by FileSystemUtility. Implementations are
+ * expected to check the progress for cancellation and report every entry they process to it.
+ *
+ * @param <T> Type of the result of the operation.
+ */
+@FunctionalInterface
+public interface FileSystemOperation<T> {
+
+  /**
+   * Runs the operation.
+   *
+   * @param progress Progress of the operation.
+   * @return The result of the operation.
+   * @throws IOException When there is an issue accessing a file or directory.
+   */
+  T run(FileSystemOperationProgress progress) throws IOException;
+}
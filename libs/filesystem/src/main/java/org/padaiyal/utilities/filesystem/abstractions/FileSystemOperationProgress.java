@@ -0,0 +1,80 @@
+package org.padaiyal.utilities.filesystem.abstractions;
+
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Tracks the progress of an asynchronous FileSystemUtility operation, and whether it has been
+ * cancelled. Operations check for cancellation before every entry they process, so that a
+ * cancelled operation stops walking the tree instead of running to completion in the background.
+ */
+public class FileSystemOperationProgress {
+
+  /**
+   * Checks if the operation has been cancelled.
+   */
+  private final BooleanSupplier cancellationChecker;
+
+  /**
+   * Listener to notify of every processed entry.
+   */
+  private final FileSystemProgressListener progressListener;
+
+  /**
+   * Number of entries processed so far.
+   */
+  private long processedEntriesCount = 0;
+
+  /**
+   * Creates the progress of an operation.
+   *
+   * @param cancellationChecker Checks if the operation has been cancelled.
+   * @param progressListener    Listener to notify of every processed entry.
+   */
+  public FileSystemOperationProgress(
+      BooleanSupplier cancellationChecker,
+      FileSystemProgressListener progressListener
+  ) {
+    this.cancellationChecker = Objects.requireNonNull(cancellationChecker);
+    this.progressListener = Objects.requireNonNull(progressListener);
+  }
+
+  /**
+   * Checks if the operation has been cancelled.
+   *
+   * @return true if the operation has been cancelled, else false.
+   */
+  public boolean isCancelled() {
+    return cancellationChecker.getAsBoolean();
+  }
+
+  /**
+   * Throws a CancellationException if the operation has been cancelled.
+   */
+  public void throwIfCancelled() {
+    if (isCancelled()) {
+      throw new CancellationException();
+    }
+  }
+
+  /**
+   * Records that an entry has been processed and notifies the listener.
+   *
+   * @param path The processed entry.
+   */
+  public void onProcessed(Path path) {
+    processedEntriesCount++;
+    progressListener.onProgress(path, processedEntriesCount);
+  }
+
+  /**
+   * Gets the number of entries processed so far.
+   *
+   * @return The number of processed entries.
+   */
+  public long getProcessedEntriesCount() {
+    return processedEntriesCount;
+  }
+}
@@ -0,0 +1,25 @@
+package org.padaiyal.utilities.filesystem.abstractions;
+
+import java.nio.file.Path;
+
+/**
+ * Callback notified of the progress of an asynchronous FileSystemUtility operation. It's invoked
+ * on the thread running the operation, once for every entry processed, so it has to be cheap.
+ */
+@FunctionalInterface
+public interface FileSystemProgressListener {
+
+  /**
+   * Listener ignoring the progress.
+   */
+  FileSystemProgressListener NONE = (path, processedEntriesCount) -> {
+  };
+
+  /**
+   * Invoked after an entry has been processed.
+   *
+   * @param path                  The processed entry.
+   * @param processedEntriesCount Number of entries processed so far, including this one.
+   */
+  void onProgress(Path path, long processedEntriesCount);
+}
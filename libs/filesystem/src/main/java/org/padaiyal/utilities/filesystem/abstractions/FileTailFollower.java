@@ -0,0 +1,510 @@
+package org.padaiyal.utilities.filesystem.abstractions;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Follows a set of growing files (Like tail -F) and streams only the bytes appended to them since
+ * the previous read. The read position of each file is tracked on its own FileChannel, so the cost
+ * of a read is proportional to the number of bytes appended and not to the size of the file.
+ * Truncation (File size lesser than the read position) and rotation (File key/inode change) are
+ * detected and the file is read from the start in both cases.
+ */
+public class FileTailFollower implements Closeable {
+
+  /**
+   * Logger object used to log information and errors.
+   */
+  private static final Logger logger = LogManager.getLogger(FileTailFollower.class);
+
+  /**
+   * Line feed character used to split the decoded characters into lines.
+   */
+  private static final char LINE_FEED = '\n';
+
+  /**
+   * Carriage return character that is stripped from the end of a line.
+   */
+  private static final char CARRIAGE_RETURN = '\r';
+
+  /**
+   * Maximum number of bytes of an incomplete character carried over from one read to the next.
+   */
+  private static final int MAX_UNDECODED_BYTES = 16;
+
+  /**
+   * Maps the absolute path of a followed file to its tail state.
+   */
+  private final Map<Path, TailState> pathToTailStateMap = new HashMap<>();
+
+  /**
+   * Direct buffer reused for every read, irrespective of the file being read.
+   */
+  private final ByteBuffer readBuffer;
+
+  /**
+   * The callback to invoke with the appended bytes. Null if lines are to be delivered.
+   */
+  private final BiConsumer<Path, ByteBuffer> chunkConsumer;
+
+  /**
+   * The callback to invoke with every appended line. Null if chunks are to be delivered.
+   */
+  private final BiConsumer<Path, String> lineConsumer;
+
+  /**
+   * Charset used to decode the lines.
+   */
+  private final Charset charset;
+
+  /**
+   * Buffer reused to hold the characters decoded from the read buffer. Null if chunks are to be
+   * delivered.
+   */
+  private final CharBuffer decodedChars;
+
+  static {
+    I18nUtility.addResourceBundle(
+        FileTailFollower.class,
+        FileTailFollower.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Creates a follower that delivers the appended bytes as chunks. The ByteBuffer passed to the
+   * consumer is a read only view of a reused buffer and is only valid for the duration of the
+   * callback.
+   *
+   * @param bufferSizeInBytes Size of the direct buffer used to read the appended bytes.
+   * @param chunkConsumer     The callback to invoke with the path and the appended bytes.
+   */
+  public FileTailFollower(int bufferSizeInBytes, BiConsumer<Path, ByteBuffer> chunkConsumer) {
+    this(bufferSizeInBytes, Objects.requireNonNull(chunkConsumer), null, null);
+  }
+
+  /**
+   * Creates a follower that delivers the appended bytes as lines. The bytes are decoded before
+   * being split on line feeds, so multi-byte charsets like UTF-16 are supported. Characters after
+   * the last line feed are held back until the line is completed by a later append.
+   *
+   * @param bufferSizeInBytes Size of the direct buffer used to read the appended bytes.
+   * @param charset           Charset used to decode the lines.
+   * @param lineConsumer      The callback to invoke with the path and every appended line.
+   */
+  public FileTailFollower(
+      int bufferSizeInBytes,
+      Charset charset,
+      BiConsumer<Path, String> lineConsumer
+  ) {
+    this(
+        bufferSizeInBytes,
+        null,
+        Objects.requireNonNull(charset),
+        Objects.requireNonNull(lineConsumer)
+    );
+  }
+
+  /**
+   * Creates a follower.
+   *
+   * @param bufferSizeInBytes Size of the direct buffer used to read the appended bytes.
+   * @param chunkConsumer     The callback to invoke with the appended bytes.
+   * @param charset           Charset used to decode the lines.
+   * @param lineConsumer      The callback to invoke with every appended line.
+   */
+  private FileTailFollower(
+      int bufferSizeInBytes,
+      BiConsumer<Path, ByteBuffer> chunkConsumer,
+      Charset charset,
+      BiConsumer<Path, String> lineConsumer
+  ) {
+    if (bufferSizeInBytes <= 0) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "FileTailFollower.error.invalidBufferSize",
+              bufferSizeInBytes
+          )
+      );
+    }
+    this.chunkConsumer = chunkConsumer;
+    this.charset = charset;
+    this.lineConsumer = lineConsumer;
+    if (lineConsumer == null) {
+      this.readBuffer = ByteBuffer.allocateDirect(bufferSizeInBytes);
+      this.decodedChars = null;
+    } else {
+      // Room for the bytes of an incomplete character left over from the previous read.
+      this.readBuffer = ByteBuffer.allocateDirect(bufferSizeInBytes + MAX_UNDECODED_BYTES);
+      this.decodedChars = CharBuffer.allocate(readBuffer.capacity());
+    }
+  }
+
+  /**
+   * Starts following the specified file.
+   *
+   * @param file     The file to follow.
+   * @param fromEnd  If true, only the bytes appended after this call are delivered, else the
+   *                 existing contents of the file are delivered on the first read.
+   * @throws IOException When there is an issue opening the file.
+   */
+  public synchronized void follow(Path file, boolean fromEnd) throws IOException {
+    Objects.requireNonNull(file);
+    Path absoluteFile = file.toAbsolutePath();
+    if (!Files.isRegularFile(absoluteFile)) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString("FileTailFollower.error.notARegularFile", absoluteFile)
+      );
+    }
+    if (pathToTailStateMap.containsKey(absoluteFile)) {
+      return;
+    }
+    TailState tailState = new TailState(charset);
+    tailState.open(absoluteFile);
+    if (fromEnd) {
+      tailState.position = tailState.channel.size();
+    }
+    pathToTailStateMap.put(absoluteFile, tailState);
+  }
+
+  /**
+   * Stops following the specified file.
+   *
+   * @param file The file to stop following.
+   * @throws IOException When there is an issue closing the file.
+   */
+  public synchronized void unfollow(Path file) throws IOException {
+    Objects.requireNonNull(file);
+    TailState tailState = pathToTailStateMap.remove(file.toAbsolutePath());
+    if (tailState != null) {
+      tailState.close();
+    }
+  }
+
+  /**
+   * Gets the files being followed.
+   *
+   * @return The absolute paths of the files being followed.
+   */
+  public synchronized Set<Path> getFollowedFiles() {
+    return Set.copyOf(pathToTailStateMap.keySet());
+  }
+
+  /**
+   * Checks if the specified file is being followed.
+   *
+   * @param file The file to check.
+   * @return true if the file is being followed, else false.
+   */
+  public synchronized boolean isFollowing(Path file) {
+    return pathToTailStateMap.containsKey(file.toAbsolutePath());
+  }
+
+  /**
+   * Gets the position up to which the specified file has been read.
+   *
+   * @param file The followed file.
+   * @return The read position, -1 if the file is not being followed.
+   */
+  public synchronized long getPosition(Path file) {
+    TailState tailState = pathToTailStateMap.get(file.toAbsolutePath());
+    return (tailState == null) ? -1 : tailState.position;
+  }
+
+  /**
+   * Reads the bytes appended to all the followed files.
+   *
+   * @throws IOException When there is an issue reading a file.
+   */
+  public synchronized void pollAll() throws IOException {
+    for (Path file : pathToTailStateMap.keySet()) {
+      poll(file);
+    }
+  }
+
+  /**
+   * Reads the bytes appended to the specified file since the previous read and delivers them to the
+   * consumer. If the file has been rotated, the remaining bytes of the previous file are delivered
+   * before the new file is read from the start. If the file has been truncated, it is read from the
+   * start.
+   *
+   * @param file The followed file to read.
+   * @return The number of bytes read, 0 if the file is not being followed.
+   * @throws IOException When there is an issue reading the file.
+   */
+  public synchronized long poll(Path file) throws IOException {
+    Path absoluteFile = file.toAbsolutePath();
+    TailState tailState = pathToTailStateMap.get(absoluteFile);
+    if (tailState == null) {
+      return 0;
+    }
+
+    BasicFileAttributes attributes;
+    try {
+      attributes = Files.readAttributes(absoluteFile, BasicFileAttributes.class);
+    } catch (NoSuchFileException e) {
+      // Rotated away and not yet re-created, drain what was appended to the old file.
+      return readAppendedBytes(absoluteFile, tailState);
+    }
+
+    long bytesRead = 0;
+    if (!Objects.equals(getFileIdentity(attributes), tailState.fileIdentity)) {
+      logger.debug(() -> I18nUtility.getFormattedString(
+          "FileTailFollower.debug.rotationDetected",
+          absoluteFile
+      ));
+      bytesRead += readAppendedBytes(absoluteFile, tailState);
+      flushPartialLine(absoluteFile, tailState);
+      tailState.close();
+      tailState.open(absoluteFile);
+    } else if (attributes.size() < tailState.position) {
+      logger.debug(() -> I18nUtility.getFormattedString(
+          "FileTailFollower.debug.truncationDetected",
+          absoluteFile,
+          attributes.size(),
+          tailState.position
+      ));
+      tailState.position = 0;
+      tailState.resetDecoding();
+    }
+    bytesRead += readAppendedBytes(absoluteFile, tailState);
+    return bytesRead;
+  }
+
+  /**
+   * Reads the bytes from the read position to the end of the file held by the tail state.
+   *
+   * @param file      The followed file.
+   * @param tailState The tail state of the followed file.
+   * @return The number of bytes read.
+   * @throws IOException When there is an issue reading the file.
+   */
+  private long readAppendedBytes(Path file, TailState tailState) throws IOException {
+    long bytesRead = 0;
+    int readCount;
+    prepareReadBuffer(tailState);
+    while ((readCount = tailState.channel.read(readBuffer, tailState.position)) > 0) {
+      tailState.position += readCount;
+      bytesRead += readCount;
+      readBuffer.flip();
+      if (chunkConsumer != null) {
+        chunkConsumer.accept(file, readBuffer.asReadOnlyBuffer());
+      } else {
+        deliverLines(file, tailState);
+      }
+      prepareReadBuffer(tailState);
+    }
+    return bytesRead;
+  }
+
+  /**
+   * Clears the read buffer and, when delivering lines, copies the bytes of the incomplete character
+   * left over from the previous read to its start.
+   *
+   * @param tailState The tail state of the followed file.
+   */
+  private void prepareReadBuffer(TailState tailState) {
+    readBuffer.clear();
+    if (lineConsumer != null) {
+      readBuffer.put(tailState.undecodedBytes.duplicate());
+    }
+  }
+
+  /**
+   * Decodes the bytes in the read buffer, splits the characters into lines and delivers the
+   * complete ones. The bytes of a trailing incomplete character are kept for the next read.
+   *
+   * @param file      The followed file.
+   * @param tailState The tail state of the followed file.
+   */
+  private void deliverLines(Path file, TailState tailState) {
+    CoderResult coderResult;
+    do {
+      decodedChars.clear();
+      coderResult = tailState.decoder.decode(readBuffer, decodedChars, false);
+      decodedChars.flip();
+      while (decodedChars.hasRemaining()) {
+        char currentChar = decodedChars.get();
+        if (currentChar == LINE_FEED) {
+          StringBuilder partialLine = tailState.partialLine;
+          int lineLength = partialLine.length();
+          if (lineLength > 0 && partialLine.charAt(lineLength - 1) == CARRIAGE_RETURN) {
+            lineLength--;
+          }
+          lineConsumer.accept(file, partialLine.substring(0, lineLength));
+          partialLine.setLength(0);
+        } else {
+          tailState.partialLine.append(currentChar);
+        }
+      }
+    } while (coderResult.isOverflow());
+    tailState.undecodedBytes.clear();
+    tailState.undecodedBytes.put(readBuffer);
+    tailState.undecodedBytes.flip();
+  }
+
+  /**
+   * Delivers the incomplete last line of a file that is no longer going to be appended to. The
+   * bytes of a trailing incomplete character are decoded as a replacement character.
+   *
+   * @param file      The followed file.
+   * @param tailState The tail state of the followed file.
+   */
+  private void flushPartialLine(Path file, TailState tailState) {
+    if (lineConsumer == null) {
+      return;
+    }
+    decodedChars.clear();
+    tailState.decoder.decode(tailState.undecodedBytes, decodedChars, true);
+    tailState.decoder.flush(decodedChars);
+    decodedChars.flip();
+    tailState.partialLine.append(decodedChars);
+    if (tailState.partialLine.length() > 0) {
+      lineConsumer.accept(file, tailState.partialLine.toString());
+    }
+    tailState.resetDecoding();
+  }
+
+  /**
+   * Stops following all the files and closes their channels.
+   *
+   * @throws IOException When there is an issue closing a file.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    IOException closeException = null;
+    for (TailState tailState : pathToTailStateMap.values()) {
+      try {
+        tailState.close();
+      } catch (IOException e) {
+        closeException = e;
+      }
+    }
+    pathToTailStateMap.clear();
+    if (closeException != null) {
+      throw closeException;
+    }
+  }
+
+  /**
+   * Gets an object that identifies the file irrespective of its path. The file key (Device and
+   * inode on POSIX systems) is used when available, else the creation time is used.
+   *
+   * @param attributes Attributes of the file.
+   * @return An object identifying the file.
+   */
+  private static Object getFileIdentity(BasicFileAttributes attributes) {
+    Object fileKey = attributes.fileKey();
+    return (fileKey != null) ? fileKey : attributes.creationTime();
+  }
+
+  /**
+   * Read state of a followed file.
+   */
+  private static class TailState {
+
+    /**
+     * Channel used to read the file.
+     */
+    private FileChannel channel;
+
+    /**
+     * Identity of the file opened by the channel.
+     */
+    private Object fileIdentity;
+
+    /**
+     * Position up to which the file has been read.
+     */
+    private long position;
+
+    /**
+     * Decoder of the lines of the file. Null if chunks are to be delivered.
+     */
+    private final CharsetDecoder decoder;
+
+    /**
+     * Bytes of an incomplete character at the end of the previous read, in read mode. Null if
+     * chunks are to be delivered.
+     */
+    private final ByteBuffer undecodedBytes;
+
+    /**
+     * Characters of the last line that hasn't been terminated yet.
+     */
+    private final StringBuilder partialLine = new StringBuilder();
+
+    /**
+     * Creates the read state of a followed file.
+     *
+     * @param charset Charset used to decode the lines, null if chunks are to be delivered.
+     */
+    private TailState(Charset charset) {
+      if (charset == null) {
+        decoder = null;
+        undecodedBytes = null;
+      } else {
+        decoder = charset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        undecodedBytes = ByteBuffer.allocate(MAX_UNDECODED_BYTES).flip();
+      }
+    }
+
+    /**
+     * Opens the file and resets the read position.
+     *
+     * @param file The file to open.
+     * @throws IOException When there is an issue opening the file.
+     */
+    private void open(Path file) throws IOException {
+      channel = FileChannel.open(file, StandardOpenOption.READ);
+      fileIdentity = getFileIdentity(
+          Files.readAttributes(file, BasicFileAttributes.class)
+      );
+      position = 0;
+      resetDecoding();
+    }
+
+    /**
+     * Discards the partially decoded line, to decode the file from the read position afresh.
+     */
+    private void resetDecoding() {
+      partialLine.setLength(0);
+      if (decoder != null) {
+        decoder.reset();
+        undecodedBytes.clear().flip();
+      }
+    }
+
+    /**
+     * Closes the channel.
+     *
+     * @throws IOException When there is an issue closing the file.
+     */
+    private void close() throws IOException {
+      channel.close();
+    }
+  }
+}
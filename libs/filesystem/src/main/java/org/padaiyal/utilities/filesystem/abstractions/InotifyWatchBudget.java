@@ -0,0 +1,300 @@
+package org.padaiyal.utilities.filesystem.abstractions;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Keeps track of the inotify watches and instances used by the registered WatchServices, against
+ * the per user limits configured in /proc/sys/fs/inotify. Every directory registered with its own
+ * WatchService consumes one inotify instance and one inotify watch. Once the usage reaches the
+ * threshold, directories are watched by polling instead, and cold, deep directories give up their
+ * watches to shallower ones. On platforms without inotify the limits are treated as unlimited.
+ */
+public class InotifyWatchBudget {
+
+  /**
+   * Logger object used to log information and errors.
+   */
+  private static final Logger logger = LogManager.getLogger(InotifyWatchBudget.class);
+
+  /**
+   * Directory in which the inotify limits are exposed on Linux.
+   */
+  public static final Path DEFAULT_INOTIFY_LIMITS_PATH = Path.of("/proc/sys/fs/inotify");
+
+  /**
+   * Maximum number of inotify watches per user.
+   */
+  private final long maxWatches;
+
+  /**
+   * Maximum number of inotify instances per user.
+   */
+  private final long maxInstances;
+
+  /**
+   * Fraction of the limits that can be used before directories are watched by polling.
+   */
+  private final double thresholdRatio;
+
+  /**
+   * Duration without events after which a directory is considered cold.
+   */
+  private final Duration coldThreshold;
+
+  /**
+   * Number of directories currently watched with a WatchService.
+   */
+  private long watchesInUse = 0;
+
+  /**
+   * Number of directories currently watched by polling.
+   */
+  private long polledDirectoriesCount = 0;
+
+  /**
+   * Number of directories moved from a WatchService to polling.
+   */
+  private long demotionsCount = 0;
+
+  /**
+   * Number of directories moved from polling to a WatchService.
+   */
+  private long promotionsCount = 0;
+
+  /**
+   * Number of WatchService registrations that failed.
+   */
+  private long registrationFailuresCount = 0;
+
+  static {
+    I18nUtility.addResourceBundle(
+        InotifyWatchBudget.class,
+        InotifyWatchBudget.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Creates a budget from the limits exposed in the specified directory.
+   *
+   * @param inotifyLimitsPath Directory containing the max_user_watches and max_user_instances
+   *                          files.
+   * @param thresholdRatio    Fraction of the limits that can be used before directories are
+   *                          watched by polling.
+   * @param coldThreshold     Duration without events after which a directory is considered cold.
+   */
+  public InotifyWatchBudget(Path inotifyLimitsPath, double thresholdRatio, Duration coldThreshold) {
+    Objects.requireNonNull(inotifyLimitsPath);
+    Objects.requireNonNull(coldThreshold);
+    if (!(thresholdRatio > 0 && thresholdRatio <= 1)) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "InotifyWatchBudget.error.invalidThresholdRatio",
+              thresholdRatio
+          )
+      );
+    }
+    this.maxWatches = readLimit(inotifyLimitsPath.resolve("max_user_watches"));
+    this.maxInstances = readLimit(inotifyLimitsPath.resolve("max_user_instances"));
+    this.thresholdRatio = thresholdRatio;
+    this.coldThreshold = coldThreshold;
+    logger.info(() -> I18nUtility.getFormattedString(
+        "InotifyWatchBudget.info.limits",
+        maxWatches,
+        maxInstances,
+        thresholdRatio
+    ));
+  }
+
+  /**
+   * Reserves a watch and an instance for a directory if the usage is below the threshold.
+   *
+   * @return true if the directory can be watched with a WatchService, else false.
+   */
+  public synchronized boolean tryAcquire() {
+    if (watchesInUse + 1 > maxWatches * thresholdRatio
+        || watchesInUse + 1 > maxInstances * thresholdRatio) {
+      return false;
+    }
+    watchesInUse++;
+    return true;
+  }
+
+  /**
+   * Releases the watch and instance reserved for a directory.
+   */
+  public synchronized void release() {
+    watchesInUse = Math.max(0, watchesInUse - 1);
+  }
+
+  /**
+   * Records that a directory is being watched by polling.
+   */
+  public synchronized void onPollingStarted() {
+    polledDirectoriesCount++;
+  }
+
+  /**
+   * Records that a directory is no longer watched by polling.
+   */
+  public synchronized void onPollingStopped() {
+    polledDirectoriesCount = Math.max(0, polledDirectoriesCount - 1);
+  }
+
+  /**
+   * Records that a directory was moved from a WatchService to polling.
+   */
+  public synchronized void onDemotion() {
+    demotionsCount++;
+  }
+
+  /**
+   * Records that a directory was moved from polling to a WatchService.
+   */
+  public synchronized void onPromotion() {
+    promotionsCount++;
+  }
+
+  /**
+   * Records a failed WatchService registration, typically due to a limit being hit by other
+   * processes of the same user.
+   */
+  public synchronized void onRegistrationFailure() {
+    registrationFailuresCount++;
+  }
+
+  /**
+   * Chooses a directory whose WatchService can be given up to watch the specified directory.
+   * Only directories without events for longer than the cold threshold are considered, and among
+   * those the deepest one, then the one inactive the longest, is chosen. Shallow or recently active
+   * directories thereby keep their WatchServices.
+   *
+   * @param registrationInfos Registrations of the directories currently watched.
+   * @param directoryToWatch  Directory that needs a WatchService.
+   * @return The registration to move to polling, null if none is colder and deeper than the
+   *         directory to watch.
+   */
+  public WatchServiceRegistrationInfo chooseRegistrationToDemote(
+      Collection<WatchServiceRegistrationInfo> registrationInfos,
+      Path directoryToWatch
+  ) {
+    Instant coldBefore = Instant.now().minus(coldThreshold);
+    int depthToWatch = directoryToWatch.toAbsolutePath().getNameCount();
+    return registrationInfos.stream()
+        .filter(registrationInfo -> !registrationInfo.isPolled())
+        .filter(registrationInfo -> registrationInfo.getLastEventInstant().isBefore(coldBefore))
+        .filter(registrationInfo -> registrationInfo.getPath().getNameCount() > depthToWatch)
+        .max(
+            Comparator.comparingInt(
+                (WatchServiceRegistrationInfo registrationInfo) ->
+                    registrationInfo.getPath().getNameCount()
+            ).thenComparing(
+                WatchServiceRegistrationInfo::getLastEventInstant,
+                Comparator.reverseOrder()
+            )
+        )
+        .orElse(null);
+  }
+
+  /**
+   * Gets the maximum number of inotify watches per user.
+   *
+   * @return The maximum number of watches, Long.MAX_VALUE if unlimited.
+   */
+  public long getMaxWatches() {
+    return maxWatches;
+  }
+
+  /**
+   * Gets the maximum number of inotify instances per user.
+   *
+   * @return The maximum number of instances, Long.MAX_VALUE if unlimited.
+   */
+  public long getMaxInstances() {
+    return maxInstances;
+  }
+
+  /**
+   * Gets the number of directories currently watched with a WatchService.
+   *
+   * @return The number of watches in use.
+   */
+  public synchronized long getWatchesInUse() {
+    return watchesInUse;
+  }
+
+  /**
+   * Gets the number of directories currently watched by polling.
+   *
+   * @return The number of polled directories.
+   */
+  public synchronized long getPolledDirectoriesCount() {
+    return polledDirectoriesCount;
+  }
+
+  /**
+   * Gets the fraction of the most constraining limit currently in use.
+   *
+   * @return The fraction of the limit in use.
+   */
+  public synchronized double getUsageRatio() {
+    return Math.max((double) watchesInUse / maxWatches, (double) watchesInUse / maxInstances);
+  }
+
+  /**
+   * Gets the budget usage metrics.
+   *
+   * @return Map of the metric names to their values.
+   */
+  public synchronized Map<String, Number> getMetrics() {
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    metrics.put("maxWatches", maxWatches);
+    metrics.put("maxInstances", maxInstances);
+    metrics.put("thresholdRatio", thresholdRatio);
+    metrics.put("watchesInUse", watchesInUse);
+    metrics.put("usageRatio", getUsageRatio());
+    metrics.put("polledDirectories", polledDirectoriesCount);
+    metrics.put("demotions", demotionsCount);
+    metrics.put("promotions", promotionsCount);
+    metrics.put("registrationFailures", registrationFailuresCount);
+    return metrics;
+  }
+
+  /**
+   * Reads a limit from the specified file.
+   *
+   * @param limitFile File containing the limit.
+   * @return The limit, Long.MAX_VALUE if the file doesn't exist or can't be parsed.
+   */
+  private static long readLimit(Path limitFile) {
+    if (!Files.isRegularFile(limitFile)) {
+      return Long.MAX_VALUE;
+    }
+    // procfs reports a size of 0, which makes Files.readString() return a truncated value.
+    try (BufferedReader bufferedReader = Files.newBufferedReader(limitFile)) {
+      String line = bufferedReader.readLine();
+      long limit = line == null ? 0 : Long.parseLong(line.trim());
+      return limit > 0 ? limit : Long.MAX_VALUE;
+    } catch (IOException | NumberFormatException e) {
+      logger.warn(() -> I18nUtility.getFormattedString(
+          "InotifyWatchBudget.warn.unreadableLimit",
+          limitFile
+      ));
+      return Long.MAX_VALUE;
+    }
+  }
+}
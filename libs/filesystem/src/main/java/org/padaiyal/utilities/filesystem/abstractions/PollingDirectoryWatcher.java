@@ -0,0 +1,238 @@
+package org.padaiyal.utilities.filesystem.abstractions;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchEvent.Kind;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Watches a directory by periodically listing it and comparing the last modified time and size of
+ * its entries, instead of using an inotify watch. Used for directories that can't be given a
+ * WatchService because of the inotify limits. Only the direct entries of the directory are
+ * compared, like a WatchService does.
+ */
+public class PollingDirectoryWatcher {
+
+  /**
+   * The directory to watch.
+   */
+  private final Path directory;
+
+  /**
+   * The events to generate.
+   */
+  private final List<Kind<?>> eventsToWatch;
+
+  /**
+   * Minimum time between two listings of the directory.
+   */
+  private final long pollingIntervalInMilliSeconds;
+
+  /**
+   * Last modified time and size of the entries of the directory, as of the last listing.
+   */
+  private Map<Path, long[]> fileNameToStateMap;
+
+  /**
+   * Time in milliseconds at which the directory was last listed.
+   */
+  private long lastPollTimeInMilliSeconds;
+
+  /**
+   * Creates a watcher and takes the initial listing of the directory.
+   *
+   * @param directory                     The directory to watch.
+   * @param pollingIntervalInMilliSeconds Minimum time between two listings of the directory.
+   * @param eventsToWatch                 The events to generate.
+   * @throws IOException When there is an issue listing the directory.
+   */
+  public PollingDirectoryWatcher(
+      Path directory,
+      long pollingIntervalInMilliSeconds,
+      Kind<?>... eventsToWatch
+  ) throws IOException {
+    this.directory = Objects.requireNonNull(directory);
+    this.pollingIntervalInMilliSeconds = pollingIntervalInMilliSeconds;
+    this.eventsToWatch = Arrays.asList(Arrays.copyOf(eventsToWatch, eventsToWatch.length));
+    this.fileNameToStateMap = listDirectory();
+    this.lastPollTimeInMilliSeconds = System.currentTimeMillis();
+  }
+
+  /**
+   * Lists the directory if the polling interval has elapsed since the last listing, and generates
+   * events for the entries that were created, deleted or modified since.
+   *
+   * @return The generated events, empty if the interval hasn't elapsed yet.
+   * @throws IOException When there is an issue listing the directory.
+   */
+  public synchronized List<WatchEvent<?>> pollIfDue() throws IOException {
+    if (System.currentTimeMillis() - lastPollTimeInMilliSeconds < pollingIntervalInMilliSeconds) {
+      return List.of();
+    }
+    return poll();
+  }
+
+  /**
+   * Lists the directory and generates events for the entries that were created, deleted or
+   * modified since the last listing.
+   *
+   * @return The generated events.
+   * @throws IOException When there is an issue listing the directory.
+   */
+  public synchronized List<WatchEvent<?>> poll() throws IOException {
+    lastPollTimeInMilliSeconds = System.currentTimeMillis();
+    Map<Path, long[]> currentFileNameToStateMap = listDirectory();
+    List<WatchEvent<?>> watchEvents = new ArrayList<>();
+
+    for (Path fileName : fileNameToStateMap.keySet()) {
+      if (!currentFileNameToStateMap.containsKey(fileName)) {
+        addEvent(watchEvents, StandardWatchEventKinds.ENTRY_DELETE, fileName);
+      }
+    }
+    // Report the entries in the order they were last modified, the closest to the order of the
+    // changes that polling can offer.
+    List<Map.Entry<Path, long[]>> currentEntries =
+        new ArrayList<>(currentFileNameToStateMap.entrySet());
+    currentEntries.sort(
+        Comparator.comparingLong((Map.Entry<Path, long[]> entry) -> entry.getValue()[0])
+            .thenComparing(Map.Entry::getKey)
+    );
+    for (Map.Entry<Path, long[]> entry : currentEntries) {
+      long[] previousState = fileNameToStateMap.get(entry.getKey());
+      if (previousState == null) {
+        addEvent(watchEvents, StandardWatchEventKinds.ENTRY_CREATE, entry.getKey());
+      } else if (!Arrays.equals(previousState, entry.getValue())) {
+        addEvent(watchEvents, StandardWatchEventKinds.ENTRY_MODIFY, entry.getKey());
+      }
+    }
+    fileNameToStateMap = currentFileNameToStateMap;
+    return watchEvents;
+  }
+
+  /**
+   * Gets the watched directory.
+   *
+   * @return The watched directory.
+   */
+  public Path getDirectory() {
+    return directory;
+  }
+
+  /**
+   * Adds an event to the list if its type is to be generated.
+   *
+   * @param watchEvents List to add the event to.
+   * @param kind        Type of the event.
+   * @param fileName    Name of the entry that triggered the event.
+   */
+  private void addEvent(List<WatchEvent<?>> watchEvents, Kind<Path> kind, Path fileName) {
+    if (eventsToWatch.contains(kind)) {
+      watchEvents.add(new PolledWatchEvent(kind, fileName));
+    }
+  }
+
+  /**
+   * Lists the entries of the directory along with their last modified time and size.
+   *
+   * @return Map of the entry names to their last modified time and size.
+   * @throws IOException When there is an issue listing the directory.
+   */
+  private Map<Path, long[]> listDirectory() throws IOException {
+    Map<Path, long[]> currentFileNameToStateMap = new HashMap<>();
+    if (!Files.isDirectory(directory)) {
+      // The deletion of the directory is reported by its parent.
+      return currentFileNameToStateMap;
+    }
+    try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory)) {
+      for (Path entry : directoryStream) {
+        try {
+          BasicFileAttributes attributes = Files.readAttributes(
+              entry,
+              BasicFileAttributes.class,
+              LinkOption.NOFOLLOW_LINKS
+          );
+          currentFileNameToStateMap.put(
+              entry.getFileName(),
+              new long[]{attributes.lastModifiedTime().toMillis(), attributes.size()}
+          );
+        } catch (NoSuchFileException e) {
+          // Deleted while listing, reported as deleted in the next listing if it was known.
+        }
+      }
+    } catch (NoSuchFileException e) {
+      return currentFileNameToStateMap;
+    }
+    return currentFileNameToStateMap;
+  }
+
+  /**
+   * A watch event generated by polling. The context is the name of the entry that triggered the
+   * event, like it is for the events generated by a WatchService.
+   */
+  private static class PolledWatchEvent implements WatchEvent<Path> {
+
+    /**
+     * Type of the event.
+     */
+    private final Kind<Path> kind;
+
+    /**
+     * Name of the entry that triggered the event.
+     */
+    private final Path fileName;
+
+    /**
+     * Abstracts a watch event generated by polling.
+     *
+     * @param kind     Type of the event.
+     * @param fileName Name of the entry that triggered the event.
+     */
+    private PolledWatchEvent(Kind<Path> kind, Path fileName) {
+      this.kind = kind;
+      this.fileName = fileName;
+    }
+
+    /**
+     * Gets the type of the event.
+     *
+     * @return The type of the event.
+     */
+    @Override
+    public Kind<Path> kind() {
+      return kind;
+    }
+
+    /**
+     * Gets the number of times the event has been repeated, always 1 for polled events.
+     *
+     * @return 1.
+     */
+    @Override
+    public int count() {
+      return 1;
+    }
+
+    /**
+     * Gets the name of the entry that triggered the event.
+     *
+     * @return The name of the entry that triggered the event.
+     */
+    @Override
+    public Path context() {
+      return fileName;
+    }
+  }
+}
@@ -0,0 +1,426 @@
+package org.padaiyal.utilities.filesystem.abstractions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Generates synthetic directory trees to be used as load and benchmark fixtures. The number of sub
+ * directories and files of every directory, and the size of every file, are sampled from the
+ * configured distributions, down to the max depth.
+ *
+ * <p>Generation is repeatable, the same seed always generates the same tree. Every directory
+ * samples from its own random generator, split from the generator of its parent in a fixed order,
+ * so the generated tree doesn't depend on the order in which the directories are created in
+ * parallel. File content is written from a single preallocated buffer shared by all the threads,
+ * or not written at all for sparse files.
+ */
+public class SyntheticTreeGenerator {
+
+  /**
+   * Size of the buffer file content is written from.
+   */
+  private static final int CONTENT_BUFFER_SIZE_IN_BYTES = 64 * 1024;
+
+  /**
+   * Seed of the random generator of the root directory.
+   */
+  private final long seed;
+
+  /**
+   * Depth down to which sub directories are created, 0 to only create files in the root.
+   */
+  private final int maxDepth;
+
+  /**
+   * Distribution of the number of sub directories of a directory.
+   */
+  private final Distribution directoryFanOutDistribution;
+
+  /**
+   * Distribution of the number of files of a directory.
+   */
+  private final Distribution fileCountDistribution;
+
+  /**
+   * Distribution of the size of a file in bytes.
+   */
+  private final Distribution fileSizeDistribution;
+
+  /**
+   * If true files are created sparse without writing their content, else their content is
+   * written.
+   */
+  private final boolean sparse;
+
+  /**
+   * Number of threads creating the tree.
+   */
+  private final int parallelism;
+
+  /**
+   * Content written to the files, read through a duplicate by every write.
+   */
+  private final ByteBuffer contentBuffer;
+
+  static {
+    I18nUtility.addResourceBundle(
+        SyntheticTreeGenerator.class,
+        SyntheticTreeGenerator.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Creates a generator.
+   *
+   * @param seed                        Seed of the random generator of the root directory.
+   * @param maxDepth                    Depth down to which sub directories are created, 0 to only
+   *                                    create files in the root.
+   * @param directoryFanOutDistribution Distribution of the number of sub directories of a
+   *                                    directory.
+   * @param fileCountDistribution       Distribution of the number of files of a directory.
+   * @param fileSizeDistribution        Distribution of the size of a file in bytes.
+   * @param sparse                      If true files are created sparse without writing their
+   *                                    content, else their content is written.
+   * @param parallelism                 Number of threads creating the tree.
+   */
+  public SyntheticTreeGenerator(
+      long seed,
+      int maxDepth,
+      Distribution directoryFanOutDistribution,
+      Distribution fileCountDistribution,
+      Distribution fileSizeDistribution,
+      boolean sparse,
+      int parallelism
+  ) {
+    if (maxDepth < 0) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString("SyntheticTreeGenerator.error.negativeMaxDepth", maxDepth)
+      );
+    }
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "SyntheticTreeGenerator.error.invalidParallelism",
+              parallelism
+          )
+      );
+    }
+    this.seed = seed;
+    this.maxDepth = maxDepth;
+    this.directoryFanOutDistribution = Objects.requireNonNull(directoryFanOutDistribution);
+    this.fileCountDistribution = Objects.requireNonNull(fileCountDistribution);
+    this.fileSizeDistribution = Objects.requireNonNull(fileSizeDistribution);
+    this.sparse = sparse;
+    this.parallelism = parallelism;
+
+    byte[] content = new byte[CONTENT_BUFFER_SIZE_IN_BYTES];
+    new SplittableRandom(seed).nextBytes(content);
+    this.contentBuffer = ByteBuffer.wrap(content).asReadOnlyBuffer();
+  }
+
+  /**
+   * Generates the tree in the specified directory, which is created if it doesn't exist.
+   *
+   * @param root Directory to generate the tree in.
+   * @return Report of the generated tree and the generation rate.
+   * @throws IOException When there is an issue creating a directory or file, e.g. if it already
+   *                     exists.
+   */
+  public SyntheticTreeReport generate(Path root) throws IOException {
+    Objects.requireNonNull(root);
+    Files.createDirectories(root);
+    LongAdder directoriesCount = new LongAdder();
+    LongAdder filesCount = new LongAdder();
+    LongAdder bytesCount = new LongAdder();
+
+    long startTime = System.nanoTime();
+    ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
+    try {
+      forkJoinPool.invoke(new DirectoryGenerationTask(
+          this,
+          root,
+          0,
+          new SplittableRandom(seed),
+          directoriesCount,
+          filesCount,
+          bytesCount
+      ));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } finally {
+      forkJoinPool.shutdown();
+    }
+    Duration duration = Duration.ofNanos(System.nanoTime() - startTime);
+
+    return new SyntheticTreeReport(
+        root,
+        Files.getFileStore(root).type(),
+        directoriesCount.sum(),
+        filesCount.sum(),
+        bytesCount.sum(),
+        duration
+    );
+  }
+
+  /**
+   * Creates a file of the specified size.
+   *
+   * @param file   Path of the file.
+   * @param size   Size of the file in bytes.
+   * @param random Random generator of the parent directory, used to pick where in the content
+   *               buffer the content starts.
+   * @throws IOException When there is an issue creating or writing the file.
+   */
+  private void createFile(Path file, long size, SplittableRandom random) throws IOException {
+    int contentOffset = random.nextInt(CONTENT_BUFFER_SIZE_IN_BYTES);
+    if (sparse) {
+      try (FileChannel fileChannel = FileChannel.open(
+          file,
+          StandardOpenOption.CREATE_NEW,
+          StandardOpenOption.WRITE,
+          StandardOpenOption.SPARSE
+      )) {
+        if (size > 0) {
+          // Writing the last byte sets the size without allocating the blocks before it.
+          fileChannel.write(ByteBuffer.wrap(new byte[]{0}), size - 1);
+        }
+      }
+      return;
+    }
+    try (FileChannel fileChannel = FileChannel.open(
+        file,
+        StandardOpenOption.CREATE_NEW,
+        StandardOpenOption.WRITE
+    )) {
+      ByteBuffer content = contentBuffer.duplicate();
+      content.position(contentOffset);
+      long remainingBytes = size;
+      while (remainingBytes > 0) {
+        if (!content.hasRemaining()) {
+          content.clear();
+        }
+        content.limit((int) Math.min(
+            CONTENT_BUFFER_SIZE_IN_BYTES,
+            content.position() + remainingBytes
+        ));
+        remainingBytes -= fileChannel.write(content);
+      }
+    }
+  }
+
+  /**
+   * Gets a formatted message from the resource bundle of this class. The nested Distribution can't
+   * register the bundle itself, calling this initializes this class which registers it.
+   *
+   * @param key       Key of the message.
+   * @param arguments Arguments of the message.
+   * @return The formatted message.
+   */
+  private static String getFormattedMessage(String key, Object... arguments) {
+    return I18nUtility.getFormattedString(key, arguments);
+  }
+
+  /**
+   * Creates the files and sub directories of a directory, and forks the generation of the sub
+   * directories.
+   */
+  private static final class DirectoryGenerationTask extends RecursiveAction {
+
+    /**
+     * Serialization version, required of the serializable ForkJoinTask subclasses.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The generator whose configuration the tree is generated with.
+     */
+    private final SyntheticTreeGenerator generator;
+
+    /**
+     * The directory to generate the content of.
+     */
+    private final Path directory;
+
+    /**
+     * Depth of the directory relative to the root.
+     */
+    private final int depth;
+
+    /**
+     * Random generator of the directory.
+     */
+    private final SplittableRandom random;
+
+    /**
+     * Number of directories created.
+     */
+    private final LongAdder directoriesCount;
+
+    /**
+     * Number of files created.
+     */
+    private final LongAdder filesCount;
+
+    /**
+     * Number of bytes of the created files.
+     */
+    private final LongAdder bytesCount;
+
+    /**
+     * Creates a task generating the content of a directory.
+     *
+     * @param generator        The generator whose configuration the tree is generated with.
+     * @param directory        The directory to generate the content of.
+     * @param depth            Depth of the directory relative to the root.
+     * @param random           Random generator of the directory.
+     * @param directoriesCount Number of directories created.
+     * @param filesCount       Number of files created.
+     * @param bytesCount       Number of bytes of the created files.
+     */
+    private DirectoryGenerationTask(
+        SyntheticTreeGenerator generator,
+        Path directory,
+        int depth,
+        SplittableRandom random,
+        LongAdder directoriesCount,
+        LongAdder filesCount,
+        LongAdder bytesCount
+    ) {
+      this.generator = generator;
+      this.directory = directory;
+      this.depth = depth;
+      this.random = random;
+      this.directoriesCount = directoriesCount;
+      this.filesCount = filesCount;
+      this.bytesCount = bytesCount;
+    }
+
+    /**
+     * Generates the content of the directory.
+     */
+    @Override
+    protected void compute() {
+      try {
+        long fileCount = generator.fileCountDistribution.sample(random);
+        for (long fileIndex = 0; fileIndex < fileCount; fileIndex++) {
+          long size = generator.fileSizeDistribution.sample(random);
+          generator.createFile(directory.resolve("f" + fileIndex), size, random);
+          filesCount.increment();
+          bytesCount.add(size);
+        }
+
+        if (depth >= generator.maxDepth) {
+          return;
+        }
+        long subDirectoryCount = generator.directoryFanOutDistribution.sample(random);
+        List<DirectoryGenerationTask> subDirectoryTasks = new ArrayList<>();
+        for (long directoryIndex = 0; directoryIndex < subDirectoryCount; directoryIndex++) {
+          Path subDirectory = Files.createDirectory(directory.resolve("d" + directoryIndex));
+          directoriesCount.increment();
+          subDirectoryTasks.add(new DirectoryGenerationTask(
+              generator,
+              subDirectory,
+              depth + 1,
+              random.split(),
+              directoriesCount,
+              filesCount,
+              bytesCount
+          ));
+        }
+        invokeAll(subDirectoryTasks);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  /**
+   * Distribution of non negative values, sampled with the random generator of a directory.
+   */
+  @FunctionalInterface
+  public interface Distribution {
+
+    /**
+     * Samples a value.
+     *
+     * @param random Random generator to sample with.
+     * @return The sampled value, non negative.
+     */
+    long sample(SplittableRandom random);
+
+    /**
+     * Creates a distribution always returning the same value.
+     *
+     * @param value The value.
+     * @return The distribution.
+     */
+    static Distribution fixed(long value) {
+      validateNonNegative(value);
+      return random -> value;
+    }
+
+    /**
+     * Creates a distribution returning values uniformly distributed in a range.
+     *
+     * @param min Minimum value, inclusive.
+     * @param max Maximum value, inclusive.
+     * @return The distribution.
+     */
+    static Distribution uniform(long min, long max) {
+      validateNonNegative(min);
+      if (max < min) {
+        throw new IllegalArgumentException(
+            getFormattedMessage("SyntheticTreeGenerator.error.invalidRange", min, max)
+        );
+      }
+      return random -> random.nextLong(min, max + 1);
+    }
+
+    /**
+     * Creates a distribution returning exponentially distributed values, where most values are
+     * small and a few are large, e.g. like the file sizes of a typical tree.
+     *
+     * @param mean Mean of the values.
+     * @param max  Maximum value, larger samples are capped to it.
+     * @return The distribution.
+     */
+    static Distribution exponential(double mean, long max) {
+      if (!(mean > 0)) {
+        throw new IllegalArgumentException(
+            getFormattedMessage("SyntheticTreeGenerator.error.invalidMean", mean)
+        );
+      }
+      validateNonNegative(max);
+      return random -> Math.min(max, Math.round(-mean * Math.log(1 - random.nextDouble())));
+    }
+
+    /**
+     * Validates that a value of a distribution is non negative.
+     *
+     * @param value The value.
+     */
+    private static void validateNonNegative(long value) {
+      if (value < 0) {
+        throw new IllegalArgumentException(
+            getFormattedMessage("SyntheticTreeGenerator.error.negativeValue", value)
+        );
+      }
+    }
+  }
+}
@@ -0,0 +1,181 @@
+package org.padaiyal.utilities.filesystem.abstractions;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Report of a tree generated by SyntheticTreeGenerator, along with the rate at which it was
+ * generated. The type of the file store is reported so that the rates achieved on e.g. tmpfs and
+ * disk can be told apart.
+ */
+public class SyntheticTreeReport {
+
+  /**
+   * Directory the tree was generated in.
+   */
+  private final Path root;
+
+  /**
+   * Type of the file store the tree was generated in, e.g. tmpfs or ext4.
+   */
+  private final String fileStoreType;
+
+  /**
+   * Number of directories created, excluding the root.
+   */
+  private final long directoriesCount;
+
+  /**
+   * Number of files created.
+   */
+  private final long filesCount;
+
+  /**
+   * Total size of the created files in bytes.
+   */
+  private final long bytesCount;
+
+  /**
+   * Time taken to generate the tree.
+   */
+  private final Duration duration;
+
+  /**
+   * Abstracts the report of a generated tree.
+   *
+   * @param root             Directory the tree was generated in.
+   * @param fileStoreType    Type of the file store the tree was generated in.
+   * @param directoriesCount Number of directories created, excluding the root.
+   * @param filesCount       Number of files created.
+   * @param bytesCount       Total size of the created files in bytes.
+   * @param duration         Time taken to generate the tree.
+   */
+  public SyntheticTreeReport(
+      Path root,
+      String fileStoreType,
+      long directoriesCount,
+      long filesCount,
+      long bytesCount,
+      Duration duration
+  ) {
+    this.root = root;
+    this.fileStoreType = fileStoreType;
+    this.directoriesCount = directoriesCount;
+    this.filesCount = filesCount;
+    this.bytesCount = bytesCount;
+    this.duration = duration;
+  }
+
+  /**
+   * Gets the directory the tree was generated in.
+   *
+   * @return The directory the tree was generated in.
+   */
+  public Path getRoot() {
+    return root;
+  }
+
+  /**
+   * Gets the type of the file store the tree was generated in.
+   *
+   * @return The type of the file store, e.g. tmpfs or ext4.
+   */
+  public String getFileStoreType() {
+    return fileStoreType;
+  }
+
+  /**
+   * Gets the number of directories created, excluding the root.
+   *
+   * @return The number of directories created.
+   */
+  public long getDirectoriesCount() {
+    return directoriesCount;
+  }
+
+  /**
+   * Gets the number of files created.
+   *
+   * @return The number of files created.
+   */
+  public long getFilesCount() {
+    return filesCount;
+  }
+
+  /**
+   * Gets the total number of entries created.
+   *
+   * @return The number of directories and files created.
+   */
+  public long getEntriesCount() {
+    return directoriesCount + filesCount;
+  }
+
+  /**
+   * Gets the total size of the created files.
+   *
+   * @return The total size of the created files in bytes.
+   */
+  public long getBytesCount() {
+    return bytesCount;
+  }
+
+  /**
+   * Gets the time taken to generate the tree.
+   *
+   * @return The time taken to generate the tree.
+   */
+  public Duration getDuration() {
+    return duration;
+  }
+
+  /**
+   * Gets the rate at which entries were created.
+   *
+   * @return The number of directories and files created per second.
+   */
+  public double getEntriesPerSecond() {
+    return perSecond(getEntriesCount());
+  }
+
+  /**
+   * Gets the rate at which file content was created.
+   *
+   * @return The number of bytes created per second.
+   */
+  public double getBytesPerSecond() {
+    return perSecond(bytesCount);
+  }
+
+  /**
+   * Gets a string representation of the report.
+   *
+   * @return String representation of the report.
+   */
+  @Override
+  public String toString() {
+    return I18nUtility.getFormattedString(
+        "SyntheticTreeGenerator.info.report",
+        root,
+        fileStoreType,
+        directoriesCount,
+        filesCount,
+        bytesCount,
+        duration.toMillis(),
+        String.format("%.1f", getEntriesPerSecond()),
+        String.format("%.1f", getBytesPerSecond() / (1024 * 1024))
+    );
+  }
+
+  /**
+   * Computes the rate of a count over the generation time.
+   *
+   * @param count The count.
+   * @return The count per second.
+   */
+  private double perSecond(long count) {
+    long nanoSeconds = Math.max(1, duration.toNanos());
+    return count * 1_000_000_000.0 / nanoSeconds;
+  }
+}
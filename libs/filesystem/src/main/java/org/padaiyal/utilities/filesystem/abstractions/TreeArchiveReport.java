@@ -0,0 +1,159 @@
+package org.padaiyal.utilities.filesystem.abstractions;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Report of an archive created by TreeArchiver, along with the throughput at which it was created.
+ */
+public class TreeArchiveReport {
+
+  /**
+   * The created archive.
+   */
+  private final Path archive;
+
+  /**
+   * Format of the archive.
+   */
+  private final ArchiveFormat archiveFormat;
+
+  /**
+   * Number of archived entries.
+   */
+  private final long entriesCount;
+
+  /**
+   * Total size of the archived files in bytes.
+   */
+  private final long uncompressedBytesCount;
+
+  /**
+   * Size of the archive in bytes.
+   */
+  private final long archiveBytesCount;
+
+  /**
+   * Time taken to create the archive.
+   */
+  private final Duration duration;
+
+  /**
+   * Abstracts the report of a created archive.
+   *
+   * @param archive                The created archive.
+   * @param archiveFormat          Format of the archive.
+   * @param entriesCount           Number of archived entries.
+   * @param uncompressedBytesCount Total size of the archived files in bytes.
+   * @param archiveBytesCount      Size of the archive in bytes.
+   * @param duration               Time taken to create the archive.
+   */
+  public TreeArchiveReport(
+      Path archive,
+      ArchiveFormat archiveFormat,
+      long entriesCount,
+      long uncompressedBytesCount,
+      long archiveBytesCount,
+      Duration duration
+  ) {
+    this.archive = archive;
+    this.archiveFormat = archiveFormat;
+    this.entriesCount = entriesCount;
+    this.uncompressedBytesCount = uncompressedBytesCount;
+    this.archiveBytesCount = archiveBytesCount;
+    this.duration = duration;
+  }
+
+  /**
+   * Gets the created archive.
+   *
+   * @return The created archive.
+   */
+  public Path getArchive() {
+    return archive;
+  }
+
+  /**
+   * Gets the format of the archive.
+   *
+   * @return The format of the archive.
+   */
+  public ArchiveFormat getArchiveFormat() {
+    return archiveFormat;
+  }
+
+  /**
+   * Gets the number of archived entries.
+   *
+   * @return The number of archived entries.
+   */
+  public long getEntriesCount() {
+    return entriesCount;
+  }
+
+  /**
+   * Gets the total size of the archived files.
+   *
+   * @return The total size of the archived files in bytes.
+   */
+  public long getUncompressedBytesCount() {
+    return uncompressedBytesCount;
+  }
+
+  /**
+   * Gets the size of the archive.
+   *
+   * @return The size of the archive in bytes.
+   */
+  public long getArchiveBytesCount() {
+    return archiveBytesCount;
+  }
+
+  /**
+   * Gets the time taken to create the archive.
+   *
+   * @return The time taken to create the archive.
+   */
+  public Duration getDuration() {
+    return duration;
+  }
+
+  /**
+   * Gets the rate at which the files were archived.
+   *
+   * @return The number of uncompressed bytes archived per second.
+   */
+  public double getBytesPerSecond() {
+    return uncompressedBytesCount * 1_000_000_000.0 / Math.max(1, duration.toNanos());
+  }
+
+  /**
+   * Gets the ratio between the size of the archived files and the size of the archive.
+   *
+   * @return The compression ratio, 0 if the archive is empty.
+   */
+  public double getCompressionRatio() {
+    return archiveBytesCount == 0 ? 0 : (double) uncompressedBytesCount / archiveBytesCount;
+  }
+
+  /**
+   * Gets a string representation of the report.
+   *
+   * @return String representation of the report.
+   */
+  @Override
+  public String toString() {
+    return I18nUtility.getFormattedString(
+        "TreeArchiver.info.report",
+        entriesCount,
+        uncompressedBytesCount,
+        archive,
+        archiveFormat,
+        archiveBytesCount,
+        duration.toMillis(),
+        String.format("%.1f", getBytesPerSecond() / (1024 * 1024)),
+        String.format("%.2f", getCompressionRatio())
+    );
+  }
+}
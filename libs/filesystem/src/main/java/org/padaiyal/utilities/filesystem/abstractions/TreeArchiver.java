@@ -0,0 +1,1182 @@
+package org.padaiyal.utilities.filesystem.abstractions;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Streams a directory tree into a ZIP or tar.gz archive. Files are split into chunks that are read
+ * and compressed in parallel, and a single writer appends the compressed chunks to the archive in
+ * the order the tree was walked. The number of chunks in flight is bounded, so the memory used
+ * doesn't depend on the size of the tree or of its files.
+ *
+ * <p>Compressed chunks can be appended as they are because every tar.gz chunk is compressed into
+ * its own gzip member, and every ZIP chunk but the last of a file ends with a DEFLATE sync flush.
+ * The CRC32 of a ZIP entry is combined from the CRC32 of its chunks.
+ *
+ * <p>Entry names are relative to the parent of the archived path, like tar does. Symbolic links
+ * are archived as links and never followed.
+ */
+public class TreeArchiver {
+
+  /**
+   * Size of a tar block.
+   */
+  private static final int TAR_BLOCK_SIZE = 512;
+
+  /**
+   * Largest size that can be stored in the octal size field of a tar header.
+   */
+  private static final long TAR_MAX_OCTAL_SIZE = 077777777777L;
+
+  /**
+   * Largest size or offset supported in a ZIP archive without ZIP64.
+   */
+  private static final long ZIP_MAX_SIZE = 0xFFFFFFFFL;
+
+  /**
+   * Largest number of entries supported in a ZIP archive without ZIP64.
+   */
+  private static final int ZIP_MAX_ENTRIES = 0xFFFF;
+
+  /**
+   * Format of the created archives.
+   */
+  private final ArchiveFormat archiveFormat;
+
+  /**
+   * Filter selecting the entries to archive. Directories are walked whether they are selected or
+   * not.
+   */
+  private final Predicate<Path> entryFilter;
+
+  /**
+   * Number of threads reading and compressing chunks.
+   */
+  private final int parallelism;
+
+  /**
+   * Size of the chunks files are split into.
+   */
+  private final int chunkSizeInBytes;
+
+  /**
+   * Maximum number of chunks read, compressed or waiting to be written at any time.
+   */
+  private final int maxChunksInFlight;
+
+  /**
+   * Compression level, from 0 to 9.
+   */
+  private final int compressionLevel;
+
+  static {
+    I18nUtility.addResourceBundle(
+        TreeArchiver.class,
+        TreeArchiver.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Creates an archiver.
+   *
+   * @param archiveFormat     Format of the created archives.
+   * @param entryFilter       Filter selecting the entries to archive. Directories are walked
+   *                          whether they are selected or not.
+   * @param parallelism       Number of threads reading and compressing chunks.
+   * @param chunkSizeInBytes  Size of the chunks files are split into.
+   * @param maxChunksInFlight Maximum number of chunks read, compressed or waiting to be written at
+   *                          any time.
+   * @param compressionLevel  Compression level, from 0 to 9.
+   */
+  public TreeArchiver(
+      ArchiveFormat archiveFormat,
+      Predicate<Path> entryFilter,
+      int parallelism,
+      int chunkSizeInBytes,
+      int maxChunksInFlight,
+      int compressionLevel
+  ) {
+    this.archiveFormat = Objects.requireNonNull(archiveFormat);
+    this.entryFilter = Objects.requireNonNull(entryFilter);
+    validatePositive("parallelism", parallelism);
+    validatePositive("chunkSizeInBytes", chunkSizeInBytes);
+    validatePositive("maxChunksInFlight", maxChunksInFlight);
+    if (compressionLevel < Deflater.NO_COMPRESSION
+        || compressionLevel > Deflater.BEST_COMPRESSION) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "TreeArchiver.error.invalidCompressionLevel",
+              compressionLevel
+          )
+      );
+    }
+    this.parallelism = parallelism;
+    this.chunkSizeInBytes = chunkSizeInBytes;
+    this.maxChunksInFlight = maxChunksInFlight;
+    this.compressionLevel = compressionLevel;
+  }
+
+  /**
+   * Archives a directory tree or file. The archive is deleted if archiving fails.
+   *
+   * @param source  The directory tree or file to archive.
+   * @param archive Path of the archive to create, it must not exist.
+   * @return Report of the archived entries and the throughput.
+   * @throws IOException When there is an issue reading the tree or writing the archive.
+   */
+  public TreeArchiveReport archive(Path source, Path archive) throws IOException {
+    Path absoluteSource = Objects.requireNonNull(source).toAbsolutePath().normalize();
+    Path absoluteArchive = Objects.requireNonNull(archive).toAbsolutePath().normalize();
+    Path basePath = absoluteSource.getParent() == null
+        ? absoluteSource
+        : absoluteSource.getParent();
+
+    long startTime = System.nanoTime();
+    // Opened before the try block, so that an already existing archive isn't deleted.
+    OutputStream outputStream = new BufferedOutputStream(
+        Files.newOutputStream(
+            absoluteArchive,
+            StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.WRITE
+        ),
+        chunkSizeInBytes
+    );
+    ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
+    boolean isArchived = false;
+    try (outputStream) {
+      ArchiveWriter archiveWriter = archiveFormat == ArchiveFormat.ZIP
+          ? new ZipArchiveWriter(outputStream)
+          : new TarGzArchiveWriter(outputStream);
+      Deque<Future<ArchiveChunk>> chunksInFlight = new ArrayDeque<>();
+
+      Files.walkFileTree(absoluteSource, new SimpleFileVisitor<>() {
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes)
+            throws IOException {
+          return visitFile(dir, attributes);
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attributes)
+            throws IOException {
+          if (file.equals(absoluteArchive) || !entryFilter.test(file)) {
+            return FileVisitResult.CONTINUE;
+          }
+          ArchiveEntry archiveEntry = createEntry(basePath, file, attributes);
+          long chunksCount = archiveEntry.isRegularFile()
+              ? Math.max(1, (archiveEntry.size + chunkSizeInBytes - 1) / chunkSizeInBytes)
+              : 1;
+          for (long chunkIndex = 0; chunkIndex < chunksCount; chunkIndex++) {
+            long offset = chunkIndex * chunkSizeInBytes;
+            ArchiveChunk archiveChunk = new ArchiveChunk(
+                archiveEntry,
+                offset,
+                (int) Math.min(chunkSizeInBytes, Math.max(0, archiveEntry.size - offset)),
+                chunkIndex == 0,
+                chunkIndex == chunksCount - 1
+            );
+            chunksInFlight.add(forkJoinPool.submit(() -> compress(archiveChunk)));
+            if (chunksInFlight.size() >= maxChunksInFlight) {
+              writeNextChunk(chunksInFlight, archiveWriter);
+            }
+          }
+          return FileVisitResult.CONTINUE;
+        }
+      });
+      while (!chunksInFlight.isEmpty()) {
+        writeNextChunk(chunksInFlight, archiveWriter);
+      }
+      archiveWriter.finish();
+      outputStream.flush();
+
+      isArchived = true;
+      return new TreeArchiveReport(
+          absoluteArchive,
+          archiveFormat,
+          archiveWriter.entriesCount,
+          archiveWriter.uncompressedBytesCount,
+          archiveWriter.position,
+          Duration.ofNanos(System.nanoTime() - startTime)
+      );
+    } finally {
+      forkJoinPool.shutdownNow();
+      if (!isArchived) {
+        Files.deleteIfExists(absoluteArchive);
+      }
+    }
+  }
+
+  /**
+   * Waits for the oldest chunk in flight to be compressed and writes it to the archive.
+   *
+   * @param chunksInFlight Chunks in flight, in the order they are to be written.
+   * @param archiveWriter  Writer appending the chunks to the archive.
+   * @throws IOException When there is an issue reading or compressing the chunk, or writing it.
+   */
+  private static void writeNextChunk(
+      Deque<Future<ArchiveChunk>> chunksInFlight,
+      ArchiveWriter archiveWriter
+  ) throws IOException {
+    ArchiveChunk archiveChunk;
+    try {
+      archiveChunk = chunksInFlight.remove().get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+    archiveWriter.write(archiveChunk);
+  }
+
+  /**
+   * Creates the entry to archive for a path.
+   *
+   * @param basePath   Path the entry names are relative to.
+   * @param path       The path to archive.
+   * @param attributes Attributes of the path, symbolic links not followed.
+   * @return The entry.
+   * @throws IOException When there is an issue reading the permissions or link target.
+   */
+  private static ArchiveEntry createEntry(
+      Path basePath,
+      Path path,
+      BasicFileAttributes attributes
+  ) throws IOException {
+    StringBuilder nameBuilder = new StringBuilder();
+    for (Path namePart : basePath.relativize(path)) {
+      if (nameBuilder.length() > 0) {
+        nameBuilder.append('/');
+      }
+      nameBuilder.append(namePart);
+    }
+    char type;
+    String linkTarget = "";
+    long size = 0;
+    int defaultMode;
+    if (attributes.isDirectory()) {
+      type = ArchiveEntry.DIRECTORY;
+      nameBuilder.append('/');
+      defaultMode = 0755;
+    } else if (attributes.isSymbolicLink()) {
+      type = ArchiveEntry.SYMBOLIC_LINK;
+      linkTarget = Files.readSymbolicLink(path).toString();
+      defaultMode = 0777;
+    } else {
+      type = ArchiveEntry.REGULAR_FILE;
+      size = attributes.size();
+      defaultMode = 0644;
+    }
+
+    int mode = defaultMode;
+    try {
+      Set<PosixFilePermission> permissions =
+          Files.getPosixFilePermissions(path, LinkOption.NOFOLLOW_LINKS);
+      mode = 0;
+      for (PosixFilePermission permission : permissions) {
+        // PosixFilePermission is declared from OWNER_READ (0400) to OTHERS_EXECUTE (0001).
+        mode |= 0400 >> permission.ordinal();
+      }
+    } catch (UnsupportedOperationException e) {
+      // Not a POSIX file system, the default mode is used.
+    }
+    return new ArchiveEntry(
+        path,
+        nameBuilder.toString(),
+        type,
+        size,
+        mode,
+        attributes.lastModifiedTime().toInstant(),
+        linkTarget
+    );
+  }
+
+  /**
+   * Reads and compresses a chunk. Run in parallel for the chunks in flight.
+   *
+   * @param archiveChunk The chunk to compress.
+   * @return The compressed chunk.
+   * @throws IOException When there is an issue reading the chunk.
+   */
+  private ArchiveChunk compress(ArchiveChunk archiveChunk) throws IOException {
+    ArchiveEntry archiveEntry = archiveChunk.archiveEntry;
+    byte[] content;
+    if (archiveEntry.isRegularFile()) {
+      content = readChunk(archiveEntry.path, archiveChunk.offset, archiveChunk.length);
+    } else {
+      content = archiveEntry.linkTarget.getBytes(StandardCharsets.UTF_8);
+    }
+    CRC32 crc32 = new CRC32();
+    crc32.update(content);
+    archiveChunk.crc = crc32.getValue();
+    archiveChunk.uncompressedLength = content.length;
+
+    if (archiveFormat == ArchiveFormat.TAR_GZ) {
+      archiveChunk.data = compressTarChunk(archiveChunk, content);
+    } else if (archiveEntry.isRegularFile()) {
+      archiveChunk.data = deflate(content, archiveChunk.isLast);
+    } else {
+      // Directories and symbolic links are stored uncompressed.
+      archiveChunk.data = content;
+    }
+    return archiveChunk;
+  }
+
+  /**
+   * Reads a chunk of a file.
+   *
+   * @param file   The file to read.
+   * @param offset Offset of the chunk in the file.
+   * @param length Length of the chunk.
+   * @return The content of the chunk.
+   * @throws IOException When there is an issue reading the file, or it has been truncated since it
+   *                     was walked.
+   */
+  private static byte[] readChunk(Path file, long offset, int length) throws IOException {
+    ByteBuffer byteBuffer = ByteBuffer.allocate(length);
+    try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+      while (byteBuffer.hasRemaining()) {
+        if (fileChannel.read(byteBuffer, offset + byteBuffer.position()) < 0) {
+          throw new IOException(
+              I18nUtility.getFormattedString("TreeArchiver.error.fileTruncated", file)
+          );
+        }
+      }
+    }
+    return byteBuffer.array();
+  }
+
+  /**
+   * Compresses a chunk into a gzip member, along with the tar header of its entry if it's the
+   * first chunk and the padding of its entry if it's the last.
+   *
+   * @param archiveChunk The chunk.
+   * @param content      The content of the chunk.
+   * @return The gzip member.
+   * @throws IOException When there is an issue compressing the chunk.
+   */
+  private byte[] compressTarChunk(ArchiveChunk archiveChunk, byte[] content) throws IOException {
+    ArchiveEntry archiveEntry = archiveChunk.archiveEntry;
+    ByteArrayOutputStream byteArrayOutputStream =
+        new ByteArrayOutputStream(content.length / 2 + TAR_BLOCK_SIZE);
+    try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(byteArrayOutputStream) {
+      {
+        def.setLevel(compressionLevel);
+      }
+    }) {
+      if (archiveChunk.isFirst) {
+        gzipOutputStream.write(createTarHeader(archiveEntry));
+      }
+      if (archiveEntry.isRegularFile()) {
+        gzipOutputStream.write(content);
+        if (archiveChunk.isLast) {
+          gzipOutputStream.write(new byte[padding(archiveEntry.size)]);
+        }
+      }
+    }
+    return byteArrayOutputStream.toByteArray();
+  }
+
+  /**
+   * Compresses a chunk of a ZIP entry with raw DEFLATE. Chunks other than the last end with a sync
+   * flush instead of a final block, so that the next chunk can be appended to them.
+   *
+   * @param content The content of the chunk.
+   * @param isLast  If true the chunk is the last of its entry.
+   * @return The compressed chunk.
+   */
+  private byte[] deflate(byte[] content, boolean isLast) {
+    Deflater deflater = new Deflater(compressionLevel, true);
+    try {
+      deflater.setInput(content);
+      ByteArrayOutputStream byteArrayOutputStream =
+          new ByteArrayOutputStream(content.length / 2 + 64);
+      byte[] buffer = new byte[64 * 1024];
+      if (isLast) {
+        deflater.finish();
+        while (!deflater.finished()) {
+          byteArrayOutputStream.write(buffer, 0, deflater.deflate(buffer));
+        }
+      } else {
+        int length;
+        do {
+          length = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+          byteArrayOutputStream.write(buffer, 0, length);
+        } while (length == buffer.length);
+      }
+      return byteArrayOutputStream.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  /**
+   * Creates the ustar header of an entry, preceded by GNU long name and long link headers if its
+   * name or link target don't fit the header.
+   *
+   * @param archiveEntry The entry.
+   * @return The header blocks.
+   */
+  private static byte[] createTarHeader(ArchiveEntry archiveEntry) {
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    byte[] nameBytes = archiveEntry.name.getBytes(StandardCharsets.UTF_8);
+    byte[] linkTargetBytes = archiveEntry.linkTarget.getBytes(StandardCharsets.UTF_8);
+
+    String prefix = "";
+    String name = archiveEntry.name;
+    if (nameBytes.length > 100) {
+      int separatorIndex = archiveEntry.name.lastIndexOf('/', archiveEntry.name.length() - 2);
+      if (separatorIndex > 0
+          && archiveEntry.name.substring(0, separatorIndex)
+              .getBytes(StandardCharsets.UTF_8).length <= 155
+          && archiveEntry.name.substring(separatorIndex + 1)
+              .getBytes(StandardCharsets.UTF_8).length <= 100) {
+        prefix = archiveEntry.name.substring(0, separatorIndex);
+        name = archiveEntry.name.substring(separatorIndex + 1);
+      } else {
+        writeGnuLongHeader(byteArrayOutputStream, 'L', nameBytes);
+      }
+    }
+    if (linkTargetBytes.length > 100) {
+      writeGnuLongHeader(byteArrayOutputStream, 'K', linkTargetBytes);
+    }
+
+    byte[] header = new byte[TAR_BLOCK_SIZE];
+    putString(header, 0, 100, name);
+    putOctal(header, 100, 8, archiveEntry.mode);
+    putOctal(header, 108, 8, 0);
+    putOctal(header, 116, 8, 0);
+    putSize(header, 124, archiveEntry.isRegularFile() ? archiveEntry.size : 0);
+    putOctal(header, 136, 12, Math.max(0, archiveEntry.lastModifiedTime.getEpochSecond()));
+    header[156] = (byte) archiveEntry.type;
+    putString(header, 157, 100, archiveEntry.linkTarget);
+    putString(header, 257, 6, "ustar");
+    putString(header, 263, 2, "00");
+    putString(header, 345, 155, prefix);
+    putChecksum(header);
+    byteArrayOutputStream.writeBytes(header);
+    return byteArrayOutputStream.toByteArray();
+  }
+
+  /**
+   * Writes a GNU long name or long link header, followed by the name in its data blocks.
+   *
+   * @param byteArrayOutputStream Stream to write the header to.
+   * @param type                  'L' for a long name, 'K' for a long link target.
+   * @param nameBytes             The name.
+   */
+  private static void writeGnuLongHeader(
+      ByteArrayOutputStream byteArrayOutputStream,
+      char type,
+      byte[] nameBytes
+  ) {
+    byte[] header = new byte[TAR_BLOCK_SIZE];
+    putString(header, 0, 100, "././@LongLink");
+    putOctal(header, 100, 8, 0);
+    putOctal(header, 108, 8, 0);
+    putOctal(header, 116, 8, 0);
+    putSize(header, 124, nameBytes.length + 1);
+    putOctal(header, 136, 12, 0);
+    header[156] = (byte) type;
+    putString(header, 257, 6, "ustar");
+    putString(header, 263, 2, "00");
+    putChecksum(header);
+    byteArrayOutputStream.writeBytes(header);
+    byteArrayOutputStream.writeBytes(nameBytes);
+    byteArrayOutputStream.writeBytes(new byte[1 + padding(nameBytes.length + 1)]);
+  }
+
+  /**
+   * Puts a string in a NUL padded tar header field, truncated to the field length.
+   *
+   * @param header The header.
+   * @param offset Offset of the field.
+   * @param length Length of the field.
+   * @param value  The string.
+   */
+  private static void putString(byte[] header, int offset, int length, String value) {
+    byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+    System.arraycopy(valueBytes, 0, header, offset, Math.min(length, valueBytes.length));
+  }
+
+  /**
+   * Puts a number in a tar header field as zero padded octal digits followed by a NUL.
+   *
+   * @param header The header.
+   * @param offset Offset of the field.
+   * @param length Length of the field.
+   * @param value  The number.
+   */
+  private static void putOctal(byte[] header, int offset, int length, long value) {
+    String octal = Long.toOctalString(value);
+    String paddedOctal = "0".repeat(Math.max(0, length - 1 - octal.length())) + octal;
+    putString(header, offset, length - 1, paddedOctal);
+  }
+
+  /**
+   * Puts a size in the size field of a tar header, using the GNU base-256 encoding for sizes that
+   * don't fit 11 octal digits.
+   *
+   * @param header The header.
+   * @param offset Offset of the size field.
+   * @param size   The size.
+   */
+  private static void putSize(byte[] header, int offset, long size) {
+    if (size <= TAR_MAX_OCTAL_SIZE) {
+      putOctal(header, offset, 12, size);
+      return;
+    }
+    header[offset] = (byte) 0x80;
+    for (int index = 11; index > 3; index--) {
+      header[offset + index] = (byte) size;
+      size >>>= 8;
+    }
+  }
+
+  /**
+   * Computes and puts the checksum of a tar header.
+   *
+   * @param header The header.
+   */
+  private static void putChecksum(byte[] header) {
+    for (int index = 148; index < 156; index++) {
+      header[index] = ' ';
+    }
+    long checksum = 0;
+    for (byte headerByte : header) {
+      checksum += headerByte & 0xFF;
+    }
+    putOctal(header, 148, 7, checksum);
+  }
+
+  /**
+   * Computes the padding needed after some content to reach the end of a tar block.
+   *
+   * @param length Length of the content.
+   * @return Number of padding bytes.
+   */
+  private static int padding(long length) {
+    return (int) ((TAR_BLOCK_SIZE - length % TAR_BLOCK_SIZE) % TAR_BLOCK_SIZE);
+  }
+
+  /**
+   * Validates that a parameter is positive.
+   *
+   * @param name  Name of the parameter.
+   * @param value Value of the parameter.
+   */
+  private static void validatePositive(String name, int value) {
+    if (value <= 0) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString("TreeArchiver.error.nonPositiveValue", name, value)
+      );
+    }
+  }
+
+  /**
+   * Combines the CRC32 of two consecutive sequences of bytes, as done by zlib's crc32_combine().
+   *
+   * @param crc1    CRC32 of the first sequence.
+   * @param crc2    CRC32 of the second sequence.
+   * @param length2 Length of the second sequence.
+   * @return CRC32 of the concatenated sequences.
+   */
+  private static long combineCrc32(long crc1, long crc2, long length2) {
+    if (length2 <= 0) {
+      return crc1;
+    }
+    long[] evenPowerMatrix = new long[32];
+    long[] oddPowerMatrix = new long[32];
+    // Operator for a single zero bit.
+    oddPowerMatrix[0] = 0xEDB88320L;
+    long row = 1;
+    for (int index = 1; index < 32; index++) {
+      oddPowerMatrix[index] = row;
+      row <<= 1;
+    }
+    // Operators for two and four zero bits.
+    squareGf2Matrix(evenPowerMatrix, oddPowerMatrix);
+    squareGf2Matrix(oddPowerMatrix, evenPowerMatrix);
+
+    // Apply length2 zero bytes to crc1, one bit of length2 at a time.
+    do {
+      squareGf2Matrix(evenPowerMatrix, oddPowerMatrix);
+      if ((length2 & 1) != 0) {
+        crc1 = multiplyGf2Matrix(evenPowerMatrix, crc1);
+      }
+      length2 >>= 1;
+      if (length2 == 0) {
+        break;
+      }
+      squareGf2Matrix(oddPowerMatrix, evenPowerMatrix);
+      if ((length2 & 1) != 0) {
+        crc1 = multiplyGf2Matrix(oddPowerMatrix, crc1);
+      }
+      length2 >>= 1;
+    } while (length2 != 0);
+    return crc1 ^ crc2;
+  }
+
+  /**
+   * Multiplies a GF(2) matrix by a vector.
+   *
+   * @param matrix The matrix.
+   * @param vector The vector.
+   * @return The product.
+   */
+  private static long multiplyGf2Matrix(long[] matrix, long vector) {
+    long product = 0;
+    int index = 0;
+    while (vector != 0) {
+      if ((vector & 1) != 0) {
+        product ^= matrix[index];
+      }
+      vector >>>= 1;
+      index++;
+    }
+    return product;
+  }
+
+  /**
+   * Squares a GF(2) matrix.
+   *
+   * @param square Matrix to store the square in.
+   * @param matrix The matrix.
+   */
+  private static void squareGf2Matrix(long[] square, long[] matrix) {
+    for (int index = 0; index < 32; index++) {
+      square[index] = multiplyGf2Matrix(matrix, matrix[index]);
+    }
+  }
+
+  /**
+   * An entry to archive.
+   */
+  private static class ArchiveEntry {
+
+    /**
+     * Type of regular files, as in the tar header.
+     */
+    private static final char REGULAR_FILE = '0';
+
+    /**
+     * Type of symbolic links, as in the tar header.
+     */
+    private static final char SYMBOLIC_LINK = '2';
+
+    /**
+     * Type of directories, as in the tar header.
+     */
+    private static final char DIRECTORY = '5';
+
+    /**
+     * Path of the entry.
+     */
+    private final Path path;
+
+    /**
+     * Name of the entry in the archive, ending with '/' for directories.
+     */
+    private final String name;
+
+    /**
+     * Type of the entry.
+     */
+    private final char type;
+
+    /**
+     * Size of the entry, 0 for entries other than regular files.
+     */
+    private final long size;
+
+    /**
+     * Permissions of the entry.
+     */
+    private final int mode;
+
+    /**
+     * Last modified time of the entry.
+     */
+    private final Instant lastModifiedTime;
+
+    /**
+     * Target of the symbolic link, empty for other entries.
+     */
+    private final String linkTarget;
+
+    /**
+     * CRC32 of the chunks of the entry written so far, used for ZIP.
+     */
+    private long crc;
+
+    /**
+     * Compressed size of the chunks of the entry written so far, used for ZIP.
+     */
+    private long compressedSize;
+
+    /**
+     * Offset of the local file header of the entry, used for ZIP.
+     */
+    private long localHeaderOffset;
+
+    /**
+     * Abstracts an entry to archive.
+     *
+     * @param path             Path of the entry.
+     * @param name             Name of the entry in the archive.
+     * @param type             Type of the entry.
+     * @param size             Size of the entry.
+     * @param mode             Permissions of the entry.
+     * @param lastModifiedTime Last modified time of the entry.
+     * @param linkTarget       Target of the symbolic link, empty for other entries.
+     */
+    private ArchiveEntry(
+        Path path,
+        String name,
+        char type,
+        long size,
+        int mode,
+        Instant lastModifiedTime,
+        String linkTarget
+    ) {
+      this.path = path;
+      this.name = name;
+      this.type = type;
+      this.size = size;
+      this.mode = mode;
+      this.lastModifiedTime = lastModifiedTime;
+      this.linkTarget = linkTarget;
+    }
+
+    /**
+     * Checks if the entry is a regular file.
+     *
+     * @return true if the entry is a regular file, else false.
+     */
+    private boolean isRegularFile() {
+      return type == REGULAR_FILE;
+    }
+
+    /**
+     * Gets the Unix file type and permissions of the entry, as stored in the ZIP external
+     * attributes.
+     *
+     * @return The Unix mode.
+     */
+    private int getUnixMode() {
+      if (type == DIRECTORY) {
+        return 040000 | mode;
+      }
+      return (type == SYMBOLIC_LINK ? 0120000 : 0100000) | mode;
+    }
+  }
+
+  /**
+   * A chunk of an entry, compressed in parallel with the other chunks in flight.
+   */
+  private static class ArchiveChunk {
+
+    /**
+     * Entry the chunk belongs to.
+     */
+    private final ArchiveEntry archiveEntry;
+
+    /**
+     * Offset of the chunk in the entry.
+     */
+    private final long offset;
+
+    /**
+     * Length of the chunk.
+     */
+    private final int length;
+
+    /**
+     * If true the chunk is the first of its entry.
+     */
+    private final boolean isFirst;
+
+    /**
+     * If true the chunk is the last of its entry.
+     */
+    private final boolean isLast;
+
+    /**
+     * Compressed content of the chunk, set once compressed.
+     */
+    private byte[] data;
+
+    /**
+     * CRC32 of the uncompressed content of the chunk, set once compressed.
+     */
+    private long crc;
+
+    /**
+     * Length of the uncompressed content of the chunk, set once compressed.
+     */
+    private int uncompressedLength;
+
+    /**
+     * Abstracts a chunk of an entry.
+     *
+     * @param archiveEntry Entry the chunk belongs to.
+     * @param offset       Offset of the chunk in the entry.
+     * @param length       Length of the chunk.
+     * @param isFirst      If true the chunk is the first of its entry.
+     * @param isLast       If true the chunk is the last of its entry.
+     */
+    private ArchiveChunk(
+        ArchiveEntry archiveEntry,
+        long offset,
+        int length,
+        boolean isFirst,
+        boolean isLast
+    ) {
+      this.archiveEntry = archiveEntry;
+      this.offset = offset;
+      this.length = length;
+      this.isFirst = isFirst;
+      this.isLast = isLast;
+    }
+  }
+
+  /**
+   * Appends compressed chunks to an archive, in order, from a single thread.
+   */
+  private abstract static class ArchiveWriter {
+
+    /**
+     * Stream of the archive.
+     */
+    protected final OutputStream outputStream;
+
+    /**
+     * Number of bytes written to the archive.
+     */
+    protected long position = 0;
+
+    /**
+     * Number of entries written.
+     */
+    protected long entriesCount = 0;
+
+    /**
+     * Number of uncompressed bytes written.
+     */
+    protected long uncompressedBytesCount = 0;
+
+    /**
+     * Creates a writer.
+     *
+     * @param outputStream Stream of the archive.
+     */
+    private ArchiveWriter(OutputStream outputStream) {
+      this.outputStream = outputStream;
+    }
+
+    /**
+     * Appends a chunk to the archive.
+     *
+     * @param archiveChunk The compressed chunk.
+     * @throws IOException When there is an issue writing to the archive.
+     */
+    protected abstract void write(ArchiveChunk archiveChunk) throws IOException;
+
+    /**
+     * Writes the end of the archive.
+     *
+     * @throws IOException When there is an issue writing to the archive.
+     */
+    protected abstract void finish() throws IOException;
+
+    /**
+     * Writes bytes to the archive.
+     *
+     * @param bytes The bytes.
+     * @throws IOException When there is an issue writing to the archive.
+     */
+    protected void writeBytes(byte[] bytes) throws IOException {
+      outputStream.write(bytes);
+      position += bytes.length;
+    }
+  }
+
+  /**
+   * Writes the gzip members of the chunks one after the other.
+   */
+  private static class TarGzArchiveWriter extends ArchiveWriter {
+
+    /**
+     * Creates a tar.gz writer.
+     *
+     * @param outputStream Stream of the archive.
+     */
+    private TarGzArchiveWriter(OutputStream outputStream) {
+      super(outputStream);
+    }
+
+    /**
+     * Appends the gzip member of a chunk to the archive.
+     *
+     * @param archiveChunk The compressed chunk.
+     * @throws IOException When there is an issue writing to the archive.
+     */
+    @Override
+    protected void write(ArchiveChunk archiveChunk) throws IOException {
+      writeBytes(archiveChunk.data);
+      uncompressedBytesCount += archiveChunk.archiveEntry.isRegularFile()
+          ? archiveChunk.uncompressedLength
+          : 0;
+      if (archiveChunk.isLast) {
+        entriesCount++;
+      }
+    }
+
+    /**
+     * Writes the two zero blocks ending a tar archive, in a last gzip member.
+     *
+     * @throws IOException When there is an issue writing to the archive.
+     */
+    @Override
+    protected void finish() throws IOException {
+      ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+      try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(byteArrayOutputStream)) {
+        gzipOutputStream.write(new byte[2 * TAR_BLOCK_SIZE]);
+      }
+      writeBytes(byteArrayOutputStream.toByteArray());
+    }
+  }
+
+  /**
+   * Writes the local headers, compressed data and data descriptors of the entries, and the
+   * central directory at the end.
+   */
+  private static class ZipArchiveWriter extends ArchiveWriter {
+
+    /**
+     * General purpose flag for UTF-8 names.
+     */
+    private static final int FLAG_UTF8 = 0x0800;
+
+    /**
+     * General purpose flag for a data descriptor following the data.
+     */
+    private static final int FLAG_DATA_DESCRIPTOR = 0x0008;
+
+    /**
+     * Central directory headers of the entries written so far.
+     */
+    private final ByteArrayOutputStream centralDirectory = new ByteArrayOutputStream();
+
+    /**
+     * Creates a ZIP writer.
+     *
+     * @param outputStream Stream of the archive.
+     */
+    private ZipArchiveWriter(OutputStream outputStream) {
+      super(outputStream);
+    }
+
+    /**
+     * Appends a chunk to the archive, preceded by the local header of its entry if it's the first
+     * chunk, and followed by the data descriptor of its entry if it's the last.
+     *
+     * @param archiveChunk The compressed chunk.
+     * @throws IOException When there is an issue writing to the archive, or the ZIP limits are
+     *                     exceeded.
+     */
+    @Override
+    protected void write(ArchiveChunk archiveChunk) throws IOException {
+      ArchiveEntry archiveEntry = archiveChunk.archiveEntry;
+      boolean isDeflated = archiveEntry.isRegularFile();
+      if (archiveChunk.isFirst) {
+        archiveEntry.localHeaderOffset = position;
+        archiveEntry.crc = archiveChunk.crc;
+        // Stored entries are a single chunk, their CRC32 and size are already known.
+        writeBytes(createHeader(
+            archiveEntry,
+            false,
+            isDeflated ? 0 : archiveChunk.crc,
+            isDeflated ? 0 : archiveChunk.data.length,
+            isDeflated ? 0 : archiveChunk.uncompressedLength
+        ));
+      } else {
+        archiveEntry.crc = combineCrc32(
+            archiveEntry.crc,
+            archiveChunk.crc,
+            archiveChunk.uncompressedLength
+        );
+      }
+      writeBytes(archiveChunk.data);
+      archiveEntry.compressedSize += archiveChunk.data.length;
+      uncompressedBytesCount += isDeflated ? archiveChunk.uncompressedLength : 0;
+      if (!archiveChunk.isLast) {
+        return;
+      }
+
+      long uncompressedSize = isDeflated ? archiveEntry.size : archiveChunk.uncompressedLength;
+      if (isDeflated) {
+        ByteBuffer dataDescriptor = littleEndianBuffer(16);
+        dataDescriptor.putInt(0x08074b50);
+        dataDescriptor.putInt((int) archiveEntry.crc);
+        dataDescriptor.putInt((int) archiveEntry.compressedSize);
+        dataDescriptor.putInt((int) uncompressedSize);
+        writeBytes(dataDescriptor.array());
+      }
+      entriesCount++;
+      if (entriesCount > ZIP_MAX_ENTRIES
+          || position > ZIP_MAX_SIZE
+          || uncompressedSize > ZIP_MAX_SIZE) {
+        throw new IOException(
+            I18nUtility.getFormattedString(
+                "TreeArchiver.error.zipLimitsExceeded",
+                archiveEntry.path
+            )
+        );
+      }
+      centralDirectory.writeBytes(createHeader(
+          archiveEntry,
+          true,
+          archiveEntry.crc,
+          archiveEntry.compressedSize,
+          uncompressedSize
+      ));
+    }
+
+    /**
+     * Writes the central directory and its end record.
+     *
+     * @throws IOException When there is an issue writing to the archive.
+     */
+    @Override
+    protected void finish() throws IOException {
+      ByteBuffer endRecord = littleEndianBuffer(22);
+      endRecord.putInt(0x06054b50);
+      endRecord.putShort((short) 0);
+      endRecord.putShort((short) 0);
+      endRecord.putShort((short) entriesCount);
+      endRecord.putShort((short) entriesCount);
+      endRecord.putInt(centralDirectory.size());
+      // The central directory starts at the current position.
+      endRecord.putInt((int) position);
+      endRecord.putShort((short) 0);
+      writeBytes(centralDirectory.toByteArray());
+      writeBytes(endRecord.array());
+    }
+
+    /**
+     * Creates the local or central directory header of an entry.
+     *
+     * @param archiveEntry     The entry.
+     * @param isCentral        If true the central directory header is created, else the local
+     *                         header.
+     * @param crc              CRC32 of the entry.
+     * @param compressedSize   Compressed size of the entry.
+     * @param uncompressedSize Uncompressed size of the entry.
+     * @return The header.
+     */
+    private static byte[] createHeader(
+        ArchiveEntry archiveEntry,
+        boolean isCentral,
+        long crc,
+        long compressedSize,
+        long uncompressedSize
+    ) {
+      byte[] nameBytes = archiveEntry.name.getBytes(StandardCharsets.UTF_8);
+      ByteBuffer header = littleEndianBuffer((isCentral ? 46 : 30) + nameBytes.length);
+      header.putInt(isCentral ? 0x02014b50 : 0x04034b50);
+      if (isCentral) {
+        // Made by Unix, so that the external attributes hold the Unix mode.
+        header.putShort((short) (3 << 8 | 20));
+      }
+      header.putShort((short) 20);
+      boolean isDeflated = archiveEntry.isRegularFile();
+      header.putShort((short) (isDeflated ? FLAG_UTF8 | FLAG_DATA_DESCRIPTOR : FLAG_UTF8));
+      header.putShort((short) (isDeflated ? Deflater.DEFLATED : 0));
+      header.putInt(toDosDateTime(archiveEntry.lastModifiedTime));
+      header.putInt((int) crc);
+      header.putInt((int) compressedSize);
+      header.putInt((int) uncompressedSize);
+      header.putShort((short) nameBytes.length);
+      header.putShort((short) 0);
+      if (isCentral) {
+        header.putShort((short) 0);
+        header.putShort((short) 0);
+        header.putShort((short) 0);
+        header.putInt(archiveEntry.getUnixMode() << 16);
+        header.putInt((int) archiveEntry.localHeaderOffset);
+      }
+      header.put(nameBytes);
+      return header.array();
+    }
+
+    /**
+     * Converts a time to the MS-DOS date and time stored in ZIP headers, the time in the low 16
+     * bits and the date in the high 16 bits.
+     *
+     * @param instant The time.
+     * @return The MS-DOS date and time.
+     */
+    private static int toDosDateTime(Instant instant) {
+      LocalDateTime localDateTime = LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+      if (localDateTime.getYear() < 1980) {
+        localDateTime = LocalDateTime.of(1980, 1, 1, 0, 0);
+      }
+      return (localDateTime.getYear() - 1980) << 25
+          | localDateTime.getMonthValue() << 21
+          | localDateTime.getDayOfMonth() << 16
+          | localDateTime.getHour() << 11
+          | localDateTime.getMinute() << 5
+          | localDateTime.getSecond() >> 1;
+    }
+
+    /**
+     * Allocates a little endian buffer.
+     *
+     * @param capacity Capacity of the buffer.
+     * @return The buffer.
+     */
+    private static ByteBuffer littleEndianBuffer(int capacity) {
+      return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+  }
+}
@@ -0,0 +1,110 @@
+package org.padaiyal.utilities.filesystem.abstractions;
+
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchEvent.Kind;
+import java.time.Instant;
+
+/**
+ * A watch event delivered as part of a batch. All the entries drained together from a registered
+ * directory share the same parent path and drain timestamp. The path of an entry is the one already
+ * resolved for the bookkeeping of the event, so it isn't resolved again.
+ */
+public class WatchEventBatchEntry {
+
+  /**
+   * Directory the event was generated for.
+   */
+  private final Path parentPath;
+
+  /**
+   * Path that triggered the event.
+   */
+  private final Path path;
+
+  /**
+   * The generated event.
+   */
+  private final WatchEvent<?> event;
+
+  /**
+   * Time at which the event was drained from the watch service.
+   */
+  private final Instant drainedAt;
+
+  /**
+   * Abstracts a watch event delivered as part of a batch.
+   *
+   * @param parentPath Directory the event was generated for.
+   * @param path       Path that triggered the event.
+   * @param event      The generated event.
+   * @param drainedAt  Time at which the event was drained from the watch service.
+   */
+  public WatchEventBatchEntry(
+      Path parentPath,
+      Path path,
+      WatchEvent<?> event,
+      Instant drainedAt
+  ) {
+    this.parentPath = parentPath;
+    this.path = path;
+    this.event = event;
+    this.drainedAt = drainedAt;
+  }
+
+  /**
+   * Gets the directory the event was generated for.
+   *
+   * @return The directory the event was generated for.
+   */
+  public Path getParentPath() {
+    return parentPath;
+  }
+
+  /**
+   * Gets the path that triggered the event.
+   *
+   * @return The path that triggered the event, the parent path for events without a context like
+   *         OVERFLOW.
+   */
+  public Path getPath() {
+    return path;
+  }
+
+  /**
+   * Gets the generated event.
+   *
+   * @return The generated event.
+   */
+  public WatchEvent<?> getEvent() {
+    return event;
+  }
+
+  /**
+   * Gets the type of the event.
+   *
+   * @return The type of the event.
+   */
+  public Kind<?> getKind() {
+    return event.kind();
+  }
+
+  /**
+   * Gets the time at which the event was drained from the watch service.
+   *
+   * @return The time at which the event was drained.
+   */
+  public Instant getDrainedAt() {
+    return drainedAt;
+  }
+
+  /**
+   * Gets a string representation of the entry.
+   *
+   * @return String representation of the entry.
+   */
+  @Override
+  public String toString() {
+    return drainedAt + " " + event.kind().name() + " " + getPath();
+  }
+}
@@ -0,0 +1,179 @@
+package org.padaiyal.utilities.filesystem.abstractions;
+
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Collects watch events into ordered, immutable batches for consumers that would rather process
+ * events in bulk, e.g. one transaction per batch. It's registered as the consumer of a directory,
+ * and the background thread marks the start and end of every drain of a registered directory.
+ *
+ * <p>With a zero max delay, the events drained together from a directory are delivered as one
+ * batch at the end of the drain. Otherwise events are accumulated across drains until the batch
+ * reaches the max size or its oldest event reaches the max delay. A non positive max size doesn't
+ * limit the size of a batch.
+ */
+public class WatchEventBatcher implements BiConsumer<Path, WatchEvent<?>> {
+
+  /**
+   * The callback to invoke with every batch.
+   */
+  private final Consumer<List<WatchEventBatchEntry>> batchConsumer;
+
+  /**
+   * Maximum number of events in a batch, non positive for no limit.
+   */
+  private final int maxBatchSize;
+
+  /**
+   * Maximum time in nanoseconds an event is held back, 0 to deliver at the end of every drain.
+   */
+  private final long maxDelayInNanoSeconds;
+
+  /**
+   * Events not delivered yet.
+   */
+  private List<WatchEventBatchEntry> pendingEntries = new ArrayList<>();
+
+  /**
+   * Value of System.nanoTime() when the oldest pending event was added.
+   */
+  private long oldestPendingEntryNanoTime;
+
+  /**
+   * Directory being drained, null outside of a drain.
+   */
+  private Path drainParentPath;
+
+  /**
+   * Time at which the current drain started, null outside of a drain.
+   */
+  private Instant drainInstant;
+
+  static {
+    I18nUtility.addResourceBundle(
+        WatchEventBatcher.class,
+        WatchEventBatcher.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Creates a batcher delivering the events drained together from a directory as one batch.
+   *
+   * @param batchConsumer The callback to invoke with every batch.
+   */
+  public WatchEventBatcher(Consumer<List<WatchEventBatchEntry>> batchConsumer) {
+    this(batchConsumer, 0, Duration.ZERO);
+  }
+
+  /**
+   * Creates a batcher accumulating events up to a max size or delay.
+   *
+   * @param batchConsumer The callback to invoke with every batch.
+   * @param maxBatchSize  Maximum number of events in a batch, non positive for no limit.
+   * @param maxDelay      Maximum time an event is held back, zero to deliver at the end of every
+   *                      drain.
+   */
+  public WatchEventBatcher(
+      Consumer<List<WatchEventBatchEntry>> batchConsumer,
+      int maxBatchSize,
+      Duration maxDelay
+  ) {
+    this.batchConsumer = Objects.requireNonNull(batchConsumer);
+    Objects.requireNonNull(maxDelay);
+    if (maxDelay.isNegative()) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString("WatchEventBatcher.error.negativeMaxDelay", maxDelay)
+      );
+    }
+    this.maxBatchSize = maxBatchSize;
+    this.maxDelayInNanoSeconds = maxDelay.toNanos();
+  }
+
+  /**
+   * Marks the start of a drain of the events generated for a directory.
+   *
+   * @param parentPath Directory being drained, shared by all the events of the drain.
+   */
+  public synchronized void beginDrain(Path parentPath) {
+    drainParentPath = parentPath;
+    drainInstant = Instant.now();
+  }
+
+  /**
+   * Adds an event to the pending batch.
+   *
+   * @param path  Path that triggered the event.
+   * @param event The generated event.
+   */
+  @Override
+  public synchronized void accept(Path path, WatchEvent<?> event) {
+    Path parentPath = drainParentPath;
+    if (parentPath == null) {
+      parentPath = event.context() == null ? path : path.getParent();
+    }
+    if (pendingEntries.isEmpty()) {
+      oldestPendingEntryNanoTime = System.nanoTime();
+    }
+    pendingEntries.add(new WatchEventBatchEntry(
+        parentPath,
+        path,
+        event,
+        drainInstant == null ? Instant.now() : drainInstant
+    ));
+    if (maxBatchSize > 0 && pendingEntries.size() >= maxBatchSize) {
+      flush();
+    }
+  }
+
+  /**
+   * Marks the end of a drain, delivering the pending batch if it's due.
+   */
+  public synchronized void endDrain() {
+    drainParentPath = null;
+    drainInstant = null;
+    flushIfDue();
+  }
+
+  /**
+   * Delivers the pending batch if its oldest event has reached the max delay.
+   */
+  public synchronized void flushIfDue() {
+    if (!pendingEntries.isEmpty()
+        && System.nanoTime() - oldestPendingEntryNanoTime >= maxDelayInNanoSeconds) {
+      flush();
+    }
+  }
+
+  /**
+   * Delivers the pending batch, if any.
+   */
+  public synchronized void flush() {
+    if (pendingEntries.isEmpty()) {
+      return;
+    }
+    List<WatchEventBatchEntry> batch = Collections.unmodifiableList(pendingEntries);
+    pendingEntries = new ArrayList<>();
+    batchConsumer.accept(batch);
+  }
+
+  /**
+   * Gets the number of events not delivered yet.
+   *
+   * @return The number of pending events.
+   */
+  public synchronized int getPendingEventsCount() {
+    return pendingEntries.size();
+  }
+}
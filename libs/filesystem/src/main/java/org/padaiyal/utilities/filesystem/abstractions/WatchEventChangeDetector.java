@@ -0,0 +1,239 @@
+package org.padaiyal.utilities.filesystem.abstractions;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Detects ENTRY_MODIFY events that didn't change a file, e.g. editors and build tools touching
+ * files without changing their content. The size and last modified time of every file reported as
+ * modified are remembered, and a modification is considered a no-op when both are unchanged. Since
+ * a file can be rewritten with the same size within the granularity of its last modified time,
+ * both being unchanged is only trusted if the remembered last modified time was older than that
+ * granularity when it was recorded.
+ *
+ * <p>When content hashing is enabled, a file whose size is unchanged is hashed with CRC32C over a
+ * memory mapped read, and the modification is considered a no-op if the hash is unchanged. Hashes
+ * are computed lazily, only when the size matches the remembered one, so the first report of a
+ * file never hashes it. Files larger than the max hashed file size are never hashed. A file seen
+ * for the first time is always considered changed.
+ *
+ * <p>The number of remembered files is bounded, the least recently reported file is forgotten once
+ * the bound is reached.
+ */
+public class WatchEventChangeDetector {
+
+  /**
+   * Logger object used to log information and errors.
+   */
+  private static final Logger logger = LogManager.getLogger(WatchEventChangeDetector.class);
+
+  /**
+   * Hash value used when the hash of a file hasn't been computed.
+   */
+  private static final long HASH_NOT_COMPUTED = -1;
+
+  /**
+   * Coarsest granularity of the last modified time among the common file systems (FAT), within
+   * which two writes can leave the same last modified time.
+   */
+  private static final long LAST_MODIFIED_TIME_GRANULARITY_IN_MILLISECONDS = 2000;
+
+  /**
+   * Maximum number of files whose state is remembered.
+   */
+  private final int maxTrackedFiles;
+
+  /**
+   * Maximum size of the files to hash, non positive to disable hashing.
+   */
+  private final long maxHashedFileSizeInBytes;
+
+  /**
+   * Size, last modified time, content hash and time of recording of the remembered files, in least
+   * recently reported order.
+   */
+  private final LinkedHashMap<Path, long[]> pathToFileStateMap;
+
+  /**
+   * Number of modifications considered to be no-ops.
+   */
+  private long suppressedEventsCount = 0;
+
+  /**
+   * Number of files hashed.
+   */
+  private long hashedFilesCount = 0;
+
+  static {
+    I18nUtility.addResourceBundle(
+        WatchEventChangeDetector.class,
+        WatchEventChangeDetector.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Creates a detector comparing the size and last modified time of files.
+   *
+   * @param maxTrackedFiles Maximum number of files whose state is remembered.
+   */
+  public WatchEventChangeDetector(int maxTrackedFiles) {
+    this(maxTrackedFiles, 0);
+  }
+
+  /**
+   * Creates a detector comparing the size, last modified time and optionally the content hash of
+   * files.
+   *
+   * @param maxTrackedFiles          Maximum number of files whose state is remembered.
+   * @param maxHashedFileSizeInBytes Maximum size of the files to hash, non positive to disable
+   *                                 hashing.
+   */
+  public WatchEventChangeDetector(int maxTrackedFiles, long maxHashedFileSizeInBytes) {
+    if (maxTrackedFiles <= 0) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "WatchEventChangeDetector.error.invalidMaxTrackedFiles",
+              maxTrackedFiles
+          )
+      );
+    }
+    this.maxTrackedFiles = maxTrackedFiles;
+    this.maxHashedFileSizeInBytes = maxHashedFileSizeInBytes;
+    this.pathToFileStateMap = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Path, long[]> eldest) {
+        return size() > WatchEventChangeDetector.this.maxTrackedFiles;
+      }
+    };
+  }
+
+  /**
+   * Checks if a file reported as modified has changed since it was last reported, and remembers
+   * its current state.
+   *
+   * @param path Path of the file reported as modified.
+   * @return true if the file changed, is seen for the first time or can't be read, else false.
+   */
+  public synchronized boolean hasChanged(Path path) {
+    Objects.requireNonNull(path);
+    BasicFileAttributes attributes;
+    try {
+      attributes = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+    } catch (IOException e) {
+      pathToFileStateMap.remove(path);
+      return true;
+    }
+    long size = attributes.size();
+    long lastModifiedTime = attributes.lastModifiedTime().toMillis();
+    long recordingTime = System.currentTimeMillis();
+    long[] previousState = pathToFileStateMap.get(path);
+
+    if (previousState == null || previousState[0] != size) {
+      // The hash is only needed when the size matches, it's computed by the next report if so.
+      pathToFileStateMap.put(
+          path,
+          new long[]{size, lastModifiedTime, HASH_NOT_COMPUTED, recordingTime}
+      );
+      return true;
+    }
+    boolean isHashable = maxHashedFileSizeInBytes > 0
+        && attributes.isRegularFile()
+        && size <= maxHashedFileSizeInBytes;
+    long hash = isHashable ? computeHash(path) : HASH_NOT_COMPUTED;
+    boolean isUnchanged;
+    if (hash != HASH_NOT_COMPUTED && previousState[2] != HASH_NOT_COMPUTED) {
+      isUnchanged = hash == previousState[2];
+    } else {
+      isUnchanged = previousState[1] == lastModifiedTime
+          && previousState[3] - previousState[1] >= LAST_MODIFIED_TIME_GRANULARITY_IN_MILLISECONDS;
+    }
+    pathToFileStateMap.put(path, new long[]{size, lastModifiedTime, hash, recordingTime});
+    if (isUnchanged) {
+      suppressedEventsCount++;
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Forgets the state of a file, e.g. when it's created or deleted.
+   *
+   * @param path Path of the file.
+   */
+  public synchronized void forget(Path path) {
+    pathToFileStateMap.remove(path);
+  }
+
+  /**
+   * Gets the number of files whose state is remembered.
+   *
+   * @return The number of remembered files.
+   */
+  public synchronized int getTrackedFilesCount() {
+    return pathToFileStateMap.size();
+  }
+
+  /**
+   * Gets the number of modifications considered to be no-ops.
+   *
+   * @return The number of suppressed events.
+   */
+  public synchronized long getSuppressedEventsCount() {
+    return suppressedEventsCount;
+  }
+
+  /**
+   * Gets the number of files hashed.
+   *
+   * @return The number of hashed files.
+   */
+  public synchronized long getHashedFilesCount() {
+    return hashedFilesCount;
+  }
+
+  /**
+   * Computes the CRC32C of the content of a file, reading it through a memory mapping.
+   *
+   * @param path Path of the file.
+   * @return The hash, HASH_NOT_COMPUTED if the file can't be read.
+   */
+  private long computeHash(Path path) {
+    CRC32C crc32c = new CRC32C();
+    try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = fileChannel.size();
+      long position = 0;
+      while (position < size) {
+        long chunkSize = Math.min(Integer.MAX_VALUE, size - position);
+        MappedByteBuffer mappedByteBuffer =
+            fileChannel.map(FileChannel.MapMode.READ_ONLY, position, chunkSize);
+        crc32c.update(mappedByteBuffer);
+        position += chunkSize;
+      }
+    } catch (NoSuchFileException e) {
+      return HASH_NOT_COMPUTED;
+    } catch (IOException e) {
+      logger.warn(() ->
+          I18nUtility.getFormattedString(
+              "WatchEventChangeDetector.warn.unableToHash", path, e.getMessage()));
+      return HASH_NOT_COMPUTED;
+    }
+    hashedFilesCount++;
+    return crc32c.getValue();
+  }
+}
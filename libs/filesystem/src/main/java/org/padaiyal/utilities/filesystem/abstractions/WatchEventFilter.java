@@ -0,0 +1,243 @@
+package org.padaiyal.utilities.filesystem.abstractions;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.WatchEvent.Kind;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+import java.util.regex.Pattern;
+
+/**
+ * Include and exclude filters applied to the watch events of a registration. Filters are
+ * evaluated on the raw context of the event, the name of the entry relative to the registered
+ * directory, before the event is recorded or delivered. Directories matched by an exclude filter
+ * for ENTRY_CREATE aren't registered with a WatchService at all, while include filters only
+ * restrict the events recorded and delivered, so that the events of the entries they match are
+ * still generated in subdirectories they don't match.
+ *
+ * <p>An event is accepted if no exclude filter matches it, and either there are no include
+ * filters or at least one of them matches it. Instances are immutable, every method that adds a
+ * filter returns a new instance.
+ *
+ * <p>A change detector can be attached to suppress the ENTRY_MODIFY events that didn't change the
+ * file. Unlike the other filters it's evaluated on the resolved path, and its state is shared by
+ * all the directories registered with the filter.
+ */
+public class WatchEventFilter {
+
+  /**
+   * Filter that accepts every event.
+   */
+  public static final WatchEventFilter ACCEPT_ALL = new WatchEventFilter();
+
+  /**
+   * Filters of which at least one has to match, if any.
+   */
+  private final List<BiPredicate<Path, Kind<?>>> includeFilters;
+
+  /**
+   * Filters of which none can match.
+   */
+  private final List<BiPredicate<Path, Kind<?>>> excludeFilters;
+
+  /**
+   * Detector used to suppress the ENTRY_MODIFY events that didn't change the file, null if none.
+   */
+  private final WatchEventChangeDetector changeDetector;
+
+  /**
+   * Creates a filter that accepts every event.
+   */
+  public WatchEventFilter() {
+    this(Collections.emptyList(), Collections.emptyList(), null);
+  }
+
+  /**
+   * Creates a filter with the specified include and exclude filters.
+   *
+   * @param includeFilters Filters of which at least one has to match, if any.
+   * @param excludeFilters Filters of which none can match.
+   * @param changeDetector Detector used to suppress the ENTRY_MODIFY events that didn't change
+   *                       the file, null if none.
+   */
+  private WatchEventFilter(
+      List<BiPredicate<Path, Kind<?>>> includeFilters,
+      List<BiPredicate<Path, Kind<?>>> excludeFilters,
+      WatchEventChangeDetector changeDetector
+  ) {
+    this.includeFilters = includeFilters;
+    this.excludeFilters = excludeFilters;
+    this.changeDetector = changeDetector;
+  }
+
+  /**
+   * Returns a filter that also includes the entries whose name matches the specified glob.
+   *
+   * @param glob Glob to match the entry name against, as supported by PathMatcher.
+   * @return The new filter.
+   */
+  public WatchEventFilter includeGlob(String glob) {
+    return include(toGlobFilter(glob));
+  }
+
+  /**
+   * Returns a filter that also excludes the entries whose name matches the specified glob.
+   *
+   * @param glob Glob to match the entry name against, as supported by PathMatcher.
+   * @return The new filter.
+   */
+  public WatchEventFilter excludeGlob(String glob) {
+    return exclude(toGlobFilter(glob));
+  }
+
+  /**
+   * Returns a filter that also includes the entries whose name matches the specified regex.
+   *
+   * @param regex Regex to match the whole entry name against.
+   * @return The new filter.
+   */
+  public WatchEventFilter includeRegex(String regex) {
+    return include(toRegexFilter(regex));
+  }
+
+  /**
+   * Returns a filter that also excludes the entries whose name matches the specified regex.
+   *
+   * @param regex Regex to match the whole entry name against.
+   * @return The new filter.
+   */
+  public WatchEventFilter excludeRegex(String regex) {
+    return exclude(toRegexFilter(regex));
+  }
+
+  /**
+   * Returns a filter that also includes the events matching the specified predicate.
+   *
+   * @param predicate Predicate on the entry name and the event type.
+   * @return The new filter.
+   */
+  public WatchEventFilter include(BiPredicate<Path, Kind<?>> predicate) {
+    Objects.requireNonNull(predicate);
+    List<BiPredicate<Path, Kind<?>>> newIncludeFilters = new ArrayList<>(includeFilters);
+    newIncludeFilters.add(predicate);
+    return new WatchEventFilter(
+        Collections.unmodifiableList(newIncludeFilters),
+        excludeFilters,
+        changeDetector
+    );
+  }
+
+  /**
+   * Returns a filter that also excludes the events matching the specified predicate.
+   *
+   * @param predicate Predicate on the entry name and the event type.
+   * @return The new filter.
+   */
+  public WatchEventFilter exclude(BiPredicate<Path, Kind<?>> predicate) {
+    Objects.requireNonNull(predicate);
+    List<BiPredicate<Path, Kind<?>>> newExcludeFilters = new ArrayList<>(excludeFilters);
+    newExcludeFilters.add(predicate);
+    return new WatchEventFilter(
+        includeFilters,
+        Collections.unmodifiableList(newExcludeFilters),
+        changeDetector
+    );
+  }
+
+  /**
+   * Returns a filter that also suppresses the ENTRY_MODIFY events that didn't change the file, as
+   * determined by the specified detector.
+   *
+   * @param changeDetector Detector remembering the state of the modified files.
+   * @return The new filter.
+   */
+  public WatchEventFilter suppressUnchangedModifications(WatchEventChangeDetector changeDetector) {
+    Objects.requireNonNull(changeDetector);
+    return new WatchEventFilter(includeFilters, excludeFilters, changeDetector);
+  }
+
+  /**
+   * Gets the detector used to suppress the ENTRY_MODIFY events that didn't change the file.
+   *
+   * @return The change detector, null if none.
+   */
+  public WatchEventChangeDetector getChangeDetector() {
+    return changeDetector;
+  }
+
+  /**
+   * Checks if an event is accepted by the filter.
+   *
+   * @param context Name of the entry relative to the registered directory.
+   * @param kind    Type of the event.
+   * @return true if the event is accepted, else false.
+   */
+  public boolean test(Path context, Kind<?> kind) {
+    if (isExcluded(context, kind)) {
+      return false;
+    }
+    if (includeFilters.isEmpty()) {
+      return true;
+    }
+    for (BiPredicate<Path, Kind<?>> includeFilter : includeFilters) {
+      if (includeFilter.test(context, kind)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks if an event is matched by an exclude filter. Used to prune the directories that aren't
+   * registered, since an entry not matched by the include filters can still contain entries that
+   * are.
+   *
+   * @param context Name of the entry relative to the registered directory.
+   * @param kind    Type of the event.
+   * @return true if an exclude filter matches the event, else false.
+   */
+  public boolean isExcluded(Path context, Kind<?> kind) {
+    for (BiPredicate<Path, Kind<?>> excludeFilter : excludeFilters) {
+      if (excludeFilter.test(context, kind)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks if the filter accepts every event.
+   *
+   * @return true if no filters or change detector have been added, else false.
+   */
+  public boolean isAcceptAll() {
+    return includeFilters.isEmpty() && excludeFilters.isEmpty() && changeDetector == null;
+  }
+
+  /**
+   * Creates a filter matching the entry name against a glob.
+   *
+   * @param glob Glob to match the entry name against.
+   * @return The filter.
+   */
+  private static BiPredicate<Path, Kind<?>> toGlobFilter(String glob) {
+    Objects.requireNonNull(glob);
+    PathMatcher pathMatcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+    return (context, kind) -> pathMatcher.matches(context);
+  }
+
+  /**
+   * Creates a filter matching the entry name against a regex.
+   *
+   * @param regex Regex to match the whole entry name against.
+   * @return The filter.
+   */
+  private static BiPredicate<Path, Kind<?>> toRegexFilter(String regex) {
+    Pattern pattern = Pattern.compile(Objects.requireNonNull(regex));
+    return (context, kind) -> pattern.matcher(context.toString()).matches();
+  }
+}
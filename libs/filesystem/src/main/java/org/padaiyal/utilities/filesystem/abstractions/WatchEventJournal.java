@@ -0,0 +1,929 @@
+package org.padaiyal.utilities.filesystem.abstractions;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent.Kind;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Append only journal of watch events persisted in pre-allocated, memory mapped segment files.
+ * When the active segment is full, it is sealed and a new segment is started. Sealed segments can
+ * be compacted into a single segment that only retains the most recent event of every path.
+ *
+ * <p>Records are committed by writing their length after their body, so a record that was being
+ * written when the process died is ignored when the journal is opened again. Snapshot checkpoints
+ * of a directory tree can be taken, and the tree can be diffed against the last checkpoint on
+ * startup to generate the events that were missed while the process was down. The differences
+ * explained by the events journaled after the checkpoint was taken aren't generated again.
+ *
+ * <p>Segment layout: magic (int), version (int), first sequence (long), state (int), last
+ * sequence covered by a compacted segment (long), followed by records. Record layout: body length
+ * (int), sequence (long), timestamp (long), kind (byte), path length (short), path (UTF-8 bytes).
+ */
+public class WatchEventJournal implements Closeable {
+
+  /**
+   * Logger object used to log information and errors.
+   */
+  private static final Logger logger = LogManager.getLogger(WatchEventJournal.class);
+
+  /**
+   * Magic number at the start of every segment and checkpoint file.
+   */
+  private static final int MAGIC = 0x574A524E;
+
+  /**
+   * Version of the segment and checkpoint file format.
+   */
+  private static final int VERSION = 1;
+
+  /**
+   * Size of the segment header in bytes.
+   */
+  private static final int SEGMENT_HEADER_SIZE = 28;
+
+  /**
+   * Offset of the state field in the segment header.
+   */
+  private static final int STATE_OFFSET = 16;
+
+  /**
+   * Offset of the compacted up to sequence field in the segment header.
+   */
+  private static final int COMPACTED_UP_TO_OFFSET = 20;
+
+  /**
+   * Size of the fixed part of a record, including the length prefix.
+   */
+  private static final int RECORD_OVERHEAD = 4 + 8 + 8 + 1 + 2;
+
+  /**
+   * State of a segment that records are appended to.
+   */
+  private static final int STATE_ACTIVE = 0;
+
+  /**
+   * State of a compacted segment that has been completely written.
+   */
+  private static final int STATE_COMPACTED = 1;
+
+  /**
+   * State of a compacted segment that is being written.
+   */
+  private static final int STATE_COMPACTING = 2;
+
+  /**
+   * File extension of the segment files.
+   */
+  private static final String SEGMENT_FILE_EXTENSION = ".wej";
+
+  /**
+   * Directory in which the segment and checkpoint files are stored.
+   */
+  private final Path directory;
+
+  /**
+   * Size of a segment file in bytes.
+   */
+  private final int segmentSizeInBytes;
+
+  /**
+   * Segments in the ascending order of their first sequence. The last one is the active segment.
+   */
+  private final List<Segment> segments = new ArrayList<>();
+
+  /**
+   * Sequence number to assign to the next record.
+   */
+  private long nextSequence = 1;
+
+  /**
+   * Generation number to use in the name of the next segment file.
+   */
+  private long nextGeneration = 1;
+
+  static {
+    I18nUtility.addResourceBundle(
+        WatchEventJournal.class,
+        WatchEventJournal.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Opens the journal stored in the specified directory, creating it if needed.
+   *
+   * @param directory          Directory in which the segment and checkpoint files are stored.
+   * @param segmentSizeInBytes Size of a segment file in bytes. Segment files are pre-allocated to
+   *                           this size.
+   * @throws IOException When there is an issue reading or creating the segment files.
+   */
+  public WatchEventJournal(Path directory, int segmentSizeInBytes) throws IOException {
+    Objects.requireNonNull(directory);
+    if (segmentSizeInBytes < SEGMENT_HEADER_SIZE + RECORD_OVERHEAD) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "WatchEventJournal.error.segmentSizeTooSmall",
+              segmentSizeInBytes,
+              SEGMENT_HEADER_SIZE + RECORD_OVERHEAD
+          )
+      );
+    }
+    this.directory = directory.toAbsolutePath();
+    this.segmentSizeInBytes = segmentSizeInBytes;
+    Files.createDirectories(this.directory);
+    openSegments();
+  }
+
+  /**
+   * Appends an event to the journal.
+   *
+   * @param kind Type of the event.
+   * @param path Absolute path that triggered the event.
+   * @return The sequence number assigned to the event.
+   * @throws IOException When there is an issue starting a new segment.
+   */
+  public synchronized long append(Kind<?> kind, Path path) throws IOException {
+    return append(nextSequence, System.currentTimeMillis(), kind, path);
+  }
+
+  /**
+   * Appends an event with the specified sequence number and timestamp to the journal.
+   *
+   * @param sequence                Sequence number of the event.
+   * @param timestampInMilliSeconds Epoch time in milliseconds at which the event was recorded.
+   * @param kind                    Type of the event.
+   * @param path                    Absolute path that triggered the event.
+   * @return The sequence number assigned to the event.
+   * @throws IOException When there is an issue starting a new segment.
+   */
+  private long append(long sequence, long timestampInMilliSeconds, Kind<?> kind, Path path)
+      throws IOException {
+    Objects.requireNonNull(kind);
+    byte[] pathBytes = path.toAbsolutePath().toString().getBytes(StandardCharsets.UTF_8);
+    int recordSize = RECORD_OVERHEAD + pathBytes.length;
+    if (pathBytes.length > Short.MAX_VALUE
+        || recordSize > segmentSizeInBytes - SEGMENT_HEADER_SIZE) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString("WatchEventJournal.error.recordTooLarge", path)
+      );
+    }
+    Segment activeSegment = segments.get(segments.size() - 1);
+    if (activeSegment.writePosition + recordSize > activeSegment.buffer.capacity()) {
+      activeSegment = startSegment(sequence, segmentSizeInBytes, STATE_ACTIVE);
+    }
+    writeRecord(activeSegment, sequence, timestampInMilliSeconds, kind, pathBytes);
+    nextSequence = sequence + 1;
+    return sequence;
+  }
+
+  /**
+   * Writes a record at the write position of a segment. The length is written last, so that a
+   * partially written record is never read.
+   *
+   * @param segment                 Segment to write the record to.
+   * @param sequence                Sequence number of the event.
+   * @param timestampInMilliSeconds Epoch time in milliseconds at which the event was recorded.
+   * @param kind                    Type of the event.
+   * @param pathBytes               UTF-8 bytes of the absolute path that triggered the event.
+   */
+  private static void writeRecord(
+      Segment segment,
+      long sequence,
+      long timestampInMilliSeconds,
+      Kind<?> kind,
+      byte[] pathBytes
+  ) {
+    MappedByteBuffer buffer = segment.buffer;
+    int recordStart = segment.writePosition;
+    buffer.position(recordStart + 4);
+    buffer.putLong(sequence);
+    buffer.putLong(timestampInMilliSeconds);
+    buffer.put(WatchEventJournalRecord.toKindCode(kind));
+    buffer.putShort((short) pathBytes.length);
+    buffer.put(pathBytes);
+    buffer.putInt(recordStart, RECORD_OVERHEAD - 4 + pathBytes.length);
+    segment.writePosition = buffer.position();
+    segment.lastSequence = sequence;
+  }
+
+  /**
+   * Replays the events in the journal starting from the specified sequence number.
+   *
+   * @param fromSequence Sequence number of the first event to replay.
+   * @param consumer     The callback to invoke with every replayed event.
+   */
+  public synchronized void replay(long fromSequence, Consumer<WatchEventJournalRecord> consumer) {
+    Objects.requireNonNull(consumer);
+    for (Segment segment : segments) {
+      if (segment.lastSequence < fromSequence) {
+        continue;
+      }
+      readRecords(segment.buffer, record -> {
+        if (record.getSequence() >= fromSequence) {
+          consumer.accept(record);
+        }
+      });
+    }
+  }
+
+  /**
+   * Gets the events in the journal starting from the specified sequence number.
+   *
+   * @param fromSequence Sequence number of the first event to return.
+   * @return The events in the ascending order of their sequence numbers.
+   */
+  public List<WatchEventJournalRecord> getRecords(long fromSequence) {
+    List<WatchEventJournalRecord> records = new ArrayList<>();
+    replay(fromSequence, records::add);
+    return records;
+  }
+
+  /**
+   * Gets the sequence number of the last event appended to the journal.
+   *
+   * @return The sequence number of the last event, 0 if the journal is empty.
+   */
+  public synchronized long getLastSequence() {
+    return nextSequence - 1;
+  }
+
+  /**
+   * Gets the number of segment files in the journal, including the active segment.
+   *
+   * @return The number of segment files.
+   */
+  public synchronized int getSegmentCount() {
+    return segments.size();
+  }
+
+  /**
+   * Flushes the records written to the active segment onto the storage device.
+   */
+  public synchronized void force() {
+    segments.get(segments.size() - 1).buffer.force();
+  }
+
+  /**
+   * Compacts all the sealed segments into a single segment that only retains the most recent
+   * event of every path, along with its original sequence number. The active segment isn't
+   * compacted.
+   *
+   * @return The number of events removed by the compaction.
+   * @throws IOException When there is an issue writing or deleting the segment files.
+   */
+  public synchronized long compact() throws IOException {
+    List<Segment> sealedSegments = new ArrayList<>(segments.subList(0, segments.size() - 1));
+    if (sealedSegments.isEmpty()) {
+      return 0;
+    }
+
+    Map<Path, WatchEventJournalRecord> pathToLatestRecordMap = new LinkedHashMap<>();
+    long[] recordCount = {0};
+    for (Segment sealedSegment : sealedSegments) {
+      readRecords(sealedSegment.buffer, record -> {
+        // Re-insert to keep the map ordered by the sequence of the latest record.
+        pathToLatestRecordMap.remove(record.getPath());
+        pathToLatestRecordMap.put(record.getPath(), record);
+        recordCount[0]++;
+      });
+    }
+    if (sealedSegments.size() == 1 && recordCount[0] == pathToLatestRecordMap.size()) {
+      return 0;
+    }
+
+    int compactedSize = SEGMENT_HEADER_SIZE;
+    for (WatchEventJournalRecord record : pathToLatestRecordMap.values()) {
+      compactedSize += RECORD_OVERHEAD
+          + record.getPath().toString().getBytes(StandardCharsets.UTF_8).length;
+    }
+    Segment lastSealedSegment = sealedSegments.get(sealedSegments.size() - 1);
+    long firstSequence = pathToLatestRecordMap.isEmpty()
+        ? lastSealedSegment.lastSequence
+        : pathToLatestRecordMap.values().iterator().next().getSequence();
+    Segment compactedSegment = createSegment(firstSequence, compactedSize, STATE_COMPACTING);
+    for (WatchEventJournalRecord record : pathToLatestRecordMap.values()) {
+      writeRecord(
+          compactedSegment,
+          record.getSequence(),
+          record.getTimestamp().toEpochMilli(),
+          record.kind(),
+          record.getPath().toString().getBytes(StandardCharsets.UTF_8)
+      );
+    }
+    // Mark the compacted segment complete only once all of it is on the storage device, the
+    // sealed segments it replaces are deleted after that.
+    compactedSegment.buffer.putLong(COMPACTED_UP_TO_OFFSET, lastSealedSegment.lastSequence);
+    compactedSegment.buffer.force();
+    compactedSegment.buffer.putInt(STATE_OFFSET, STATE_COMPACTED);
+    compactedSegment.buffer.force();
+
+    for (Segment sealedSegment : sealedSegments) {
+      sealedSegment.close();
+      Files.deleteIfExists(sealedSegment.file);
+      segments.remove(sealedSegment);
+    }
+    segments.add(0, compactedSegment);
+
+    long removedRecordsCount = recordCount[0] - pathToLatestRecordMap.size();
+    logger.debug(() -> I18nUtility.getFormattedString(
+        "WatchEventJournal.debug.compacted",
+        sealedSegments.size(),
+        removedRecordsCount
+    ));
+    return removedRecordsCount;
+  }
+
+  /**
+   * Takes a snapshot of the specified directory tree and persists it along with the sequence number
+   * of the last event in the journal. A later call to recoverMissedEvents() diffs the tree against
+   * this snapshot.
+   *
+   * @param root Root of the directory tree to snapshot.
+   * @throws IOException When there is an issue walking the tree or writing the checkpoint.
+   */
+  public void checkpoint(Path root) throws IOException {
+    Path absoluteRoot = root.toAbsolutePath();
+    long lastSequence = getLastSequence();
+    Map<String, FileState> snapshot = takeSnapshot(absoluteRoot);
+
+    Path checkpointFile = getCheckpointFile(absoluteRoot);
+    Path temporaryCheckpointFile = checkpointFile.resolveSibling(
+        checkpointFile.getFileName() + ".tmp"
+    );
+    try (
+        DataOutputStream dataOutputStream = new DataOutputStream(
+            new BufferedOutputStream(Files.newOutputStream(temporaryCheckpointFile))
+        )
+    ) {
+      dataOutputStream.writeInt(MAGIC);
+      dataOutputStream.writeInt(VERSION);
+      dataOutputStream.writeLong(lastSequence);
+      dataOutputStream.writeUTF(absoluteRoot.toString());
+      dataOutputStream.writeInt(snapshot.size());
+      for (Map.Entry<String, FileState> entry : snapshot.entrySet()) {
+        dataOutputStream.writeUTF(entry.getKey());
+        dataOutputStream.writeLong(entry.getValue().lastModifiedTimeInMilliSeconds);
+        dataOutputStream.writeLong(entry.getValue().size);
+        dataOutputStream.writeBoolean(entry.getValue().isDirectory);
+      }
+    }
+    Files.move(
+        temporaryCheckpointFile,
+        checkpointFile,
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE
+    );
+  }
+
+  /**
+   * Diffs the specified directory tree against its last checkpoint, appends the events that explain
+   * the differences to the journal and takes a new checkpoint. Nothing is generated if the tree has
+   * never been checkpointed. A difference is left out if the last event journaled for the path
+   * after the checkpoint was taken already explains it, i.e. a deletion of a deleted path or a
+   * creation or modification of an existing path that isn't older than its last modification.
+   *
+   * @param root Root of the directory tree to diff.
+   * @return The generated events, in the order they were appended to the journal.
+   * @throws IOException When there is an issue walking the tree or reading the checkpoint.
+   */
+  public synchronized List<WatchEventJournalRecord> recoverMissedEvents(Path root)
+      throws IOException {
+    Path absoluteRoot = root.toAbsolutePath();
+    Path checkpointFile = getCheckpointFile(absoluteRoot);
+    List<WatchEventJournalRecord> missedEvents = new ArrayList<>();
+    if (!Files.exists(checkpointFile)) {
+      checkpoint(absoluteRoot);
+      return missedEvents;
+    }
+
+    Map<String, FileState> checkpointedSnapshot = new HashMap<>();
+    long checkpointedSequence;
+    try (
+        DataInputStream dataInputStream = new DataInputStream(
+            new BufferedInputStream(Files.newInputStream(checkpointFile))
+        )
+    ) {
+      if (dataInputStream.readInt() != MAGIC || dataInputStream.readInt() != VERSION) {
+        throw new IOException(
+            I18nUtility.getFormattedString(
+                "WatchEventJournal.error.invalidCheckpoint",
+                checkpointFile
+            )
+        );
+      }
+      checkpointedSequence = dataInputStream.readLong();
+      if (!absoluteRoot.toString().equals(dataInputStream.readUTF())) {
+        throw new IOException(
+            I18nUtility.getFormattedString(
+                "WatchEventJournal.error.invalidCheckpoint",
+                checkpointFile
+            )
+        );
+      }
+      int entriesCount = dataInputStream.readInt();
+      for (int entryIndex = 0; entryIndex < entriesCount; entryIndex++) {
+        checkpointedSnapshot.put(
+            dataInputStream.readUTF(),
+            new FileState(
+                dataInputStream.readLong(),
+                dataInputStream.readLong(),
+                dataInputStream.readBoolean()
+            )
+        );
+      }
+    }
+
+    // Last event of every path in the tree journaled since the checkpoint was taken.
+    Map<Path, WatchEventJournalRecord> pathToJournaledRecord = new HashMap<>();
+    replay(checkpointedSequence + 1, record -> {
+      if (record.getPath().startsWith(absoluteRoot)) {
+        pathToJournaledRecord.put(record.getPath(), record);
+      }
+    });
+
+    Map<String, FileState> currentSnapshot = takeSnapshot(absoluteRoot);
+    // Deletions first, so that a path replaced by another of a different type reads naturally.
+    for (String relativePath : checkpointedSnapshot.keySet()) {
+      WatchEventJournalRecord journaledRecord =
+          pathToJournaledRecord.get(absoluteRoot.resolve(relativePath));
+      if (!currentSnapshot.containsKey(relativePath)
+          && (journaledRecord == null
+          || !StandardWatchEventKinds.ENTRY_DELETE.equals(journaledRecord.kind()))) {
+        missedEvents.add(appendRecovered(
+            StandardWatchEventKinds.ENTRY_DELETE,
+            absoluteRoot.resolve(relativePath)
+        ));
+      }
+    }
+    for (Map.Entry<String, FileState> entry : currentSnapshot.entrySet()) {
+      FileState checkpointedState = checkpointedSnapshot.get(entry.getKey());
+      FileState currentState = entry.getValue();
+      if (isExplainedByJournaledRecord(
+          currentState,
+          pathToJournaledRecord.get(absoluteRoot.resolve(entry.getKey()))
+      )) {
+        continue;
+      }
+      if (checkpointedState == null) {
+        missedEvents.add(appendRecovered(
+            StandardWatchEventKinds.ENTRY_CREATE,
+            absoluteRoot.resolve(entry.getKey())
+        ));
+      } else if (!currentState.isDirectory
+          && (currentState.lastModifiedTimeInMilliSeconds
+          != checkpointedState.lastModifiedTimeInMilliSeconds
+          || currentState.size != checkpointedState.size)) {
+        missedEvents.add(appendRecovered(
+            StandardWatchEventKinds.ENTRY_MODIFY,
+            absoluteRoot.resolve(entry.getKey())
+        ));
+      }
+    }
+    checkpoint(absoluteRoot);
+    logger.info(() -> I18nUtility.getFormattedString(
+        "WatchEventJournal.info.recoveredMissedEvents",
+        missedEvents.size(),
+        absoluteRoot
+    ));
+    return missedEvents;
+  }
+
+  /**
+   * Checks if the last event journaled for an existing path explains its current state.
+   *
+   * @param currentState    Current state of the path.
+   * @param journaledRecord Last event journaled for the path since the checkpoint, null if none.
+   * @return true if the path was created or modified after its last modification, else false. The
+   *         modification time of a directory is ignored, since it changes with its children.
+   */
+  private static boolean isExplainedByJournaledRecord(
+      FileState currentState,
+      WatchEventJournalRecord journaledRecord
+  ) {
+    return journaledRecord != null
+        && !StandardWatchEventKinds.ENTRY_DELETE.equals(journaledRecord.kind())
+        && (currentState.isDirectory
+        || journaledRecord.getTimestamp().toEpochMilli()
+        >= currentState.lastModifiedTimeInMilliSeconds);
+  }
+
+  /**
+   * Appends an event generated by recoverMissedEvents() to the journal.
+   *
+   * @param kind Type of the event.
+   * @param path Absolute path that triggered the event.
+   * @return The appended record.
+   * @throws IOException When there is an issue starting a new segment.
+   */
+  private WatchEventJournalRecord appendRecovered(Kind<?> kind, Path path) throws IOException {
+    long timestampInMilliSeconds = System.currentTimeMillis();
+    long sequence = append(nextSequence, timestampInMilliSeconds, kind, path);
+    return new WatchEventJournalRecord(sequence, timestampInMilliSeconds, kind, path);
+  }
+
+  /**
+   * Closes the segment files.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    for (Segment segment : segments) {
+      segment.close();
+    }
+    segments.clear();
+  }
+
+  /**
+   * Opens the existing segment files, recovering from interrupted compactions, and starts a new
+   * segment if there are none.
+   *
+   * @throws IOException When there is an issue reading or creating the segment files.
+   */
+  private void openSegments() throws IOException {
+    List<Path> segmentFiles;
+    try (Stream<Path> stream = Files.list(directory)) {
+      segmentFiles = stream
+          .filter(file -> file.getFileName().toString().endsWith(SEGMENT_FILE_EXTENSION))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+
+    List<Segment> openedSegments = new ArrayList<>();
+    for (Path segmentFile : segmentFiles) {
+      nextGeneration = Math.max(nextGeneration, getGeneration(segmentFile) + 1);
+      Segment segment = Segment.open(segmentFile);
+      if (segment == null) {
+        logger.warn(() -> I18nUtility.getFormattedString(
+            "WatchEventJournal.warn.invalidSegment",
+            segmentFile
+        ));
+      } else if (segment.state == STATE_COMPACTING) {
+        // The compaction was interrupted, the segments it was replacing are still present.
+        segment.close();
+        Files.delete(segmentFile);
+      } else {
+        openedSegments.add(segment);
+      }
+    }
+
+    // A completed compaction may have been interrupted before deleting the segments it replaced.
+    for (Segment compactedSegment : new ArrayList<>(openedSegments)) {
+      if (compactedSegment.state != STATE_COMPACTED) {
+        continue;
+      }
+      for (Segment segment : new ArrayList<>(openedSegments)) {
+        if (segment != compactedSegment
+            && segment.lastSequence <= compactedSegment.compactedUpToSequence) {
+          segment.close();
+          Files.deleteIfExists(segment.file);
+          openedSegments.remove(segment);
+        }
+      }
+    }
+
+    openedSegments.sort((first, second) -> Long.compare(first.firstSequence, second.firstSequence));
+    segments.addAll(openedSegments);
+    for (Segment segment : segments) {
+      nextSequence = Math.max(nextSequence, segment.lastSequence + 1);
+    }
+    if (segments.isEmpty() || segments.get(segments.size() - 1).state != STATE_ACTIVE) {
+      startSegment(nextSequence, segmentSizeInBytes, STATE_ACTIVE);
+    }
+  }
+
+  /**
+   * Creates a segment file and adds it as the active segment.
+   *
+   * @param firstSequence Sequence number of the first record in the segment.
+   * @param sizeInBytes   Size of the segment file in bytes.
+   * @param state         State of the segment.
+   * @return The created segment.
+   * @throws IOException When there is an issue creating the segment file.
+   */
+  private Segment startSegment(long firstSequence, int sizeInBytes, int state)
+      throws IOException {
+    Segment segment = createSegment(firstSequence, sizeInBytes, state);
+    segments.add(segment);
+    return segment;
+  }
+
+  /**
+   * Creates and maps a segment file.
+   *
+   * @param firstSequence Sequence number of the first record in the segment.
+   * @param sizeInBytes   Size of the segment file in bytes.
+   * @param state         State of the segment.
+   * @return The created segment.
+   * @throws IOException When there is an issue creating the segment file.
+   */
+  private Segment createSegment(long firstSequence, int sizeInBytes, int state)
+      throws IOException {
+    Path segmentFile = directory.resolve(
+        String.format("%020d%s", nextGeneration++, SEGMENT_FILE_EXTENSION)
+    );
+    MappedByteBuffer buffer;
+    try (
+        FileChannel fileChannel = FileChannel.open(
+            segmentFile,
+            StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE
+        )
+    ) {
+      buffer = fileChannel.map(FileChannel.MapMode.READ_WRITE, 0, sizeInBytes);
+    }
+    buffer.putInt(0, MAGIC);
+    buffer.putInt(4, VERSION);
+    buffer.putLong(8, firstSequence);
+    buffer.putInt(STATE_OFFSET, state);
+    buffer.putLong(COMPACTED_UP_TO_OFFSET, 0);
+    Segment segment = new Segment(segmentFile, buffer);
+    segment.firstSequence = firstSequence;
+    segment.lastSequence = firstSequence - 1;
+    segment.state = state;
+    segment.writePosition = SEGMENT_HEADER_SIZE;
+    return segment;
+  }
+
+  /**
+   * Reads all the committed records in a segment.
+   *
+   * @param segmentBuffer Buffer of the segment to read.
+   * @param consumer      The callback to invoke with every record.
+   * @return The position after the last committed record.
+   */
+  private static int readRecords(
+      ByteBuffer segmentBuffer,
+      Consumer<WatchEventJournalRecord> consumer
+  ) {
+    ByteBuffer buffer = segmentBuffer.duplicate();
+    int position = SEGMENT_HEADER_SIZE;
+    while (position + RECORD_OVERHEAD <= buffer.capacity()) {
+      int bodyLength = buffer.getInt(position);
+      if (bodyLength < RECORD_OVERHEAD - 4 || position + 4 + bodyLength > buffer.capacity()) {
+        break;
+      }
+      buffer.position(position + 4);
+      long sequence = buffer.getLong();
+      long timestampInMilliSeconds = buffer.getLong();
+      byte kindCode = buffer.get();
+      byte[] pathBytes = new byte[buffer.getShort()];
+      buffer.get(pathBytes);
+      if (consumer != null) {
+        consumer.accept(new WatchEventJournalRecord(
+            sequence,
+            timestampInMilliSeconds,
+            WatchEventJournalRecord.fromKindCode(kindCode),
+            Path.of(new String(pathBytes, StandardCharsets.UTF_8))
+        ));
+      }
+      position += 4 + bodyLength;
+    }
+    return position;
+  }
+
+  /**
+   * Walks a directory tree and captures the state of every file and directory in it.
+   *
+   * @param root Root of the directory tree.
+   * @return Map of the paths relative to the root to their state.
+   * @throws IOException When there is an issue walking the tree.
+   */
+  private static Map<String, FileState> takeSnapshot(Path root) throws IOException {
+    Map<String, FileState> snapshot = new LinkedHashMap<>();
+    if (!Files.isDirectory(root)) {
+      return snapshot;
+    }
+    Files.walkFileTree(root, new SimpleFileVisitor<>() {
+      @Override
+      public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+        if (!dir.equals(root)) {
+          addToSnapshot(dir, attributes);
+        }
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+        addToSnapshot(file, attributes);
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFileFailed(Path file, IOException exception) {
+        return FileVisitResult.CONTINUE;
+      }
+
+      private void addToSnapshot(Path path, BasicFileAttributes attributes) {
+        snapshot.put(
+            root.relativize(path).toString(),
+            new FileState(
+                attributes.lastModifiedTime().toMillis(),
+                attributes.size(),
+                attributes.isDirectory()
+            )
+        );
+      }
+    });
+    return snapshot;
+  }
+
+  /**
+   * Gets the checkpoint file of a directory tree. The root is encoded in the file name with the URL
+   * and file name safe Base64 alphabet, so that distinct roots never share a checkpoint file.
+   *
+   * @param absoluteRoot Absolute path of the root of the directory tree.
+   * @return The checkpoint file.
+   */
+  private Path getCheckpointFile(Path absoluteRoot) {
+    return directory.resolve(
+        "checkpoint-"
+            + Base64.getUrlEncoder()
+            .withoutPadding()
+            .encodeToString(absoluteRoot.toString().getBytes(StandardCharsets.UTF_8))
+            + ".snapshot"
+    );
+  }
+
+  /**
+   * Gets the generation number from the name of a segment file.
+   *
+   * @param segmentFile The segment file.
+   * @return The generation number, 0 if the name is not a generation number.
+   */
+  private static long getGeneration(Path segmentFile) {
+    String fileName = segmentFile.getFileName().toString();
+    try {
+      return Long.parseLong(
+          fileName.substring(0, fileName.length() - SEGMENT_FILE_EXTENSION.length())
+      );
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  /**
+   * State of a file or directory captured in a snapshot.
+   */
+  private static class FileState {
+
+    /**
+     * Last modified time in milliseconds.
+     */
+    private final long lastModifiedTimeInMilliSeconds;
+
+    /**
+     * Size in bytes.
+     */
+    private final long size;
+
+    /**
+     * true if it's a directory.
+     */
+    private final boolean isDirectory;
+
+    /**
+     * Abstracts the state of a file or directory.
+     *
+     * @param lastModifiedTimeInMilliSeconds Last modified time in milliseconds.
+     * @param size                           Size in bytes.
+     * @param isDirectory                    true if it's a directory.
+     */
+    private FileState(long lastModifiedTimeInMilliSeconds, long size, boolean isDirectory) {
+      this.lastModifiedTimeInMilliSeconds = lastModifiedTimeInMilliSeconds;
+      this.size = size;
+      this.isDirectory = isDirectory;
+    }
+  }
+
+  /**
+   * A memory mapped segment file.
+   */
+  private static class Segment {
+
+    /**
+     * The segment file.
+     */
+    private final Path file;
+
+    /**
+     * Buffer mapping the segment file.
+     */
+    private final MappedByteBuffer buffer;
+
+    /**
+     * Sequence number of the first record in the segment.
+     */
+    private long firstSequence;
+
+    /**
+     * Sequence number of the last record in the segment.
+     */
+    private long lastSequence;
+
+    /**
+     * Last sequence covered by a compacted segment.
+     */
+    private long compactedUpToSequence;
+
+    /**
+     * State of the segment.
+     */
+    private int state;
+
+    /**
+     * Position at which the next record is to be written.
+     */
+    private int writePosition;
+
+    /**
+     * Abstracts a memory mapped segment file.
+     *
+     * @param file   The segment file.
+     * @param buffer Buffer mapping the segment file.
+     */
+    private Segment(Path file, MappedByteBuffer buffer) {
+      this.file = file;
+      this.buffer = buffer;
+    }
+
+    /**
+     * Opens and maps an existing segment file.
+     *
+     * @param file The segment file.
+     * @return The opened segment, null if the file isn't a valid segment file.
+     * @throws IOException When there is an issue reading the segment file.
+     */
+    private static Segment open(Path file) throws IOException {
+      MappedByteBuffer buffer;
+      try (
+          FileChannel fileChannel = FileChannel.open(
+              file,
+              StandardOpenOption.READ,
+              StandardOpenOption.WRITE
+          )
+      ) {
+        if (fileChannel.size() < SEGMENT_HEADER_SIZE) {
+          return null;
+        }
+        buffer = fileChannel.map(FileChannel.MapMode.READ_WRITE, 0, fileChannel.size());
+      } catch (NoSuchFileException e) {
+        return null;
+      }
+      if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+        return null;
+      }
+      Segment segment = new Segment(file, buffer);
+      segment.firstSequence = buffer.getLong(8);
+      segment.state = buffer.getInt(STATE_OFFSET);
+      segment.compactedUpToSequence = buffer.getLong(COMPACTED_UP_TO_OFFSET);
+      segment.lastSequence = segment.firstSequence - 1;
+      segment.writePosition = readRecords(
+          buffer,
+          record -> segment.lastSequence = record.getSequence()
+      );
+      if (segment.state == STATE_COMPACTED) {
+        segment.lastSequence = Math.max(segment.lastSequence, segment.compactedUpToSequence);
+      }
+      return segment;
+    }
+
+    /**
+     * Flushes the segment onto the storage device. The mapping is released once the buffer is
+     * garbage collected.
+     */
+    private void close() {
+      buffer.force();
+    }
+  }
+}
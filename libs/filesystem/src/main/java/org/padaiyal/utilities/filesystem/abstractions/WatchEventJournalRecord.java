@@ -0,0 +1,160 @@
+package org.padaiyal.utilities.filesystem.abstractions;
+
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A watch event persisted in a WatchEventJournal. It can be handed to a consumer in place of the
+ * WatchEvent generated by the WatchService, in which case the context is the file name, like it is
+ * for the events generated by the WatchService.
+ */
+public class WatchEventJournalRecord implements WatchEvent<Path> {
+
+  /**
+   * Sequence number of the record in the journal.
+   */
+  private final long sequence;
+
+  /**
+   * Epoch time in milliseconds at which the event was recorded.
+   */
+  private final long timestampInMilliSeconds;
+
+  /**
+   * Type of the event.
+   */
+  private final Kind<?> kind;
+
+  /**
+   * Absolute path that triggered the event.
+   */
+  private final Path path;
+
+  /**
+   * Abstracts a watch event persisted in a WatchEventJournal.
+   *
+   * @param sequence                Sequence number of the record in the journal.
+   * @param timestampInMilliSeconds Epoch time in milliseconds at which the event was recorded.
+   * @param kind                    Type of the event.
+   * @param path                    Absolute path that triggered the event.
+   */
+  public WatchEventJournalRecord(
+      long sequence,
+      long timestampInMilliSeconds,
+      Kind<?> kind,
+      Path path
+  ) {
+    this.sequence = sequence;
+    this.timestampInMilliSeconds = timestampInMilliSeconds;
+    this.kind = Objects.requireNonNull(kind);
+    this.path = Objects.requireNonNull(path);
+  }
+
+  /**
+   * Gets the sequence number of the record in the journal.
+   *
+   * @return The sequence number of the record.
+   */
+  public long getSequence() {
+    return sequence;
+  }
+
+  /**
+   * Gets the time at which the event was recorded.
+   *
+   * @return The time at which the event was recorded.
+   */
+  public Instant getTimestamp() {
+    return Instant.ofEpochMilli(timestampInMilliSeconds);
+  }
+
+  /**
+   * Gets the absolute path that triggered the event.
+   *
+   * @return The absolute path that triggered the event.
+   */
+  public Path getPath() {
+    return path;
+  }
+
+  /**
+   * Gets the type of the event.
+   *
+   * @return The type of the event.
+   */
+  @Override
+  public Kind<Path> kind() {
+    @SuppressWarnings("unchecked")
+    Kind<Path> pathKind = (Kind<Path>) kind;
+    return pathKind;
+  }
+
+  /**
+   * Gets the number of times the event has been repeated, always 1 for journal records.
+   *
+   * @return 1.
+   */
+  @Override
+  public int count() {
+    return 1;
+  }
+
+  /**
+   * Gets the file name of the path that triggered the event.
+   *
+   * @return The file name of the path that triggered the event.
+   */
+  @Override
+  public Path context() {
+    return path.getFileName();
+  }
+
+  /**
+   * Converts a watch event kind into the byte persisted in the journal.
+   *
+   * @param kind Type of the event.
+   * @return The byte representing the event type.
+   */
+  static byte toKindCode(Kind<?> kind) {
+    if (StandardWatchEventKinds.ENTRY_CREATE.equals(kind)) {
+      return 1;
+    } else if (StandardWatchEventKinds.ENTRY_DELETE.equals(kind)) {
+      return 2;
+    } else if (StandardWatchEventKinds.ENTRY_MODIFY.equals(kind)) {
+      return 3;
+    }
+    return 0;
+  }
+
+  /**
+   * Converts the byte persisted in the journal into a watch event kind.
+   *
+   * @param kindCode The byte representing the event type.
+   * @return Type of the event.
+   */
+  static Kind<?> fromKindCode(byte kindCode) {
+    switch (kindCode) {
+      case 1:
+        return StandardWatchEventKinds.ENTRY_CREATE;
+      case 2:
+        return StandardWatchEventKinds.ENTRY_DELETE;
+      case 3:
+        return StandardWatchEventKinds.ENTRY_MODIFY;
+      default:
+        return StandardWatchEventKinds.OVERFLOW;
+    }
+  }
+
+  /**
+   * Gets a string representation of the record.
+   *
+   * @return String representation of the record.
+   */
+  @Override
+  public String toString() {
+    return sequence + " " + getTimestamp() + " " + kind.name() + " " + path;
+  }
+}
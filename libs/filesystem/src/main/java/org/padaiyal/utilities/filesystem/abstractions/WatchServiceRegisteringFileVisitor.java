@@ -7,6 +7,7 @@ import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
 import java.nio.file.WatchEvent;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Arrays;
@@ -52,6 +53,11 @@ public class WatchServiceRegisteringFileVisitor extends SimpleFileVisitor<Path>
    */
   private final BiConsumer<Path, WatchEvent<?>> consumer;
 
+  /**
+   * The filter deciding which sub directories are registered, and which events are delivered.
+   */
+  private final WatchEventFilter watchEventFilter;
+
   /**
    * The WatchServiceRegisteringFileVisitor is a SimpleFileVisitor implementation that visits all
    * children files/folders of a specified path upto a specified max depth and registers them for a
@@ -67,11 +73,49 @@ public class WatchServiceRegisteringFileVisitor extends SimpleFileVisitor<Path>
       int maxDepth,
       WatchEvent.Kind<?>[] eventsToWatch,
       BiConsumer<Path, WatchEvent<?>> consumer
+  ) {
+    this(basePath, maxDepth, eventsToWatch, consumer, WatchEventFilter.ACCEPT_ALL);
+  }
+
+  /**
+   * The WatchServiceRegisteringFileVisitor is a SimpleFileVisitor implementation that visits all
+   * children files/folders of a specified path upto a specified max depth and registers them for a
+   * WatchService to generate events for the specified watch event kinds. Sub directories whose
+   * name is rejected by the filter for ENTRY_CREATE are skipped along with their contents.
+   *
+   * @param basePath         The path to walk.
+   * @param maxDepth         The maximum depth to walk.
+   * @param eventsToWatch    Events to register with the watch service.
+   * @param consumer         The callback to invoke when a desired event is triggered.
+   * @param watchEventFilter The filter applied to the events before they are delivered.
+   */
+  public WatchServiceRegisteringFileVisitor(
+      Path basePath,
+      int maxDepth,
+      WatchEvent.Kind<?>[] eventsToWatch,
+      BiConsumer<Path, WatchEvent<?>> consumer,
+      WatchEventFilter watchEventFilter
   ) {
     this.basePath = basePath;
     this.eventsToWatch = Arrays.copyOf(eventsToWatch, eventsToWatch.length);
     this.maxDepth = maxDepth;
     this.consumer = consumer;
+    this.watchEventFilter = watchEventFilter;
+  }
+
+  /**
+   * Called before the contents of a directory are visited.
+   *
+   * @param childPath Path of the directory.
+   * @param attrs     Attributes of the directory.
+   * @return The result of the visit, indicates the next traversal action.
+   */
+  @Override
+  public FileVisitResult preVisitDirectory(Path childPath, BasicFileAttributes attrs) {
+    if (isExcluded(childPath)) {
+      return FileVisitResult.SKIP_SUBTREE;
+    }
+    return FileVisitResult.CONTINUE;
   }
 
   /**
@@ -85,9 +129,12 @@ public class WatchServiceRegisteringFileVisitor extends SimpleFileVisitor<Path>
   @Override
   public FileVisitResult visitFile(Path childPath, BasicFileAttributes attrs) throws IOException {
     if (Files.isDirectory(childPath)) {
+      if (isExcluded(childPath)) {
+        return FileVisitResult.CONTINUE;
+      }
       int newMaxDepth = getNewMaxDepth(childPath);
       registerWatchServiceForNotRegisteredDirectoryPathAfterFileVisitor(
-          childPath, newMaxDepth, eventsToWatch, consumer);
+          childPath, newMaxDepth, eventsToWatch, consumer, watchEventFilter);
       successfulDirectoryVisitsCount++;
     } else {
       successfulFileVisitsCount++;
@@ -139,10 +186,24 @@ public class WatchServiceRegisteringFileVisitor extends SimpleFileVisitor<Path>
 
     int newMaxDepth = getNewMaxDepth(childPath);
     registerWatchServiceForNotRegisteredDirectoryPathAfterFileVisitor(
-        childPath, newMaxDepth, eventsToWatch, consumer);
+        childPath, newMaxDepth, eventsToWatch, consumer, watchEventFilter);
     return FileVisitResult.CONTINUE;
   }
 
+  /**
+   * Checks if a sub directory of the base path is matched by an exclude filter for ENTRY_CREATE.
+   *
+   * @param childPath Path of the sub directory.
+   * @return true if the sub directory shouldn't be registered, else false.
+   */
+  private boolean isExcluded(Path childPath) {
+    return !childPath.equals(basePath)
+        && watchEventFilter.isExcluded(
+            childPath.getFileName(),
+            StandardWatchEventKinds.ENTRY_CREATE
+        );
+  }
+
   /**
    * Returns the number of successful file visits so far by this visitor.
    *
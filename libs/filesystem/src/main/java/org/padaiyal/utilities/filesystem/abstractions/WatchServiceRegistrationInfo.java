@@ -3,6 +3,7 @@ package org.padaiyal.utilities.filesystem.abstractions;
 import java.nio.file.Path;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchService;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.function.BiConsumer;
 
@@ -17,10 +18,15 @@ public class WatchServiceRegistrationInfo {
   private final Path path;
 
   /**
-   * The watchService associated to this path.
+   * The watchService associated to this path, null if the path is watched by polling.
    */
   private final WatchService watchService;
 
+  /**
+   * The watcher polling this path, null if the path is watched by a WatchService.
+   */
+  private final PollingDirectoryWatcher pollingDirectoryWatcher;
+
   /**
    * The maximum depth to monitor.
    */
@@ -36,6 +42,15 @@ public class WatchServiceRegistrationInfo {
    */
   private final BiConsumer<Path, WatchEvent<?>> consumer;
 
+  /**
+   * The filter applied to the events before they are recorded and delivered.
+   */
+  private final WatchEventFilter watchEventFilter;
+
+  /**
+   * The time at which the last event was generated for this path, or it was registered.
+   */
+  private volatile Instant lastEventInstant = Instant.now();
 
   /**
    * This class abstracts all the information needed to track watch service registrations.
@@ -51,14 +66,61 @@ public class WatchServiceRegistrationInfo {
       int maxDepth,
       BiConsumer<Path, WatchEvent<?>> consumer,
       WatchEvent.Kind<?>... eventsToWatch) {
+    this(path, watchService, maxDepth, consumer, WatchEventFilter.ACCEPT_ALL, eventsToWatch);
+  }
+
+  /**
+   * This class abstracts all the information needed to track watch service registrations.
+   *
+   * @param path             Registered path.
+   * @param watchService     Watch service with which the path has been registered.
+   * @param maxDepth         Max directory depth to monitor for events.
+   * @param consumer         The callback to invoke when a desired event is triggered.
+   * @param watchEventFilter The filter applied to the events before they are delivered.
+   * @param eventsToWatch    Events registered with the watch service.
+   */
+  public WatchServiceRegistrationInfo(
+      Path path, WatchService watchService,
+      int maxDepth,
+      BiConsumer<Path, WatchEvent<?>> consumer,
+      WatchEventFilter watchEventFilter,
+      WatchEvent.Kind<?>... eventsToWatch) {
     this.path = path;
     this.watchService = watchService;
+    this.pollingDirectoryWatcher = null;
     this.maxDepth = maxDepth;
     this.consumer = consumer;
+    this.watchEventFilter = watchEventFilter;
     this.eventsToWatch = Arrays.copyOf(eventsToWatch, eventsToWatch.length);;
 
   }
 
+  /**
+   * This class abstracts all the information needed to track registrations watched by polling.
+   *
+   * @param path                    Registered path.
+   * @param pollingDirectoryWatcher Watcher polling the path.
+   * @param maxDepth                Max directory depth to monitor for events.
+   * @param consumer                The callback to invoke when a desired event is triggered.
+   * @param watchEventFilter        The filter applied to the events before they are delivered.
+   * @param eventsToWatch           Events generated by the watcher.
+   */
+  public WatchServiceRegistrationInfo(
+      Path path,
+      PollingDirectoryWatcher pollingDirectoryWatcher,
+      int maxDepth,
+      BiConsumer<Path, WatchEvent<?>> consumer,
+      WatchEventFilter watchEventFilter,
+      WatchEvent.Kind<?>... eventsToWatch) {
+    this.path = path;
+    this.watchService = null;
+    this.pollingDirectoryWatcher = pollingDirectoryWatcher;
+    this.maxDepth = maxDepth;
+    this.consumer = consumer;
+    this.watchEventFilter = watchEventFilter;
+    this.eventsToWatch = Arrays.copyOf(eventsToWatch, eventsToWatch.length);
+  }
+
   /**
    * Returns the registered path.
    *
@@ -73,13 +135,50 @@ public class WatchServiceRegistrationInfo {
   /**
    * Returns the watch service with which the path has been registered.
    *
-   * @return Watch service with which the path has been registered.
+   * @return Watch service with which the path has been registered, null if the path is watched by
+   *         polling.
    */
   public WatchService getWatchService() {
 
     return watchService;
   }
 
+  /**
+   * Returns the watcher polling the path.
+   *
+   * @return Watcher polling the path, null if the path is watched by a WatchService.
+   */
+  public PollingDirectoryWatcher getPollingDirectoryWatcher() {
+    return pollingDirectoryWatcher;
+  }
+
+  /**
+   * Checks if the path is watched by polling instead of a WatchService.
+   *
+   * @return true if the path is watched by polling, else false.
+   */
+  public boolean isPolled() {
+    return pollingDirectoryWatcher != null;
+  }
+
+  /**
+   * Returns the time at which the last event was generated for this path, or it was registered.
+   *
+   * @return Time of the last event.
+   */
+  public Instant getLastEventInstant() {
+    return lastEventInstant;
+  }
+
+  /**
+   * Sets the time at which the last event was generated for this path.
+   *
+   * @param lastEventInstant Time of the last event.
+   */
+  public void setLastEventInstant(Instant lastEventInstant) {
+    this.lastEventInstant = lastEventInstant;
+  }
+
   /**
    * The max directory depth to monitor for events.
    *
@@ -99,6 +198,15 @@ public class WatchServiceRegistrationInfo {
     return consumer;
   }
 
+  /**
+   * Gets the filter applied to the events before they are recorded and delivered.
+   *
+   * @return The filter applied to the events.
+   */
+  public WatchEventFilter getWatchEventFilter() {
+    return watchEventFilter;
+  }
+
   /**
    * The events registered with the watch service.
    *
@@ -4,6 +4,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardWatchEventKinds;
@@ -11,6 +12,7 @@ import java.nio.file.WatchEvent;
 import java.nio.file.WatchEvent.Kind;
 import java.nio.file.attribute.FileTime;
 import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.time.Instant;
@@ -27,6 +29,15 @@ import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -52,6 +63,8 @@ import org.mockito.Mockito;
 import org.padaiyal.utilities.I18nUtility;
 import org.padaiyal.utilities.PropertyUtility;
 import org.padaiyal.utilities.commandline.abstractions.OperatingSystem;
+import org.padaiyal.utilities.filesystem.abstractions.FileSystemProgressListener;
+import org.padaiyal.utilities.filesystem.abstractions.WatchEventJournal;
 import org.padaiyal.utilities.unittestextras.parameterconverters.ArrayConverter;
 import org.padaiyal.utilities.unittestextras.parameterconverters.ExceptionClassConverter;
 
@@ -1219,6 +1232,134 @@ class FileSystemUtilityTest {
             });
   }
 
+  /**
+   * Tests the asynchronous variants of the bulk operations against their results on the test bed.
+   *
+   * @throws Exception When there is an issue running an operation.
+   */
+  @Test
+  public void testAsyncOperations() throws Exception {
+    Assumptions.assumeFalse(
+        OperatingSystem.getOperatingSystem() == OperatingSystem.WINDOWS,
+        I18nUtility.getString("FileSystemUtilityTest.skippingSetPosixPermissionsForNonPosixOS"));
+
+    List<String> progressThreadNames = new CopyOnWriteArrayList<>();
+    List<Path> expectedMatches = FileSystemUtility.treeMatches(testBedPath, ".*fold.*");
+    ExecutorService executorService = Executors.newSingleThreadExecutor();
+    List<Path> matches;
+    try {
+      matches =
+          FileSystemUtility.treeMatchesAsync(
+                  testBedPath,
+                  ".*fold.*",
+                  executorService,
+                  (path, processedEntriesCount) ->
+                      progressThreadNames.add(Thread.currentThread().getName()))
+              .get();
+    } finally {
+      executorService.shutdown();
+    }
+    Assertions.assertEquals(new HashSet<>(expectedMatches), new HashSet<>(matches));
+    Assertions.assertFalse(progressThreadNames.isEmpty());
+    Assertions.assertTrue(
+        progressThreadNames.stream().noneMatch(name -> name.contains("ForkJoinPool")));
+
+    Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rwx------");
+    Assertions.assertEquals(
+        4L,
+        FileSystemUtility.setPermissionsAsync(testBedPath.resolve("fold3"), permissions, true)
+            .get()
+            .longValue());
+    Assertions.assertEquals(
+        permissions,
+        Files.getPosixFilePermissions(testBedPath.resolve("fold3/fold3_child/fold3_grandchild")));
+
+    // fold3, fold3.txt, fold3_child and fold3_grandchild.
+    Assertions.assertEquals(
+        4L,
+        FileSystemUtility.deleteRecursivelyAsync(testBedPath.resolve("fold3"))
+            .get()
+            .longValue());
+    Assertions.assertFalse(Files.exists(testBedPath.resolve("fold3")));
+
+    // fold4_child and fold5_child along with their grandchildren, and fileToDelete.txt.
+    Assertions.assertEquals(
+        5L,
+        FileSystemUtility.deleteIfMatchesAsync(testBedPath, ".*(_child|ToDelete\\.txt)")
+            .get()
+            .longValue());
+    Assertions.assertEquals(
+        Collections.emptyList(),
+        FileSystemUtility.treeMatches(testBedPath, ".*(_child|_grandchild|ToDelete\\.txt)"));
+    Assertions.assertTrue(Files.exists(testBedPath.resolve("fold4/fold4.txt")));
+  }
+
+  /**
+   * Tests that cancelling an asynchronous operation stops walking the tree.
+   *
+   * @throws InterruptedException When interrupted while waiting for the operation.
+   */
+  @Test
+  public void testAsyncOperationCancellation() throws InterruptedException {
+    CountDownLatch firstEntryProcessedLatch = new CountDownLatch(1);
+    CountDownLatch cancelledLatch = new CountDownLatch(1);
+    AtomicLong maxProcessedEntriesCount = new AtomicLong();
+    ExecutorService singleThreadExecutorService = Executors.newSingleThreadExecutor();
+
+    CompletableFuture<Long> future =
+        FileSystemUtility.deleteRecursivelyAsync(
+            testBedPath,
+            singleThreadExecutorService,
+            (path, processedEntriesCount) -> {
+              maxProcessedEntriesCount.set(processedEntriesCount);
+              firstEntryProcessedLatch.countDown();
+              try {
+                cancelledLatch.await();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            });
+    Assertions.assertTrue(firstEntryProcessedLatch.await(10, TimeUnit.SECONDS));
+    Assertions.assertTrue(future.cancel(true));
+    cancelledLatch.countDown();
+    singleThreadExecutorService.shutdown();
+    Assertions.assertTrue(singleThreadExecutorService.awaitTermination(10, TimeUnit.SECONDS));
+
+    Assertions.assertTrue(future.isCancelled());
+    Assertions.assertEquals(1L, maxProcessedEntriesCount.get());
+    Assertions.assertTrue(Files.exists(testBedPath.resolve("fold4/fold4.txt")));
+  }
+
+  /** Tests the asynchronous variants of the bulk operations with invalid inputs. */
+  @Test
+  public void testAsyncOperationsWithInvalidInputs() {
+    Assertions.assertThrows(
+        NullPointerException.class, () -> FileSystemUtility.deleteRecursivelyAsync(null));
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () ->
+            FileSystemUtility.treeMatchesAsync(
+                testBedPath, ".*", null, FileSystemProgressListener.NONE));
+
+    ExecutionException executionException =
+        Assertions.assertThrows(
+            ExecutionException.class,
+            () -> FileSystemUtility.deleteRecursivelyAsync(testBedPath.resolve("missing")).get());
+    Assertions.assertEquals(NoSuchFileException.class, executionException.getCause().getClass());
+
+    ExecutorService shutdownExecutorService = Executors.newSingleThreadExecutor();
+    shutdownExecutorService.shutdown();
+    executionException =
+        Assertions.assertThrows(
+            ExecutionException.class,
+            () ->
+                FileSystemUtility.deleteIfMatchesAsync(
+                        testBedPath, ".*", shutdownExecutorService, FileSystemProgressListener.NONE)
+                    .get());
+    Assertions.assertEquals(
+        RejectedExecutionException.class, executionException.getCause().getClass());
+  }
+
   /** Tests creating directories throws an Unchecked IOException using Mockito. */
   @Test
   public void testCreateDirectoriesWithIoException() {
@@ -1310,6 +1451,37 @@ class FileSystemUtilityTest {
     }
   }
 
+  /**
+   * Tests that the journal maintenance compacts the sealed segments only once their count reaches
+   * the configured threshold.
+   *
+   * @throws IOException When there is an issue accessing the journal.
+   */
+  @Test
+  public void testWatchEventJournalCompaction() throws IOException {
+    int sealedSegmentsThreshold = Integer.parseInt(
+        PropertyUtility.getProperty("FileSystemUtility.watchEventJournal.compaction.sealedSegments")
+    );
+    try (WatchEventJournal journal = new WatchEventJournal(testBedPath.resolve("journal"), 256)) {
+      FileSystemUtility.setWatchEventJournal(journal);
+      journal.append(StandardWatchEventKinds.ENTRY_MODIFY, testBedPath.resolve("f0"));
+      while (journal.getSegmentCount() - 1 < sealedSegmentsThreshold - 1) {
+        journal.append(StandardWatchEventKinds.ENTRY_MODIFY, testBedPath.resolve("f0"));
+      }
+      int segmentCount = journal.getSegmentCount();
+      FileSystemUtility.maintainWatchEventJournal();
+      Assertions.assertEquals(segmentCount, journal.getSegmentCount());
+
+      while (journal.getSegmentCount() - 1 < sealedSegmentsThreshold) {
+        journal.append(StandardWatchEventKinds.ENTRY_MODIFY, testBedPath.resolve("f0"));
+      }
+      FileSystemUtility.maintainWatchEventJournal();
+      Assertions.assertEquals(2, journal.getSegmentCount());
+    } finally {
+      FileSystemUtility.setWatchEventJournal(null);
+    }
+  }
+
   /**
    * Test if background watch service thread stops when threadSwitch is set to false.
    *
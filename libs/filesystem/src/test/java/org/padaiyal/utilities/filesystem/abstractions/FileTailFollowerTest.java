@@ -0,0 +1,299 @@
+package org.padaiyal.utilities.filesystem.abstractions;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.padaiyal.utilities.commandline.abstractions.OperatingSystem;
+import org.padaiyal.utilities.filesystem.FileSystemUtility;
+
+/**
+ * Tests the functionality of FileTailFollower.
+ */
+public class FileTailFollowerTest {
+
+  /**
+   * Directory in which the followed files are created.
+   */
+  private Path testBedPath;
+
+  /**
+   * Lines delivered by the follower.
+   */
+  private final List<String> deliveredLines = new ArrayList<>();
+
+  /**
+   * Creates the test bed directory.
+   *
+   * @throws IOException When there is an issue creating the directory.
+   */
+  @BeforeEach
+  public void createTestBed() throws IOException {
+    testBedPath = Files.createTempDirectory("FileTailFollowerTest");
+    deliveredLines.clear();
+  }
+
+  /**
+   * Deletes the test bed directory.
+   *
+   * @throws IOException When there is an issue deleting the directory.
+   */
+  @AfterEach
+  public void deleteTestBed() throws IOException {
+    FileSystemUtility.deleteRecursively(testBedPath);
+  }
+
+  /**
+   * Tests that only the appended bytes are delivered, in lines.
+   *
+   * @param fromEnd If true the existing content isn't expected to be delivered.
+   * @throws IOException When there is an issue reading or writing the file.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "false",
+      "true"
+  })
+  public void testFollowLines(boolean fromEnd) throws IOException {
+    Path file = testBedPath.resolve("test.log");
+    Files.writeString(file, "line1\nline2\n");
+
+    try (
+        FileTailFollower fileTailFollower = new FileTailFollower(
+            4,
+            StandardCharsets.UTF_8,
+            (path, line) -> deliveredLines.add(line)
+        )
+    ) {
+      fileTailFollower.follow(file, fromEnd);
+      fileTailFollower.poll(file);
+      List<String> expectedLines = new ArrayList<>();
+      if (!fromEnd) {
+        expectedLines.add("line1");
+        expectedLines.add("line2");
+      }
+      Assertions.assertEquals(expectedLines, deliveredLines);
+
+      // Incomplete lines are held back until they are terminated.
+      Files.writeString(file, "line3\nli", StandardOpenOption.APPEND);
+      Assertions.assertEquals(8, fileTailFollower.poll(file));
+      expectedLines.add("line3");
+      Assertions.assertEquals(expectedLines, deliveredLines);
+
+      Files.writeString(file, "ne4\r\n", StandardOpenOption.APPEND);
+      fileTailFollower.poll(file);
+      expectedLines.add("line4");
+      Assertions.assertEquals(expectedLines, deliveredLines);
+      Assertions.assertEquals(Files.size(file), fileTailFollower.getPosition(file));
+
+      // Nothing appended, nothing read.
+      Assertions.assertEquals(0, fileTailFollower.poll(file));
+    }
+  }
+
+  /**
+   * Tests that the appended bytes are delivered in chunks no larger than the buffer.
+   *
+   * @throws IOException When there is an issue reading or writing the file.
+   */
+  @Test
+  public void testFollowChunks() throws IOException {
+    Path file = testBedPath.resolve("test.bin");
+    Files.createFile(file);
+    StringBuilder deliveredContent = new StringBuilder();
+    List<Integer> chunkSizes = new ArrayList<>();
+
+    try (
+        FileTailFollower fileTailFollower = new FileTailFollower(
+            3,
+            (path, chunk) -> {
+              chunkSizes.add(chunk.remaining());
+              deliveredContent.append(StandardCharsets.UTF_8.decode(chunk));
+            }
+        )
+    ) {
+      fileTailFollower.follow(file, true);
+      Files.writeString(file, "abcdefgh", StandardOpenOption.APPEND);
+      Assertions.assertEquals(8, fileTailFollower.poll(file));
+      Assertions.assertEquals("abcdefgh", deliveredContent.toString());
+      Assertions.assertEquals(List.of(3, 3, 2), chunkSizes);
+    }
+  }
+
+  /**
+   * Tests that a truncated file is read from the start.
+   *
+   * @throws IOException When there is an issue reading or writing the file.
+   */
+  @Test
+  public void testTruncation() throws IOException {
+    Path file = testBedPath.resolve("test.log");
+    Files.writeString(file, "a long first line\n");
+
+    try (
+        FileTailFollower fileTailFollower = new FileTailFollower(
+            16,
+            StandardCharsets.UTF_8,
+            (path, line) -> deliveredLines.add(line)
+        )
+    ) {
+      fileTailFollower.follow(file, false);
+      fileTailFollower.poll(file);
+      Files.writeString(file, "short\n", StandardOpenOption.TRUNCATE_EXISTING);
+      fileTailFollower.poll(file);
+      Assertions.assertEquals(List.of("a long first line", "short"), deliveredLines);
+    }
+  }
+
+  /**
+   * Tests that the remaining bytes of a rotated file are delivered before the new file is read.
+   *
+   * @throws IOException When there is an issue reading or writing the file.
+   */
+  @Test
+  public void testRotation() throws IOException {
+    // Windows doesn't allow moving a file that is open.
+    Assumptions.assumeFalse(OperatingSystem.getOperatingSystem() == OperatingSystem.WINDOWS);
+
+    Path file = testBedPath.resolve("test.log");
+    Path rotatedFile = testBedPath.resolve("test.log.1");
+    Files.writeString(file, "before rotation\n");
+
+    try (
+        FileTailFollower fileTailFollower = new FileTailFollower(
+            16,
+            StandardCharsets.UTF_8,
+            (path, line) -> deliveredLines.add(line)
+        )
+    ) {
+      fileTailFollower.follow(file, false);
+      fileTailFollower.poll(file);
+
+      Files.move(file, rotatedFile);
+      Files.writeString(rotatedFile, "last old line\n", StandardOpenOption.APPEND);
+      Files.writeString(file, "after rotation\n");
+      fileTailFollower.poll(file);
+
+      Assertions.assertEquals(
+          List.of("before rotation", "last old line", "after rotation"),
+          deliveredLines
+      );
+    }
+  }
+
+  /**
+   * Tests that the lines of a file in a charset whose characters span several bytes are delivered
+   * intact, even when a character is split across two reads or contains a line feed byte.
+   *
+   * @throws IOException When there is an issue reading or writing the file.
+   */
+  @Test
+  public void testFollowMultiByteCharsetLines() throws IOException {
+    // Both characters have a byte equal to the line feed in UTF-16LE.
+    String firstLine = String.valueOf((char) 0x0B0A);
+    String secondLine = String.valueOf((char) 0x0A0A);
+    byte[] content = (firstLine + "\r\n" + secondLine + "\n").getBytes(StandardCharsets.UTF_16LE);
+    Path file = testBedPath.resolve("test.log");
+    // Ends in the middle of the carriage return.
+    Files.write(file, Arrays.copyOf(content, 3));
+
+    try (
+        FileTailFollower fileTailFollower = new FileTailFollower(
+            2,
+            StandardCharsets.UTF_16LE,
+            (path, line) -> deliveredLines.add(line)
+        )
+    ) {
+      fileTailFollower.follow(file, false);
+      fileTailFollower.poll(file);
+      Assertions.assertTrue(deliveredLines.isEmpty());
+
+      Files.write(
+          file,
+          Arrays.copyOfRange(content, 3, content.length),
+          StandardOpenOption.APPEND
+      );
+      Assertions.assertEquals(content.length - 3, fileTailFollower.poll(file));
+      Assertions.assertEquals(List.of(firstLine, secondLine), deliveredLines);
+    }
+  }
+
+  /**
+   * Tests that the parent directory registered to follow files is deregistered once the last file
+   * in it is unfollowed.
+   *
+   * @throws IOException When there is an issue reading or writing the files.
+   */
+  @Test
+  public void testFollowFile() throws IOException {
+    Path file1 = testBedPath.resolve("test1.log");
+    Path file2 = testBedPath.resolve("test2.log");
+    Files.writeString(file1, "line1\n");
+    Files.createFile(file2);
+    String testBedPathString = testBedPath.toAbsolutePath().toString();
+
+    try (
+        FileTailFollower fileTailFollower = new FileTailFollower(
+            16,
+            StandardCharsets.UTF_8,
+            (path, line) -> deliveredLines.add(line)
+        )
+    ) {
+      FileSystemUtility.followFile(file1, fileTailFollower, false);
+      FileSystemUtility.followFile(file2, fileTailFollower, false);
+      Assertions.assertEquals(List.of("line1"), deliveredLines);
+      Assertions.assertTrue(FileSystemUtility.getRegisteredPaths().contains(testBedPathString));
+
+      FileSystemUtility.unfollowFile(file1);
+      Assertions.assertFalse(fileTailFollower.isFollowing(file1));
+      Assertions.assertTrue(FileSystemUtility.getRegisteredPaths().contains(testBedPathString));
+
+      FileSystemUtility.unfollowFile(file2);
+      Assertions.assertTrue(fileTailFollower.getFollowedFiles().isEmpty());
+      Assertions.assertFalse(FileSystemUtility.getRegisteredPaths().contains(testBedPathString));
+    }
+  }
+
+  /**
+   * Tests FileTailFollower with invalid inputs.
+   *
+   * @throws IOException When there is an issue creating the test directory.
+   */
+  @Test
+  public void testInvalidInputs() throws IOException {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new FileTailFollower(0, (path, chunk) -> {})
+    );
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> new FileTailFollower(1, null)
+    );
+
+    try (FileTailFollower fileTailFollower = new FileTailFollower(1, (path, chunk) -> {})) {
+      Assertions.assertThrows(
+          IllegalArgumentException.class,
+          () -> fileTailFollower.follow(testBedPath, false)
+      );
+      Assertions.assertThrows(
+          NullPointerException.class,
+          () -> fileTailFollower.follow(null, false)
+      );
+      // Polling a file that isn't followed is a no-op.
+      Assertions.assertEquals(0, fileTailFollower.poll(testBedPath.resolve("unknown")));
+      Assertions.assertEquals(-1, fileTailFollower.getPosition(testBedPath.resolve("unknown")));
+      Assertions.assertTrue(fileTailFollower.getFollowedFiles().isEmpty());
+    }
+  }
+}
@@ -0,0 +1,254 @@
+package org.padaiyal.utilities.filesystem.abstractions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchEvent.Kind;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.padaiyal.utilities.filesystem.FileSystemUtility;
+
+/**
+ * Tests the functionality of InotifyWatchBudget and the polling fallback.
+ */
+public class InotifyWatchBudgetTest {
+
+  /**
+   * Directory in which the fake inotify limits and the watched tree are created.
+   */
+  private Path testBedPath;
+
+  /**
+   * Directory containing the fake inotify limits.
+   */
+  private Path limitsPath;
+
+  /**
+   * Creates the test bed directory.
+   *
+   * @throws IOException When there is an issue creating the directory.
+   */
+  @BeforeEach
+  public void createTestBed() throws IOException {
+    testBedPath = Files.createTempDirectory("InotifyWatchBudgetTest");
+    limitsPath = Files.createDirectories(testBedPath.resolve("limits"));
+  }
+
+  /**
+   * Deletes the test bed directory.
+   *
+   * @throws IOException When there is an issue deleting the directory.
+   */
+  @AfterEach
+  public void deleteTestBed() throws IOException {
+    FileSystemUtility.deleteRecursively(testBedPath);
+  }
+
+  /**
+   * Tests that watches are only handed out up to the threshold of the most constraining limit.
+   *
+   * @throws IOException When there is an issue writing the limits.
+   */
+  @Test
+  public void testTryAcquireAndRelease() throws IOException {
+    Files.writeString(limitsPath.resolve("max_user_watches"), "100\n");
+    Files.writeString(limitsPath.resolve("max_user_instances"), "4\n");
+    InotifyWatchBudget budget = new InotifyWatchBudget(limitsPath, 0.5, Duration.ZERO);
+
+    Assertions.assertEquals(100, budget.getMaxWatches());
+    Assertions.assertEquals(4, budget.getMaxInstances());
+    Assertions.assertTrue(budget.tryAcquire());
+    Assertions.assertTrue(budget.tryAcquire());
+    Assertions.assertFalse(budget.tryAcquire());
+    Assertions.assertEquals(0.5, budget.getUsageRatio());
+
+    budget.release();
+    Assertions.assertTrue(budget.tryAcquire());
+    Map<String, Number> metrics = budget.getMetrics();
+    Assertions.assertEquals(2L, metrics.get("watchesInUse"));
+    Assertions.assertEquals(0L, metrics.get("polledDirectories"));
+  }
+
+  /**
+   * Tests that missing limit files are treated as unlimited.
+   */
+  @Test
+  public void testMissingLimits() {
+    InotifyWatchBudget budget = new InotifyWatchBudget(limitsPath, 1, Duration.ZERO);
+    Assertions.assertEquals(Long.MAX_VALUE, budget.getMaxWatches());
+    Assertions.assertEquals(Long.MAX_VALUE, budget.getMaxInstances());
+    Assertions.assertTrue(budget.tryAcquire());
+  }
+
+  /**
+   * Tests that only cold directories deeper than the directory to watch are demoted, the deepest
+   * first.
+   */
+  @Test
+  public void testChooseRegistrationToDemote() {
+    InotifyWatchBudget budget = new InotifyWatchBudget(limitsPath, 1, Duration.ofMinutes(1));
+    WatchServiceRegistrationInfo shallowCold = createRegistration(testBedPath.resolve("a"), true);
+    WatchServiceRegistrationInfo deepCold =
+        createRegistration(testBedPath.resolve("a").resolve("b").resolve("c"), true);
+    WatchServiceRegistrationInfo deepActive =
+        createRegistration(testBedPath.resolve("a").resolve("b").resolve("d").resolve("e"), false);
+
+    Assertions.assertSame(
+        deepCold,
+        budget.chooseRegistrationToDemote(
+            List.of(shallowCold, deepCold, deepActive),
+            testBedPath.resolve("x")
+        )
+    );
+    Assertions.assertNull(
+        budget.chooseRegistrationToDemote(
+            List.of(shallowCold, deepCold, deepActive),
+            testBedPath.resolve("x").resolve("y").resolve("z")
+        )
+    );
+  }
+
+  /**
+   * Tests that the polling watcher generates events for created, modified and deleted entries.
+   *
+   * @throws IOException When there is an issue listing the directory.
+   */
+  @Test
+  public void testPollingDirectoryWatcher() throws IOException {
+    Path modifiedFile = Files.writeString(testBedPath.resolve("modified"), "a");
+    PollingDirectoryWatcher pollingDirectoryWatcher = new PollingDirectoryWatcher(
+        testBedPath,
+        0,
+        StandardWatchEventKinds.ENTRY_CREATE,
+        StandardWatchEventKinds.ENTRY_DELETE,
+        StandardWatchEventKinds.ENTRY_MODIFY
+    );
+    Assertions.assertTrue(pollingDirectoryWatcher.poll().isEmpty());
+
+    Files.writeString(modifiedFile, "ab");
+    Files.setLastModifiedTime(
+        modifiedFile,
+        FileTime.fromMillis(Files.getLastModifiedTime(modifiedFile).toMillis() + 5000)
+    );
+    Files.createFile(testBedPath.resolve("created"));
+    FileSystemUtility.deleteRecursively(limitsPath);
+
+    Map<Path, Kind<?>> fileNameToKind = pollingDirectoryWatcher.poll().stream()
+        .collect(Collectors.toMap(event -> (Path) event.context(), WatchEvent::kind));
+    Assertions.assertEquals(
+        Map.of(
+            Path.of("modified"), StandardWatchEventKinds.ENTRY_MODIFY,
+            Path.of("created"), StandardWatchEventKinds.ENTRY_CREATE,
+            Path.of("limits"), StandardWatchEventKinds.ENTRY_DELETE
+        ),
+        fileNameToKind
+    );
+    Assertions.assertTrue(pollingDirectoryWatcher.poll().isEmpty());
+  }
+
+  /**
+   * Tests that directories beyond the budget are registered for polling and still generate events.
+   *
+   * @throws IOException          When there is an issue creating or registering the directories.
+   * @throws InterruptedException When interrupted while waiting for the events.
+   */
+  @Test
+  public void testRegistrationFallsBackToPolling() throws IOException, InterruptedException {
+    Files.writeString(limitsPath.resolve("max_user_watches"), "2");
+    Files.writeString(limitsPath.resolve("max_user_instances"), "2");
+    Path rootPath = Files.createDirectories(testBedPath.resolve("root"));
+    FileSystemUtility.createDirectories(rootPath, "dir", false, 3);
+
+    InotifyWatchBudget originalBudget = FileSystemUtility.getInotifyWatchBudget();
+    InotifyWatchBudget budget = new InotifyWatchBudget(limitsPath, 1, Duration.ofHours(1));
+    FileSystemUtility.setInotifyWatchBudget(budget);
+    try {
+      FileSystemUtility.registerWatchServiceForNotRegisteredDirectoryPath(
+          rootPath,
+          1,
+          (path, watchEvent) -> {},
+          StandardWatchEventKinds.ENTRY_CREATE
+      );
+      Assertions.assertEquals(2, budget.getWatchesInUse());
+      Assertions.assertEquals(2, budget.getPolledDirectoriesCount());
+      Assertions.assertTrue(
+          FileSystemUtility.getRegisteredPaths().containsAll(
+              List.of(
+                  rootPath.toAbsolutePath().toString(),
+                  rootPath.resolve("dir1").toAbsolutePath().toString(),
+                  rootPath.resolve("dir2").toAbsolutePath().toString(),
+                  rootPath.resolve("dir3").toAbsolutePath().toString()
+              )
+          )
+      );
+
+      // Every sub directory generates events, whether it's polled or not.
+      for (int directoryIndex = 1; directoryIndex <= 3; directoryIndex++) {
+        Files.createFile(rootPath.resolve("dir" + directoryIndex).resolve("file"));
+      }
+      Instant timeout = Instant.now().plusSeconds(10);
+      while (Instant.now().isBefore(timeout) && !allFilesTriggered(rootPath)) {
+        Thread.sleep(100);
+      }
+      Assertions.assertTrue(allFilesTriggered(rootPath));
+
+      FileSystemUtility.deRegisterWatchServiceForDirectory(rootPath.toAbsolutePath());
+      Assertions.assertEquals(0, budget.getWatchesInUse());
+      Assertions.assertEquals(0, budget.getPolledDirectoriesCount());
+    } finally {
+      FileSystemUtility.setInotifyWatchBudget(originalBudget);
+    }
+  }
+
+  /**
+   * Checks if a creation event has been triggered for the file in every sub directory.
+   *
+   * @param rootPath Root of the watched tree.
+   * @return true if an event has been triggered for every file, else false.
+   */
+  private static boolean allFilesTriggered(Path rootPath) {
+    Map<String, ?> triggeredEventsMap = FileSystemUtility.getPathsToTriggeredEventMap();
+    for (int directoryIndex = 1; directoryIndex <= 3; directoryIndex++) {
+      String filePath = rootPath.resolve("dir" + directoryIndex)
+          .resolve("file")
+          .toAbsolutePath()
+          .toString();
+      if (!triggeredEventsMap.containsKey(filePath)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Creates a registration without a WatchService, with the specified activity.
+   *
+   * @param path Registered path.
+   * @param cold If true the last event is an hour old, else it's now.
+   * @return The registration.
+   */
+  private static WatchServiceRegistrationInfo createRegistration(Path path, boolean cold) {
+    WatchServiceRegistrationInfo registrationInfo = new WatchServiceRegistrationInfo(
+        path,
+        (WatchService) null,
+        0,
+        (changePath, watchEvent) -> {},
+        StandardWatchEventKinds.ENTRY_CREATE
+    );
+    registrationInfo.setLastEventInstant(
+        cold ? Instant.now().minus(Duration.ofHours(1)) : Instant.now()
+    );
+    return registrationInfo;
+  }
+}
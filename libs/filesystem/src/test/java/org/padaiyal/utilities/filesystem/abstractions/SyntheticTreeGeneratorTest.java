@@ -0,0 +1,205 @@
+package org.padaiyal.utilities.filesystem.abstractions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.padaiyal.utilities.filesystem.FileSystemUtility;
+import org.padaiyal.utilities.filesystem.abstractions.SyntheticTreeGenerator.Distribution;
+
+/**
+ * Tests the functionality of SyntheticTreeGenerator.
+ */
+public class SyntheticTreeGeneratorTest {
+
+  /**
+   * Directory in which the trees are generated.
+   */
+  private Path testBedPath;
+
+  /**
+   * Creates the test bed directory.
+   *
+   * @throws IOException When there is an issue creating the directory.
+   */
+  @BeforeEach
+  public void createTestBed() throws IOException {
+    testBedPath = Files.createTempDirectory("SyntheticTreeGeneratorTest").toAbsolutePath();
+  }
+
+  /**
+   * Deletes the test bed directory.
+   *
+   * @throws IOException When there is an issue deleting the directory.
+   */
+  @AfterEach
+  public void deleteTestBed() throws IOException {
+    FileSystemUtility.deleteRecursively(testBedPath);
+  }
+
+  /**
+   * Tests that the same seed generates the same tree, regardless of the parallelism.
+   *
+   * @throws IOException When there is an issue generating the trees.
+   */
+  @Test
+  public void testRepeatability() throws IOException {
+    SyntheticTreeReport report1 = createGenerator(42, false, 1).generate(testBedPath.resolve("1"));
+    SyntheticTreeReport report2 = createGenerator(42, false, 4).generate(testBedPath.resolve("2"));
+    SyntheticTreeReport report3 = createGenerator(7, false, 4).generate(testBedPath.resolve("3"));
+
+    List<String> listing1 = list(testBedPath.resolve("1"));
+    Assertions.assertEquals(listing1, list(testBedPath.resolve("2")));
+    Assertions.assertNotEquals(listing1, list(testBedPath.resolve("3")));
+    Assertions.assertEquals(listing1.size(), report1.getEntriesCount());
+    Assertions.assertEquals(report1.getBytesCount(), report2.getBytesCount());
+    Assertions.assertTrue(report3.getEntriesCount() > 0);
+    Assertions.assertTrue(report1.getEntriesPerSecond() > 0);
+    Assertions.assertNotNull(report1.getFileStoreType());
+  }
+
+  /**
+   * Tests the counts and sizes of a tree generated from fixed distributions.
+   *
+   * @throws IOException When there is an issue generating the tree.
+   */
+  @Test
+  public void testFixedDistributions() throws IOException {
+    SyntheticTreeGenerator syntheticTreeGenerator = new SyntheticTreeGenerator(
+        0,
+        2,
+        Distribution.fixed(3),
+        Distribution.fixed(2),
+        Distribution.fixed(100_000),
+        false,
+        2
+    );
+    SyntheticTreeReport report = syntheticTreeGenerator.generate(testBedPath);
+
+    // 3 + 9 directories, and 2 files in each of them and the root.
+    Assertions.assertEquals(12, report.getDirectoriesCount());
+    Assertions.assertEquals(26, report.getFilesCount());
+    Assertions.assertEquals(26 * 100_000L, report.getBytesCount());
+    Assertions.assertEquals(100_000L, Files.size(testBedPath.resolve("d2/d1/f1")));
+    Assertions.assertTrue(Files.isDirectory(testBedPath.resolve("d2/d2")));
+    Assertions.assertFalse(Files.exists(testBedPath.resolve("d2/d2/d0")));
+  }
+
+  /**
+   * Tests that sparse files have the sampled size.
+   *
+   * @throws IOException When there is an issue generating the tree.
+   */
+  @Test
+  public void testSparseFiles() throws IOException {
+    SyntheticTreeGenerator syntheticTreeGenerator = new SyntheticTreeGenerator(
+        0,
+        0,
+        Distribution.fixed(0),
+        Distribution.fixed(2),
+        Distribution.fixed(10 * 1024 * 1024),
+        true,
+        1
+    );
+    SyntheticTreeReport report = syntheticTreeGenerator.generate(testBedPath);
+    Assertions.assertEquals(2, report.getFilesCount());
+    Assertions.assertEquals(10 * 1024 * 1024L, Files.size(testBedPath.resolve("f0")));
+  }
+
+  /**
+   * Tests generating a tree into an existing tree.
+   *
+   * @throws IOException When there is an issue generating the tree.
+   */
+  @Test
+  public void testExistingTree() throws IOException {
+    createGenerator(1, true, 2).generate(testBedPath);
+    Assertions.assertThrows(
+        IOException.class,
+        () -> createGenerator(1, true, 2).generate(testBedPath)
+    );
+  }
+
+  /**
+   * Tests SyntheticTreeGenerator with invalid inputs.
+   */
+  @Test
+  public void testInvalidInputs() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> Distribution.fixed(-1));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> Distribution.uniform(2, 1));
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> Distribution.exponential(0, 10)
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new SyntheticTreeGenerator(
+            0, -1, Distribution.fixed(1), Distribution.fixed(1), Distribution.fixed(1), false, 1)
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new SyntheticTreeGenerator(
+            0, 1, Distribution.fixed(1), Distribution.fixed(1), Distribution.fixed(1), false, 0)
+    );
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> new SyntheticTreeGenerator(
+            0, 1, null, Distribution.fixed(1), Distribution.fixed(1), false, 1)
+    );
+  }
+
+  /**
+   * Creates a generator with random distributions.
+   *
+   * @param seed        Seed of the generator.
+   * @param sparse      If true files are created sparse.
+   * @param parallelism Number of threads creating the tree.
+   * @return The generator.
+   */
+  private static SyntheticTreeGenerator createGenerator(
+      long seed,
+      boolean sparse,
+      int parallelism
+  ) {
+    return new SyntheticTreeGenerator(
+        seed,
+        3,
+        Distribution.uniform(1, 4),
+        Distribution.uniform(0, 5),
+        Distribution.exponential(4096, 1024 * 1024),
+        sparse,
+        parallelism
+    );
+  }
+
+  /**
+   * Lists the entries of a tree along with the size of the files.
+   *
+   * @param root Root of the tree.
+   * @return Sorted relative paths of the entries, followed by the size for files.
+   * @throws IOException When there is an issue walking the tree.
+   */
+  private static List<String> list(Path root) throws IOException {
+    try (Stream<Path> paths = Files.walk(root)) {
+      return paths
+          .filter(path -> !path.equals(root))
+          .map(path -> {
+            try {
+              return root.relativize(path)
+                  + (Files.isDirectory(path) ? "/" : " " + Files.size(path));
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          })
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+}
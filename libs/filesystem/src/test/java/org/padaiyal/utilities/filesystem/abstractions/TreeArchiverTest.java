@@ -0,0 +1,285 @@
+package org.padaiyal.utilities.filesystem.abstractions;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.padaiyal.utilities.filesystem.FileSystemUtility;
+import org.padaiyal.utilities.filesystem.abstractions.SyntheticTreeGenerator.Distribution;
+
+/**
+ * Tests the functionality of TreeArchiver.
+ */
+public class TreeArchiverTest {
+
+  /**
+   * Directory containing the archived tree and the archives.
+   */
+  private Path testBedPath;
+
+  /**
+   * Root of the archived tree.
+   */
+  private Path treePath;
+
+  /**
+   * Creates the test bed directory with a tree whose files span several chunks, a long name and a
+   * symbolic link.
+   *
+   * @throws IOException When there is an issue creating the tree.
+   */
+  @BeforeEach
+  public void createTestBed() throws IOException {
+    testBedPath = Files.createTempDirectory("TreeArchiverTest").toAbsolutePath();
+    treePath = testBedPath.resolve("tree");
+    new SyntheticTreeGenerator(
+        11,
+        2,
+        Distribution.uniform(1, 3),
+        Distribution.uniform(1, 3),
+        Distribution.exponential(20_000, 200_000),
+        false,
+        2
+    ).generate(treePath);
+    Path longNamePath = Files.createDirectories(treePath.resolve("a".repeat(120)));
+    Files.writeString(longNamePath.resolve("b".repeat(90)), "prefixed name content");
+    Files.writeString(longNamePath.resolve("c".repeat(150)), "long name content");
+    Files.createSymbolicLink(treePath.resolve("link"), Path.of("f0"));
+  }
+
+  /**
+   * Deletes the test bed directory.
+   *
+   * @throws IOException When there is an issue deleting the directory.
+   */
+  @AfterEach
+  public void deleteTestBed() throws IOException {
+    FileSystemUtility.deleteRecursively(testBedPath);
+  }
+
+  /**
+   * Tests that the archived files and symbolic links can be read back with the same content.
+   *
+   * @param archiveFormat Format of the archive.
+   * @throws IOException When there is an issue creating or reading the archive.
+   */
+  @ParameterizedTest
+  @CsvSource({"ZIP", "TAR_GZ"})
+  public void testArchiveRoundTrip(ArchiveFormat archiveFormat) throws IOException {
+    Path archivePath = testBedPath.resolve("archive");
+    TreeArchiveReport report =
+        new TreeArchiver(archiveFormat, path -> true, 4, 4096, 8, 6)
+            .archive(treePath, archivePath);
+
+    Map<String, byte[]> expectedFiles = listFiles(treePath);
+    Map<String, byte[]> archivedFiles = archiveFormat == ArchiveFormat.ZIP
+        ? readZip(archivePath)
+        : readTarGz(archivePath);
+    Assertions.assertEquals(expectedFiles.keySet(), archivedFiles.keySet());
+    expectedFiles.forEach((name, content) ->
+        Assertions.assertArrayEquals(content, archivedFiles.get(name), name));
+
+    long expectedBytesCount = expectedFiles.entrySet().stream()
+        .filter(entry -> !entry.getKey().equals("tree/link"))
+        .mapToLong(entry -> entry.getValue().length)
+        .sum();
+    Assertions.assertEquals(expectedBytesCount, report.getUncompressedBytesCount());
+    Assertions.assertEquals(Files.size(archivePath), report.getArchiveBytesCount());
+    Assertions.assertTrue(report.getBytesPerSecond() > 0);
+  }
+
+  /**
+   * Tests that only the entries accepted by the pattern are archived.
+   *
+   * @throws IOException When there is an issue creating or reading the archive.
+   */
+  @Test
+  public void testArchiveIfMatches() throws IOException {
+    Path archivePath = testBedPath.resolve("archive.zip");
+    TreeArchiveReport report = FileSystemUtility.archiveIfMatches(
+        treePath,
+        archivePath,
+        ArchiveFormat.ZIP,
+        "f0"
+    );
+    try (ZipFile zipFile = new ZipFile(archivePath.toFile())) {
+      Assertions.assertEquals(report.getEntriesCount(), zipFile.size());
+      Assertions.assertTrue(zipFile.size() > 1);
+      Assertions.assertTrue(
+          zipFile.stream().allMatch(zipEntry -> zipEntry.getName().endsWith("/f0"))
+      );
+    }
+  }
+
+  /**
+   * Tests TreeArchiver with invalid inputs.
+   *
+   * @throws IOException When there is an issue creating the existing archive.
+   */
+  @Test
+  public void testInvalidInputs() throws IOException {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new TreeArchiver(ArchiveFormat.ZIP, path -> true, 0, 1, 1, 6)
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new TreeArchiver(ArchiveFormat.ZIP, path -> true, 1, 1, 1, 10)
+    );
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> new TreeArchiver(null, path -> true, 1, 1, 1, 6)
+    );
+
+    Path existingArchivePath = Files.createFile(testBedPath.resolve("existing.tar.gz"));
+    TreeArchiver treeArchiver = new TreeArchiver(ArchiveFormat.TAR_GZ, path -> true, 1, 1, 1, 6);
+    Assertions.assertThrows(
+        FileAlreadyExistsException.class,
+        () -> treeArchiver.archive(treePath, existingArchivePath)
+    );
+    Assertions.assertTrue(Files.exists(existingArchivePath));
+    Assertions.assertThrows(
+        IOException.class,
+        () -> treeArchiver.archive(testBedPath.resolve("missing"), testBedPath.resolve("a.tgz"))
+    );
+    Assertions.assertFalse(Files.exists(testBedPath.resolve("a.tgz")));
+  }
+
+  /**
+   * Lists the files and symbolic links of a tree, named like in the archive.
+   *
+   * @param root Root of the tree.
+   * @return Map of the names to the content, or the target for symbolic links.
+   * @throws IOException When there is an issue reading the tree.
+   */
+  private static Map<String, byte[]> listFiles(Path root) throws IOException {
+    try (Stream<Path> paths = Files.walk(root)) {
+      return paths
+          .filter(path -> !Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS))
+          .collect(Collectors.toMap(
+              path -> root.getParent().relativize(path).toString(),
+              path -> {
+                try {
+                  return Files.isSymbolicLink(path)
+                      ? Files.readSymbolicLink(path).toString().getBytes(StandardCharsets.UTF_8)
+                      : Files.readAllBytes(path);
+                } catch (IOException e) {
+                  throw new UncheckedIOException(e);
+                }
+              }
+          ));
+    }
+  }
+
+  /**
+   * Reads the non directory entries of a ZIP archive. ZipInputStream verifies the CRC32 and sizes
+   * of every entry.
+   *
+   * @param archivePath The archive.
+   * @return Map of the entry names to their content.
+   * @throws IOException When there is an issue reading the archive.
+   */
+  private static Map<String, byte[]> readZip(Path archivePath) throws IOException {
+    Map<String, byte[]> entries = new HashMap<>();
+    try (ZipInputStream zipInputStream =
+        new ZipInputStream(new BufferedInputStream(Files.newInputStream(archivePath)))) {
+      ZipEntry zipEntry;
+      while ((zipEntry = zipInputStream.getNextEntry()) != null) {
+        if (!zipEntry.isDirectory()) {
+          entries.put(zipEntry.getName(), zipInputStream.readAllBytes());
+        }
+      }
+    }
+    return entries;
+  }
+
+  /**
+   * Reads the regular file and symbolic link entries of a tar.gz archive.
+   *
+   * @param archivePath The archive.
+   * @return Map of the entry names to their content, or the target for symbolic links.
+   * @throws IOException When there is an issue reading the archive.
+   */
+  private static Map<String, byte[]> readTarGz(Path archivePath) throws IOException {
+    Map<String, byte[]> entries = new HashMap<>();
+    try (InputStream inputStream =
+        new GZIPInputStream(new BufferedInputStream(Files.newInputStream(archivePath)))) {
+      String longName = null;
+      while (true) {
+        byte[] header = inputStream.readNBytes(512);
+        Assertions.assertEquals(512, header.length);
+        if (Arrays.equals(header, new byte[512])) {
+          break;
+        }
+        long expectedChecksum = Long.parseLong(readField(header, 148, 7).trim(), 8);
+        Arrays.fill(header, 148, 156, (byte) ' ');
+        long checksum = 0;
+        for (byte headerByte : header) {
+          checksum += headerByte & 0xFF;
+        }
+        Assertions.assertEquals(expectedChecksum, checksum);
+
+        String name = readField(header, 0, 100);
+        String prefix = readField(header, 345, 155);
+        if (!prefix.isEmpty()) {
+          name = prefix + "/" + name;
+        }
+        long size = Long.parseLong(readField(header, 124, 12).trim(), 8);
+        byte[] content = inputStream.readNBytes((int) size);
+        inputStream.readNBytes((int) ((512 - size % 512) % 512));
+
+        char type = (char) header[156];
+        if (type == 'L') {
+          longName = new String(content, 0, content.length - 1, StandardCharsets.UTF_8);
+          continue;
+        }
+        if (longName != null) {
+          name = longName;
+          longName = null;
+        }
+        if (type == '0') {
+          entries.put(name, content);
+        } else if (type == '2') {
+          entries.put(name, readField(header, 157, 100).getBytes(StandardCharsets.UTF_8));
+        }
+      }
+    }
+    return entries;
+  }
+
+  /**
+   * Reads a NUL terminated field of a tar header.
+   *
+   * @param header The header.
+   * @param offset Offset of the field.
+   * @param length Length of the field.
+   * @return The value of the field.
+   */
+  private static String readField(byte[] header, int offset, int length) {
+    int end = offset;
+    while (end < offset + length && header[end] != 0) {
+      end++;
+    }
+    return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+  }
+}
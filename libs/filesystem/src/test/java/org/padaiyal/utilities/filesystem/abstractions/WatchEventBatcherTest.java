@@ -0,0 +1,191 @@
+package org.padaiyal.utilities.filesystem.abstractions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.padaiyal.utilities.filesystem.FileSystemUtility;
+
+/**
+ * Tests the functionality of WatchEventBatcher.
+ */
+public class WatchEventBatcherTest {
+
+  /**
+   * Directory in which the watched files are created.
+   */
+  private Path testBedPath;
+
+  /**
+   * Batches delivered by the batcher.
+   */
+  private final List<List<WatchEventBatchEntry>> deliveredBatches = new CopyOnWriteArrayList<>();
+
+  /**
+   * Creates the test bed directory.
+   *
+   * @throws IOException When there is an issue creating the directory.
+   */
+  @BeforeEach
+  public void createTestBed() throws IOException {
+    testBedPath = Files.createTempDirectory("WatchEventBatcherTest").toAbsolutePath();
+    deliveredBatches.clear();
+  }
+
+  /**
+   * Deletes the test bed directory.
+   *
+   * @throws IOException When there is an issue deleting the directory.
+   */
+  @AfterEach
+  public void deleteTestBed() throws IOException {
+    FileSystemUtility.deRegisterWatchServiceForDirectory(testBedPath);
+    FileSystemUtility.deleteRecursively(testBedPath);
+  }
+
+  /**
+   * Tests that the events of a drain are delivered as one immutable batch sharing the parent path
+   * and drain timestamp, with the paths they were accepted with.
+   */
+  @Test
+  public void testBatchPerDrain() {
+    WatchEventBatcher watchEventBatcher = new WatchEventBatcher(deliveredBatches::add);
+    Path firstPath = testBedPath.resolve("a");
+    Path secondPath = testBedPath.resolve("b");
+    watchEventBatcher.beginDrain(testBedPath);
+    watchEventBatcher.accept(firstPath, createEvent("a"));
+    watchEventBatcher.accept(secondPath, createEvent("b"));
+    Assertions.assertTrue(deliveredBatches.isEmpty());
+    watchEventBatcher.endDrain();
+
+    Assertions.assertEquals(1, deliveredBatches.size());
+    List<WatchEventBatchEntry> batch = deliveredBatches.get(0);
+    Assertions.assertSame(firstPath, batch.get(0).getPath());
+    Assertions.assertSame(secondPath, batch.get(1).getPath());
+    Assertions.assertSame(batch.get(0).getParentPath(), batch.get(1).getParentPath());
+    Assertions.assertSame(batch.get(0).getDrainedAt(), batch.get(1).getDrainedAt());
+    Assertions.assertThrows(UnsupportedOperationException.class, () -> batch.remove(0));
+    Assertions.assertEquals(0, watchEventBatcher.getPendingEventsCount());
+  }
+
+  /**
+   * Tests that events are accumulated across drains up to the max batch size.
+   */
+  @Test
+  public void testMaxBatchSize() {
+    WatchEventBatcher watchEventBatcher =
+        new WatchEventBatcher(deliveredBatches::add, 3, Duration.ofHours(1));
+    for (int drainIndex = 0; drainIndex < 4; drainIndex++) {
+      watchEventBatcher.beginDrain(testBedPath);
+      watchEventBatcher.accept(
+          testBedPath.resolve("f" + drainIndex),
+          createEvent("f" + drainIndex)
+      );
+      watchEventBatcher.endDrain();
+    }
+    Assertions.assertEquals(1, deliveredBatches.size());
+    Assertions.assertEquals(3, deliveredBatches.get(0).size());
+    Assertions.assertEquals(1, watchEventBatcher.getPendingEventsCount());
+
+    watchEventBatcher.flush();
+    Assertions.assertEquals(2, deliveredBatches.size());
+    Assertions.assertEquals(testBedPath.resolve("f3"), deliveredBatches.get(1).get(0).getPath());
+  }
+
+  /**
+   * Tests that accumulated events are delivered once the oldest reaches the max delay.
+   *
+   * @throws InterruptedException When interrupted while waiting for the delay.
+   */
+  @Test
+  public void testMaxDelay() throws InterruptedException {
+    WatchEventBatcher watchEventBatcher =
+        new WatchEventBatcher(deliveredBatches::add, 0, Duration.ofMillis(200));
+    watchEventBatcher.beginDrain(testBedPath);
+    watchEventBatcher.accept(testBedPath.resolve("a"), createEvent("a"));
+    watchEventBatcher.endDrain();
+    watchEventBatcher.flushIfDue();
+    Assertions.assertTrue(deliveredBatches.isEmpty());
+
+    Thread.sleep(250);
+    watchEventBatcher.flushIfDue();
+    Assertions.assertEquals(1, deliveredBatches.size());
+  }
+
+  /**
+   * Tests that the events generated for a registered directory are delivered in batches.
+   *
+   * @throws IOException          When there is an issue creating or registering the directory.
+   * @throws InterruptedException When interrupted while waiting for the events.
+   */
+  @Test
+  public void testBatchRegistration() throws IOException, InterruptedException {
+    FileSystemUtility.registerBatchWatchServiceForNotRegisteredDirectoryPath(
+        testBedPath,
+        0,
+        deliveredBatches::add,
+        0,
+        Duration.ZERO,
+        new WatchEventFilter().excludeGlob("*.tmp"),
+        StandardWatchEventKinds.ENTRY_CREATE
+    );
+    List<Path> createdFiles = new ArrayList<>();
+    for (int fileIndex = 0; fileIndex < 5; fileIndex++) {
+      createdFiles.add(Files.createFile(testBedPath.resolve("file" + fileIndex)));
+    }
+    Files.createFile(testBedPath.resolve("ignored.tmp"));
+
+    List<Path> deliveredPaths = new ArrayList<>();
+    Instant timeout = Instant.now().plusSeconds(10);
+    while (Instant.now().isBefore(timeout) && deliveredPaths.size() < createdFiles.size()) {
+      Thread.sleep(100);
+      deliveredPaths.clear();
+      deliveredBatches.forEach(
+          batch -> batch.forEach(entry -> deliveredPaths.add(entry.getPath()))
+      );
+    }
+    Assertions.assertEquals(createdFiles, deliveredPaths);
+    deliveredBatches.forEach(batch -> Assertions.assertFalse(batch.isEmpty()));
+  }
+
+  /**
+   * Tests WatchEventBatcher with invalid inputs.
+   */
+  @Test
+  public void testInvalidInputs() {
+    Assertions.assertThrows(NullPointerException.class, () -> new WatchEventBatcher(null));
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> new WatchEventBatcher(deliveredBatches::add, 1, null)
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new WatchEventBatcher(deliveredBatches::add, 1, Duration.ofMillis(-1))
+    );
+  }
+
+  /**
+   * Creates an ENTRY_CREATE event for the specified entry name.
+   *
+   * @param name Name of the entry.
+   * @return The event.
+   */
+  private static WatchEvent<Path> createEvent(String name) {
+    return new WatchEventJournalRecord(
+        0,
+        System.currentTimeMillis(),
+        StandardWatchEventKinds.ENTRY_CREATE,
+        Path.of(name).toAbsolutePath()
+    );
+  }
+}
@@ -0,0 +1,196 @@
+package org.padaiyal.utilities.filesystem.abstractions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.padaiyal.utilities.filesystem.FileSystemUtility;
+
+/**
+ * Tests the functionality of WatchEventChangeDetector.
+ */
+public class WatchEventChangeDetectorTest {
+
+  /**
+   * Directory in which the watched files are created.
+   */
+  private Path testBedPath;
+
+  /**
+   * Creates the test bed directory.
+   *
+   * @throws IOException When there is an issue creating the directory.
+   */
+  @BeforeEach
+  public void createTestBed() throws IOException {
+    testBedPath = Files.createTempDirectory("WatchEventChangeDetectorTest").toAbsolutePath();
+  }
+
+  /**
+   * Deletes the test bed directory.
+   *
+   * @throws IOException When there is an issue deleting the directory.
+   */
+  @AfterEach
+  public void deleteTestBed() throws IOException {
+    FileSystemUtility.deRegisterWatchServiceForDirectory(testBedPath);
+    FileSystemUtility.deleteRecursively(testBedPath);
+  }
+
+  /**
+   * Tests that modifications are detected from the size and last modified time.
+   *
+   * @throws IOException When there is an issue writing the file.
+   */
+  @Test
+  public void testSizeAndLastModifiedTime() throws IOException {
+    WatchEventChangeDetector changeDetector = new WatchEventChangeDetector(10);
+    Path file = Files.writeString(testBedPath.resolve("file"), "content");
+
+    // Last modified just now, a rewrite of the same size could leave it unchanged.
+    Assertions.assertTrue(changeDetector.hasChanged(file));
+    Assertions.assertTrue(changeDetector.hasChanged(file));
+    touch(file, -10);
+    Assertions.assertTrue(changeDetector.hasChanged(file));
+    Assertions.assertFalse(changeDetector.hasChanged(file));
+    Files.writeString(file, "longer content");
+    Assertions.assertTrue(changeDetector.hasChanged(file));
+    // A touch changes the last modified time, which is a change without hashing.
+    touch(file, 1);
+    Assertions.assertTrue(changeDetector.hasChanged(file));
+    Assertions.assertEquals(1, changeDetector.getSuppressedEventsCount());
+    Assertions.assertEquals(0, changeDetector.getHashedFilesCount());
+  }
+
+  /**
+   * Tests that touches without content changes are suppressed when hashing is enabled.
+   *
+   * @throws IOException When there is an issue writing the file.
+   */
+  @Test
+  public void testContentHash() throws IOException {
+    WatchEventChangeDetector changeDetector = new WatchEventChangeDetector(10, 1024);
+    Path file = Files.writeString(testBedPath.resolve("file"), "content");
+
+    // Hashes are only computed once the size of a remembered file matches.
+    Assertions.assertTrue(changeDetector.hasChanged(file));
+    Assertions.assertEquals(0, changeDetector.getHashedFilesCount());
+    touch(file, 1);
+    Assertions.assertTrue(changeDetector.hasChanged(file));
+    touch(file, 1);
+    Assertions.assertFalse(changeDetector.hasChanged(file));
+
+    // Rewritten with the same size and last modified time.
+    FileTime lastModifiedTime = Files.getLastModifiedTime(file);
+    Files.writeString(file, "CONTENT");
+    Files.setLastModifiedTime(file, lastModifiedTime);
+    Assertions.assertTrue(changeDetector.hasChanged(file));
+    Assertions.assertEquals(1, changeDetector.getSuppressedEventsCount());
+
+    // Files larger than the max hashed file size fall back to the last modified time.
+    Path largeFile = Files.write(testBedPath.resolve("large"), new byte[2048]);
+    Assertions.assertTrue(changeDetector.hasChanged(largeFile));
+    touch(largeFile, 1);
+    Assertions.assertTrue(changeDetector.hasChanged(largeFile));
+    Assertions.assertEquals(3, changeDetector.getHashedFilesCount());
+  }
+
+  /**
+   * Tests that the least recently reported files are forgotten once the bound is reached.
+   *
+   * @throws IOException When there is an issue writing the files.
+   */
+  @Test
+  public void testLruBound() throws IOException {
+    WatchEventChangeDetector changeDetector = new WatchEventChangeDetector(2);
+    Path file1 = Files.writeString(testBedPath.resolve("file1"), "1");
+    Path file2 = Files.writeString(testBedPath.resolve("file2"), "2");
+    touch(file1, -10);
+    touch(file2, -10);
+
+    changeDetector.hasChanged(file1);
+    changeDetector.hasChanged(file2);
+    Assertions.assertFalse(changeDetector.hasChanged(file1));
+    changeDetector.hasChanged(Files.writeString(testBedPath.resolve("file3"), "3"));
+    Assertions.assertEquals(2, changeDetector.getTrackedFilesCount());
+    // file2 was the least recently reported, so it's seen as new again.
+    Assertions.assertFalse(changeDetector.hasChanged(file1));
+    Assertions.assertTrue(changeDetector.hasChanged(file2));
+
+    changeDetector.forget(file2);
+    Assertions.assertEquals(1, changeDetector.getTrackedFilesCount());
+  }
+
+  /**
+   * Tests that no-op modifications of a registered directory aren't delivered.
+   *
+   * @throws IOException          When there is an issue writing or registering the files.
+   * @throws InterruptedException When interrupted while waiting for the events.
+   */
+  @Test
+  public void testRegistrationWithChangeDetector() throws IOException, InterruptedException {
+    Path file = Files.writeString(testBedPath.resolve("file"), "content");
+    WatchEventChangeDetector changeDetector = new WatchEventChangeDetector(10, 1024);
+    // Reported twice, so that its hash is remembered.
+    changeDetector.hasChanged(file);
+    touch(file, 1);
+    changeDetector.hasChanged(file);
+    List<Path> deliveredPaths = new CopyOnWriteArrayList<>();
+
+    FileSystemUtility.registerWatchServiceForNotRegisteredDirectoryPath(
+        testBedPath,
+        0,
+        (path, watchEvent) -> deliveredPaths.add(path),
+        new WatchEventFilter().suppressUnchangedModifications(changeDetector),
+        StandardWatchEventKinds.ENTRY_MODIFY
+    );
+    touch(file, 5);
+
+    Instant timeout = Instant.now().plusSeconds(10);
+    while (Instant.now().isBefore(timeout) && changeDetector.getSuppressedEventsCount() == 0) {
+      Thread.sleep(100);
+    }
+    Assertions.assertTrue(changeDetector.getSuppressedEventsCount() > 0);
+    Assertions.assertTrue(deliveredPaths.isEmpty());
+  }
+
+  /**
+   * Tests WatchEventChangeDetector with invalid inputs.
+   */
+  @Test
+  public void testInvalidInputs() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new WatchEventChangeDetector(0));
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> new WatchEventChangeDetector(1).hasChanged(null)
+    );
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> new WatchEventFilter().suppressUnchangedModifications(null)
+    );
+  }
+
+  /**
+   * Moves the last modified time of a file without changing its content.
+   *
+   * @param file    The file to touch.
+   * @param seconds Number of seconds to move the last modified time forward by, negative to move
+   *                it backward.
+   * @throws IOException When there is an issue setting the last modified time.
+   */
+  private static void touch(Path file, int seconds) throws IOException {
+    FileTime lastModifiedTime = Files.getLastModifiedTime(file);
+    Files.setLastModifiedTime(
+        file,
+        FileTime.fromMillis(lastModifiedTime.toMillis() + seconds * 1000L)
+    );
+  }
+}
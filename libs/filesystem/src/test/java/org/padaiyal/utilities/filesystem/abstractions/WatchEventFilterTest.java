@@ -0,0 +1,204 @@
+package org.padaiyal.utilities.filesystem.abstractions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.padaiyal.utilities.filesystem.FileSystemUtility;
+
+/**
+ * Tests the functionality of WatchEventFilter.
+ */
+public class WatchEventFilterTest {
+
+  /**
+   * Directory in which the watched tree is created.
+   */
+  private Path testBedPath;
+
+  /**
+   * Creates the test bed directory.
+   *
+   * @throws IOException When there is an issue creating the directory.
+   */
+  @BeforeEach
+  public void createTestBed() throws IOException {
+    testBedPath = Files.createTempDirectory("WatchEventFilterTest").toAbsolutePath();
+  }
+
+  /**
+   * Deletes the test bed directory.
+   *
+   * @throws IOException When there is an issue deleting the directory.
+   */
+  @AfterEach
+  public void deleteTestBed() throws IOException {
+    FileSystemUtility.deRegisterWatchServiceForDirectory(testBedPath);
+    FileSystemUtility.deleteRecursively(testBedPath);
+  }
+
+  /**
+   * Tests the combination of include and exclude filters.
+   *
+   * @param name             Name of the entry.
+   * @param isModify         If true the event is ENTRY_MODIFY, else ENTRY_CREATE.
+   * @param expectedAccepted Expected result of the filter.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "Main.java, false, true",
+      "Main.java, true, false",
+      "notes.txt, false, true",
+      "Main.java.tmp, false, false",
+      "README, false, false",
+      ".git, false, false"
+  })
+  public void testFilter(String name, boolean isModify, boolean expectedAccepted) {
+    WatchEventFilter watchEventFilter = new WatchEventFilter()
+        .includeGlob("*.java")
+        .includeRegex(".*\\.txt")
+        .excludeGlob("*.tmp")
+        .excludeRegex("\\.git")
+        .exclude(
+            (context, kind) -> context.toString().endsWith(".java")
+                && StandardWatchEventKinds.ENTRY_MODIFY.equals(kind)
+        );
+    Assertions.assertEquals(
+        expectedAccepted,
+        watchEventFilter.test(
+            Path.of(name),
+            isModify ? StandardWatchEventKinds.ENTRY_MODIFY : StandardWatchEventKinds.ENTRY_CREATE
+        )
+    );
+    Assertions.assertFalse(watchEventFilter.isAcceptAll());
+    Assertions.assertTrue(WatchEventFilter.ACCEPT_ALL.test(Path.of(name), null));
+  }
+
+  /**
+   * Tests that excluded events aren't recorded or delivered, and excluded directories aren't
+   * registered.
+   *
+   * @throws IOException          When there is an issue creating or registering the directories.
+   * @throws InterruptedException When interrupted while waiting for the events.
+   */
+  @Test
+  public void testRegistrationWithFilter() throws IOException, InterruptedException {
+    Path existingExcludedDirectory = Files.createDirectories(testBedPath.resolve(".git"));
+    List<Path> deliveredPaths = new CopyOnWriteArrayList<>();
+
+    FileSystemUtility.registerWatchServiceForNotRegisteredDirectoryPath(
+        testBedPath,
+        2,
+        (path, watchEvent) -> deliveredPaths.add(path),
+        new WatchEventFilter()
+            .excludeGlob(".git")
+            .excludeGlob("*.tmp")
+            .exclude((context, kind) -> context.toString().startsWith("cache")),
+        StandardWatchEventKinds.ENTRY_CREATE
+    );
+    Assertions.assertFalse(
+        FileSystemUtility.getRegisteredPaths().contains(existingExcludedDirectory.toString())
+    );
+
+    Files.createDirectories(testBedPath.resolve("cache1"));
+    Path createdDirectory = Files.createDirectories(testBedPath.resolve("src"));
+    Files.createFile(testBedPath.resolve("ignored.tmp"));
+    Path acceptedFile = Files.createFile(testBedPath.resolve("accepted.txt"));
+
+    Instant timeout = Instant.now().plusSeconds(10);
+    while (Instant.now().isBefore(timeout)
+        && !(deliveredPaths.contains(acceptedFile) && deliveredPaths.contains(createdDirectory))) {
+      Thread.sleep(100);
+    }
+    // Let the background thread process the remaining events.
+    Thread.sleep(500);
+
+    Assertions.assertEquals(
+        List.of(acceptedFile, createdDirectory),
+        deliveredPaths.stream().sorted().collect(Collectors.toList())
+    );
+    Assertions.assertTrue(
+        FileSystemUtility.getRegisteredPaths().contains(createdDirectory.toString())
+    );
+    Assertions.assertFalse(
+        FileSystemUtility.getRegisteredPaths()
+            .contains(testBedPath.resolve("cache1").toString())
+    );
+    Assertions.assertFalse(
+        FileSystemUtility.getPathsToTriggeredEventMap()
+            .containsKey(testBedPath.resolve("ignored.tmp").toString())
+    );
+  }
+
+  /**
+   * Tests that the directories not matched by the include filters are still registered and
+   * deregistered, so that the matching entries created in them are delivered.
+   *
+   * @throws IOException          When there is an issue creating or registering the directories.
+   * @throws InterruptedException When interrupted while waiting for the events.
+   */
+  @Test
+  public void testIncludeFilterDoesNotPruneRegistration()
+      throws IOException, InterruptedException {
+    List<Path> deliveredPaths = new CopyOnWriteArrayList<>();
+    FileSystemUtility.registerWatchServiceForNotRegisteredDirectoryPath(
+        testBedPath,
+        2,
+        (path, watchEvent) -> deliveredPaths.add(path),
+        new WatchEventFilter().includeGlob("*.txt"),
+        StandardWatchEventKinds.ENTRY_CREATE,
+        StandardWatchEventKinds.ENTRY_DELETE
+    );
+
+    Path createdDirectory = Files.createDirectories(testBedPath.resolve("src"));
+    String createdDirectoryString = createdDirectory.toString();
+    Instant timeout = Instant.now().plusSeconds(10);
+    while (Instant.now().isBefore(timeout)
+        && !FileSystemUtility.getRegisteredPaths().contains(createdDirectoryString)) {
+      Thread.sleep(100);
+    }
+    Path acceptedFile = Files.createFile(createdDirectory.resolve("accepted.txt"));
+    while (Instant.now().isBefore(timeout) && !deliveredPaths.contains(acceptedFile)) {
+      Thread.sleep(100);
+    }
+    Assertions.assertEquals(List.of(acceptedFile), deliveredPaths);
+
+    FileSystemUtility.deleteRecursively(createdDirectory);
+    while (Instant.now().isBefore(timeout)
+        && FileSystemUtility.getRegisteredPaths().contains(createdDirectoryString)) {
+      Thread.sleep(100);
+    }
+    Assertions.assertFalse(FileSystemUtility.getRegisteredPaths().contains(createdDirectoryString));
+  }
+
+  /**
+   * Tests WatchEventFilter with invalid inputs.
+   */
+  @Test
+  public void testInvalidInputs() {
+    WatchEventFilter watchEventFilter = new WatchEventFilter();
+    Assertions.assertThrows(NullPointerException.class, () -> watchEventFilter.includeGlob(null));
+    Assertions.assertThrows(NullPointerException.class, () -> watchEventFilter.excludeRegex(null));
+    Assertions.assertThrows(NullPointerException.class, () -> watchEventFilter.include(null));
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> FileSystemUtility.registerWatchServiceForNotRegisteredDirectoryPath(
+            testBedPath,
+            0,
+            (path, watchEvent) -> {},
+            (WatchEventFilter) null,
+            StandardWatchEventKinds.ENTRY_CREATE
+        )
+    );
+  }
+}
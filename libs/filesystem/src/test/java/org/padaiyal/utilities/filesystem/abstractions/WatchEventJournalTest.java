@@ -0,0 +1,250 @@
+package org.padaiyal.utilities.filesystem.abstractions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent.Kind;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.padaiyal.utilities.filesystem.FileSystemUtility;
+
+/**
+ * Tests the functionality of WatchEventJournal.
+ */
+public class WatchEventJournalTest {
+
+  /**
+   * Segment size small enough for a handful of records, to exercise segment rotation.
+   */
+  private static final int SEGMENT_SIZE_IN_BYTES = 256;
+
+  /**
+   * Directory in which the journal and the watched tree are created.
+   */
+  private Path testBedPath;
+
+  /**
+   * Directory in which the journal is stored.
+   */
+  private Path journalPath;
+
+  /**
+   * Creates the test bed directory.
+   *
+   * @throws IOException When there is an issue creating the directory.
+   */
+  @BeforeEach
+  public void createTestBed() throws IOException {
+    testBedPath = Files.createTempDirectory("WatchEventJournalTest");
+    journalPath = testBedPath.resolve("journal");
+  }
+
+  /**
+   * Deletes the test bed directory.
+   *
+   * @throws IOException When there is an issue deleting the directory.
+   */
+  @AfterEach
+  public void deleteTestBed() throws IOException {
+    FileSystemUtility.deleteRecursively(testBedPath);
+  }
+
+  /**
+   * Tests that appended events survive reopening the journal and are replayed in order, across
+   * segments.
+   *
+   * @throws IOException When there is an issue accessing the journal.
+   */
+  @Test
+  public void testAppendAndReplayAfterReopen() throws IOException {
+    try (WatchEventJournal journal = new WatchEventJournal(journalPath, SEGMENT_SIZE_IN_BYTES)) {
+      for (int eventIndex = 0; eventIndex < 20; eventIndex++) {
+        Assertions.assertEquals(
+            eventIndex + 1,
+            journal.append(
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                testBedPath.resolve("f" + eventIndex)
+            )
+        );
+      }
+      Assertions.assertTrue(journal.getSegmentCount() > 1);
+    }
+
+    try (WatchEventJournal journal = new WatchEventJournal(journalPath, SEGMENT_SIZE_IN_BYTES)) {
+      Assertions.assertEquals(20, journal.getLastSequence());
+      List<WatchEventJournalRecord> records = journal.getRecords(15);
+      Assertions.assertEquals(6, records.size());
+      for (int recordIndex = 0; recordIndex < records.size(); recordIndex++) {
+        WatchEventJournalRecord record = records.get(recordIndex);
+        Assertions.assertEquals(15 + recordIndex, record.getSequence());
+        Assertions.assertEquals(StandardWatchEventKinds.ENTRY_MODIFY, record.kind());
+        Assertions.assertEquals(testBedPath.resolve("f" + (14 + recordIndex)), record.getPath());
+      }
+      Assertions.assertEquals(
+          21,
+          journal.append(StandardWatchEventKinds.ENTRY_DELETE, testBedPath)
+      );
+    }
+  }
+
+  /**
+   * Tests that compaction retains only the latest event of every path, with its original sequence.
+   *
+   * @throws IOException When there is an issue accessing the journal.
+   */
+  @Test
+  public void testCompaction() throws IOException {
+    try (WatchEventJournal journal = new WatchEventJournal(journalPath, SEGMENT_SIZE_IN_BYTES)) {
+      for (int eventIndex = 0; eventIndex < 30; eventIndex++) {
+        journal.append(
+            StandardWatchEventKinds.ENTRY_MODIFY,
+            testBedPath.resolve("f" + eventIndex % 3)
+        );
+      }
+      long lastSequence = journal.getLastSequence();
+      Assertions.assertTrue(journal.compact() > 0);
+      Assertions.assertEquals(2, journal.getSegmentCount());
+      Assertions.assertEquals(0, journal.compact());
+
+      // The compacted segment holds the latest event of each of the 3 paths, followed by the
+      // untouched events of the active segment.
+      List<WatchEventJournalRecord> records = journal.getRecords(0);
+      Assertions.assertEquals(
+          3,
+          records.stream().limit(3).map(WatchEventJournalRecord::getPath).distinct().count()
+      );
+      for (int recordIndex = 1; recordIndex < records.size(); recordIndex++) {
+        Assertions.assertTrue(
+            records.get(recordIndex - 1).getSequence() < records.get(recordIndex).getSequence()
+        );
+      }
+      for (int recordIndex = 3; recordIndex < records.size(); recordIndex++) {
+        Assertions.assertEquals(
+            lastSequence - records.size() + recordIndex + 1,
+            records.get(recordIndex).getSequence()
+        );
+      }
+      Assertions.assertEquals(lastSequence, records.get(records.size() - 1).getSequence());
+    }
+
+    try (WatchEventJournal journal = new WatchEventJournal(journalPath, SEGMENT_SIZE_IN_BYTES)) {
+      Assertions.assertEquals(30, journal.getLastSequence());
+    }
+  }
+
+  /**
+   * Tests that the changes made to a tree while it wasn't watched are recovered from the
+   * checkpoint.
+   *
+   * @throws IOException When there is an issue accessing the journal or the tree.
+   */
+  @Test
+  public void testRecoverMissedEvents() throws IOException {
+    Path rootPath = testBedPath.resolve("root");
+    Files.createDirectories(rootPath.resolve("dir"));
+    Path modifiedFile = Files.writeString(rootPath.resolve("dir").resolve("modified"), "a");
+    Path deletedFile = Files.writeString(rootPath.resolve("deleted"), "a");
+    Path unchangedFile = Files.writeString(rootPath.resolve("unchanged"), "a");
+
+    try (WatchEventJournal journal = new WatchEventJournal(journalPath, SEGMENT_SIZE_IN_BYTES)) {
+      // Nothing to recover before the first checkpoint.
+      Assertions.assertTrue(journal.recoverMissedEvents(rootPath).isEmpty());
+    }
+
+    Files.delete(deletedFile);
+    Files.writeString(modifiedFile, "ab");
+    Files.setLastModifiedTime(
+        modifiedFile,
+        FileTime.fromMillis(Files.getLastModifiedTime(modifiedFile).toMillis() + 5000)
+    );
+    Path createdDirectory = Files.createDirectories(rootPath.resolve("created"));
+
+    try (WatchEventJournal journal = new WatchEventJournal(journalPath, SEGMENT_SIZE_IN_BYTES)) {
+      List<WatchEventJournalRecord> missedEvents = journal.recoverMissedEvents(rootPath);
+      Map<Path, Kind<?>> pathToKind = new HashMap<>();
+      missedEvents.forEach(record -> pathToKind.put(record.getPath(), record.kind()));
+      Assertions.assertEquals(
+          Map.of(
+              deletedFile.toAbsolutePath(), StandardWatchEventKinds.ENTRY_DELETE,
+              modifiedFile.toAbsolutePath(), StandardWatchEventKinds.ENTRY_MODIFY,
+              createdDirectory.toAbsolutePath(), StandardWatchEventKinds.ENTRY_CREATE
+          ),
+          pathToKind
+      );
+      Assertions.assertFalse(pathToKind.containsKey(unchangedFile.toAbsolutePath()));
+      Assertions.assertEquals(missedEvents.size(), journal.getRecords(0).size());
+
+      // The recovery takes a new checkpoint.
+      Assertions.assertTrue(journal.recoverMissedEvents(rootPath).isEmpty());
+    }
+  }
+
+  /**
+   * Tests that the changes explained by the events journaled after the checkpoint aren't
+   * recovered again.
+   *
+   * @throws IOException When there is an issue accessing the journal or the tree.
+   */
+  @Test
+  public void testRecoverMissedEventsSkipsJournaledEvents() throws IOException {
+    Path rootPath = Files.createDirectories(testBedPath.resolve("root"));
+    Path journaledFile = rootPath.resolve("journaled");
+
+    try (WatchEventJournal journal = new WatchEventJournal(journalPath, SEGMENT_SIZE_IN_BYTES)) {
+      Assertions.assertTrue(journal.recoverMissedEvents(rootPath).isEmpty());
+      // Created while the tree was watched.
+      Files.writeString(journaledFile, "a");
+      journal.append(StandardWatchEventKinds.ENTRY_CREATE, journaledFile.toAbsolutePath());
+    }
+
+    Path missedFile = Files.writeString(rootPath.resolve("missed"), "a");
+    try (WatchEventJournal journal = new WatchEventJournal(journalPath, SEGMENT_SIZE_IN_BYTES)) {
+      List<WatchEventJournalRecord> missedEvents = journal.recoverMissedEvents(rootPath);
+      Assertions.assertEquals(1, missedEvents.size());
+      Assertions.assertEquals(missedFile.toAbsolutePath(), missedEvents.get(0).getPath());
+      Assertions.assertEquals(StandardWatchEventKinds.ENTRY_CREATE, missedEvents.get(0).kind());
+    }
+  }
+
+  /**
+   * Tests that the checkpoints of distinct roots whose paths have the same hash code are kept
+   * apart.
+   *
+   * @throws IOException When there is an issue accessing the journal or the trees.
+   */
+  @Test
+  public void testCheckpointsOfDistinctRoots() throws IOException {
+    // "Aa" and "BB" have the same String hash code.
+    Path firstRootPath = Files.createDirectories(testBedPath.resolve("Aa"));
+    Path secondRootPath = Files.createDirectories(testBedPath.resolve("BB"));
+    Files.writeString(firstRootPath.resolve("file"), "a");
+
+    try (WatchEventJournal journal = new WatchEventJournal(journalPath, SEGMENT_SIZE_IN_BYTES)) {
+      Assertions.assertTrue(journal.recoverMissedEvents(firstRootPath).isEmpty());
+      Assertions.assertTrue(journal.recoverMissedEvents(secondRootPath).isEmpty());
+      Assertions.assertTrue(journal.recoverMissedEvents(firstRootPath).isEmpty());
+    }
+  }
+
+  /**
+   * Tests WatchEventJournal with invalid inputs.
+   */
+  @Test
+  public void testInvalidInputs() {
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> new WatchEventJournal(null, SEGMENT_SIZE_IN_BYTES)
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new WatchEventJournal(journalPath, 8)
+    );
+  }
+}
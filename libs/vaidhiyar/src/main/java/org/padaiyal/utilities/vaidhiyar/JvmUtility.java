@@ -4,14 +4,21 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
 import com.sun.management.HotSpotDiagnosticMXBean;
 import com.sun.management.ThreadMXBean;
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
 import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
-import java.lang.management.RuntimeMXBean;
+import java.lang.management.ThreadInfo;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
@@ -19,21 +26,45 @@ import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+import javax.management.JMException;
+import javax.management.MBeanException;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.padaiyal.utilities.I18nUtility;
 import org.padaiyal.utilities.PropertyUtility;
+import org.padaiyal.utilities.vaidhiyar.abstractions.CarrierPoolInfo;
+import org.padaiyal.utilities.vaidhiyar.abstractions.ClassHistogram;
+import org.padaiyal.utilities.vaidhiyar.abstractions.ClassHistogramMonitor;
 import org.padaiyal.utilities.vaidhiyar.abstractions.ExtendedMemoryUsage;
 import org.padaiyal.utilities.vaidhiyar.abstractions.ExtendedThreadInfo;
 import org.padaiyal.utilities.vaidhiyar.abstractions.GarbageCollectionInfo;
+import org.padaiyal.utilities.vaidhiyar.abstractions.GarbageCollectionMonitor;
+import org.padaiyal.utilities.vaidhiyar.abstractions.HeapDumpResult;
+import org.padaiyal.utilities.vaidhiyar.abstractions.JfrEventAnalyzer;
+import org.padaiyal.utilities.vaidhiyar.abstractions.JfrRecordingOptions;
+import org.padaiyal.utilities.vaidhiyar.abstractions.JvmInformationDumpOptions;
+import org.padaiyal.utilities.vaidhiyar.abstractions.JvmInformationDumpOptions.Section;
+import org.padaiyal.utilities.vaidhiyar.abstractions.LockContentionProfiler;
+import org.padaiyal.utilities.vaidhiyar.abstractions.MemoryPoolInfo;
+import org.padaiyal.utilities.vaidhiyar.abstractions.MemoryPoolMonitor;
+import org.padaiyal.utilities.vaidhiyar.abstractions.OpenMetricsExporter;
+import org.padaiyal.utilities.vaidhiyar.abstractions.StackSamplingProfiler;
+import org.padaiyal.utilities.vaidhiyar.abstractions.TelemetryRecorder;
+import org.padaiyal.utilities.vaidhiyar.abstractions.TelemetrySnapshot;
+import org.padaiyal.utilities.vaidhiyar.abstractions.ThreadCpuSampler;
+import org.padaiyal.utilities.vaidhiyar.abstractions.ThreadDump;
+import org.padaiyal.utilities.vaidhiyar.abstractions.ThreadUsageHistory;
+import org.padaiyal.utilities.vaidhiyar.abstractions.ThreadUsageSnapshot;
 
 /**
  * Utility for retrieving JVM specific information.
@@ -59,22 +90,47 @@ public final class JvmUtility {
   private static final ThreadMXBean threadMxBean
       = (ThreadMXBean) ManagementFactory.getThreadMXBean();
   /**
-   * RuntimeMxBean object used to get CPU core count.
+   * Depth of the thread stacks looked at to find the carrier threads with a virtual thread
+   * mounted, whose top frames are the ones running the virtual thread continuation.
    */
-  private static final RuntimeMXBean runtimeMxBean = ManagementFactory.getRuntimeMXBean();
+  private static final int CARRIER_THREAD_STACK_DEPTH = 4;
   /**
-   * Map to store the thread CPU usages.
+   * Sampler used to compute the thread CPU usages.
    */
-  private static final Map<Long, Double> threadCpuUsages
-      = new ConcurrentHashMap<>();
+  private static final ThreadCpuSampler threadCpuSampler = new ThreadCpuSampler(threadMxBean);
   /**
    * ExecutorService object used to manage the thread CPU usage collector.
    */
   private static final ExecutorService executorService = Executors.newSingleThreadExecutor();
+  /**
+   * ExecutorService object used to generate the heap dumps asynchronously, one at a time.
+   */
+  private static final ExecutorService heapDumpExecutorService
+      = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, JvmUtility.class.getSimpleName() + "-heapDump");
+        thread.setDaemon(true);
+        return thread;
+      });
+  /**
+   * Lock held while the heap is dumped, to prevent concurrent heap dumps.
+   */
+  private static final Object heapDumpLock = new Object();
   /**
    * HotSpotDiagnosticMXBean object used to retrieve heap dump and VM options.
    */
   private static HotSpotDiagnosticMXBean hotSpotDiagnosticMXBean;
+  /**
+   * History of the thread CPU usages and allocation rates recorded by the collector.
+   */
+  private static ThreadUsageHistory threadUsageHistory;
+  /**
+   * Monitor capturing the garbage collections as they happen.
+   */
+  private static GarbageCollectionMonitor garbageCollectionMonitor;
+  /**
+   * Monitor tracking the usage of the memory pools and their threshold crossings.
+   */
+  private static MemoryPoolMonitor memoryPoolMonitor;
   /**
    * Switch to enable/disable thread CPU usage collection.
    */
@@ -83,6 +139,10 @@ public final class JvmUtility {
    * Sampling interval to use to measure the thread CPU usages.
    */
   private static long cpuSamplingIntervalInMilliSeconds;
+  /**
+   * Number of threads captured at once when dumping the JVM information.
+   */
+  private static int dumpThreadBatchSize;
   /**
    * Callable implementation to execute when the thread CPU usage is to be collected.
    */
@@ -118,6 +178,32 @@ public final class JvmUtility {
           Long.class,
           "JvmUtility.cpuSamplingInterval.milliseconds"
       );
+      dumpThreadBatchSize = PropertyUtility.getTypedProperty(
+          Integer.class,
+          "JvmUtility.dumpJvmInformation.threadBatchSize"
+      );
+
+      if (threadUsageHistory == null) {
+        threadUsageHistory = new ThreadUsageHistory(
+            PropertyUtility.getTypedProperty(
+                Integer.class,
+                "JvmUtility.threadUsageHistory.length"
+            )
+        );
+      }
+
+      if (garbageCollectionMonitor == null) {
+        garbageCollectionMonitor = new GarbageCollectionMonitor(
+            PropertyUtility.getTypedProperty(
+                Integer.class,
+                "JvmUtility.garbageCollectionMonitor.capacity"
+            )
+        );
+      }
+
+      if (memoryPoolMonitor == null) {
+        memoryPoolMonitor = new MemoryPoolMonitor();
+      }
 
       if (hotSpotDiagnosticMXBean == null) {
         hotSpotDiagnosticMXBean = ManagementFactory.newPlatformMXBeanProxy(
@@ -165,6 +251,26 @@ public final class JvmUtility {
     return new ExtendedMemoryUsage(memoryMXBean.getNonHeapMemoryUsage());
   }
 
+  /**
+   * Get the usage information of every memory pool, e.g. the old generation, the metaspace or the
+   * code cache.
+   *
+   * @return The MemoryPoolInfo objects representing the usage of the memory pools.
+   */
+  public static MemoryPoolInfo[] getMemoryPoolInfos() {
+    return memoryPoolMonitor.getMemoryPoolInfos();
+  }
+
+  /**
+   * Gets the monitor used to set the usage thresholds of the memory pools and to listen to their
+   * crossings.
+   *
+   * @return The memory pool monitor.
+   */
+  public static MemoryPoolMonitor getMemoryPoolMonitor() {
+    return memoryPoolMonitor;
+  }
+
   /**
    * Runs the garbage collector.
    *
@@ -214,6 +320,16 @@ public final class JvmUtility {
         .toArray(GarbageCollectionInfo[]::new);
   }
 
+  /**
+   * Gets the monitor capturing every garbage collection along with its cause, duration and memory
+   * pool usages, over the last JvmUtility.garbageCollectionMonitor.capacity collections.
+   *
+   * @return The garbage collection monitor.
+   */
+  public static GarbageCollectionMonitor getGarbageCollectionMonitor() {
+    return garbageCollectionMonitor;
+  }
+
   /**
    * Dump the heap memory contents onto a file.
    *
@@ -229,6 +345,96 @@ public final class JvmUtility {
       String heapDumpFileName,
       boolean dumpOnlyLiveObjects
   ) throws IOException {
+    Path destinationHeapDumpFilePath = getHeapDumpFilePath(destinationDirectory, heapDumpFileName);
+    return dumpHeap(destinationHeapDumpFilePath, dumpOnlyLiveObjects);
+  }
+
+  /**
+   * Dump the heap memory contents onto a file without blocking the caller. The heap dumps are
+   * generated one at a time, each failing with an IOException if the destination directory
+   * doesn't have enough usable space for the used heap. If compressed, the heap dump is gzipped
+   * in a streaming pass once generated and the uncompressed file is deleted.
+   *
+   * @param destinationDirectory Destination directory
+   * @param heapDumpFileName     Name of the heap dump file generated.
+   * @param dumpOnlyLiveObjects  If true dump only live objects i.e. objects that are reachable
+   *                             from others
+   * @param gzipCompress         If true the heap dump is gzip compressed into a .hprof.gz file.
+   * @return The future of the heap dump outcome.
+   */
+  public static Future<HeapDumpResult> generateHeapDumpAsync(
+      Path destinationDirectory,
+      String heapDumpFileName,
+      boolean dumpOnlyLiveObjects,
+      boolean gzipCompress
+  ) {
+    Path heapDumpFilePath = getHeapDumpFilePath(destinationDirectory, heapDumpFileName);
+    int compressionBufferSize = PropertyUtility.getTypedProperty(
+        Integer.class,
+        "JvmUtility.generateHeapDump.compressionBufferSize.bytes"
+    );
+    return heapDumpExecutorService.submit(() -> {
+      checkUsableSpace(destinationDirectory, memoryMXBean.getHeapMemoryUsage().getUsed());
+      Duration generationDuration = dumpHeap(heapDumpFilePath, dumpOnlyLiveObjects);
+      long heapDumpSizeInBytes = Files.size(heapDumpFilePath);
+      if (!gzipCompress) {
+        return new HeapDumpResult(
+            heapDumpFilePath,
+            heapDumpSizeInBytes,
+            heapDumpSizeInBytes,
+            generationDuration,
+            Duration.ZERO
+        );
+      }
+
+      // Both files exist until the compression completes.
+      checkUsableSpace(destinationDirectory, heapDumpSizeInBytes);
+      Path compressedHeapDumpFilePath = heapDumpFilePath.resolveSibling(
+          heapDumpFilePath.getFileName() + ".gz"
+      );
+      Instant compressionStartInstant = Instant.now();
+      try (
+          InputStream inputStream = Files.newInputStream(heapDumpFilePath);
+          OutputStream outputStream = new GZIPOutputStream(
+              Files.newOutputStream(compressedHeapDumpFilePath),
+              compressionBufferSize
+          )
+      ) {
+        byte[] buffer = new byte[compressionBufferSize];
+        int readBytesCount;
+        while ((readBytesCount = inputStream.read(buffer)) != -1) {
+          outputStream.write(buffer, 0, readBytesCount);
+        }
+      } catch (IOException e) {
+        Files.deleteIfExists(compressedHeapDumpFilePath);
+        throw e;
+      }
+      Duration compressionDuration = Duration.between(compressionStartInstant, Instant.now());
+      Files.delete(heapDumpFilePath);
+      if (logger.isInfoEnabled()) {
+        logger.info(
+            I18nUtility.getString("JvmUtility.generateHeapDump.compressed"),
+            compressedHeapDumpFilePath.toAbsolutePath().toString()
+        );
+      }
+      return new HeapDumpResult(
+          compressedHeapDumpFilePath,
+          heapDumpSizeInBytes,
+          Files.size(compressedHeapDumpFilePath),
+          generationDuration,
+          compressionDuration
+      );
+    });
+  }
+
+  /**
+   * Validates the destination of a heap dump and gets the path of the heap dump file.
+   *
+   * @param destinationDirectory Destination directory
+   * @param heapDumpFileName     Name of the heap dump file generated.
+   * @return Path of the heap dump file, with the .hprof extension.
+   */
+  private static Path getHeapDumpFilePath(Path destinationDirectory, String heapDumpFileName) {
     // Input validation.
     Objects.requireNonNull(destinationDirectory);
     if (!Files.exists(destinationDirectory)) {
@@ -256,24 +462,41 @@ public final class JvmUtility {
       heapDumpFileNameWithExtension += heapDumpFileExtension;
     }
 
-    Path destinationHeapDumpFilePath = destinationDirectory.resolve(heapDumpFileNameWithExtension);
+    return destinationDirectory.resolve(heapDumpFileNameWithExtension);
+  }
 
+  /**
+   * Dump the heap memory contents onto a file, once any other heap dump in progress completes.
+   *
+   * @param destinationHeapDumpFilePath Path of the heap dump file.
+   * @param dumpOnlyLiveObjects         If true dump only live objects i.e. objects that are
+   *                                    reachable from others
+   * @return Time taken to generate heap dump.
+   * @throws IOException When there is an issue generating a heap dump.
+   */
+  private static Duration dumpHeap(
+      Path destinationHeapDumpFilePath,
+      boolean dumpOnlyLiveObjects
+  ) throws IOException {
     if (logger.isInfoEnabled()) {
       logger.info(
               I18nUtility.getString("JvmUtility.generateHeapDump.generating")
       );
     }
-    Instant heapDumpGenerationStartInstant = Instant.now();
-    dependantValuesInitializer.run();
-    hotSpotDiagnosticMXBean.dumpHeap(
-        destinationHeapDumpFilePath.toAbsolutePath()
-            .toString(),
-        dumpOnlyLiveObjects
-    );
-    Duration heapDumpGenerationDuration = Duration.between(
-        heapDumpGenerationStartInstant,
-        Instant.now()
-    );
+    Duration heapDumpGenerationDuration;
+    synchronized (heapDumpLock) {
+      Instant heapDumpGenerationStartInstant = Instant.now();
+      dependantValuesInitializer.run();
+      hotSpotDiagnosticMXBean.dumpHeap(
+          destinationHeapDumpFilePath.toAbsolutePath()
+              .toString(),
+          dumpOnlyLiveObjects
+      );
+      heapDumpGenerationDuration = Duration.between(
+          heapDumpGenerationStartInstant,
+          Instant.now()
+      );
+    }
     if (logger.isInfoEnabled()) {
       logger.info(
               I18nUtility.getString("JvmUtility.generateHeapDump.generated"),
@@ -284,6 +507,53 @@ public final class JvmUtility {
     return heapDumpGenerationDuration;
   }
 
+  /**
+   * Checks that a directory has enough usable space to write a file.
+   *
+   * @param directory            The directory.
+   * @param requiredSizeInBytes  Size of the file to write.
+   * @throws IOException If the directory doesn't have enough usable space.
+   */
+  private static void checkUsableSpace(Path directory, long requiredSizeInBytes)
+      throws IOException {
+    long usableSpaceInBytes = Files.getFileStore(directory).getUsableSpace();
+    if (usableSpaceInBytes < requiredSizeInBytes) {
+      throw new IOException(
+          I18nUtility.getFormattedString(
+              "JvmUtility.generateHeapDump.insufficientUsableSpace",
+              requiredSizeInBytes,
+              directory,
+              usableSpaceInBytes
+          )
+      );
+    }
+  }
+
+  /**
+   * Takes a histogram of the number of instances and the memory occupied per class on the heap
+   * with the gcClassHistogram diagnostic command, much lighter than a heap dump.
+   *
+   * @param liveObjectsOnly If true only the live objects are counted, which triggers a full
+   *                        garbage collection. Else all the objects on the heap are counted.
+   * @return The class histogram.
+   * @throws IOException If there is an issue taking the histogram.
+   */
+  public static ClassHistogram getClassHistogram(boolean liveObjectsOnly) throws IOException {
+    String[] arguments = liveObjectsOnly ? new String[0] : new String[]{"-all"};
+    Instant timestamp = Instant.now();
+    try {
+      String output = (String) ManagementFactory.getPlatformMBeanServer().invoke(
+          new ObjectName("com.sun.management:type=DiagnosticCommand"),
+          "gcClassHistogram",
+          new Object[]{arguments},
+          new String[]{String[].class.getName()}
+      );
+      return ClassHistogram.parse(timestamp, output);
+    } catch (JMException e) {
+      throw new IOException(e);
+    }
+  }
+
   /**
    * Gets a list of available VM options.
    *
@@ -363,17 +633,382 @@ public final class JvmUtility {
    * @return                  Extended thread info for all JVM threads.
    */
   public static ExtendedThreadInfo[] getAllExtendedThreadInfo(int threadStackDepth) {
+    // Use a single snapshot, so that all the threads are reported for the same interval.
+    ThreadUsageSnapshot threadUsageSnapshot = getThreadUsageSnapshot();
     return Arrays.stream(
         threadMxBean.getThreadInfo(
             threadMxBean.getAllThreadIds(),
             threadStackDepth
         )
-    ).map(threadInfo -> new ExtendedThreadInfo(
-            threadInfo,
-            getCpuUsage(threadInfo.getThreadId()),
-            getAllocatedMemoryInBytes(threadInfo.getThreadId())
+    ).filter(Objects::nonNull)
+        .map(threadInfo -> createExtendedThreadInfo(threadInfo, threadUsageSnapshot))
+        .toArray(ExtendedThreadInfo[]::new);
+  }
+
+  /**
+   * Dumps all the threads of the JVM, including the virtual threads which
+   * getAllExtendedThreadInfo() doesn't see, with HotSpotDiagnosticMXBean.dumpThreads(). Requires
+   * a Java 21 or later runtime.
+   *
+   * @return The thread dump.
+   * @throws IOException If there is an issue writing or reading the dump.
+   */
+  public static ThreadDump getThreadDump() throws IOException {
+    Path temporaryDirectory = Files.createTempDirectory(JvmUtility.class.getSimpleName());
+    Path threadDumpPath = temporaryDirectory.resolve("threads.json");
+    try {
+      // Platform threads started between this and the dump are taken for virtual threads.
+      Set<Long> platformThreadIds = Arrays.stream(threadMxBean.getAllThreadIds())
+          .boxed()
+          .collect(Collectors.toSet());
+      // Invoked by name, as dumpThreads() isn't in the HotSpotDiagnosticMXBean of Java 17.
+      ManagementFactory.getPlatformMBeanServer().invoke(
+          new ObjectName("com.sun.management:type=HotSpotDiagnostic"),
+          "dumpThreads",
+          new Object[]{threadDumpPath.toAbsolutePath().toString(), "JSON"},
+          new String[]{String.class.getName(), String.class.getName()}
+      );
+      try (Reader reader = Files.newBufferedReader(threadDumpPath, StandardCharsets.UTF_8)) {
+        return ThreadDump.fromJsonObject(
+            JsonParser.parseReader(reader).getAsJsonObject(),
+            platformThreadIds
+        );
+      }
+    } catch (ReflectionException e) {
+      throw new UnsupportedOperationException(
+          I18nUtility.getFormattedString(
+              "JvmUtility.error.threadDumpNotSupported",
+              Runtime.version()
+          ),
+          e
+      );
+    } catch (MBeanException e) {
+      throw e.getTargetException() instanceof IOException
+          ? (IOException) e.getTargetException()
+          : new IOException(e);
+    } catch (JMException e) {
+      throw new IOException(e);
+    } finally {
+      Files.deleteIfExists(threadDumpPath);
+      Files.delete(temporaryDirectory);
+    }
+  }
+
+  /**
+   * Gets the utilization of the carrier threads the virtual threads are scheduled on. The
+   * parallelism is the one of the default scheduler, set by the
+   * jdk.virtualThreadScheduler.parallelism system property.
+   *
+   * @return The utilization of the carrier threads.
+   */
+  public static CarrierPoolInfo getCarrierPoolInfo() {
+    long mountedCarrierThreadsCount = Arrays.stream(
+        threadMxBean.getThreadInfo(threadMxBean.getAllThreadIds(), CARRIER_THREAD_STACK_DEPTH)
+    ).filter(Objects::nonNull)
+        .filter(threadInfo -> Arrays.stream(threadInfo.getStackTrace())
+            .anyMatch(stackFrame -> stackFrame.getClassName().equals("java.lang.VirtualThread")
+                && stackFrame.getMethodName().equals("runContinuation")))
+        .count();
+    return new CarrierPoolInfo(
+        Integer.getInteger(
+            "jdk.virtualThreadScheduler.parallelism",
+            Runtime.getRuntime().availableProcessors()
+        ),
+        mountedCarrierThreadsCount
+    );
+  }
+
+  /**
+   * Captures a snapshot of the JVM telemetry, which can be written in a compact binary format with
+   * TelemetrySnapshotWriter. It's much lighter than dumpJvmInformationToFile(), so it's suited to
+   * continuous capture.
+   *
+   * @param threadStackDepth Depth of the thread stacks to capture, 0 to capture no stack.
+   * @return The snapshot of the JVM telemetry.
+   */
+  public static TelemetrySnapshot getTelemetrySnapshot(int threadStackDepth) {
+    if (threadStackDepth < 0) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "JvmUtility.error.negativeThreadStackDepth",
+              threadStackDepth
+          )
+      );
+    }
+    ThreadUsageSnapshot threadUsageSnapshot = getThreadUsageSnapshot();
+    long[] allThreadIds = threadMxBean.getAllThreadIds();
+    Arrays.sort(allThreadIds);
+    ThreadInfo[] threadInfos = threadMxBean.getThreadInfo(allThreadIds, threadStackDepth);
+    // Threads terminated since their IDs were retrieved have no information.
+    int threadsCount = (int) Arrays.stream(threadInfos)
+        .filter(Objects::nonNull)
+        .count();
+    long[] threadIds = new long[threadsCount];
+    String[] threadNames = new String[threadsCount];
+    Thread.State[] threadStates = new Thread.State[threadsCount];
+    double[] cpuUsages = new double[threadsCount];
+    long[] allocatedBytes = new long[threadsCount];
+    double[] allocationRates = new double[threadsCount];
+    String[][] stackTraces = new String[threadsCount][];
+    int index = 0;
+    for (ThreadInfo threadInfo : threadInfos) {
+      if (threadInfo == null) {
+        continue;
+      }
+      long threadId = threadInfo.getThreadId();
+      threadIds[index] = threadId;
+      threadNames[index] = threadInfo.getThreadName();
+      threadStates[index] = threadInfo.getThreadState();
+      cpuUsages[index] = threadUsageSnapshot.getCpuUsage(threadId);
+      long threadAllocatedBytes = threadUsageSnapshot.getAllocatedBytes(threadId);
+      allocatedBytes[index] = threadAllocatedBytes < 0
+          ? threadMxBean.getThreadAllocatedBytes(threadId)
+          : threadAllocatedBytes;
+      allocationRates[index] = threadUsageSnapshot.getAllocationRate(threadId);
+      stackTraces[index] = Arrays.stream(threadInfo.getStackTrace())
+          .map(StackTraceElement::toString)
+          .toArray(String[]::new);
+      index++;
+    }
+    return new TelemetrySnapshot(
+        Instant.now(),
+        getHeapMemoryUsage(),
+        getNonHeapMemoryUsage(),
+        getGarbageCollectionInfo(),
+        threadIds,
+        threadNames,
+        threadStates,
+        cpuUsages,
+        allocatedBytes,
+        allocationRates,
+        stackTraces
+    );
+  }
+
+  /**
+   * Starts recording the JVM telemetry to rolling memory-mapped segments in a directory, as
+   * configured by the JvmUtility.telemetryRecorder.* properties. The recorded telemetry can be read
+   * with TelemetryRecorder.read(), including after a crash of the JVM.
+   *
+   * @param directory Directory in which to record the telemetry.
+   * @return The recorder, to close once the recording is to stop.
+   * @throws IOException If the segments cannot be created.
+   */
+  public static TelemetryRecorder startTelemetryRecorder(Path directory) throws IOException {
+    int threadStackDepth = PropertyUtility.getTypedProperty(
+        Integer.class,
+        "JvmUtility.telemetryRecorder.threadStackDepth"
+    );
+    return new TelemetryRecorder(
+        directory,
+        PropertyUtility.getTypedProperty(
+            Long.class,
+            "JvmUtility.telemetryRecorder.diskBudget.bytes"
+        ),
+        PropertyUtility.getTypedProperty(
+            Integer.class,
+            "JvmUtility.telemetryRecorder.segmentSize.bytes"
+        ),
+        Duration.ofMillis(
+            PropertyUtility.getTypedProperty(
+                Long.class,
+                "JvmUtility.telemetryRecorder.samplingInterval.milliseconds"
+            )
+        ),
+        () -> getTelemetrySnapshot(threadStackDepth)
+    );
+  }
+
+  /**
+   * Starts profiling the lock contention of the JVM and looking for deadlocks, as configured by the
+   * JvmUtility.lockContentionProfiler.* properties. Thread contention monitoring is enabled until
+   * the profiler is closed.
+   *
+   * @return The profiler, to close once the profiling is to stop.
+   */
+  public static LockContentionProfiler startLockContentionProfiler() {
+    return new LockContentionProfiler(
+        threadMxBean,
+        Duration.ofMillis(
+            PropertyUtility.getTypedProperty(
+                Long.class,
+                "JvmUtility.lockContentionProfiler.samplingInterval.milliseconds"
+            )
+        ),
+        PropertyUtility.getTypedProperty(
+            Integer.class,
+            "JvmUtility.lockContentionProfiler.stackDepth"
         )
-    ).toArray(ExtendedThreadInfo[]::new);
+    );
+  }
+
+  /**
+   * Starts a sampling stack profiler, as configured by the JvmUtility.stackSamplingProfiler.*
+   * properties. The samples are weighted by the CPU usages measured by the thread CPU usage
+   * collector, so they all have a zero CPU time if it isn't running.
+   *
+   * @return The profiler, to stop once the profiling is to stop.
+   */
+  public static StackSamplingProfiler startStackSamplingProfiler() {
+    StackSamplingProfiler stackSamplingProfiler = new StackSamplingProfiler(
+        threadMxBean,
+        JvmUtility::getThreadUsageSnapshot,
+        Duration.ofMillis(
+            PropertyUtility.getTypedProperty(
+                Long.class,
+                "JvmUtility.stackSamplingProfiler.samplingInterval.milliseconds"
+            )
+        ),
+        PropertyUtility.getTypedProperty(
+            Integer.class,
+            "JvmUtility.stackSamplingProfiler.stackDepth"
+        ),
+        PropertyUtility.getTypedProperty(
+            Boolean.class,
+            "JvmUtility.stackSamplingProfiler.runnableThreadsOnly.switch"
+        ),
+        PropertyUtility.getTypedProperty(
+            Double.class,
+            "JvmUtility.stackSamplingProfiler.maxCpuOverhead"
+        )
+    );
+    stackSamplingProfiler.start();
+    return stackSamplingProfiler;
+  }
+
+  /**
+   * Starts recording all the JFR events analyzed in process, as configured by the
+   * JvmUtility.jfrEventAnalyzer.* properties.
+   *
+   * @return The analyzer, to close once the recording is to stop.
+   */
+  public static JfrEventAnalyzer startJfrEventAnalyzer() {
+    return startJfrEventAnalyzer(
+        new JfrRecordingOptions()
+            .setPeriod(
+                Duration.ofMillis(
+                    PropertyUtility.getTypedProperty(
+                        Long.class,
+                        "JvmUtility.jfrEventAnalyzer.period.milliseconds"
+                    )
+                )
+            )
+            .setThreshold(
+                Duration.ofMillis(
+                    PropertyUtility.getTypedProperty(
+                        Long.class,
+                        "JvmUtility.jfrEventAnalyzer.threshold.milliseconds"
+                    )
+                )
+            )
+            .setMaxAge(
+                Duration.ofSeconds(
+                    PropertyUtility.getTypedProperty(
+                        Long.class,
+                        "JvmUtility.jfrEventAnalyzer.maxAge.seconds"
+                    )
+                )
+            )
+    );
+  }
+
+  /**
+   * Starts recording JFR events in process and aggregating them into per thread statistics,
+   * garbage collection pauses and safepoints.
+   *
+   * @param jfrRecordingOptions Options of the recording.
+   * @return The analyzer, to close once the recording is to stop.
+   */
+  public static JfrEventAnalyzer startJfrEventAnalyzer(JfrRecordingOptions jfrRecordingOptions) {
+    return new JfrEventAnalyzer(jfrRecordingOptions);
+  }
+
+  /**
+   * Starts serving the JVM metrics in the OpenMetrics text format at
+   * http://localhost:port/metrics, as configured by the JvmUtility.openMetricsExporter.*
+   * properties. The thread CPU usages and allocation rates are the ones measured by the thread
+   * CPU usage collector, so they are zero if it isn't running.
+   *
+   * @return The exporter, to close once the metrics are no longer to be served.
+   * @throws IOException If the server cannot listen on the port.
+   */
+  public static OpenMetricsExporter startOpenMetricsExporter() throws IOException {
+    return new OpenMetricsExporter(
+        PropertyUtility.getTypedProperty(Integer.class, "JvmUtility.openMetricsExporter.port"),
+        Duration.ofMillis(
+            PropertyUtility.getTypedProperty(
+                Long.class,
+                "JvmUtility.openMetricsExporter.cacheInterval.milliseconds"
+            )
+        ),
+        () -> getTelemetrySnapshot(0),
+        JvmUtility::getMemoryPoolInfos
+    );
+  }
+
+  /**
+   * Starts taking a class histogram at a fixed rate and keeping the last ones, to find the classes
+   * growing steadily, as configured by the JvmUtility.classHistogramMonitor.* properties.
+   *
+   * @return The monitor, to close once the histograms are to stop.
+   */
+  public static ClassHistogramMonitor startClassHistogramMonitor() {
+    boolean liveObjectsOnly = PropertyUtility.getTypedProperty(
+        Boolean.class,
+        "JvmUtility.classHistogramMonitor.liveObjectsOnly.switch"
+    );
+    return new ClassHistogramMonitor(
+        () -> getClassHistogram(liveObjectsOnly),
+        Duration.ofSeconds(
+            PropertyUtility.getTypedProperty(
+                Long.class,
+                "JvmUtility.classHistogramMonitor.interval.seconds"
+            )
+        ),
+        PropertyUtility.getTypedProperty(Integer.class, "JvmUtility.classHistogramMonitor.capacity")
+    );
+  }
+
+  /**
+   * Combines the information of a thread with its usage in a snapshot.
+   *
+   * @param threadInfo          Information of the thread.
+   * @param threadUsageSnapshot Snapshot of the thread usages.
+   * @return The ExtendedThreadInfo object of the thread.
+   */
+  private static ExtendedThreadInfo createExtendedThreadInfo(
+      ThreadInfo threadInfo,
+      ThreadUsageSnapshot threadUsageSnapshot
+  ) {
+    long threadId = threadInfo.getThreadId();
+    long allocatedBytes = threadUsageSnapshot.getAllocatedBytes(threadId);
+    return new ExtendedThreadInfo(
+        threadInfo,
+        threadUsageSnapshot.getCpuUsage(threadId),
+        allocatedBytes < 0 ? getAllocatedMemoryInBytes(threadId) : allocatedBytes,
+        threadUsageSnapshot.getAllocationRate(threadId)
+    );
+  }
+
+  /**
+   * Gets the snapshot of the CPU usage and allocated memory of all the threads over the latest
+   * sampling interval of the thread CPU usage collector.
+   *
+   * @return The snapshot of the latest sampling interval, ThreadUsageSnapshot.EMPTY if the
+   *         collector hasn't completed an interval yet.
+   */
+  public static ThreadUsageSnapshot getThreadUsageSnapshot() {
+    return threadCpuSampler.getLatestSnapshot();
+  }
+
+  /**
+   * Gets the history of the thread CPU usages and allocation rates recorded by the thread CPU
+   * usage collector, over the last JvmUtility.threadUsageHistory.length sampling intervals.
+   *
+   * @return The history of the thread CPU usages and allocation rates.
+   */
+  public static ThreadUsageHistory getThreadUsageHistory() {
+    return threadUsageHistory;
   }
 
   /**
@@ -396,6 +1031,37 @@ public final class JvmUtility {
     return threadMxBean.getThreadAllocatedBytes(threadId);
   }
 
+  /**
+   * Gets the rate at which a specific thread allocates memory, over the latest sampling interval of
+   * the thread CPU usage collector.
+   *
+   * @param threadId  Thread ID for thread whose allocation rate is to be retrieved.
+   * @return          Allocation rate of the thread in bytes per second, -1 if it isn't known.
+   */
+  public static double getAllocationRateInBytesPerSecond(long threadId) {
+    // Input validation.
+    if (threadId <= 0) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "JvmUtility.error.invalidThreadId",
+              threadId
+          )
+      );
+    }
+
+    return getThreadUsageSnapshot().getAllocationRate(threadId);
+  }
+
+  /**
+   * Gets the rate at which the JVM allocates memory, over the latest sampling interval of the
+   * thread CPU usage collector. This is the main driver of the garbage collection frequency.
+   *
+   * @return The allocation rate of all the threads in bytes per second.
+   */
+  public static double getTotalAllocationRateInBytesPerSecond() {
+    return getThreadUsageSnapshot().getTotalAllocationRate();
+  }
+
   /**
    * Gets the CPU usage for a specific thread.
    *
@@ -413,7 +1079,7 @@ public final class JvmUtility {
       );
     }
 
-    double threadCpuUsage = threadCpuUsages.getOrDefault(threadId, -1.0);
+    double threadCpuUsage = threadCpuSampler.getCpuUsage(threadId);
     if (threadCpuUsage == -1) {
       if (logger.isWarnEnabled()) {
         logger.warn(
@@ -425,76 +1091,6 @@ public final class JvmUtility {
     return threadCpuUsage;
   }
 
-  /**
-   * Computes the thread CPU usages given the necessary inputs.
-   *
-   * @param initialThreadCpuTimesInNanoSeconds  Initial thread CPU times in nano seconds.
-   * @param currentThreadCpuTimesInNanoSeconds  Thread CPU times at the end of the sampling duration
-   *                                            in nano seconds.
-   * @param samplingDurationInMilliSeconds      Sampling duration in milli seconds.
-   * @return                                    A map, mapping the thread ID to it's CPU usage.
-   */
-  static Map<Long, Double> getThreadCpuUsages(
-      Map<Long, Long> initialThreadCpuTimesInNanoSeconds,
-      Map<Long, Long> currentThreadCpuTimesInNanoSeconds,
-      Long samplingDurationInMilliSeconds
-  ) {
-    // Input validation.
-    Objects.requireNonNull(initialThreadCpuTimesInNanoSeconds);
-    Objects.requireNonNull(currentThreadCpuTimesInNanoSeconds);
-    Objects.requireNonNull(samplingDurationInMilliSeconds);
-
-    Map<Long, Double> threadCpuUsages = new ConcurrentHashMap<>();
-    for (long threadId : currentThreadCpuTimesInNanoSeconds.keySet()) {
-      if (initialThreadCpuTimesInNanoSeconds.containsKey(threadId)) {
-        Long initialThreadCpuTimeInNanoSeconds = initialThreadCpuTimesInNanoSeconds.get(threadId);
-        Long currentThreadCpuTimeInNanoSeconds = currentThreadCpuTimesInNanoSeconds.get(threadId);
-
-        // Input validation.
-        Objects.requireNonNull(initialThreadCpuTimeInNanoSeconds);
-        Objects.requireNonNull(currentThreadCpuTimeInNanoSeconds);
-        String illegalArgumentExceptionMessage = null;
-        if (currentThreadCpuTimeInNanoSeconds < 0) {
-          illegalArgumentExceptionMessage = I18nUtility.getFormattedString(
-              "JvmUtility.error.negativeThreadCpuTime",
-              "currentThreadCpuTimeInNanoSeconds",
-              currentThreadCpuTimeInNanoSeconds,
-              "ns",
-              threadId
-          );
-        } else if (initialThreadCpuTimeInNanoSeconds < 0) {
-          illegalArgumentExceptionMessage = I18nUtility.getFormattedString(
-              "JvmUtility.error.negativeThreadCpuTime",
-              "initialThreadCpuTimeInNanoSeconds",
-              initialThreadCpuTimeInNanoSeconds,
-              "ns",
-              threadId
-          );
-        } else if (currentThreadCpuTimeInNanoSeconds < initialThreadCpuTimeInNanoSeconds) {
-          illegalArgumentExceptionMessage = I18nUtility.getFormattedString(
-              "JvmUtility.error.currentThreadCpuTimeLesserThanInitialThreadCpuTime",
-              currentThreadCpuTimeInNanoSeconds,
-              "ns",
-              initialThreadCpuTimeInNanoSeconds,
-              "ns"
-          );
-        }
-        if (illegalArgumentExceptionMessage != null) {
-          throw new IllegalArgumentException(illegalArgumentExceptionMessage);
-        }
-
-        double cpuThreadTimeInMilliSeconds = (
-            currentThreadCpuTimesInNanoSeconds.get(threadId)
-                - initialThreadCpuTimesInNanoSeconds.get(threadId)
-        ) / (1000.0 * 1000.0);
-        double threadCpuUsage
-            = cpuThreadTimeInMilliSeconds * 100.0 / samplingDurationInMilliSeconds;
-        threadCpuUsages.put(threadId, threadCpuUsage);
-      }
-    }
-    return threadCpuUsages;
-  }
-
   /**
    * Runs the steps to collect CPU usage for all threads in the JVM.
    *
@@ -507,38 +1103,15 @@ public final class JvmUtility {
       );
     }
     synchronized (Thread.currentThread()) {
+      // Discard the usages from a previous run, they could be arbitrarily old.
+      threadCpuSampler.reset();
+      threadCpuSampler.sample();
+      threadUsageHistory.record(threadCpuSampler.getLatestSnapshot());
       while (runThreadCpuUsageCollectorSwitch) {
-        long[] threadIds = getAllThreadsId();
-        long initialUpTimeInMilliSeconds;
-        long finalUpTimeInMilliSeconds;
-
-        initialUpTimeInMilliSeconds = runtimeMxBean.getUptime();
-        final Map<Long, Long> initialThreadCpuTimes = Arrays.stream(threadIds)
-            .boxed()
-            .collect(
-                Collectors.toMap(
-                    threadId -> threadId,
-                    threadMxBean::getThreadCpuTime
-                )
-            );
-
         //noinspection BusyWait
         Thread.sleep(cpuSamplingIntervalInMilliSeconds);
-
-        final Map<Long, Long> currentThreadCpuTimes = Arrays.stream(threadIds)
-            .boxed()
-            .collect(
-                Collectors.toMap(
-                    threadId -> threadId,
-                    threadMxBean::getThreadCpuTime
-                )
-            );
-
-        finalUpTimeInMilliSeconds = runtimeMxBean.getUptime();
-
-        threadCpuUsages.clear();
-        threadCpuUsages.putAll(getThreadCpuUsages(initialThreadCpuTimes, currentThreadCpuTimes,
-            finalUpTimeInMilliSeconds - initialUpTimeInMilliSeconds));
+        threadCpuSampler.sample();
+        threadUsageHistory.record(threadCpuSampler.getLatestSnapshot());
       }
     }
     if (logger.isInfoEnabled()) {
@@ -560,6 +1133,32 @@ public final class JvmUtility {
       Path destinationDirectory,
       String fileName,
       int threadStackDepth
+  ) throws IOException {
+    Objects.requireNonNull(destinationDirectory);
+    Objects.requireNonNull(fileName);
+    dumpJvmInformationToFile(
+        destinationDirectory,
+        fileName,
+        new JvmInformationDumpOptions(threadStackDepth)
+    );
+  }
+
+  /**
+   * Dump the selected JVM information onto a JSON file in the specified directory. The information
+   * is captured and written one section at a time, and the threads in batches of
+   * JvmUtility.dumpJvmInformation.threadBatchSize threads, so that the memory used by the dump
+   * doesn't grow with the number of threads.
+   *
+   * @param destinationDirectory      Directory in which to create the JSON file.
+   * @param fileName                  Name of the JSON file to create, without extension.
+   * @param jvmInformationDumpOptions Options of the dump.
+   * @return Path of the created file, with the .json or .json.gz extension.
+   * @throws IOException              If there is an issue writing the JSON file.
+   */
+  public static Path dumpJvmInformationToFile(
+      Path destinationDirectory,
+      String fileName,
+      JvmInformationDumpOptions jvmInformationDumpOptions
   ) throws IOException {
     // Input validation
     Objects.requireNonNull(destinationDirectory);
@@ -580,46 +1179,108 @@ public final class JvmUtility {
     }
 
     Objects.requireNonNull(fileName);
+    Objects.requireNonNull(jvmInformationDumpOptions);
 
-    Gson gsonObject = new GsonBuilder()
-        .setPrettyPrinting()
-        .create();
-    JsonObject jvmInformation = new JsonObject();
-    jvmInformation.addProperty(
-        "timestamp",
-        Instant.now().toString()
-    );
-    jvmInformation.add(
-        "heapUsage",
-        getHeapMemoryUsage().toJsonObject()
-    );
-    jvmInformation.add(
-        "nonHeapUsage",
-        getNonHeapMemoryUsage().toJsonObject()
+    Path destinationFile = destinationDirectory.resolve(
+        fileName + (jvmInformationDumpOptions.isGzipCompressed() ? ".json.gz" : ".json")
     );
-    jvmInformation.add(
-        "vmOptions",
-        getAllVmOptions()
-    );
-    jvmInformation.add(
-        "garbageCollectionInfos",
-        gsonObject.toJsonTree(getGarbageCollectionInfo())
-    );
-    JsonArray extendedThreadInfos = new JsonArray();
-    Arrays.stream(getAllExtendedThreadInfo(threadStackDepth))
-        .map(ExtendedThreadInfo::toJsonObject)
-        .forEach(extendedThreadInfos::add);
-    jvmInformation.add("threadInfos", extendedThreadInfos);
+    GsonBuilder gsonBuilder = new GsonBuilder();
+    if (jvmInformationDumpOptions.isPrettyPrinted()) {
+      gsonBuilder.setPrettyPrinting();
+    }
+    Gson gsonObject = gsonBuilder.create();
 
+    // Every stream is a resource of its own, so that the file is closed even if the GZIP header
+    // can't be written.
     try (
-        BufferedWriter bufferedWriter = Files.newBufferedWriter(
-            destinationDirectory.resolve(fileName + ".json")
+        OutputStream fileOutputStream = Files.newOutputStream(destinationFile);
+        OutputStream outputStream = jvmInformationDumpOptions.isGzipCompressed()
+            ? new GZIPOutputStream(fileOutputStream)
+            : fileOutputStream;
+        JsonWriter jsonWriter = gsonObject.newJsonWriter(
+            new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8))
         )
     ) {
-      gsonObject.toJson(
-          jvmInformation,
-          bufferedWriter
+      jsonWriter.beginObject();
+      jsonWriter.name("timestamp").value(Instant.now().toString());
+      for (Section section : jvmInformationDumpOptions.getSections()) {
+        switch (section) {
+          case HEAP_USAGE:
+            jsonWriter.name("heapUsage");
+            gsonObject.toJson(getHeapMemoryUsage().toJsonObject(), jsonWriter);
+            break;
+          case NON_HEAP_USAGE:
+            jsonWriter.name("nonHeapUsage");
+            gsonObject.toJson(getNonHeapMemoryUsage().toJsonObject(), jsonWriter);
+            break;
+          case MEMORY_POOLS:
+            jsonWriter.name("memoryPools").beginArray();
+            for (MemoryPoolInfo memoryPoolInfo : getMemoryPoolInfos()) {
+              gsonObject.toJson(memoryPoolInfo.toJsonObject(), jsonWriter);
+            }
+            jsonWriter.endArray();
+            break;
+          case VM_OPTIONS:
+            jsonWriter.name("vmOptions");
+            gsonObject.toJson(getAllVmOptions(), jsonWriter);
+            break;
+          case GARBAGE_COLLECTION_INFOS:
+            jsonWriter.name("garbageCollectionInfos");
+            gsonObject.toJson(
+                getGarbageCollectionInfo(),
+                GarbageCollectionInfo[].class,
+                jsonWriter
+            );
+            break;
+          case TOTAL_ALLOCATION_RATE:
+            jsonWriter.name("totalAllocationRateInBytesPerSecond")
+                .value(getTotalAllocationRateInBytesPerSecond());
+            break;
+          case THREAD_INFOS:
+            jsonWriter.name("threadInfos").beginArray();
+            writeExtendedThreadInfos(jsonWriter, jvmInformationDumpOptions);
+            jsonWriter.endArray();
+            break;
+          default:
+            throw new IllegalStateException(section.toString());
+        }
+      }
+      jsonWriter.endObject();
+    }
+    return destinationFile;
+  }
+
+  /**
+   * Captures the information of all the threads in batches, and writes each batch before capturing
+   * the next one.
+   *
+   * @param jsonWriter                JsonWriter to write the thread information to.
+   * @param jvmInformationDumpOptions Options of the dump, defining the thread stack depths.
+   * @throws IOException              If there is an issue writing the thread information.
+   */
+  private static void writeExtendedThreadInfos(
+      JsonWriter jsonWriter,
+      JvmInformationDumpOptions jvmInformationDumpOptions
+  ) throws IOException {
+    // Use a single snapshot, so that all the threads are reported for the same interval.
+    ThreadUsageSnapshot threadUsageSnapshot = getThreadUsageSnapshot();
+    int maxThreadStackDepth = jvmInformationDumpOptions.getMaxThreadStackDepth();
+    long[] threadIds = threadMxBean.getAllThreadIds();
+    for (int from = 0; from < threadIds.length; from += dumpThreadBatchSize) {
+      int to = Math.min(from + dumpThreadBatchSize, threadIds.length);
+      ThreadInfo[] threadInfos = threadMxBean.getThreadInfo(
+          Arrays.copyOfRange(threadIds, from, to),
+          maxThreadStackDepth
       );
+      for (ThreadInfo threadInfo : threadInfos) {
+        // Threads terminated since their IDs were retrieved have no information.
+        if (threadInfo != null) {
+          createExtendedThreadInfo(threadInfo, threadUsageSnapshot).writeJson(
+              jsonWriter,
+              jvmInformationDumpOptions.getThreadStackDepth(threadInfo.getThreadState())
+          );
+        }
+      }
     }
   }
 }
@@ -0,0 +1,74 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Stores the utilization of the carrier threads the virtual threads are scheduled on.
+ */
+public class CarrierPoolInfo {
+
+  /**
+   * Number of carrier threads the scheduler runs virtual threads on in parallel.
+   */
+  private final int parallelism;
+  /**
+   * Number of carrier threads with a virtual thread mounted.
+   */
+  private final long mountedCarrierThreadsCount;
+
+  /**
+   * Abstracts the utilization of the carrier threads.
+   *
+   * @param parallelism                Number of carrier threads the scheduler runs virtual
+   *                                   threads on in parallel.
+   * @param mountedCarrierThreadsCount Number of carrier threads with a virtual thread mounted.
+   */
+  public CarrierPoolInfo(int parallelism, long mountedCarrierThreadsCount) {
+    this.parallelism = parallelism;
+    this.mountedCarrierThreadsCount = mountedCarrierThreadsCount;
+  }
+
+  /**
+   * Gets the number of carrier threads the scheduler runs virtual threads on in parallel.
+   *
+   * @return The parallelism of the scheduler.
+   */
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Gets the number of carrier threads with a virtual thread mounted.
+   *
+   * @return Number of carrier threads with a virtual thread mounted.
+   */
+  public long getMountedCarrierThreadsCount() {
+    return mountedCarrierThreadsCount;
+  }
+
+  /**
+   * Gets the utilization of the carrier threads. Pinned virtual threads keep their carrier thread
+   * mounted, so a utilization staying at 100% with little CPU usage hints at pinning.
+   *
+   * @return Percentage of the carrier threads with a virtual thread mounted.
+   */
+  public double getUtilization() {
+    return parallelism == 0 ? 0 : mountedCarrierThreadsCount * 100.0 / parallelism;
+  }
+
+  /**
+   * Gets a JSON representation of an instance of this class.
+   *
+   * @return JSON representation of an instance of this class.
+   */
+  public JsonObject toJsonObject() {
+    JsonObject carrierPoolInfoJsonObject = new JsonObject();
+    carrierPoolInfoJsonObject.addProperty("parallelism", parallelism);
+    carrierPoolInfoJsonObject.addProperty(
+        "mountedCarrierThreadsCount",
+        mountedCarrierThreadsCount
+    );
+    carrierPoolInfoJsonObject.addProperty("utilization", getUtilization());
+    return carrierPoolInfoJsonObject;
+  }
+}
@@ -0,0 +1,110 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import com.google.gson.JsonObject;
+import java.time.Duration;
+
+/**
+ * Stores the growth of the instances of a class on the heap between two class histograms.
+ */
+public class ClassGrowthInfo {
+
+  /**
+   * Name of the class.
+   */
+  private final String className;
+  /**
+   * Change in the number of instances of the class.
+   */
+  private final long instancesCountDelta;
+  /**
+   * Change in the memory occupied by the instances of the class.
+   */
+  private final long sizeDeltaInBytes;
+  /**
+   * Time between the two class histograms.
+   */
+  private final Duration interval;
+
+  /**
+   * Abstracts the growth of the instances of a class between two class histograms.
+   *
+   * @param className           Name of the class.
+   * @param instancesCountDelta Change in the number of instances of the class.
+   * @param sizeDeltaInBytes    Change in the memory occupied by the instances of the class.
+   * @param interval            Time between the two class histograms.
+   */
+  public ClassGrowthInfo(
+      String className,
+      long instancesCountDelta,
+      long sizeDeltaInBytes,
+      Duration interval
+  ) {
+    this.className = className;
+    this.instancesCountDelta = instancesCountDelta;
+    this.sizeDeltaInBytes = sizeDeltaInBytes;
+    this.interval = interval;
+  }
+
+  /**
+   * Gets the name of the class.
+   *
+   * @return Name of the class.
+   */
+  public String getClassName() {
+    return className;
+  }
+
+  /**
+   * Gets the change in the number of instances of the class.
+   *
+   * @return Change in the number of instances of the class.
+   */
+  public long getInstancesCountDelta() {
+    return instancesCountDelta;
+  }
+
+  /**
+   * Gets the change in the memory occupied by the instances of the class.
+   *
+   * @return Change in the memory occupied by the instances of the class in bytes.
+   */
+  public long getSizeDeltaInBytes() {
+    return sizeDeltaInBytes;
+  }
+
+  /**
+   * Gets the time between the two class histograms.
+   *
+   * @return Time between the two class histograms.
+   */
+  public Duration getInterval() {
+    return interval;
+  }
+
+  /**
+   * Gets the rate at which the memory occupied by the instances of the class grew.
+   *
+   * @return Growth rate in bytes per second, 0 if the histograms were taken at the same time.
+   */
+  public double getSizeGrowthRate() {
+    long intervalInNanoSeconds = interval.toNanos();
+    return intervalInNanoSeconds == 0
+        ? 0
+        : sizeDeltaInBytes * 1_000_000_000.0 / intervalInNanoSeconds;
+  }
+
+  /**
+   * Gets a JSON representation of an instance of this class.
+   *
+   * @return JSON representation of an instance of this class.
+   */
+  public JsonObject toJsonObject() {
+    JsonObject classGrowthInfoJsonObject = new JsonObject();
+    classGrowthInfoJsonObject.addProperty("className", className);
+    classGrowthInfoJsonObject.addProperty("instancesCountDelta", instancesCountDelta);
+    classGrowthInfoJsonObject.addProperty("sizeDeltaInBytes", sizeDeltaInBytes);
+    classGrowthInfoJsonObject.addProperty("intervalInMilliSeconds", interval.toMillis());
+    classGrowthInfoJsonObject.addProperty("sizeGrowthRate", getSizeGrowthRate());
+    return classGrowthInfoJsonObject;
+  }
+}
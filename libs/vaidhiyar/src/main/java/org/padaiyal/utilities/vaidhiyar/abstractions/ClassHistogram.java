@@ -0,0 +1,204 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Stores the number of instances and the memory occupied per class on the heap at a point in time,
+ * as reported by the gcClassHistogram diagnostic command. Much lighter to take than a heap dump,
+ * so that consecutive histograms can be diffed to find the classes leaking memory.
+ */
+public class ClassHistogram {
+
+  /**
+   * Pattern of a class line of the gcClassHistogram output e.g.
+   * "   1:          5206         243656  [B (java.base@17.0.9)". The module is optional.
+   */
+  private static final Pattern CLASS_LINE_PATTERN = Pattern.compile(
+      "^\\s*\\d+:\\s+(\\d+)\\s+(\\d+)\\s+(\\S+)(?:\\s+\\(.*\\))?\\s*$"
+  );
+
+  static {
+    I18nUtility.addResourceBundle(
+        ClassHistogram.class,
+        ClassHistogram.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Time at which the histogram was taken.
+   */
+  private final Instant timestamp;
+  /**
+   * Entries of the histogram, by descending size.
+   */
+  private final ClassHistogramEntry[] entries;
+
+  /**
+   * Abstracts a class histogram.
+   *
+   * @param timestamp Time at which the histogram was taken.
+   * @param entries   Entries of the histogram, by descending size.
+   */
+  public ClassHistogram(Instant timestamp, ClassHistogramEntry[] entries) {
+    this.timestamp = Objects.requireNonNull(timestamp);
+    this.entries = entries.clone();
+  }
+
+  /**
+   * Parses the output of the gcClassHistogram diagnostic command. The header and the total lines
+   * are skipped.
+   *
+   * @param timestamp Time at which the histogram was taken.
+   * @param output    Output of the gcClassHistogram diagnostic command.
+   * @return The class histogram.
+   */
+  public static ClassHistogram parse(Instant timestamp, String output) {
+    List<ClassHistogramEntry> entries = new ArrayList<>();
+    for (String line : output.split("\\R")) {
+      Matcher matcher = CLASS_LINE_PATTERN.matcher(line);
+      if (matcher.matches()) {
+        entries.add(
+            new ClassHistogramEntry(
+                matcher.group(3),
+                Long.parseLong(matcher.group(1)),
+                Long.parseLong(matcher.group(2))
+            )
+        );
+      }
+    }
+    return new ClassHistogram(timestamp, entries.toArray(ClassHistogramEntry[]::new));
+  }
+
+  /**
+   * Gets the time at which the histogram was taken.
+   *
+   * @return Time at which the histogram was taken.
+   */
+  public Instant getTimestamp() {
+    return timestamp;
+  }
+
+  /**
+   * Gets the entries of the histogram.
+   *
+   * @return Entries of the histogram, by descending size.
+   */
+  public ClassHistogramEntry[] getEntries() {
+    return entries.clone();
+  }
+
+  /**
+   * Gets the number of instances of all the classes.
+   *
+   * @return Number of instances of all the classes.
+   */
+  public long getTotalInstancesCount() {
+    return Arrays.stream(entries)
+        .mapToLong(ClassHistogramEntry::getInstancesCount)
+        .sum();
+  }
+
+  /**
+   * Gets the memory occupied by the instances of all the classes.
+   *
+   * @return Memory occupied by the instances of all the classes in bytes.
+   */
+  public long getTotalSizeInBytes() {
+    return Arrays.stream(entries)
+        .mapToLong(ClassHistogramEntry::getSizeInBytes)
+        .sum();
+  }
+
+  /**
+   * Gets the classes which grew the most since a previous histogram, by descending size delta.
+   * Classes whose size didn't grow are left out.
+   *
+   * @param previousClassHistogram Histogram taken before this one.
+   * @param count                  Maximum number of classes to get.
+   * @return The classes which grew the most.
+   */
+  public ClassGrowthInfo[] getTopGrowingClasses(ClassHistogram previousClassHistogram, int count) {
+    Objects.requireNonNull(previousClassHistogram);
+    if (count < 0) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "ClassHistogram.error.negativeCount",
+              count
+          )
+      );
+    }
+    Map<String, long[]> previousSizesByClassName = previousClassHistogram.getSizesByClassName();
+    Duration interval = Duration.between(previousClassHistogram.timestamp, timestamp);
+    return getSizesByClassName().entrySet()
+        .stream()
+        .map(classSizes -> {
+          long[] sizes = classSizes.getValue();
+          long[] previousSizes = previousSizesByClassName.getOrDefault(
+              classSizes.getKey(),
+              new long[2]
+          );
+          return new ClassGrowthInfo(
+              classSizes.getKey(),
+              sizes[0] - previousSizes[0],
+              sizes[1] - previousSizes[1],
+              interval
+          );
+        })
+        .filter(classGrowthInfo -> classGrowthInfo.getSizeDeltaInBytes() > 0)
+        .sorted(Comparator.comparingLong(ClassGrowthInfo::getSizeDeltaInBytes).reversed())
+        .limit(count)
+        .toArray(ClassGrowthInfo[]::new);
+  }
+
+  /**
+   * Gets the number of instances and the memory occupied per class name, summed over the class
+   * loaders which loaded a class with that name.
+   *
+   * @return The number of instances and the size in bytes per class name.
+   */
+  private Map<String, long[]> getSizesByClassName() {
+    Map<String, long[]> sizesByClassName = new HashMap<>();
+    for (ClassHistogramEntry entry : entries) {
+      long[] sizes = sizesByClassName.computeIfAbsent(
+          entry.getClassName(),
+          className -> new long[2]
+      );
+      sizes[0] += entry.getInstancesCount();
+      sizes[1] += entry.getSizeInBytes();
+    }
+    return sizesByClassName;
+  }
+
+  /**
+   * Gets a JSON representation of an instance of this class.
+   *
+   * @return JSON representation of an instance of this class.
+   */
+  public JsonObject toJsonObject() {
+    JsonObject classHistogramJsonObject = new JsonObject();
+    classHistogramJsonObject.addProperty("timestamp", timestamp.toString());
+    classHistogramJsonObject.addProperty("totalInstancesCount", getTotalInstancesCount());
+    classHistogramJsonObject.addProperty("totalSizeInBytes", getTotalSizeInBytes());
+    JsonArray entriesJsonArray = new JsonArray();
+    for (ClassHistogramEntry entry : entries) {
+      entriesJsonArray.add(entry.toJsonObject());
+    }
+    classHistogramJsonObject.add("entries", entriesJsonArray);
+    return classHistogramJsonObject;
+  }
+}
@@ -0,0 +1,75 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Stores the number of instances of a class on the heap and the memory they occupy.
+ */
+public class ClassHistogramEntry {
+
+  /**
+   * Name of the class, as reported by the JVM e.g. [B for byte arrays.
+   */
+  private final String className;
+  /**
+   * Number of instances of the class.
+   */
+  private final long instancesCount;
+  /**
+   * Memory occupied by the instances of the class.
+   */
+  private final long sizeInBytes;
+
+  /**
+   * Abstracts the instances of a class on the heap.
+   *
+   * @param className      Name of the class, as reported by the JVM e.g. [B for byte arrays.
+   * @param instancesCount Number of instances of the class.
+   * @param sizeInBytes    Memory occupied by the instances of the class.
+   */
+  public ClassHistogramEntry(String className, long instancesCount, long sizeInBytes) {
+    this.className = className;
+    this.instancesCount = instancesCount;
+    this.sizeInBytes = sizeInBytes;
+  }
+
+  /**
+   * Gets the name of the class.
+   *
+   * @return Name of the class.
+   */
+  public String getClassName() {
+    return className;
+  }
+
+  /**
+   * Gets the number of instances of the class.
+   *
+   * @return Number of instances of the class.
+   */
+  public long getInstancesCount() {
+    return instancesCount;
+  }
+
+  /**
+   * Gets the memory occupied by the instances of the class.
+   *
+   * @return Memory occupied by the instances of the class in bytes.
+   */
+  public long getSizeInBytes() {
+    return sizeInBytes;
+  }
+
+  /**
+   * Gets a JSON representation of an instance of this class.
+   *
+   * @return JSON representation of an instance of this class.
+   */
+  public JsonObject toJsonObject() {
+    JsonObject classHistogramEntryJsonObject = new JsonObject();
+    classHistogramEntryJsonObject.addProperty("className", className);
+    classHistogramEntryJsonObject.addProperty("instancesCount", instancesCount);
+    classHistogramEntryJsonObject.addProperty("sizeInBytes", sizeInBytes);
+    return classHistogramEntryJsonObject;
+  }
+}
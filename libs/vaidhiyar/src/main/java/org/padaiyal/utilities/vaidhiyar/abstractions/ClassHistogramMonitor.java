@@ -0,0 +1,505 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Takes a class histogram at a fixed rate and keeps the last ones, to find the classes whose
+ * instances keep growing i.e. the likely memory leaks.
+ *
+ * <p>The histograms are kept in a compact form: every class name is stored once and mapped to an
+ * index, and each histogram only stores the instance counts and sizes as arrays of longs indexed
+ * by class. Whenever a histogram is evicted, the classes without any instance in the histograms
+ * kept are dropped and the others renumbered, so that the arrays only span the classes of the
+ * histograms kept.
+ */
+public final class ClassHistogramMonitor implements AutoCloseable {
+
+  /**
+   * Logger object used to log information and errors.
+   */
+  private static final Logger logger = LogManager.getLogger(ClassHistogramMonitor.class);
+
+  static {
+    I18nUtility.addResourceBundle(
+        ClassHistogramMonitor.class,
+        ClassHistogramMonitor.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Takes the class histograms.
+   */
+  private final Callable<ClassHistogram> classHistogramCallable;
+  /**
+   * Interval between two histograms.
+   */
+  private final Duration interval;
+  /**
+   * Maximum number of histograms kept.
+   */
+  private final int capacity;
+  /**
+   * Index of every class name in the histograms kept.
+   */
+  private final Map<String, Integer> classIndices = new HashMap<>();
+  /**
+   * Class names in the histograms kept, by index.
+   */
+  private final List<String> classNames = new ArrayList<>();
+  /**
+   * Histograms kept, oldest first.
+   */
+  private final Deque<CompactClassHistogram> compactClassHistograms = new ArrayDeque<>();
+  /**
+   * Executor taking the histograms.
+   */
+  private final ScheduledExecutorService scheduledExecutorService;
+
+  /**
+   * Starts taking a class histogram at a fixed rate, the first one right away.
+   *
+   * @param classHistogramCallable Takes the class histograms.
+   * @param interval               Interval between two histograms.
+   * @param capacity               Maximum number of histograms kept, at least 2.
+   */
+  public ClassHistogramMonitor(
+      Callable<ClassHistogram> classHistogramCallable,
+      Duration interval,
+      int capacity
+  ) {
+    Objects.requireNonNull(classHistogramCallable);
+    Objects.requireNonNull(interval);
+    if (interval.isNegative() || interval.isZero()) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "ClassHistogramMonitor.error.nonPositiveInterval",
+              interval
+          )
+      );
+    }
+    if (capacity < 2) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "ClassHistogramMonitor.error.invalidCapacity",
+              capacity
+          )
+      );
+    }
+    this.classHistogramCallable = classHistogramCallable;
+    this.interval = interval;
+    this.capacity = capacity;
+
+    scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, ClassHistogramMonitor.class.getSimpleName());
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduledExecutorService.scheduleAtFixedRate(
+        () -> {
+          try {
+            sample();
+          } catch (Exception e) {
+            // An exception would cancel the next histograms.
+            logger.error(e);
+          }
+        },
+        0,
+        interval.toNanos(),
+        TimeUnit.NANOSECONDS
+    );
+  }
+
+  /**
+   * Gets the interval between two histograms.
+   *
+   * @return The interval between two histograms.
+   */
+  public Duration getInterval() {
+    return interval;
+  }
+
+  /**
+   * Gets the maximum number of histograms kept.
+   *
+   * @return The maximum number of histograms kept.
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Gets the number of histograms kept.
+   *
+   * @return The number of histograms kept.
+   */
+  public synchronized int getHistogramsCount() {
+    return compactClassHistograms.size();
+  }
+
+  /**
+   * Gets the number of classes indexed, i.e. listed in the histograms kept.
+   *
+   * @return The number of classes indexed.
+   */
+  synchronized int getClassesCount() {
+    return classNames.size();
+  }
+
+  /**
+   * Gets the latest histogram.
+   *
+   * @return The latest histogram, or null if none was taken yet.
+   */
+  public synchronized ClassHistogram getLatestClassHistogram() {
+    CompactClassHistogram latestCompactClassHistogram = compactClassHistograms.peekLast();
+    if (latestCompactClassHistogram == null) {
+      return null;
+    }
+    List<ClassHistogramEntry> entries = new ArrayList<>();
+    for (int classIndex = 0; classIndex < latestCompactClassHistogram.sizesInBytes.length;
+        classIndex++) {
+      if (latestCompactClassHistogram.instancesCounts[classIndex] > 0) {
+        entries.add(
+            new ClassHistogramEntry(
+                classNames.get(classIndex),
+                latestCompactClassHistogram.instancesCounts[classIndex],
+                latestCompactClassHistogram.sizesInBytes[classIndex]
+            )
+        );
+      }
+    }
+    entries.sort(Comparator.comparingLong(ClassHistogramEntry::getSizeInBytes).reversed());
+    return new ClassHistogram(
+        latestCompactClassHistogram.timestamp,
+        entries.toArray(ClassHistogramEntry[]::new)
+    );
+  }
+
+  /**
+   * Gets the classes which grew the most between the last two histograms, by descending size
+   * delta.
+   *
+   * @param count Maximum number of classes to get.
+   * @return The classes which grew the most, none if fewer than 2 histograms were taken.
+   */
+  public ClassGrowthInfo[] getTopGrowingClasses(int count) {
+    validateCount(count);
+    synchronized (this) {
+      if (compactClassHistograms.size() < 2) {
+        return new ClassGrowthInfo[0];
+      }
+      Iterator<CompactClassHistogram> iterator = compactClassHistograms.descendingIterator();
+      CompactClassHistogram latestCompactClassHistogram = iterator.next();
+      return getGrowingClasses(iterator.next(), latestCompactClassHistogram, count);
+    }
+  }
+
+  /**
+   * Gets the classes whose size grew between every two consecutive histograms kept, by
+   * descending size delta between the oldest and the latest histogram. Those are the likely
+   * memory leaks, as a class growing steadily across many intervals is unlikely to be just a
+   * spike in the allocations.
+   *
+   * @param count Maximum number of classes to get.
+   * @return The classes growing steadily, none if fewer than 3 histograms were taken.
+   */
+  public ClassGrowthInfo[] getSteadilyGrowingClasses(int count) {
+    validateCount(count);
+    synchronized (this) {
+      if (compactClassHistograms.size() < 3) {
+        return new ClassGrowthInfo[0];
+      }
+      int classesCount = compactClassHistograms.peekLast().sizesInBytes.length;
+      boolean[] steadilyGrowing = new boolean[classesCount];
+      Arrays.fill(steadilyGrowing, true);
+      CompactClassHistogram previousCompactClassHistogram = null;
+      for (CompactClassHistogram compactClassHistogram : compactClassHistograms) {
+        if (previousCompactClassHistogram != null) {
+          for (int classIndex = 0; classIndex < classesCount; classIndex++) {
+            steadilyGrowing[classIndex] &= compactClassHistogram.getSizeInBytes(classIndex)
+                > previousCompactClassHistogram.getSizeInBytes(classIndex);
+          }
+        }
+        previousCompactClassHistogram = compactClassHistogram;
+      }
+      CompactClassHistogram oldestCompactClassHistogram = compactClassHistograms.peekFirst();
+      Duration interval = Duration.between(
+          oldestCompactClassHistogram.timestamp,
+          previousCompactClassHistogram.timestamp
+      );
+      List<ClassGrowthInfo> classGrowthInfos = new ArrayList<>();
+      for (int classIndex = 0; classIndex < classesCount; classIndex++) {
+        if (steadilyGrowing[classIndex]) {
+          classGrowthInfos.add(
+              createClassGrowthInfo(
+                  classIndex,
+                  oldestCompactClassHistogram,
+                  previousCompactClassHistogram,
+                  interval
+              )
+          );
+        }
+      }
+      return classGrowthInfos.stream()
+          .sorted(Comparator.comparingLong(ClassGrowthInfo::getSizeDeltaInBytes).reversed())
+          .limit(count)
+          .toArray(ClassGrowthInfo[]::new);
+    }
+  }
+
+  /**
+   * Stops taking histograms.
+   */
+  @Override
+  public void close() {
+    scheduledExecutorService.shutdown();
+    try {
+      scheduledExecutorService.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (InterruptedException e) {
+      logger.error(e);
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Takes a histogram and keeps it in place of the oldest one if at capacity, dropping the classes
+   * only the evicted histogram had instances of.
+   *
+   * @throws Exception If the histogram cannot be taken.
+   */
+  void sample() throws Exception {
+    // Taken outside the lock, as it may take a while with a large heap.
+    ClassHistogram classHistogram = classHistogramCallable.call();
+    synchronized (this) {
+      for (ClassHistogramEntry entry : classHistogram.getEntries()) {
+        classIndices.computeIfAbsent(entry.getClassName(), className -> {
+          classNames.add(className);
+          return classNames.size() - 1;
+        });
+      }
+      CompactClassHistogram compactClassHistogram = new CompactClassHistogram(
+          classHistogram.getTimestamp(),
+          classNames.size()
+      );
+      for (ClassHistogramEntry entry : classHistogram.getEntries()) {
+        int classIndex = classIndices.get(entry.getClassName());
+        // The same class name may be listed for several class loaders.
+        compactClassHistogram.instancesCounts[classIndex] += entry.getInstancesCount();
+        compactClassHistogram.sizesInBytes[classIndex] += entry.getSizeInBytes();
+      }
+      compactClassHistograms.addLast(compactClassHistogram);
+      if (compactClassHistograms.size() > capacity) {
+        compactClassHistograms.removeFirst();
+        pruneClasses();
+      }
+    }
+  }
+
+  /**
+   * Drops the classes without any instance in the histograms kept, and renumbers the others in
+   * the same order.
+   */
+  private void pruneClasses() {
+    int[] newClassIndices = new int[classNames.size()];
+    int retainedClassesCount = 0;
+    for (int classIndex = 0; classIndex < newClassIndices.length; classIndex++) {
+      newClassIndices[classIndex] = -1;
+      for (CompactClassHistogram compactClassHistogram : compactClassHistograms) {
+        if (compactClassHistogram.getInstancesCount(classIndex) > 0) {
+          newClassIndices[classIndex] = retainedClassesCount++;
+          break;
+        }
+      }
+    }
+    if (retainedClassesCount == newClassIndices.length) {
+      return;
+    }
+    List<String> retainedClassNames = new ArrayList<>(retainedClassesCount);
+    classIndices.clear();
+    for (int classIndex = 0; classIndex < newClassIndices.length; classIndex++) {
+      if (newClassIndices[classIndex] >= 0) {
+        retainedClassNames.add(classNames.get(classIndex));
+        classIndices.put(classNames.get(classIndex), newClassIndices[classIndex]);
+      }
+    }
+    classNames.clear();
+    classNames.addAll(retainedClassNames);
+    for (int count = compactClassHistograms.size(); count > 0; count--) {
+      compactClassHistograms.addLast(
+          compactClassHistograms.removeFirst().renumber(newClassIndices, retainedClassesCount)
+      );
+    }
+  }
+
+  /**
+   * Gets the classes which grew between two histograms, by descending size delta.
+   *
+   * @param previousCompactClassHistogram The earlier histogram.
+   * @param compactClassHistogram         The later histogram.
+   * @param count                         Maximum number of classes to get.
+   * @return The classes which grew.
+   */
+  private ClassGrowthInfo[] getGrowingClasses(
+      CompactClassHistogram previousCompactClassHistogram,
+      CompactClassHistogram compactClassHistogram,
+      int count
+  ) {
+    Duration interval = Duration.between(
+        previousCompactClassHistogram.timestamp,
+        compactClassHistogram.timestamp
+    );
+    List<ClassGrowthInfo> classGrowthInfos = new ArrayList<>();
+    for (int classIndex = 0; classIndex < compactClassHistogram.sizesInBytes.length;
+        classIndex++) {
+      if (compactClassHistogram.getSizeInBytes(classIndex)
+          > previousCompactClassHistogram.getSizeInBytes(classIndex)) {
+        classGrowthInfos.add(
+            createClassGrowthInfo(
+                classIndex,
+                previousCompactClassHistogram,
+                compactClassHistogram,
+                interval
+            )
+        );
+      }
+    }
+    return classGrowthInfos.stream()
+        .sorted(Comparator.comparingLong(ClassGrowthInfo::getSizeDeltaInBytes).reversed())
+        .limit(count)
+        .toArray(ClassGrowthInfo[]::new);
+  }
+
+  /**
+   * Creates the growth of a class between two histograms.
+   *
+   * @param classIndex                    Index of the class.
+   * @param previousCompactClassHistogram The earlier histogram.
+   * @param compactClassHistogram         The later histogram.
+   * @param interval                      Time between the two histograms.
+   * @return The growth of the class.
+   */
+  private ClassGrowthInfo createClassGrowthInfo(
+      int classIndex,
+      CompactClassHistogram previousCompactClassHistogram,
+      CompactClassHistogram compactClassHistogram,
+      Duration interval
+  ) {
+    return new ClassGrowthInfo(
+        classNames.get(classIndex),
+        compactClassHistogram.getInstancesCount(classIndex)
+            - previousCompactClassHistogram.getInstancesCount(classIndex),
+        compactClassHistogram.getSizeInBytes(classIndex)
+            - previousCompactClassHistogram.getSizeInBytes(classIndex),
+        interval
+    );
+  }
+
+  /**
+   * Validates the maximum number of classes to get.
+   *
+   * @param count Maximum number of classes to get.
+   */
+  private static void validateCount(int count) {
+    if (count < 0) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "ClassHistogramMonitor.error.negativeCount",
+              count
+          )
+      );
+    }
+  }
+
+  /**
+   * Class histogram with the instance counts and sizes indexed by class.
+   */
+  private static final class CompactClassHistogram {
+
+    /**
+     * Time at which the histogram was taken.
+     */
+    private final Instant timestamp;
+    /**
+     * Number of instances per class index.
+     */
+    private final long[] instancesCounts;
+    /**
+     * Memory occupied by the instances per class index.
+     */
+    private final long[] sizesInBytes;
+
+    /**
+     * Creates an empty histogram.
+     *
+     * @param timestamp    Time at which the histogram was taken.
+     * @param classesCount Number of classes indexed.
+     */
+    private CompactClassHistogram(Instant timestamp, int classesCount) {
+      this.timestamp = timestamp;
+      instancesCounts = new long[classesCount];
+      sizesInBytes = new long[classesCount];
+    }
+
+    /**
+     * Creates a copy of the histogram with its classes renumbered.
+     *
+     * @param newClassIndices New index of every class, -1 for the classes dropped.
+     * @param classesCount    Number of classes retained.
+     * @return The renumbered histogram.
+     */
+    private CompactClassHistogram renumber(int[] newClassIndices, int classesCount) {
+      CompactClassHistogram compactClassHistogram = new CompactClassHistogram(
+          timestamp,
+          classesCount
+      );
+      for (int classIndex = 0; classIndex < sizesInBytes.length; classIndex++) {
+        int newClassIndex = newClassIndices[classIndex];
+        if (newClassIndex >= 0) {
+          compactClassHistogram.instancesCounts[newClassIndex] = instancesCounts[classIndex];
+          compactClassHistogram.sizesInBytes[newClassIndex] = sizesInBytes[classIndex];
+        }
+      }
+      return compactClassHistogram;
+    }
+
+    /**
+     * Gets the number of instances of a class.
+     *
+     * @param classIndex Index of the class.
+     * @return Number of instances, 0 for a class first seen after the histogram was taken.
+     */
+    private long getInstancesCount(int classIndex) {
+      return classIndex < instancesCounts.length ? instancesCounts[classIndex] : 0;
+    }
+
+    /**
+     * Gets the memory occupied by the instances of a class.
+     *
+     * @param classIndex Index of the class.
+     * @return Memory occupied in bytes, 0 for a class first seen after the histogram was taken.
+     */
+    private long getSizeInBytes(int classIndex) {
+      return classIndex < sizesInBytes.length ? sizesInBytes[classIndex] : 0;
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.time.Instant;
+
+/**
+ * Stores the information of a deadlock detected by LockContentionProfiler.
+ */
+public class DeadlockEvent {
+
+  /**
+   * Time at which the deadlock was detected.
+   */
+  private final Instant timestamp;
+  /**
+   * Information of the deadlocked threads, including the monitors and synchronizers they hold.
+   */
+  private final ExtendedThreadInfo[] deadlockedThreadInfos;
+
+  /**
+   * Abstracts the information of a deadlock.
+   *
+   * @param timestamp             Time at which the deadlock was detected.
+   * @param deadlockedThreadInfos Information of the deadlocked threads.
+   */
+  public DeadlockEvent(Instant timestamp, ExtendedThreadInfo[] deadlockedThreadInfos) {
+    this.timestamp = timestamp;
+    this.deadlockedThreadInfos = deadlockedThreadInfos.clone();
+  }
+
+  /**
+   * Gets the time at which the deadlock was detected.
+   *
+   * @return Time at which the deadlock was detected.
+   */
+  public Instant getTimestamp() {
+    return timestamp;
+  }
+
+  /**
+   * Gets the information of the deadlocked threads.
+   *
+   * @return Information of the deadlocked threads.
+   */
+  public ExtendedThreadInfo[] getDeadlockedThreadInfos() {
+    return deadlockedThreadInfos.clone();
+  }
+
+  /**
+   * Gets a JSON representation of an instance of this class.
+   *
+   * @return JSON representation of an instance of this class.
+   */
+  public JsonObject toJsonObject() {
+    JsonObject deadlockEventJsonObject = new JsonObject();
+    deadlockEventJsonObject.addProperty("timestamp", timestamp.toString());
+    JsonArray deadlockedThreadInfosJsonArray = new JsonArray();
+    for (ExtendedThreadInfo deadlockedThreadInfo : deadlockedThreadInfos) {
+      deadlockedThreadInfosJsonArray.add(deadlockedThreadInfo.toJsonObject());
+    }
+    deadlockEventJsonObject.add("deadlockedThreadInfos", deadlockedThreadInfosJsonArray);
+    return deadlockEventJsonObject;
+  }
+}
@@ -0,0 +1,96 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+/**
+ * Stores the information of a thread, platform or virtual, in a thread dump.
+ */
+public class DumpedThreadInfo {
+
+  /**
+   * ID of the thread.
+   */
+  private final long threadId;
+  /**
+   * Name of the thread.
+   */
+  private final String threadName;
+  /**
+   * If true, the thread is a virtual thread.
+   */
+  private final boolean virtual;
+  /**
+   * Stack of the thread, top frame first.
+   */
+  private final String[] stackTrace;
+
+  /**
+   * Abstracts the information of a thread in a thread dump.
+   *
+   * @param threadId   ID of the thread.
+   * @param threadName Name of the thread.
+   * @param virtual    If true, the thread is a virtual thread.
+   * @param stackTrace Stack of the thread, top frame first.
+   */
+  public DumpedThreadInfo(long threadId, String threadName, boolean virtual, String[] stackTrace) {
+    this.threadId = threadId;
+    this.threadName = threadName;
+    this.virtual = virtual;
+    this.stackTrace = stackTrace.clone();
+  }
+
+  /**
+   * Gets the ID of the thread.
+   *
+   * @return ID of the thread.
+   */
+  public long getThreadId() {
+    return threadId;
+  }
+
+  /**
+   * Gets the name of the thread.
+   *
+   * @return Name of the thread.
+   */
+  public String getThreadName() {
+    return threadName;
+  }
+
+  /**
+   * Checks if the thread is a virtual thread.
+   *
+   * @return true if the thread is a virtual thread, else false.
+   */
+  public boolean isVirtual() {
+    return virtual;
+  }
+
+  /**
+   * Gets the stack of the thread.
+   *
+   * @return Stack of the thread, top frame first.
+   */
+  public String[] getStackTrace() {
+    return stackTrace.clone();
+  }
+
+  /**
+   * Gets a JSON representation of an instance of this class.
+   *
+   * @return JSON representation of an instance of this class.
+   */
+  public JsonObject toJsonObject() {
+    JsonObject dumpedThreadInfoJsonObject = new JsonObject();
+    dumpedThreadInfoJsonObject.addProperty("threadId", threadId);
+    dumpedThreadInfoJsonObject.addProperty("threadName", threadName);
+    dumpedThreadInfoJsonObject.addProperty("virtual", virtual);
+    JsonArray stackTraceJsonArray = new JsonArray();
+    for (String stackFrame : stackTrace) {
+      stackTraceJsonArray.add(stackFrame);
+    }
+    dumpedThreadInfoJsonObject.add("stackTrace", stackTraceJsonArray);
+    return dumpedThreadInfoJsonObject;
+  }
+}
@@ -2,6 +2,8 @@ package org.padaiyal.utilities.vaidhiyar.abstractions;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
 import java.lang.management.ThreadInfo;
 import java.util.Arrays;
 
@@ -22,18 +24,41 @@ public class ExtendedThreadInfo {
    * Memory allocated by this specific thread.
    */
   private final long memoryAllocatedInBytes;
+  /**
+   * Rate at which this specific thread allocates memory.
+   */
+  private final double allocationRateInBytesPerSecond;
 
   /**
-   * Constructor used to abstract thread information.
+   * Constructor used to abstract thread information, when the allocation rate isn't known.
    *
    * @param threadInfo             ThreadInfo object of the thread.
    * @param cpuUsage               CPU usage of the thread.
    * @param memoryAllocatedInBytes Memory allocated by the thread in bytes
    */
   public ExtendedThreadInfo(ThreadInfo threadInfo, double cpuUsage, long memoryAllocatedInBytes) {
+    this(threadInfo, cpuUsage, memoryAllocatedInBytes, -1);
+  }
+
+  /**
+   * Constructor used to abstract thread information.
+   *
+   * @param threadInfo                     ThreadInfo object of the thread.
+   * @param cpuUsage                       CPU usage of the thread.
+   * @param memoryAllocatedInBytes         Memory allocated by the thread in bytes
+   * @param allocationRateInBytesPerSecond Rate at which the thread allocates memory in bytes per
+   *                                       second, -1 if it isn't known.
+   */
+  public ExtendedThreadInfo(
+      ThreadInfo threadInfo,
+      double cpuUsage,
+      long memoryAllocatedInBytes,
+      double allocationRateInBytesPerSecond
+  ) {
     this.threadInfo = threadInfo;
     this.cpuUsage = cpuUsage;
     this.memoryAllocatedInBytes = memoryAllocatedInBytes;
+    this.allocationRateInBytesPerSecond = allocationRateInBytesPerSecond;
   }
 
   /**
@@ -63,6 +88,15 @@ public class ExtendedThreadInfo {
     return memoryAllocatedInBytes;
   }
 
+  /**
+   * Returns the rate at which this thread allocates memory, over the latest sampling interval.
+   *
+   * @return The allocation rate of this thread in bytes per second, -1 if it isn't known.
+   */
+  public double getAllocationRateInBytesPerSecond() {
+    return allocationRateInBytesPerSecond;
+  }
+
   /**
    * Gets a JSON representation of an instance of this class.
    *
@@ -87,6 +121,11 @@ public class ExtendedThreadInfo {
     extendedThreadInfoJsonObject.addProperty("isDaemon", threadInfo.isDaemon());
     extendedThreadInfoJsonObject.addProperty("isInNative", threadInfo.isInNative());
     extendedThreadInfoJsonObject.addProperty("isSuspended", threadInfo.isSuspended());
+    extendedThreadInfoJsonObject.addProperty("cpuUsage", getCpuUsage());
+    extendedThreadInfoJsonObject
+        .addProperty("memoryAllocatedInBytes", getMemoryAllocatedInBytes());
+    extendedThreadInfoJsonObject
+        .addProperty("allocationRateInBytesPerSecond", getAllocationRateInBytesPerSecond());
     JsonArray stackTrace = new JsonArray();
     Arrays.stream(threadInfo.getStackTrace())
         .map(StackTraceElement::toString)
@@ -95,4 +134,41 @@ public class ExtendedThreadInfo {
 
     return extendedThreadInfoJsonObject;
   }
+
+  /**
+   * Writes the JSON representation of an instance of this class, without building it in memory.
+   * The written JSON has the same properties as toJsonObject().
+   *
+   * @param jsonWriter JsonWriter to write to.
+   * @param stackDepth Maximum number of stack frames to write.
+   * @throws IOException If there is an issue writing the JSON.
+   */
+  public void writeJson(JsonWriter jsonWriter, int stackDepth) throws IOException {
+    ThreadInfo threadInfo = getThreadInfo();
+    jsonWriter.beginObject();
+    jsonWriter.name("name").value(threadInfo.getThreadName());
+    jsonWriter.name("id").value(threadInfo.getThreadId());
+    jsonWriter.name("state").value(threadInfo.getThreadState().toString());
+    jsonWriter.name("priority").value(threadInfo.getPriority());
+    jsonWriter.name("blockedCount").value(threadInfo.getBlockedCount());
+    jsonWriter.name("blockedTimeInMilliSeconds").value(threadInfo.getBlockedTime());
+    jsonWriter.name("lockName").value(threadInfo.getLockName());
+    jsonWriter.name("lockOwnerId").value(threadInfo.getLockOwnerId());
+    jsonWriter.name("lockOwnerName").value(threadInfo.getLockOwnerName());
+    jsonWriter.name("waitedCount").value(threadInfo.getWaitedCount());
+    jsonWriter.name("waitedTimeInMilliSeconds").value(threadInfo.getWaitedTime());
+    jsonWriter.name("isDaemon").value(threadInfo.isDaemon());
+    jsonWriter.name("isInNative").value(threadInfo.isInNative());
+    jsonWriter.name("isSuspended").value(threadInfo.isSuspended());
+    jsonWriter.name("cpuUsage").value(getCpuUsage());
+    jsonWriter.name("memoryAllocatedInBytes").value(getMemoryAllocatedInBytes());
+    jsonWriter.name("allocationRateInBytesPerSecond").value(getAllocationRateInBytesPerSecond());
+    jsonWriter.name("stackTrace").beginArray();
+    StackTraceElement[] stackTrace = threadInfo.getStackTrace();
+    for (int index = 0; index < Math.min(stackDepth, stackTrace.length); index++) {
+      jsonWriter.value(stackTrace[index].toString());
+    }
+    jsonWriter.endArray();
+    jsonWriter.endObject();
+  }
 }
\ No newline at end of file
@@ -0,0 +1,220 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import com.google.gson.JsonObject;
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Stores the information of a single garbage collection, as notified by a GarbageCollectorMXBean.
+ */
+public class GarbageCollectionEvent {
+
+  /**
+   * Name of the garbage collector.
+   */
+  private final String garbageCollectorName;
+  /**
+   * Action performed by the garbage collector, e.g. "end of minor GC".
+   */
+  private final String action;
+  /**
+   * Cause of the garbage collection, e.g. "Allocation Failure".
+   */
+  private final String cause;
+  /**
+   * Identifier of the collection, incremented by each collection of the garbage collector.
+   */
+  private final long id;
+  /**
+   * Time at which the collection started.
+   */
+  private final Instant startInstant;
+  /**
+   * Time taken by the collection.
+   */
+  private final Duration duration;
+  /**
+   * Usage of the memory pools before the collection, by pool name.
+   */
+  private final Map<String, MemoryUsage> memoryUsagesBeforeCollection;
+  /**
+   * Usage of the memory pools after the collection, by pool name.
+   */
+  private final Map<String, MemoryUsage> memoryUsagesAfterCollection;
+  /**
+   * Estimated heap memory allocated since the previous collection, -1 if unknown.
+   */
+  private final long allocatedBytes;
+  /**
+   * Estimated heap memory promoted to the old generation by the collection.
+   */
+  private final long promotedBytes;
+
+  /**
+   * Abstracts the information of a garbage collection.
+   *
+   * @param garbageCollectorName         Name of the garbage collector.
+   * @param action                       Action performed by the garbage collector.
+   * @param cause                        Cause of the garbage collection.
+   * @param id                           Identifier of the collection.
+   * @param startInstant                 Time at which the collection started.
+   * @param duration                     Time taken by the collection.
+   * @param memoryUsagesBeforeCollection Usage of the memory pools before the collection.
+   * @param memoryUsagesAfterCollection  Usage of the memory pools after the collection.
+   * @param allocatedBytes               Estimated heap memory allocated since the previous
+   *                                     collection, -1 if unknown.
+   * @param promotedBytes                Estimated heap memory promoted to the old generation by the
+   *                                     collection.
+   */
+  public GarbageCollectionEvent(
+      String garbageCollectorName,
+      String action,
+      String cause,
+      long id,
+      Instant startInstant,
+      Duration duration,
+      Map<String, MemoryUsage> memoryUsagesBeforeCollection,
+      Map<String, MemoryUsage> memoryUsagesAfterCollection,
+      long allocatedBytes,
+      long promotedBytes
+  ) {
+    this.garbageCollectorName = garbageCollectorName;
+    this.action = action;
+    this.cause = cause;
+    this.id = id;
+    this.startInstant = startInstant;
+    this.duration = duration;
+    this.memoryUsagesBeforeCollection = Collections.unmodifiableMap(memoryUsagesBeforeCollection);
+    this.memoryUsagesAfterCollection = Collections.unmodifiableMap(memoryUsagesAfterCollection);
+    this.allocatedBytes = allocatedBytes;
+    this.promotedBytes = promotedBytes;
+  }
+
+  /**
+   * Gets the name of the garbage collector.
+   *
+   * @return Name of the garbage collector.
+   */
+  public String getGarbageCollectorName() {
+    return garbageCollectorName;
+  }
+
+  /**
+   * Gets the action performed by the garbage collector.
+   *
+   * @return Action performed by the garbage collector.
+   */
+  public String getAction() {
+    return action;
+  }
+
+  /**
+   * Gets the cause of the garbage collection.
+   *
+   * @return Cause of the garbage collection.
+   */
+  public String getCause() {
+    return cause;
+  }
+
+  /**
+   * Gets the identifier of the collection.
+   *
+   * @return Identifier of the collection.
+   */
+  public long getId() {
+    return id;
+  }
+
+  /**
+   * Gets the time at which the collection started.
+   *
+   * @return Time at which the collection started.
+   */
+  public Instant getStartInstant() {
+    return startInstant;
+  }
+
+  /**
+   * Gets the time taken by the collection.
+   *
+   * @return Time taken by the collection.
+   */
+  public Duration getDuration() {
+    return duration;
+  }
+
+  /**
+   * Gets the usage of the memory pools before the collection.
+   *
+   * @return Usage of the memory pools before the collection, by pool name.
+   */
+  public Map<String, MemoryUsage> getMemoryUsagesBeforeCollection() {
+    return memoryUsagesBeforeCollection;
+  }
+
+  /**
+   * Gets the usage of the memory pools after the collection.
+   *
+   * @return Usage of the memory pools after the collection, by pool name.
+   */
+  public Map<String, MemoryUsage> getMemoryUsagesAfterCollection() {
+    return memoryUsagesAfterCollection;
+  }
+
+  /**
+   * Gets the estimated heap memory allocated since the previous collection.
+   *
+   * @return Estimated heap memory allocated since the previous collection in bytes, -1 if unknown.
+   */
+  public long getAllocatedBytes() {
+    return allocatedBytes;
+  }
+
+  /**
+   * Gets the estimated heap memory promoted to the old generation by the collection.
+   *
+   * @return Estimated heap memory promoted to the old generation by the collection in bytes.
+   */
+  public long getPromotedBytes() {
+    return promotedBytes;
+  }
+
+  /**
+   * Gets a JSON representation of an instance of this class.
+   *
+   * @return JSON representation of an instance of this class.
+   */
+  public JsonObject toJsonObject() {
+    JsonObject garbageCollectionEventJsonObject = new JsonObject();
+    garbageCollectionEventJsonObject.addProperty("garbageCollectorName", garbageCollectorName);
+    garbageCollectionEventJsonObject.addProperty("action", action);
+    garbageCollectionEventJsonObject.addProperty("cause", cause);
+    garbageCollectionEventJsonObject.addProperty("id", id);
+    garbageCollectionEventJsonObject.addProperty("startTimestamp", startInstant.toString());
+    garbageCollectionEventJsonObject.addProperty("durationInMilliSeconds", duration.toMillis());
+    garbageCollectionEventJsonObject.addProperty("allocatedBytes", allocatedBytes);
+    garbageCollectionEventJsonObject.addProperty("promotedBytes", promotedBytes);
+    JsonObject memoryUsages = new JsonObject();
+    memoryUsagesBeforeCollection.forEach((poolName, memoryUsageBeforeCollection) -> {
+      JsonObject poolMemoryUsages = new JsonObject();
+      poolMemoryUsages.add(
+          "before",
+          new ExtendedMemoryUsage(memoryUsageBeforeCollection).toJsonObject()
+      );
+      MemoryUsage memoryUsageAfterCollection = memoryUsagesAfterCollection.get(poolName);
+      if (memoryUsageAfterCollection != null) {
+        poolMemoryUsages.add(
+            "after",
+            new ExtendedMemoryUsage(memoryUsageAfterCollection).toJsonObject()
+        );
+      }
+      memoryUsages.add(poolName, poolMemoryUsages);
+    });
+    garbageCollectionEventJsonObject.add("memoryUsages", memoryUsages);
+    return garbageCollectionEventJsonObject;
+  }
+}
@@ -0,0 +1,414 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationFilter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Captures every garbage collection as it happens, from the notifications emitted by the
+ * GarbageCollectorMXBeans, instead of polling their cumulative counts. The latest collections are
+ * kept in a bounded ring buffer, and the pauses are counted in a histogram with power of 2
+ * millisecond buckets. The notifications are delivered by a JMX thread after each collection, so
+ * the monitor adds no work to the application threads and can be left on permanently.
+ */
+public final class GarbageCollectionMonitor implements AutoCloseable {
+
+  /**
+   * Upper bounds of the pause time histogram buckets in milliseconds, the last bucket is unbounded.
+   */
+  private static final long[] PAUSE_TIME_BUCKET_UPPER_BOUNDS_IN_MILLISECONDS = {
+      1, 2, 4, 8, 16, 32, 64, 128, 256, 512, 1024, 2048, 4096, 8192, Long.MAX_VALUE
+    };
+  /**
+   * Logger object used to log information and errors.
+   */
+  private static final Logger logger = LogManager.getLogger(GarbageCollectionMonitor.class);
+
+  static {
+    I18nUtility.addResourceBundle(
+        GarbageCollectionMonitor.class,
+        GarbageCollectionMonitor.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Ring buffer of the latest collections.
+   */
+  private final GarbageCollectionEvent[] events;
+  /**
+   * Number of pauses per bucket, indexed like PAUSE_TIME_BUCKET_UPPER_BOUNDS_IN_MILLISECONDS.
+   */
+  private final long[] pauseTimeHistogram
+      = new long[PAUSE_TIME_BUCKET_UPPER_BOUNDS_IN_MILLISECONDS.length];
+  /**
+   * Names of the heap memory pools.
+   */
+  private final Set<String> heapPoolNames;
+  /**
+   * Names of the memory pools of the old generation.
+   */
+  private final Set<String> oldGenerationPoolNames;
+  /**
+   * Garbage collectors whose notifications are listened to.
+   */
+  private final List<GarbageCollectorMXBean> garbageCollectorMxBeans;
+  /**
+   * Listeners notified of every collection.
+   */
+  private final List<Consumer<GarbageCollectionEvent>> listeners = new CopyOnWriteArrayList<>();
+  /**
+   * Listener registered with the garbage collectors.
+   */
+  private final NotificationListener notificationListener = (notification, handback) ->
+      handleNotification(notification);
+  /**
+   * Filter only letting the garbage collection notifications through.
+   */
+  private final NotificationFilter notificationFilter = notification ->
+      GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(
+          notification.getType()
+      );
+  /**
+   * Time at which the JVM started, used to convert the GC info timestamps into instants.
+   */
+  private final long jvmStartTimeInMilliSeconds = ManagementFactory.getRuntimeMXBean()
+      .getStartTime();
+  /**
+   * Index of the ring buffer at which the next collection is written.
+   */
+  private int nextIndex;
+  /**
+   * Number of collections in the ring buffer.
+   */
+  private int eventsCount;
+  /**
+   * Total number of pauses.
+   */
+  private long pausesCount;
+  /**
+   * Total time spent in pauses in milliseconds.
+   */
+  private long totalPauseTimeInMilliSeconds;
+  /**
+   * Heap memory used after the previous collection, -1 before the first collection.
+   */
+  private long heapUsedAfterPreviousCollection = -1;
+
+  /**
+   * Creates a monitor and starts listening to the garbage collections.
+   *
+   * @param capacity Maximum number of collections kept.
+   */
+  public GarbageCollectionMonitor(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "GarbageCollectionMonitor.error.nonPositiveCapacity",
+              capacity
+          )
+      );
+    }
+    events = new GarbageCollectionEvent[capacity];
+
+    List<MemoryPoolMXBean> heapMemoryPoolMxBeans = ManagementFactory.getMemoryPoolMXBeans()
+        .stream()
+        .filter(memoryPoolMxBean -> memoryPoolMxBean.getType() == MemoryType.HEAP)
+        .toList();
+    heapPoolNames = heapMemoryPoolMxBeans.stream()
+        .map(MemoryPoolMXBean::getName)
+        .collect(Collectors.toUnmodifiableSet());
+    oldGenerationPoolNames = heapPoolNames.stream()
+        .filter(poolName -> poolName.contains("Old") || poolName.contains("Tenured"))
+        .collect(Collectors.toUnmodifiableSet());
+
+    garbageCollectorMxBeans = ManagementFactory.getGarbageCollectorMXBeans();
+    garbageCollectorMxBeans.stream()
+        .filter(NotificationEmitter.class::isInstance)
+        .map(NotificationEmitter.class::cast)
+        .forEach(notificationEmitter -> notificationEmitter.addNotificationListener(
+            notificationListener,
+            notificationFilter,
+            null
+        ));
+  }
+
+  /**
+   * Gets the upper bounds of the pause time histogram buckets. A pause falls in the first bucket
+   * whose upper bound is greater than its duration.
+   *
+   * @return The upper bounds of the buckets in milliseconds, the last one being Long.MAX_VALUE.
+   */
+  public static long[] getPauseTimeBucketUpperBoundsInMilliSeconds() {
+    return PAUSE_TIME_BUCKET_UPPER_BOUNDS_IN_MILLISECONDS.clone();
+  }
+
+  /**
+   * Gets the maximum number of collections kept.
+   *
+   * @return The maximum number of collections kept.
+   */
+  public int getCapacity() {
+    return events.length;
+  }
+
+  /**
+   * Adds a listener notified of every collection, on the thread delivering the JMX notifications.
+   * Listeners have to return quickly, as they delay the notification of the next collections.
+   *
+   * @param listener The listener.
+   */
+  public void addListener(Consumer<GarbageCollectionEvent> listener) {
+    listeners.add(Objects.requireNonNull(listener));
+  }
+
+  /**
+   * Removes a listener.
+   *
+   * @param listener The listener.
+   * @return true if the listener was registered, else false.
+   */
+  public boolean removeListener(Consumer<GarbageCollectionEvent> listener) {
+    return listeners.remove(listener);
+  }
+
+  /**
+   * Gets the latest collections.
+   *
+   * @return The latest collections, oldest first.
+   */
+  public synchronized GarbageCollectionEvent[] getEvents() {
+    GarbageCollectionEvent[] latestEvents = new GarbageCollectionEvent[eventsCount];
+    int oldestIndex = (nextIndex - eventsCount + events.length) % events.length;
+    for (int index = 0; index < eventsCount; index++) {
+      latestEvents[index] = events[(oldestIndex + index) % events.length];
+    }
+    return latestEvents;
+  }
+
+  /**
+   * Gets the number of pauses per bucket since the monitor was created.
+   *
+   * @return The number of pauses per bucket, indexed like
+   *         getPauseTimeBucketUpperBoundsInMilliSeconds().
+   */
+  public synchronized long[] getPauseTimeHistogram() {
+    return pauseTimeHistogram.clone();
+  }
+
+  /**
+   * Gets the number of pauses since the monitor was created.
+   *
+   * @return The number of pauses.
+   */
+  public synchronized long getPausesCount() {
+    return pausesCount;
+  }
+
+  /**
+   * Gets the time spent in pauses since the monitor was created.
+   *
+   * @return The time spent in pauses.
+   */
+  public synchronized Duration getTotalPauseTime() {
+    return Duration.ofMillis(totalPauseTimeInMilliSeconds);
+  }
+
+  /**
+   * Estimates the heap allocation rate over the collections in the ring buffer, from the heap used
+   * after each collection and before the next one.
+   *
+   * @return The allocation rate in bytes per second, -1 if there are less than 2 collections.
+   */
+  public synchronized double getAllocationRateInBytesPerSecond() {
+    return computeRate(true);
+  }
+
+  /**
+   * Estimates the rate at which memory is promoted to the old generation over the collections in
+   * the ring buffer, from the growth of the old generation during the young collections.
+   *
+   * @return The promotion rate in bytes per second, -1 if there are less than 2 collections.
+   */
+  public synchronized double getPromotionRateInBytesPerSecond() {
+    return computeRate(false);
+  }
+
+  /**
+   * Stops listening to the garbage collections. The collections recorded so far are kept.
+   */
+  @Override
+  public void close() {
+    garbageCollectorMxBeans.stream()
+        .filter(NotificationEmitter.class::isInstance)
+        .map(NotificationEmitter.class::cast)
+        .forEach(notificationEmitter -> {
+          try {
+            notificationEmitter.removeNotificationListener(notificationListener);
+          } catch (ListenerNotFoundException e) {
+            // Already removed by a previous call.
+          }
+        });
+  }
+
+  /**
+   * Records the collection described by a notification, and notifies the listeners of it.
+   *
+   * @param notification Garbage collection notification.
+   */
+  private void handleNotification(Notification notification) {
+    GarbageCollectionNotificationInfo garbageCollectionNotificationInfo
+        = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+    GarbageCollectionEvent garbageCollectionEvent = record(garbageCollectionNotificationInfo);
+    for (Consumer<GarbageCollectionEvent> listener : listeners) {
+      try {
+        listener.accept(garbageCollectionEvent);
+      } catch (RuntimeException e) {
+        // A failing listener mustn't prevent the others from being notified.
+        logger.error(e);
+      }
+    }
+  }
+
+  /**
+   * Creates the event of a collection and adds it to the ring buffer and the histogram.
+   *
+   * @param garbageCollectionNotificationInfo Information of the collection.
+   * @return The event of the collection.
+   */
+  private synchronized GarbageCollectionEvent record(
+      GarbageCollectionNotificationInfo garbageCollectionNotificationInfo
+  ) {
+    GcInfo gcInfo = garbageCollectionNotificationInfo.getGcInfo();
+    Map<String, MemoryUsage> memoryUsagesBeforeCollection = gcInfo.getMemoryUsageBeforeGc();
+    Map<String, MemoryUsage> memoryUsagesAfterCollection = gcInfo.getMemoryUsageAfterGc();
+    String garbageCollectorName = garbageCollectionNotificationInfo.getGcName();
+    String action = garbageCollectionNotificationInfo.getGcAction();
+
+    long heapUsedBeforeCollection = getUsedMemory(memoryUsagesBeforeCollection, heapPoolNames);
+    long heapUsedAfterCollection = getUsedMemory(memoryUsagesAfterCollection, heapPoolNames);
+    long allocatedBytes = heapUsedAfterPreviousCollection < 0
+        ? -1
+        : Math.max(0, heapUsedBeforeCollection - heapUsedAfterPreviousCollection);
+    heapUsedAfterPreviousCollection = heapUsedAfterCollection;
+    // Only young collections promote objects, the old generation shrinks during full collections.
+    long promotedBytes = action.contains("minor")
+        ? Math.max(
+            0,
+            getUsedMemory(memoryUsagesAfterCollection, oldGenerationPoolNames)
+                - getUsedMemory(memoryUsagesBeforeCollection, oldGenerationPoolNames)
+        )
+        : 0;
+
+    GarbageCollectionEvent garbageCollectionEvent = new GarbageCollectionEvent(
+        garbageCollectorName,
+        action,
+        garbageCollectionNotificationInfo.getGcCause(),
+        gcInfo.getId(),
+        Instant.ofEpochMilli(jvmStartTimeInMilliSeconds + gcInfo.getStartTime()),
+        Duration.ofMillis(gcInfo.getDuration()),
+        memoryUsagesBeforeCollection,
+        memoryUsagesAfterCollection,
+        allocatedBytes,
+        promotedBytes
+    );
+    events[nextIndex] = garbageCollectionEvent;
+    nextIndex = (nextIndex + 1) % events.length;
+    eventsCount = Math.min(eventsCount + 1, events.length);
+
+    if (isPause(garbageCollectorName)) {
+      long durationInMilliSeconds = gcInfo.getDuration();
+      int bucketIndex = 0;
+      while (PAUSE_TIME_BUCKET_UPPER_BOUNDS_IN_MILLISECONDS[bucketIndex]
+          <= durationInMilliSeconds) {
+        bucketIndex++;
+      }
+      pauseTimeHistogram[bucketIndex]++;
+      pausesCount++;
+      totalPauseTimeInMilliSeconds += durationInMilliSeconds;
+    }
+    return garbageCollectionEvent;
+  }
+
+  /**
+   * Computes the allocation or the promotion rate over the collections in the ring buffer. The
+   * memory counted by the oldest collection was allocated before the window, so it's left out.
+   *
+   * @param allocation true to compute the allocation rate, false for the promotion rate.
+   * @return The rate in bytes per second, -1 if there are less than 2 collections.
+   */
+  private double computeRate(boolean allocation) {
+    GarbageCollectionEvent[] latestEvents = getEvents();
+    if (latestEvents.length < 2) {
+      return -1;
+    }
+    long bytes = 0;
+    for (int index = 1; index < latestEvents.length; index++) {
+      bytes += Math.max(
+          0,
+          allocation
+              ? latestEvents[index].getAllocatedBytes()
+              : latestEvents[index].getPromotedBytes()
+      );
+    }
+    GarbageCollectionEvent oldestEvent = latestEvents[0];
+    GarbageCollectionEvent latestEvent = latestEvents[latestEvents.length - 1];
+    long windowInMilliSeconds = Duration.between(
+        oldestEvent.getStartInstant().plus(oldestEvent.getDuration()),
+        latestEvent.getStartInstant().plus(latestEvent.getDuration())
+    ).toMillis();
+    return bytes * 1000.0 / Math.max(1, windowInMilliSeconds);
+  }
+
+  /**
+   * Checks if a garbage collector stops the application threads. The concurrent cycles of ZGC,
+   * Shenandoah and G1 are reported by dedicated collectors, which don't pause the application.
+   *
+   * @param garbageCollectorName Name of the garbage collector.
+   * @return true if the garbage collector stops the application threads, else false.
+   */
+  private static boolean isPause(String garbageCollectorName) {
+    return !garbageCollectorName.contains("Cycles")
+        && !garbageCollectorName.contains("Concurrent");
+  }
+
+  /**
+   * Sums the memory used by some memory pools.
+   *
+   * @param memoryUsages Usage of the memory pools, by pool name.
+   * @param poolNames    Names of the memory pools to sum.
+   * @return The memory used by the memory pools in bytes.
+   */
+  private static long getUsedMemory(Map<String, MemoryUsage> memoryUsages, Set<String> poolNames) {
+    long usedMemory = 0;
+    for (Map.Entry<String, MemoryUsage> memoryUsageEntry : memoryUsages.entrySet()) {
+      if (poolNames.contains(memoryUsageEntry.getKey())) {
+        usedMemory += memoryUsageEntry.getValue().getUsed();
+      }
+    }
+    return usedMemory;
+  }
+}
@@ -0,0 +1,125 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import com.google.gson.JsonObject;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Stores the outcome of a heap dump, with the time taken to dump the heap and to compress the dump
+ * reported separately.
+ */
+public class HeapDumpResult {
+
+  /**
+   * Path of the heap dump file, ending with .gz if compressed.
+   */
+  private final Path heapDumpFilePath;
+  /**
+   * Size of the heap dump before compression.
+   */
+  private final long heapDumpSizeInBytes;
+  /**
+   * Size of the heap dump file.
+   */
+  private final long heapDumpFileSizeInBytes;
+  /**
+   * Time taken to dump the heap.
+   */
+  private final Duration generationDuration;
+  /**
+   * Time taken to compress the heap dump, zero if not compressed.
+   */
+  private final Duration compressionDuration;
+
+  /**
+   * Abstracts the outcome of a heap dump.
+   *
+   * @param heapDumpFilePath        Path of the heap dump file, ending with .gz if compressed.
+   * @param heapDumpSizeInBytes     Size of the heap dump before compression.
+   * @param heapDumpFileSizeInBytes Size of the heap dump file.
+   * @param generationDuration      Time taken to dump the heap.
+   * @param compressionDuration     Time taken to compress the heap dump, zero if not compressed.
+   */
+  public HeapDumpResult(
+      Path heapDumpFilePath,
+      long heapDumpSizeInBytes,
+      long heapDumpFileSizeInBytes,
+      Duration generationDuration,
+      Duration compressionDuration
+  ) {
+    this.heapDumpFilePath = heapDumpFilePath;
+    this.heapDumpSizeInBytes = heapDumpSizeInBytes;
+    this.heapDumpFileSizeInBytes = heapDumpFileSizeInBytes;
+    this.generationDuration = generationDuration;
+    this.compressionDuration = compressionDuration;
+  }
+
+  /**
+   * Gets the path of the heap dump file.
+   *
+   * @return Path of the heap dump file, ending with .gz if compressed.
+   */
+  public Path getHeapDumpFilePath() {
+    return heapDumpFilePath;
+  }
+
+  /**
+   * Gets the size of the heap dump before compression.
+   *
+   * @return Size of the heap dump before compression in bytes.
+   */
+  public long getHeapDumpSizeInBytes() {
+    return heapDumpSizeInBytes;
+  }
+
+  /**
+   * Gets the size of the heap dump file.
+   *
+   * @return Size of the heap dump file in bytes.
+   */
+  public long getHeapDumpFileSizeInBytes() {
+    return heapDumpFileSizeInBytes;
+  }
+
+  /**
+   * Gets the time taken to dump the heap.
+   *
+   * @return Time taken to dump the heap.
+   */
+  public Duration getGenerationDuration() {
+    return generationDuration;
+  }
+
+  /**
+   * Gets the time taken to compress the heap dump.
+   *
+   * @return Time taken to compress the heap dump, zero if not compressed.
+   */
+  public Duration getCompressionDuration() {
+    return compressionDuration;
+  }
+
+  /**
+   * Gets a JSON representation of an instance of this class.
+   *
+   * @return JSON representation of an instance of this class.
+   */
+  public JsonObject toJsonObject() {
+    JsonObject heapDumpResultJsonObject = new JsonObject();
+    heapDumpResultJsonObject.addProperty(
+        "heapDumpFilePath",
+        heapDumpFilePath.toAbsolutePath().toString()
+    );
+    heapDumpResultJsonObject.addProperty("heapDumpSizeInBytes", heapDumpSizeInBytes);
+    heapDumpResultJsonObject.addProperty("heapDumpFileSizeInBytes", heapDumpFileSizeInBytes);
+    heapDumpResultJsonObject.addProperty(
+        "generationDurationInMilliSeconds",
+        generationDuration.toMillis()
+    );
+    heapDumpResultJsonObject.addProperty(
+        "compressionDurationInMilliSeconds",
+        compressionDuration.toMillis()
+    );
+    return heapDumpResultJsonObject;
+  }
+}
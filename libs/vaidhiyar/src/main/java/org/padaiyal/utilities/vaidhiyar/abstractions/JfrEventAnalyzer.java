@@ -0,0 +1,588 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import jdk.jfr.EventSettings;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Records JFR events in process and aggregates them into per thread statistics (CPU usage,
+ * sampled allocations, monitor enters and waits), garbage collection pauses, safepoints and
+ * virtual thread pinnings, which the MXBeans don't expose.
+ *
+ * <p>The events are streamed in batches, about once a second, so the statistics lag the JVM by
+ * as much. The recording is kept on disk for the max age of the options and can be dumped to a
+ * file to be opened by the JFR tools. The statistics of a thread are dropped once it had no event
+ * recorded for the max age, so that terminated threads don't accumulate.
+ */
+public final class JfrEventAnalyzer implements AutoCloseable {
+
+  /**
+   * Logger object used to log information and errors.
+   */
+  private static final Logger logger = LogManager.getLogger(JfrEventAnalyzer.class);
+  /**
+   * Maximum rate of the allocation samples, which bounds the overhead of allocation heavy code.
+   */
+  private static final String ALLOCATION_SAMPLE_THROTTLE = "150/s";
+
+  static {
+    I18nUtility.addResourceBundle(
+        JfrEventAnalyzer.class,
+        JfrEventAnalyzer.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Options of the recording.
+   */
+  private final JfrRecordingOptions jfrRecordingOptions;
+  /**
+   * Stream of the recorded events.
+   */
+  private final RecordingStream recordingStream;
+  /**
+   * Statistics aggregated per thread ID, of the threads which had events recorded within the max
+   * age.
+   */
+  private final Map<Long, ThreadStatistics> threadStatistics = new HashMap<>();
+  /**
+   * Virtual thread pinnings aggregated per stack.
+   */
+  private final Map<List<String>, VirtualThreadPinning> virtualThreadPinnings = new HashMap<>();
+  /**
+   * Number of garbage collections recorded.
+   */
+  private long garbageCollectionCount;
+  /**
+   * Total pause time of the garbage collections recorded, in nanoseconds.
+   */
+  private long garbageCollectionPauseTimeInNanoSeconds;
+  /**
+   * Longest pause of the garbage collections recorded, in nanoseconds.
+   */
+  private long longestGarbageCollectionPauseInNanoSeconds;
+  /**
+   * Number of safepoints recorded.
+   */
+  private long safepointCount;
+  /**
+   * Total time taken by the threads to reach the safepoints recorded, in nanoseconds.
+   */
+  private long timeToSafepointInNanoSeconds;
+  /**
+   * Number of virtual threads which failed to be scheduled.
+   */
+  private long virtualThreadSubmitFailedCount;
+
+  /**
+   * Starts recording the events of the options and aggregating them.
+   *
+   * @param jfrRecordingOptions Options of the recording.
+   */
+  public JfrEventAnalyzer(JfrRecordingOptions jfrRecordingOptions) {
+    this.jfrRecordingOptions = Objects.requireNonNull(jfrRecordingOptions);
+    recordingStream = new RecordingStream();
+    try {
+      enable(
+          JfrRecordingOptions.Event.THREAD_CPU_LOAD,
+          eventSettings -> eventSettings.withPeriod(jfrRecordingOptions.getPeriod()),
+          this::onThreadCpuLoad
+      );
+      enable(
+          JfrRecordingOptions.Event.ALLOCATION_SAMPLE,
+          eventSettings -> eventSettings.with("throttle", ALLOCATION_SAMPLE_THROTTLE),
+          this::onAllocationSample
+      );
+      enable(
+          JfrRecordingOptions.Event.MONITOR_ENTER,
+          eventSettings -> eventSettings.withThreshold(jfrRecordingOptions.getThreshold()),
+          this::onMonitorEnter
+      );
+      enable(
+          JfrRecordingOptions.Event.MONITOR_WAIT,
+          eventSettings -> eventSettings.withThreshold(jfrRecordingOptions.getThreshold()),
+          this::onMonitorWait
+      );
+      enable(
+          JfrRecordingOptions.Event.GARBAGE_COLLECTION,
+          eventSettings -> { },
+          this::onGarbageCollection
+      );
+      enable(
+          JfrRecordingOptions.Event.SAFEPOINT,
+          eventSettings -> { },
+          this::onSafepoint
+      );
+      // The stack of a pinning is where to fix it, usually a synchronized block to replace.
+      enable(
+          JfrRecordingOptions.Event.VIRTUAL_THREAD_PINNED,
+          eventSettings -> eventSettings.withStackTrace()
+              .withThreshold(jfrRecordingOptions.getThreshold()),
+          this::onVirtualThreadPinned
+      );
+      enable(
+          JfrRecordingOptions.Event.VIRTUAL_THREAD_SUBMIT_FAILED,
+          eventSettings -> { },
+          this::onVirtualThreadSubmitFailed
+      );
+      recordingStream.setMaxAge(jfrRecordingOptions.getMaxAge());
+      recordingStream.onFlush(this::pruneThreadStatistics);
+      recordingStream.onError(logger::error);
+      recordingStream.startAsync();
+    } catch (RuntimeException e) {
+      recordingStream.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Gets the options of the recording.
+   *
+   * @return Options of the recording.
+   */
+  public JfrRecordingOptions getJfrRecordingOptions() {
+    return jfrRecordingOptions;
+  }
+
+  /**
+   * Gets the statistics of the threads which had events recorded within the max age of the
+   * options, by ascending thread ID.
+   *
+   * @return The statistics of the threads.
+   */
+  public synchronized JfrThreadStatistics[] getThreadStatistics() {
+    return threadStatistics.entrySet()
+        .stream()
+        .sorted(Map.Entry.comparingByKey(Comparator.naturalOrder()))
+        .map(entry -> entry.getValue().toJfrThreadStatistics(entry.getKey()))
+        .toArray(JfrThreadStatistics[]::new);
+  }
+
+  /**
+   * Gets the number of garbage collections recorded.
+   *
+   * @return Number of garbage collections recorded.
+   */
+  public synchronized long getGarbageCollectionCount() {
+    return garbageCollectionCount;
+  }
+
+  /**
+   * Gets the total pause time of the garbage collections recorded.
+   *
+   * @return Total pause time of the garbage collections recorded.
+   */
+  public synchronized Duration getGarbageCollectionPauseTime() {
+    return Duration.ofNanos(garbageCollectionPauseTimeInNanoSeconds);
+  }
+
+  /**
+   * Gets the longest pause of the garbage collections recorded.
+   *
+   * @return Longest pause of the garbage collections recorded.
+   */
+  public synchronized Duration getLongestGarbageCollectionPause() {
+    return Duration.ofNanos(longestGarbageCollectionPauseInNanoSeconds);
+  }
+
+  /**
+   * Gets the number of safepoints recorded.
+   *
+   * @return Number of safepoints recorded.
+   */
+  public synchronized long getSafepointCount() {
+    return safepointCount;
+  }
+
+  /**
+   * Gets the total time taken by the threads to reach the safepoints recorded.
+   *
+   * @return Total time to safepoint.
+   */
+  public synchronized Duration getTimeToSafepoint() {
+    return Duration.ofNanos(timeToSafepointInNanoSeconds);
+  }
+
+  /**
+   * Gets the stacks virtual threads were pinned with the longest, by descending total pinned
+   * time.
+   *
+   * @param count Maximum number of stacks to get.
+   * @return The virtual thread pinnings of the stacks.
+   */
+  public synchronized VirtualThreadPinningInfo[] getTopVirtualThreadPinnings(int count) {
+    if (count < 0) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "JfrEventAnalyzer.error.negativeCount",
+              count
+          )
+      );
+    }
+    return virtualThreadPinnings.entrySet()
+        .stream()
+        .map(entry -> entry.getValue().toVirtualThreadPinningInfo(entry.getKey()))
+        .sorted(
+            Comparator.comparing(VirtualThreadPinningInfo::getPinnedTime)
+                .thenComparingLong(VirtualThreadPinningInfo::getPinningsCount)
+                .reversed()
+        )
+        .limit(count)
+        .toArray(VirtualThreadPinningInfo[]::new);
+  }
+
+  /**
+   * Gets the number of virtual threads which failed to be scheduled on a carrier thread.
+   *
+   * @return Number of virtual threads which failed to be scheduled.
+   */
+  public synchronized long getVirtualThreadSubmitFailedCount() {
+    return virtualThreadSubmitFailedCount;
+  }
+
+  /**
+   * Writes the recording, as kept for the max age of the options, to a JFR file.
+   *
+   * @param destinationPath Path of the JFR file.
+   * @throws IOException If there is an issue writing the file.
+   */
+  public void dump(Path destinationPath) throws IOException {
+    recordingStream.dump(Objects.requireNonNull(destinationPath));
+  }
+
+  /**
+   * Gets a JSON representation of an instance of this class.
+   *
+   * @return JSON representation of an instance of this class.
+   */
+  public synchronized JsonObject toJsonObject() {
+    JsonObject jfrEventAnalyzerJsonObject = new JsonObject();
+    JsonArray threadStatisticsJsonArray = new JsonArray();
+    for (JfrThreadStatistics jfrThreadStatistics : getThreadStatistics()) {
+      threadStatisticsJsonArray.add(jfrThreadStatistics.toJsonObject());
+    }
+    jfrEventAnalyzerJsonObject.add("threadStatistics", threadStatisticsJsonArray);
+    jfrEventAnalyzerJsonObject.addProperty("garbageCollectionCount", garbageCollectionCount);
+    jfrEventAnalyzerJsonObject.addProperty(
+        "garbageCollectionPauseTimeInMilliSeconds",
+        getGarbageCollectionPauseTime().toMillis()
+    );
+    jfrEventAnalyzerJsonObject.addProperty(
+        "longestGarbageCollectionPauseInMilliSeconds",
+        getLongestGarbageCollectionPause().toMillis()
+    );
+    jfrEventAnalyzerJsonObject.addProperty("safepointCount", safepointCount);
+    jfrEventAnalyzerJsonObject.addProperty(
+        "timeToSafepointInMilliSeconds",
+        getTimeToSafepoint().toMillis()
+    );
+    JsonArray virtualThreadPinningsJsonArray = new JsonArray();
+    for (VirtualThreadPinningInfo virtualThreadPinningInfo
+        : getTopVirtualThreadPinnings(virtualThreadPinnings.size())) {
+      virtualThreadPinningsJsonArray.add(virtualThreadPinningInfo.toJsonObject());
+    }
+    jfrEventAnalyzerJsonObject.add("virtualThreadPinnings", virtualThreadPinningsJsonArray);
+    jfrEventAnalyzerJsonObject.addProperty(
+        "virtualThreadSubmitFailedCount",
+        virtualThreadSubmitFailedCount
+    );
+    return jfrEventAnalyzerJsonObject;
+  }
+
+  /**
+   * Stops the recording. The statistics aggregated so far stay available.
+   */
+  @Override
+  public void close() {
+    recordingStream.close();
+  }
+
+  /**
+   * Enables an event if included in the options.
+   *
+   * @param event         The event.
+   * @param configuration Configures the settings of the event, recorded without stack trace
+   *                      unless configured otherwise.
+   * @param handler       Handles the recorded events.
+   */
+  private void enable(
+      JfrRecordingOptions.Event event,
+      Consumer<EventSettings> configuration,
+      Consumer<RecordedEvent> handler
+  ) {
+    if (!jfrRecordingOptions.isEventIncluded(event)) {
+      return;
+    }
+    configuration.accept(recordingStream.enable(event.getName()).withoutStackTrace());
+    recordingStream.onEvent(event.getName(), handler);
+  }
+
+  /**
+   * Drops the statistics of the threads which had no event recorded within the max age of the
+   * options. Runs after each batch of events.
+   */
+  private synchronized void pruneThreadStatistics() {
+    Instant oldestEventTime = Instant.now().minus(jfrRecordingOptions.getMaxAge());
+    threadStatistics.values()
+        .removeIf(statistics -> statistics.lastEventTime.isBefore(oldestEventTime));
+  }
+
+  /**
+   * Gets the statistics of the Java thread of an event, and marks the event as its latest one.
+   *
+   * @param recordedEvent The event.
+   * @return The statistics of the thread, or null if the event has no Java thread.
+   */
+  private ThreadStatistics getEventThreadStatistics(RecordedEvent recordedEvent) {
+    RecordedThread recordedThread = recordedEvent.getThread("eventThread");
+    if (recordedThread == null || recordedThread.getJavaThreadId() < 0) {
+      return null;
+    }
+    ThreadStatistics statistics = threadStatistics.computeIfAbsent(
+        recordedThread.getJavaThreadId(),
+        threadId -> new ThreadStatistics()
+    );
+    statistics.threadName = recordedThread.getJavaName();
+    statistics.lastEventTime = recordedEvent.getEndTime();
+    return statistics;
+  }
+
+  /**
+   * Updates the CPU usage of a thread. The JFR loads are fractions of all the cores, converted to
+   * a percentage of one core like the other CPU usages of the library.
+   *
+   * @param recordedEvent The thread CPU load event.
+   */
+  private synchronized void onThreadCpuLoad(RecordedEvent recordedEvent) {
+    ThreadStatistics statistics = getEventThreadStatistics(recordedEvent);
+    if (statistics != null) {
+      statistics.cpuUsage = (recordedEvent.getFloat("user") + recordedEvent.getFloat("system"))
+          * 100.0
+          * Runtime.getRuntime().availableProcessors();
+    }
+  }
+
+  /**
+   * Adds the weight of an allocation sample to its thread.
+   *
+   * @param recordedEvent The allocation sample event.
+   */
+  private synchronized void onAllocationSample(RecordedEvent recordedEvent) {
+    ThreadStatistics statistics = getEventThreadStatistics(recordedEvent);
+    if (statistics != null) {
+      statistics.sampledAllocatedBytes += recordedEvent.getLong("weight");
+    }
+  }
+
+  /**
+   * Adds a monitor enter to its thread.
+   *
+   * @param recordedEvent The monitor enter event.
+   */
+  private synchronized void onMonitorEnter(RecordedEvent recordedEvent) {
+    ThreadStatistics statistics = getEventThreadStatistics(recordedEvent);
+    if (statistics != null) {
+      statistics.monitorEnterCount++;
+      statistics.monitorEnterTimeInNanoSeconds += recordedEvent.getDuration().toNanos();
+    }
+  }
+
+  /**
+   * Adds a monitor wait to its thread.
+   *
+   * @param recordedEvent The monitor wait event.
+   */
+  private synchronized void onMonitorWait(RecordedEvent recordedEvent) {
+    ThreadStatistics statistics = getEventThreadStatistics(recordedEvent);
+    if (statistics != null) {
+      statistics.monitorWaitCount++;
+      statistics.monitorWaitTimeInNanoSeconds += recordedEvent.getDuration().toNanos();
+    }
+  }
+
+  /**
+   * Adds the pauses of a garbage collection.
+   *
+   * @param recordedEvent The garbage collection event.
+   */
+  private synchronized void onGarbageCollection(RecordedEvent recordedEvent) {
+    garbageCollectionCount++;
+    garbageCollectionPauseTimeInNanoSeconds
+        += recordedEvent.getDuration("sumOfPauses").toNanos();
+    longestGarbageCollectionPauseInNanoSeconds = Math.max(
+        longestGarbageCollectionPauseInNanoSeconds,
+        recordedEvent.getDuration("longestPause").toNanos()
+    );
+  }
+
+  /**
+   * Adds the time taken to reach a safepoint.
+   *
+   * @param recordedEvent The safepoint begin event.
+   */
+  private synchronized void onSafepoint(RecordedEvent recordedEvent) {
+    safepointCount++;
+    timeToSafepointInNanoSeconds += recordedEvent.getDuration().toNanos();
+  }
+
+  /**
+   * Adds a virtual thread pinning to its stack.
+   *
+   * @param recordedEvent The virtual thread pinned event.
+   */
+  private synchronized void onVirtualThreadPinned(RecordedEvent recordedEvent) {
+    RecordedStackTrace recordedStackTrace = recordedEvent.getStackTrace();
+    List<String> stackTrace = recordedStackTrace == null
+        ? List.of()
+        : recordedStackTrace.getFrames()
+            .stream()
+            .map(JfrEventAnalyzer::toStackFrame)
+            .toList();
+    VirtualThreadPinning virtualThreadPinning = virtualThreadPinnings.computeIfAbsent(
+        stackTrace,
+        key -> new VirtualThreadPinning()
+    );
+    long pinnedTimeInNanoSeconds = recordedEvent.getDuration().toNanos();
+    virtualThreadPinning.pinningsCount++;
+    virtualThreadPinning.pinnedTimeInNanoSeconds += pinnedTimeInNanoSeconds;
+    virtualThreadPinning.longestPinnedTimeInNanoSeconds = Math.max(
+        virtualThreadPinning.longestPinnedTimeInNanoSeconds,
+        pinnedTimeInNanoSeconds
+    );
+  }
+
+  /**
+   * Counts a virtual thread which failed to be scheduled.
+   *
+   * @param recordedEvent The virtual thread submit failed event.
+   */
+  private synchronized void onVirtualThreadSubmitFailed(RecordedEvent recordedEvent) {
+    virtualThreadSubmitFailedCount++;
+  }
+
+  /**
+   * Formats a recorded stack frame as its class and method names, followed by its line number
+   * if known. JFR doesn't record the source file names.
+   *
+   * @param recordedFrame The recorded stack frame.
+   * @return The formatted stack frame.
+   */
+  private static String toStackFrame(RecordedFrame recordedFrame) {
+    return recordedFrame.getMethod().getType().getName()
+        + "."
+        + recordedFrame.getMethod().getName()
+        + (recordedFrame.getLineNumber() < 0 ? "" : ":" + recordedFrame.getLineNumber());
+  }
+
+  /**
+   * Virtual thread pinnings of a stack, updated as they are recorded.
+   */
+  private static final class VirtualThreadPinning {
+
+    /**
+     * Number of pinnings.
+     */
+    private long pinningsCount;
+    /**
+     * Total pinned time, in nanoseconds.
+     */
+    private long pinnedTimeInNanoSeconds;
+    /**
+     * Longest pinned time, in nanoseconds.
+     */
+    private long longestPinnedTimeInNanoSeconds;
+
+    /**
+     * Creates an immutable copy of the pinnings.
+     *
+     * @param stackTrace Stack of the pinnings, top frame first.
+     * @return The copy of the pinnings.
+     */
+    private VirtualThreadPinningInfo toVirtualThreadPinningInfo(List<String> stackTrace) {
+      return new VirtualThreadPinningInfo(
+          stackTrace.toArray(String[]::new),
+          pinningsCount,
+          Duration.ofNanos(pinnedTimeInNanoSeconds),
+          Duration.ofNanos(longestPinnedTimeInNanoSeconds)
+      );
+    }
+  }
+
+  /**
+   * Statistics of a thread, updated as its events are recorded.
+   */
+  private static final class ThreadStatistics {
+
+    /**
+     * Latest name of the thread.
+     */
+    private String threadName;
+    /**
+     * End time of the latest event of the thread.
+     */
+    private Instant lastEventTime;
+    /**
+     * Latest CPU usage of the thread, as a percentage of one core, or -1 if not recorded.
+     */
+    private double cpuUsage = -1;
+    /**
+     * Sum of the weights of the allocation samples of the thread.
+     */
+    private long sampledAllocatedBytes;
+    /**
+     * Number of recorded monitor enters.
+     */
+    private long monitorEnterCount;
+    /**
+     * Time spent in the recorded monitor enters, in nanoseconds.
+     */
+    private long monitorEnterTimeInNanoSeconds;
+    /**
+     * Number of recorded monitor waits.
+     */
+    private long monitorWaitCount;
+    /**
+     * Time spent in the recorded monitor waits, in nanoseconds.
+     */
+    private long monitorWaitTimeInNanoSeconds;
+
+    /**
+     * Creates an immutable copy of the statistics.
+     *
+     * @param threadId ID of the thread.
+     * @return The copy of the statistics.
+     */
+    private JfrThreadStatistics toJfrThreadStatistics(long threadId) {
+      return new JfrThreadStatistics(
+          threadId,
+          threadName,
+          cpuUsage,
+          sampledAllocatedBytes,
+          monitorEnterCount,
+          Duration.ofNanos(monitorEnterTimeInNanoSeconds),
+          monitorWaitCount,
+          Duration.ofNanos(monitorWaitTimeInNanoSeconds)
+      );
+    }
+  }
+}
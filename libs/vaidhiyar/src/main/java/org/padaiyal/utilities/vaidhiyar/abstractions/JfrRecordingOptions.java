@@ -0,0 +1,245 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Options of a JFR recording analyzed in process: the events to record, the period of the
+ * periodic events, the threshold of the timed events and how long the recording is kept for a
+ * dump.
+ */
+public class JfrRecordingOptions {
+
+  static {
+    I18nUtility.addResourceBundle(
+        JfrRecordingOptions.class,
+        JfrRecordingOptions.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Events recorded.
+   */
+  private final Set<Event> events = EnumSet.allOf(Event.class);
+  /**
+   * Period of the periodic events.
+   */
+  private Duration period = Duration.ofSeconds(1);
+  /**
+   * Minimum duration of the recorded timed events.
+   */
+  private Duration threshold = Duration.ofMillis(10);
+  /**
+   * How long the recorded events are kept for a dump.
+   */
+  private Duration maxAge = Duration.ofMinutes(10);
+
+  /**
+   * Creates the options of a recording of all the events, sampled every second, with a 10 ms
+   * threshold and kept 10 minutes.
+   */
+  public JfrRecordingOptions() {
+  }
+
+  /**
+   * Removes an event from the recording.
+   *
+   * @param event The event to remove.
+   * @return This object.
+   */
+  public JfrRecordingOptions excludeEvent(Event event) {
+    events.remove(Objects.requireNonNull(event));
+    return this;
+  }
+
+  /**
+   * Adds an event to the recording.
+   *
+   * @param event The event to add.
+   * @return This object.
+   */
+  public JfrRecordingOptions includeEvent(Event event) {
+    events.add(Objects.requireNonNull(event));
+    return this;
+  }
+
+  /**
+   * Sets the period of the periodic events, i.e. how often the thread CPU loads are recorded.
+   *
+   * @param period Period of the periodic events.
+   * @return This object.
+   */
+  public JfrRecordingOptions setPeriod(Duration period) {
+    this.period = validatePositiveDuration(period, "period");
+    return this;
+  }
+
+  /**
+   * Sets the minimum duration of the recorded monitor enters, monitor waits and virtual thread
+   * pinnings. Shorter ones aren't recorded, which keeps the overhead low on lightly contended
+   * monitors.
+   *
+   * @param threshold Minimum duration of the recorded timed events.
+   * @return This object.
+   */
+  public JfrRecordingOptions setThreshold(Duration threshold) {
+    Objects.requireNonNull(threshold);
+    if (threshold.isNegative()) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "JfrRecordingOptions.error.negativeThreshold",
+              threshold
+          )
+      );
+    }
+    this.threshold = threshold;
+    return this;
+  }
+
+  /**
+   * Sets how long the recorded events are kept for a dump.
+   *
+   * @param maxAge How long the recorded events are kept.
+   * @return This object.
+   */
+  public JfrRecordingOptions setMaxAge(Duration maxAge) {
+    this.maxAge = validatePositiveDuration(maxAge, "maxAge");
+    return this;
+  }
+
+  /**
+   * Gets the events recorded.
+   *
+   * @return The events recorded.
+   */
+  public Set<Event> getEvents() {
+    return Collections.unmodifiableSet(events);
+  }
+
+  /**
+   * Checks if an event is recorded.
+   *
+   * @param event The event.
+   * @return true if the event is recorded, else false.
+   */
+  public boolean isEventIncluded(Event event) {
+    return events.contains(event);
+  }
+
+  /**
+   * Gets the period of the periodic events.
+   *
+   * @return Period of the periodic events.
+   */
+  public Duration getPeriod() {
+    return period;
+  }
+
+  /**
+   * Gets the minimum duration of the recorded timed events.
+   *
+   * @return Minimum duration of the recorded timed events.
+   */
+  public Duration getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * Gets how long the recorded events are kept for a dump.
+   *
+   * @return How long the recorded events are kept.
+   */
+  public Duration getMaxAge() {
+    return maxAge;
+  }
+
+  /**
+   * Validates a duration which has to be positive.
+   *
+   * @param duration     The duration.
+   * @param durationName Name of the duration, used in the error message.
+   * @return The duration.
+   */
+  private static Duration validatePositiveDuration(Duration duration, String durationName) {
+    Objects.requireNonNull(duration);
+    if (duration.isNegative() || duration.isZero()) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "JfrRecordingOptions.error.nonPositiveDuration",
+              durationName,
+              duration
+          )
+      );
+    }
+    return duration;
+  }
+
+  /**
+   * JFR events the recording is analyzed from.
+   */
+  public enum Event {
+    /**
+     * Periodic user and system CPU load of each thread.
+     */
+    THREAD_CPU_LOAD("jdk.ThreadCPULoad"),
+    /**
+     * Sampled object allocation, weighted by the bytes allocated since the previous sample.
+     */
+    ALLOCATION_SAMPLE("jdk.ObjectAllocationSample"),
+    /**
+     * Thread blocked entering a monitor.
+     */
+    MONITOR_ENTER("jdk.JavaMonitorEnter"),
+    /**
+     * Thread waiting on a monitor, in Object.wait().
+     */
+    MONITOR_WAIT("jdk.JavaMonitorWait"),
+    /**
+     * Garbage collection, with its pauses.
+     */
+    GARBAGE_COLLECTION("jdk.GarbageCollection"),
+    /**
+     * Safepoint, lasting until all the threads reached it.
+     */
+    SAFEPOINT("jdk.SafepointBegin"),
+    /**
+     * Virtual thread pinned to its carrier thread while parked, e.g. in a synchronized block.
+     * Only recorded by JVMs supporting virtual threads.
+     */
+    VIRTUAL_THREAD_PINNED("jdk.VirtualThreadPinned"),
+    /**
+     * Virtual thread which failed to be scheduled on a carrier thread. Only recorded by JVMs
+     * supporting virtual threads.
+     */
+    VIRTUAL_THREAD_SUBMIT_FAILED("jdk.VirtualThreadSubmitFailed");
+
+    /**
+     * Name of the JFR event.
+     */
+    private final String name;
+
+    /**
+     * Associates an event with the name of its JFR event.
+     *
+     * @param name Name of the JFR event.
+     */
+    Event(String name) {
+      this.name = name;
+    }
+
+    /**
+     * Gets the name of the JFR event.
+     *
+     * @return Name of the JFR event.
+     */
+    public String getName() {
+      return name;
+    }
+  }
+}
@@ -0,0 +1,174 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import com.google.gson.JsonObject;
+import java.time.Duration;
+
+/**
+ * Stores the statistics of a thread aggregated by JfrEventAnalyzer from the JFR events of the
+ * thread.
+ */
+public class JfrThreadStatistics {
+
+  /**
+   * ID of the thread.
+   */
+  private final long threadId;
+  /**
+   * Name of the thread.
+   */
+  private final String threadName;
+  /**
+   * Latest CPU usage of the thread, as a percentage of one core, or -1 if not recorded.
+   */
+  private final double cpuUsage;
+  /**
+   * Bytes allocated by the thread, estimated from the allocation samples.
+   */
+  private final long sampledAllocatedBytes;
+  /**
+   * Number of times the thread was blocked entering a monitor for longer than the threshold.
+   */
+  private final long monitorEnterCount;
+  /**
+   * Time spent by the thread blocked entering monitors, in the recorded monitor enters.
+   */
+  private final Duration monitorEnterTime;
+  /**
+   * Number of times the thread waited on a monitor for longer than the threshold.
+   */
+  private final long monitorWaitCount;
+  /**
+   * Time spent by the thread waiting on monitors, in the recorded monitor waits.
+   */
+  private final Duration monitorWaitTime;
+
+  /**
+   * Abstracts the statistics of a thread.
+   *
+   * @param threadId              ID of the thread.
+   * @param threadName            Name of the thread.
+   * @param cpuUsage              Latest CPU usage of the thread, as a percentage of one core, or
+   *                              -1 if not recorded.
+   * @param sampledAllocatedBytes Bytes allocated by the thread, estimated from the allocation
+   *                              samples.
+   * @param monitorEnterCount     Number of recorded monitor enters of the thread.
+   * @param monitorEnterTime      Time spent by the thread in the recorded monitor enters.
+   * @param monitorWaitCount      Number of recorded monitor waits of the thread.
+   * @param monitorWaitTime       Time spent by the thread in the recorded monitor waits.
+   */
+  public JfrThreadStatistics(
+      long threadId,
+      String threadName,
+      double cpuUsage,
+      long sampledAllocatedBytes,
+      long monitorEnterCount,
+      Duration monitorEnterTime,
+      long monitorWaitCount,
+      Duration monitorWaitTime
+  ) {
+    this.threadId = threadId;
+    this.threadName = threadName;
+    this.cpuUsage = cpuUsage;
+    this.sampledAllocatedBytes = sampledAllocatedBytes;
+    this.monitorEnterCount = monitorEnterCount;
+    this.monitorEnterTime = monitorEnterTime;
+    this.monitorWaitCount = monitorWaitCount;
+    this.monitorWaitTime = monitorWaitTime;
+  }
+
+  /**
+   * Gets the ID of the thread.
+   *
+   * @return ID of the thread.
+   */
+  public long getThreadId() {
+    return threadId;
+  }
+
+  /**
+   * Gets the name of the thread.
+   *
+   * @return Name of the thread.
+   */
+  public String getThreadName() {
+    return threadName;
+  }
+
+  /**
+   * Gets the latest CPU usage of the thread.
+   *
+   * @return CPU usage of the thread, as a percentage of one core, or -1 if not recorded.
+   */
+  public double getCpuUsage() {
+    return cpuUsage;
+  }
+
+  /**
+   * Gets the bytes allocated by the thread, estimated from the allocation samples.
+   *
+   * @return Bytes allocated by the thread.
+   */
+  public long getSampledAllocatedBytes() {
+    return sampledAllocatedBytes;
+  }
+
+  /**
+   * Gets the number of recorded monitor enters of the thread.
+   *
+   * @return Number of recorded monitor enters.
+   */
+  public long getMonitorEnterCount() {
+    return monitorEnterCount;
+  }
+
+  /**
+   * Gets the time spent by the thread in the recorded monitor enters.
+   *
+   * @return Time spent blocked entering monitors.
+   */
+  public Duration getMonitorEnterTime() {
+    return monitorEnterTime;
+  }
+
+  /**
+   * Gets the number of recorded monitor waits of the thread.
+   *
+   * @return Number of recorded monitor waits.
+   */
+  public long getMonitorWaitCount() {
+    return monitorWaitCount;
+  }
+
+  /**
+   * Gets the time spent by the thread in the recorded monitor waits.
+   *
+   * @return Time spent waiting on monitors.
+   */
+  public Duration getMonitorWaitTime() {
+    return monitorWaitTime;
+  }
+
+  /**
+   * Gets a JSON representation of an instance of this class.
+   *
+   * @return JSON representation of an instance of this class.
+   */
+  public JsonObject toJsonObject() {
+    JsonObject jfrThreadStatisticsJsonObject = new JsonObject();
+    jfrThreadStatisticsJsonObject.addProperty("threadId", threadId);
+    jfrThreadStatisticsJsonObject.addProperty("threadName", threadName);
+    jfrThreadStatisticsJsonObject.addProperty("cpuUsage", cpuUsage);
+    jfrThreadStatisticsJsonObject.addProperty("sampledAllocatedBytes", sampledAllocatedBytes);
+    jfrThreadStatisticsJsonObject.addProperty("monitorEnterCount", monitorEnterCount);
+    jfrThreadStatisticsJsonObject.addProperty(
+        "monitorEnterTimeInMilliSeconds",
+        monitorEnterTime.toMillis()
+    );
+    jfrThreadStatisticsJsonObject.addProperty("monitorWaitCount", monitorWaitCount);
+    jfrThreadStatisticsJsonObject.addProperty(
+        "monitorWaitTimeInMilliSeconds",
+        monitorWaitTime.toMillis()
+    );
+    return jfrThreadStatisticsJsonObject;
+  }
+}
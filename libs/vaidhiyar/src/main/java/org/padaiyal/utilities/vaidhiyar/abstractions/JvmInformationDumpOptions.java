@@ -0,0 +1,231 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Options of a JVM information dump: the sections to write, the depth of the thread stacks per
+ * thread state and the output format.
+ */
+public class JvmInformationDumpOptions {
+
+  static {
+    I18nUtility.addResourceBundle(
+        JvmInformationDumpOptions.class,
+        JvmInformationDumpOptions.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Sections written in the dump.
+   */
+  private final Set<Section> sections = EnumSet.allOf(Section.class);
+  /**
+   * Depth of the thread stacks of the threads whose state has no specific depth.
+   */
+  private final int threadStackDepth;
+  /**
+   * Depth of the thread stacks, by thread state.
+   */
+  private final Map<Thread.State, Integer> threadStackDepthsByState
+      = new EnumMap<>(Thread.State.class);
+  /**
+   * If true, the dump is GZIP compressed.
+   */
+  private boolean gzipCompressed;
+  /**
+   * If true, the dump is indented.
+   */
+  private boolean prettyPrinted = true;
+
+  /**
+   * Creates the options of a dump with all the sections, written as indented uncompressed JSON.
+   *
+   * @param threadStackDepth Depth of the thread stacks.
+   */
+  public JvmInformationDumpOptions(int threadStackDepth) {
+    this.threadStackDepth = validateThreadStackDepth(threadStackDepth);
+  }
+
+  /**
+   * Removes a section from the dump.
+   *
+   * @param section The section to remove.
+   * @return This object.
+   */
+  public JvmInformationDumpOptions excludeSection(Section section) {
+    sections.remove(Objects.requireNonNull(section));
+    return this;
+  }
+
+  /**
+   * Adds a section to the dump.
+   *
+   * @param section The section to add.
+   * @return This object.
+   */
+  public JvmInformationDumpOptions includeSection(Section section) {
+    sections.add(Objects.requireNonNull(section));
+    return this;
+  }
+
+  /**
+   * Sets the depth of the stacks of the threads in a state. For instance, the stacks of the
+   * RUNNABLE threads may be kept deep while those of the WAITING threads, usually idle pool
+   * threads, are capped.
+   *
+   * @param threadState      State of the threads.
+   * @param threadStackDepth Depth of the thread stacks.
+   * @return This object.
+   */
+  public JvmInformationDumpOptions setThreadStackDepth(
+      Thread.State threadState,
+      int threadStackDepth
+  ) {
+    threadStackDepthsByState.put(
+        Objects.requireNonNull(threadState),
+        validateThreadStackDepth(threadStackDepth)
+    );
+    return this;
+  }
+
+  /**
+   * Sets whether the dump is GZIP compressed.
+   *
+   * @param gzipCompressed If true, the dump is GZIP compressed.
+   * @return This object.
+   */
+  public JvmInformationDumpOptions setGzipCompressed(boolean gzipCompressed) {
+    this.gzipCompressed = gzipCompressed;
+    return this;
+  }
+
+  /**
+   * Sets whether the dump is indented.
+   *
+   * @param prettyPrinted If true, the dump is indented.
+   * @return This object.
+   */
+  public JvmInformationDumpOptions setPrettyPrinted(boolean prettyPrinted) {
+    this.prettyPrinted = prettyPrinted;
+    return this;
+  }
+
+  /**
+   * Gets the sections written in the dump.
+   *
+   * @return The sections written in the dump.
+   */
+  public Set<Section> getSections() {
+    return Collections.unmodifiableSet(sections);
+  }
+
+  /**
+   * Checks if a section is written in the dump.
+   *
+   * @param section The section.
+   * @return true if the section is written in the dump, else false.
+   */
+  public boolean isSectionIncluded(Section section) {
+    return sections.contains(section);
+  }
+
+  /**
+   * Gets the depth of the stacks of the threads in a state.
+   *
+   * @param threadState State of the threads.
+   * @return The depth of the thread stacks.
+   */
+  public int getThreadStackDepth(Thread.State threadState) {
+    return threadStackDepthsByState.getOrDefault(threadState, threadStackDepth);
+  }
+
+  /**
+   * Gets the depth of the deepest thread stacks, which is the depth to capture the threads with.
+   *
+   * @return The maximum depth of the thread stacks.
+   */
+  public int getMaxThreadStackDepth() {
+    return threadStackDepthsByState.values()
+        .stream()
+        .mapToInt(Integer::intValue)
+        .reduce(threadStackDepth, Math::max);
+  }
+
+  /**
+   * Checks if the dump is GZIP compressed.
+   *
+   * @return true if the dump is GZIP compressed, else false.
+   */
+  public boolean isGzipCompressed() {
+    return gzipCompressed;
+  }
+
+  /**
+   * Checks if the dump is indented.
+   *
+   * @return true if the dump is indented, else false.
+   */
+  public boolean isPrettyPrinted() {
+    return prettyPrinted;
+  }
+
+  /**
+   * Validates a thread stack depth.
+   *
+   * @param threadStackDepth The thread stack depth.
+   * @return The thread stack depth.
+   */
+  private static int validateThreadStackDepth(int threadStackDepth) {
+    if (threadStackDepth < 0) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "JvmInformationDumpOptions.error.negativeThreadStackDepth",
+              threadStackDepth
+          )
+      );
+    }
+    return threadStackDepth;
+  }
+
+  /**
+   * Sections of a JVM information dump, in the order they are written.
+   */
+  public enum Section {
+    /**
+     * Heap memory usage.
+     */
+    HEAP_USAGE,
+    /**
+     * Non heap memory usage.
+     */
+    NON_HEAP_USAGE,
+    /**
+     * Usage of each memory pool.
+     */
+    MEMORY_POOLS,
+    /**
+     * VM options.
+     */
+    VM_OPTIONS,
+    /**
+     * Cumulative garbage collection information of each garbage collector.
+     */
+    GARBAGE_COLLECTION_INFOS,
+    /**
+     * Allocation rate of the whole JVM.
+     */
+    TOTAL_ALLOCATION_RATE,
+    /**
+     * Information and stack of each thread.
+     */
+    THREAD_INFOS
+  }
+}
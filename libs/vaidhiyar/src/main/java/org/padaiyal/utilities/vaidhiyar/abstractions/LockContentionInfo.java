@@ -0,0 +1,195 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Stores the contention on a lock aggregated by LockContentionProfiler: the time threads spent
+ * blocked or waiting on it, which threads owned it meanwhile, and a stack of a contending thread.
+ */
+public class LockContentionInfo {
+
+  /**
+   * Name of the lock, i.e. its class name followed by its identity hash code.
+   */
+  private final String lockName;
+  /**
+   * Number of samples in which a thread was blocked or waiting on the lock.
+   */
+  private final long samplesCount;
+  /**
+   * Number of times threads entered the blocked state while contending on the lock.
+   */
+  private final long blockedCount;
+  /**
+   * Time spent by threads blocked on the lock.
+   */
+  private final Duration blockedTime;
+  /**
+   * Time spent by threads waiting on the lock while another thread owned it.
+   */
+  private final Duration waitedTime;
+  /**
+   * Contended time per name of the thread owning the lock.
+   */
+  private final Map<String, Duration> ownerThreadContendedTimes;
+  /**
+   * Name of the thread whose stack was sampled.
+   */
+  private final String sampleThreadName;
+  /**
+   * Latest stack sampled of a thread contending on the lock, top frame first.
+   */
+  private final String[] sampleStackTrace;
+
+  /**
+   * Abstracts the contention on a lock.
+   *
+   * @param lockName                  Name of the lock.
+   * @param samplesCount              Number of samples in which a thread was blocked or waiting on
+   *                                  the lock.
+   * @param blockedCount              Number of times threads entered the blocked state while
+   *                                  contending on the lock.
+   * @param blockedTime               Time spent by threads blocked on the lock.
+   * @param waitedTime                Time spent by threads waiting on the lock while another thread
+   *                                  owned it.
+   * @param ownerThreadContendedTimes Contended time per name of the thread owning the lock.
+   * @param sampleThreadName          Name of the thread whose stack was sampled.
+   * @param sampleStackTrace          Latest stack sampled of a thread contending on the lock.
+   */
+  public LockContentionInfo(
+      String lockName,
+      long samplesCount,
+      long blockedCount,
+      Duration blockedTime,
+      Duration waitedTime,
+      Map<String, Duration> ownerThreadContendedTimes,
+      String sampleThreadName,
+      String[] sampleStackTrace
+  ) {
+    this.lockName = lockName;
+    this.samplesCount = samplesCount;
+    this.blockedCount = blockedCount;
+    this.blockedTime = blockedTime;
+    this.waitedTime = waitedTime;
+    this.ownerThreadContendedTimes = Collections.unmodifiableMap(ownerThreadContendedTimes);
+    this.sampleThreadName = sampleThreadName;
+    this.sampleStackTrace = sampleStackTrace.clone();
+  }
+
+  /**
+   * Gets the name of the lock.
+   *
+   * @return Name of the lock.
+   */
+  public String getLockName() {
+    return lockName;
+  }
+
+  /**
+   * Gets the number of samples in which a thread was blocked or waiting on the lock.
+   *
+   * @return Number of samples in which a thread was blocked or waiting on the lock.
+   */
+  public long getSamplesCount() {
+    return samplesCount;
+  }
+
+  /**
+   * Gets the number of times threads entered the blocked state while contending on the lock.
+   *
+   * @return Number of times threads entered the blocked state.
+   */
+  public long getBlockedCount() {
+    return blockedCount;
+  }
+
+  /**
+   * Gets the time spent by threads blocked on the lock.
+   *
+   * @return Time spent by threads blocked on the lock.
+   */
+  public Duration getBlockedTime() {
+    return blockedTime;
+  }
+
+  /**
+   * Gets the time spent by threads waiting on the lock while another thread owned it.
+   *
+   * @return Time spent by threads waiting on the lock.
+   */
+  public Duration getWaitedTime() {
+    return waitedTime;
+  }
+
+  /**
+   * Gets the total time spent by threads contending on the lock.
+   *
+   * @return The blocked time plus the waited time.
+   */
+  public Duration getContendedTime() {
+    return blockedTime.plus(waitedTime);
+  }
+
+  /**
+   * Gets the contended time per name of the thread owning the lock.
+   *
+   * @return Contended time per name of the thread owning the lock.
+   */
+  public Map<String, Duration> getOwnerThreadContendedTimes() {
+    return ownerThreadContendedTimes;
+  }
+
+  /**
+   * Gets the name of the thread whose stack was sampled.
+   *
+   * @return Name of the thread whose stack was sampled.
+   */
+  public String getSampleThreadName() {
+    return sampleThreadName;
+  }
+
+  /**
+   * Gets the latest stack sampled of a thread contending on the lock.
+   *
+   * @return Stack frames of the thread, top frame first.
+   */
+  public String[] getSampleStackTrace() {
+    return sampleStackTrace.clone();
+  }
+
+  /**
+   * Gets a JSON representation of an instance of this class.
+   *
+   * @return JSON representation of an instance of this class.
+   */
+  public JsonObject toJsonObject() {
+    JsonObject lockContentionInfoJsonObject = new JsonObject();
+    lockContentionInfoJsonObject.addProperty("lockName", lockName);
+    lockContentionInfoJsonObject.addProperty("samplesCount", samplesCount);
+    lockContentionInfoJsonObject.addProperty("blockedCount", blockedCount);
+    lockContentionInfoJsonObject.addProperty(
+        "blockedTimeInMilliSeconds",
+        blockedTime.toMillis()
+    );
+    lockContentionInfoJsonObject.addProperty("waitedTimeInMilliSeconds", waitedTime.toMillis());
+    JsonObject ownerThreadContendedTimesJsonObject = new JsonObject();
+    ownerThreadContendedTimes.forEach((ownerThreadName, contendedTime) ->
+        ownerThreadContendedTimesJsonObject.addProperty(ownerThreadName, contendedTime.toMillis())
+    );
+    lockContentionInfoJsonObject.add(
+        "ownerThreadContendedTimesInMilliSeconds",
+        ownerThreadContendedTimesJsonObject
+    );
+    lockContentionInfoJsonObject.addProperty("sampleThreadName", sampleThreadName);
+    JsonArray sampleStackTraceJsonArray = new JsonArray();
+    for (String stackFrame : sampleStackTrace) {
+      sampleStackTraceJsonArray.add(stackFrame);
+    }
+    lockContentionInfoJsonObject.add("sampleStackTrace", sampleStackTraceJsonArray);
+    return lockContentionInfoJsonObject;
+  }
+}
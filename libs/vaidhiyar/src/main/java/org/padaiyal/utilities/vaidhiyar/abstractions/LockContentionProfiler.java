@@ -0,0 +1,484 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Profiles the lock contention of the JVM by sampling the threads at a fixed rate, with thread
+ * contention monitoring enabled so that the blocked and waited times are measured.
+ *
+ * <p>On each sample, the blocked and waited time deltas of every thread blocked or waiting on a
+ * lock are attributed to that lock, along with its owner. The delta covers the whole interval
+ * while the lock is the one at the time of the sample, so threads switching locks within an
+ * interval are approximated. Waiting on a lock nobody owns, e.g. an idle pool thread waiting on
+ * a condition, is not contention and is ignored. Threads blocked or waiting since before the
+ * profiler enabled thread contention monitoring have no time measured until they block or wait
+ * again.
+ *
+ * <p>Deadlocks are looked for on each sample too, and every new deadlock is sent to the deadlock
+ * listeners once.
+ */
+public final class LockContentionProfiler implements AutoCloseable {
+
+  /**
+   * Logger object used to log information and errors.
+   */
+  private static final Logger logger = LogManager.getLogger(LockContentionProfiler.class);
+  /**
+   * Number of open profilers relying on thread contention monitoring, per ThreadMXBean. The
+   * monitoring is enabled by the first of them and restored once the last of them is closed, so
+   * that closing a profiler doesn't turn it off under the others.
+   */
+  private static final Map<ThreadMXBean, Integer> threadContentionMonitoringUsersCounts
+      = new IdentityHashMap<>();
+  /**
+   * ThreadMXBeans whose thread contention monitoring was enabled by the profilers, and is to be
+   * disabled once their last profiler is closed.
+   */
+  private static final Set<ThreadMXBean> threadContentionMonitoringEnablingThreadMxBeans
+      = new HashSet<>();
+
+  static {
+    I18nUtility.addResourceBundle(
+        LockContentionProfiler.class,
+        LockContentionProfiler.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * ThreadMXBean the threads are sampled from.
+   */
+  private final ThreadMXBean threadMxBean;
+  /**
+   * Interval between two samples.
+   */
+  private final Duration samplingInterval;
+  /**
+   * Depth of the sampled stacks.
+   */
+  private final int stackDepth;
+  /**
+   * Contention aggregated per lock name.
+   */
+  private final Map<String, LockContention> lockContentions = new HashMap<>();
+  /**
+   * Listeners notified of every new deadlock.
+   */
+  private final List<Consumer<DeadlockEvent>> deadlockListeners = new CopyOnWriteArrayList<>();
+  /**
+   * Executor running the sampler.
+   */
+  private final ScheduledExecutorService scheduledExecutorService;
+  /**
+   * Blocked count, blocked time, waited count and waited time of every thread at the previous
+   * sample.
+   */
+  private Map<Long, long[]> previousThreadTimes = new HashMap<>();
+  /**
+   * IDs of the deadlocked threads last reported, in ascending order.
+   */
+  private long[] reportedDeadlockedThreadIds = new long[0];
+  /**
+   * Whether the profiler is counted as a user of the thread contention monitoring, guarded by
+   * threadContentionMonitoringUsersCounts.
+   */
+  private boolean usesThreadContentionMonitoring;
+
+  /**
+   * Enables thread contention monitoring if supported and starts sampling.
+   *
+   * @param threadMxBean     ThreadMXBean to sample the threads from.
+   * @param samplingInterval Interval between two samples.
+   * @param stackDepth       Depth of the sampled stacks.
+   */
+  public LockContentionProfiler(
+      ThreadMXBean threadMxBean,
+      Duration samplingInterval,
+      int stackDepth
+  ) {
+    Objects.requireNonNull(threadMxBean);
+    Objects.requireNonNull(samplingInterval);
+    if (samplingInterval.isNegative() || samplingInterval.isZero()) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "LockContentionProfiler.error.nonPositiveSamplingInterval",
+              samplingInterval
+          )
+      );
+    }
+    if (stackDepth < 0) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "LockContentionProfiler.error.negativeStackDepth",
+              stackDepth
+          )
+      );
+    }
+    this.threadMxBean = threadMxBean;
+    this.samplingInterval = samplingInterval;
+    this.stackDepth = stackDepth;
+
+    if (threadMxBean.isThreadContentionMonitoringSupported()) {
+      acquireThreadContentionMonitoring();
+    } else {
+      logger.warn(
+          I18nUtility.getString("LockContentionProfiler.warning.contentionMonitoringNotSupported")
+      );
+    }
+
+    scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, LockContentionProfiler.class.getSimpleName());
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduledExecutorService.scheduleAtFixedRate(
+        () -> {
+          try {
+            sample();
+          } catch (RuntimeException e) {
+            // An exception would cancel the next samples.
+            logger.error(e);
+          }
+        },
+        samplingInterval.toNanos(),
+        samplingInterval.toNanos(),
+        TimeUnit.NANOSECONDS
+    );
+  }
+
+  /**
+   * Gets the interval between two samples.
+   *
+   * @return The interval between two samples.
+   */
+  public Duration getSamplingInterval() {
+    return samplingInterval;
+  }
+
+  /**
+   * Gets the depth of the sampled stacks.
+   *
+   * @return The depth of the sampled stacks.
+   */
+  public int getStackDepth() {
+    return stackDepth;
+  }
+
+  /**
+   * Gets the most contended locks since the profiler started or was reset, by descending
+   * contended time, then by descending number of samples.
+   *
+   * @param count Maximum number of locks to get.
+   * @return The most contended locks.
+   */
+  public LockContentionInfo[] getTopContendedLocks(int count) {
+    if (count < 0) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "LockContentionProfiler.error.negativeCount",
+              count
+          )
+      );
+    }
+    synchronized (lockContentions) {
+      return lockContentions.values()
+          .stream()
+          .map(LockContention::toLockContentionInfo)
+          .sorted(
+              Comparator.comparing(LockContentionInfo::getContendedTime)
+                  .thenComparingLong(LockContentionInfo::getSamplesCount)
+                  .reversed()
+          )
+          .limit(count)
+          .toArray(LockContentionInfo[]::new);
+    }
+  }
+
+  /**
+   * Discards the contention aggregated so far.
+   */
+  public void reset() {
+    synchronized (lockContentions) {
+      lockContentions.clear();
+    }
+  }
+
+  /**
+   * Adds a listener notified of every new deadlock, on the sampler thread.
+   *
+   * @param deadlockListener The listener.
+   */
+  public void addDeadlockListener(Consumer<DeadlockEvent> deadlockListener) {
+    deadlockListeners.add(Objects.requireNonNull(deadlockListener));
+  }
+
+  /**
+   * Removes a deadlock listener.
+   *
+   * @param deadlockListener The listener.
+   * @return true if the listener was registered, else false.
+   */
+  public boolean removeDeadlockListener(Consumer<DeadlockEvent> deadlockListener) {
+    return deadlockListeners.remove(deadlockListener);
+  }
+
+  /**
+   * Stops sampling. Thread contention monitoring is restored to its previous state once no other
+   * profiler uses it.
+   */
+  @Override
+  public void close() {
+    scheduledExecutorService.shutdown();
+    try {
+      scheduledExecutorService.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (InterruptedException e) {
+      logger.error(e);
+      Thread.currentThread().interrupt();
+    }
+    releaseThreadContentionMonitoring();
+  }
+
+  /**
+   * Counts the profiler as a user of the thread contention monitoring, enabling it if the
+   * profiler is its first user and it's disabled.
+   */
+  private void acquireThreadContentionMonitoring() {
+    synchronized (threadContentionMonitoringUsersCounts) {
+      int usersCount = threadContentionMonitoringUsersCounts.merge(threadMxBean, 1, Integer::sum);
+      if (usersCount == 1 && !threadMxBean.isThreadContentionMonitoringEnabled()) {
+        threadMxBean.setThreadContentionMonitoringEnabled(true);
+        threadContentionMonitoringEnablingThreadMxBeans.add(threadMxBean);
+      }
+      usesThreadContentionMonitoring = true;
+    }
+  }
+
+  /**
+   * Stops counting the profiler as a user of the thread contention monitoring, disabling it if the
+   * profiler was its last user and the profilers enabled it.
+   */
+  private void releaseThreadContentionMonitoring() {
+    synchronized (threadContentionMonitoringUsersCounts) {
+      if (!usesThreadContentionMonitoring) {
+        return;
+      }
+      usesThreadContentionMonitoring = false;
+      int usersCount = threadContentionMonitoringUsersCounts.get(threadMxBean);
+      if (usersCount > 1) {
+        threadContentionMonitoringUsersCounts.put(threadMxBean, usersCount - 1);
+        return;
+      }
+      threadContentionMonitoringUsersCounts.remove(threadMxBean);
+      if (threadContentionMonitoringEnablingThreadMxBeans.remove(threadMxBean)) {
+        threadMxBean.setThreadContentionMonitoringEnabled(false);
+      }
+    }
+  }
+
+  /**
+   * Samples the threads, aggregates their contention since the previous sample and looks for
+   * deadlocks.
+   */
+  synchronized void sample() {
+    ThreadInfo[] threadInfos = threadMxBean.getThreadInfo(
+        threadMxBean.getAllThreadIds(),
+        stackDepth
+    );
+    Map<Long, long[]> threadTimes = new HashMap<>();
+    for (ThreadInfo threadInfo : threadInfos) {
+      // Terminated since its ID was retrieved.
+      if (threadInfo == null) {
+        continue;
+      }
+      long[] currentTimes = {
+          threadInfo.getBlockedCount(),
+          threadInfo.getBlockedTime(),
+          threadInfo.getWaitedCount(),
+          threadInfo.getWaitedTime()
+        };
+      threadTimes.put(threadInfo.getThreadId(), currentTimes);
+      long[] previousTimes = previousThreadTimes.get(threadInfo.getThreadId());
+      // Without a previous sample, the times can't be attributed to the interval.
+      if (previousTimes != null && threadInfo.getLockName() != null) {
+        aggregate(threadInfo, previousTimes, currentTimes);
+      }
+    }
+    previousThreadTimes = threadTimes;
+    detectDeadlocks();
+  }
+
+  /**
+   * Attributes the contention of a thread since the previous sample to the lock it's blocked or
+   * waiting on.
+   *
+   * @param threadInfo    Information of the thread.
+   * @param previousTimes Blocked count, blocked time, waited count and waited time of the thread at
+   *                      the previous sample.
+   * @param currentTimes  Blocked count, blocked time, waited count and waited time of the thread.
+   */
+  private void aggregate(ThreadInfo threadInfo, long[] previousTimes, long[] currentTimes) {
+    boolean isOwned = threadInfo.getLockOwnerId() != -1;
+    long blockedCountDelta = Math.max(0, currentTimes[0] - previousTimes[0]);
+    // The times are -1 when thread contention monitoring isn't enabled.
+    long blockedTimeDeltaInMilliSeconds = Math.max(0, currentTimes[1] - previousTimes[1]);
+    long waitedTimeDeltaInMilliSeconds = isOwned
+        ? Math.max(0, currentTimes[3] - previousTimes[3])
+        : 0;
+    if (!isOwned && threadInfo.getThreadState() != Thread.State.BLOCKED) {
+      return;
+    }
+    synchronized (lockContentions) {
+      LockContention lockContention = lockContentions.computeIfAbsent(
+          threadInfo.getLockName(),
+          LockContention::new
+      );
+      lockContention.samplesCount++;
+      lockContention.blockedCount += blockedCountDelta;
+      lockContention.blockedTimeInMilliSeconds += blockedTimeDeltaInMilliSeconds;
+      lockContention.waitedTimeInMilliSeconds += waitedTimeDeltaInMilliSeconds;
+      if (isOwned) {
+        lockContention.ownerThreadContendedTimesInMilliSeconds.merge(
+            threadInfo.getLockOwnerName(),
+            blockedTimeDeltaInMilliSeconds + waitedTimeDeltaInMilliSeconds,
+            Long::sum
+        );
+      }
+      lockContention.sampleThreadName = threadInfo.getThreadName();
+      lockContention.sampleStackTrace = Arrays.stream(threadInfo.getStackTrace())
+          .map(StackTraceElement::toString)
+          .toArray(String[]::new);
+    }
+  }
+
+  /**
+   * Looks for deadlocked threads and notifies the deadlock listeners if they weren't already
+   * reported.
+   */
+  private void detectDeadlocks() {
+    long[] deadlockedThreadIds = threadMxBean.isSynchronizerUsageSupported()
+        ? threadMxBean.findDeadlockedThreads()
+        : threadMxBean.findMonitorDeadlockedThreads();
+    if (deadlockedThreadIds == null) {
+      reportedDeadlockedThreadIds = new long[0];
+      return;
+    }
+    Arrays.sort(deadlockedThreadIds);
+    if (Arrays.equals(deadlockedThreadIds, reportedDeadlockedThreadIds)) {
+      return;
+    }
+    reportedDeadlockedThreadIds = deadlockedThreadIds;
+    ExtendedThreadInfo[] deadlockedThreadInfos = Arrays.stream(
+        threadMxBean.getThreadInfo(
+            deadlockedThreadIds,
+            threadMxBean.isObjectMonitorUsageSupported(),
+            threadMxBean.isSynchronizerUsageSupported()
+        ))
+        .filter(Objects::nonNull)
+        .map(threadInfo -> new ExtendedThreadInfo(threadInfo, -1, -1))
+        .toArray(ExtendedThreadInfo[]::new);
+    DeadlockEvent deadlockEvent = new DeadlockEvent(Instant.now(), deadlockedThreadInfos);
+    logger.error(
+        I18nUtility.getString("LockContentionProfiler.error.deadlockDetected"),
+        deadlockEvent.toJsonObject()
+    );
+    for (Consumer<DeadlockEvent> deadlockListener : deadlockListeners) {
+      try {
+        deadlockListener.accept(deadlockEvent);
+      } catch (RuntimeException e) {
+        // A failing listener mustn't prevent the others from being notified.
+        logger.error(e);
+      }
+    }
+  }
+
+  /**
+   * Contention aggregated on a lock, updated by the sampler.
+   */
+  private static final class LockContention {
+
+    /**
+     * Name of the lock.
+     */
+    private final String lockName;
+    /**
+     * Contended time in milliseconds per name of the thread owning the lock.
+     */
+    private final Map<String, Long> ownerThreadContendedTimesInMilliSeconds = new HashMap<>();
+    /**
+     * Number of samples in which a thread was blocked or waiting on the lock.
+     */
+    private long samplesCount;
+    /**
+     * Number of times threads entered the blocked state.
+     */
+    private long blockedCount;
+    /**
+     * Time spent by threads blocked on the lock in milliseconds.
+     */
+    private long blockedTimeInMilliSeconds;
+    /**
+     * Time spent by threads waiting on the lock in milliseconds.
+     */
+    private long waitedTimeInMilliSeconds;
+    /**
+     * Name of the thread whose stack was sampled last.
+     */
+    private String sampleThreadName;
+    /**
+     * Stack sampled last.
+     */
+    private String[] sampleStackTrace;
+
+    /**
+     * Creates an empty contention.
+     *
+     * @param lockName Name of the lock.
+     */
+    private LockContention(String lockName) {
+      this.lockName = lockName;
+    }
+
+    /**
+     * Gets an immutable copy of the contention.
+     *
+     * @return The LockContentionInfo object of the contention.
+     */
+    private LockContentionInfo toLockContentionInfo() {
+      Map<String, Duration> ownerThreadContendedTimes = new HashMap<>();
+      ownerThreadContendedTimesInMilliSeconds.forEach((ownerThreadName, contendedTime) ->
+          ownerThreadContendedTimes.put(ownerThreadName, Duration.ofMillis(contendedTime))
+      );
+      return new LockContentionInfo(
+          lockName,
+          samplesCount,
+          blockedCount,
+          Duration.ofMillis(blockedTimeInMilliSeconds),
+          Duration.ofMillis(waitedTimeInMilliSeconds),
+          ownerThreadContendedTimes,
+          sampleThreadName,
+          sampleStackTrace
+      );
+    }
+  }
+}
@@ -0,0 +1,219 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.Arrays;
+
+/**
+ * Stores the usage information of a single memory pool, e.g. the old generation, the metaspace or
+ * the code cache.
+ */
+public class MemoryPoolInfo {
+
+  /**
+   * Name of the memory pool.
+   */
+  private final String name;
+  /**
+   * Type of the memory pool, heap or non heap.
+   */
+  private final MemoryType type;
+  /**
+   * Names of the memory managers managing the memory pool.
+   */
+  private final String[] memoryManagerNames;
+  /**
+   * Current usage of the memory pool.
+   */
+  private final ExtendedMemoryUsage usage;
+  /**
+   * Peak usage of the memory pool since the JVM started or since the peak was reset.
+   */
+  private final ExtendedMemoryUsage peakUsage;
+  /**
+   * Usage of the memory pool right after the latest collection, null if not supported.
+   */
+  private final ExtendedMemoryUsage collectionUsage;
+  /**
+   * Usage threshold of the memory pool in bytes, -1 if not supported.
+   */
+  private final long usageThresholdInBytes;
+  /**
+   * Number of times the usage crossed the usage threshold, -1 if not supported.
+   */
+  private final long usageThresholdCount;
+  /**
+   * Collection usage threshold of the memory pool in bytes, -1 if not supported.
+   */
+  private final long collectionUsageThresholdInBytes;
+  /**
+   * Number of times the collection usage crossed the collection usage threshold, -1 if not
+   * supported.
+   */
+  private final long collectionUsageThresholdCount;
+
+  /**
+   * Abstracts the usage information of a memory pool.
+   *
+   * @param memoryPoolMxBean MemoryPoolMXBean to retrieve the values from.
+   */
+  public MemoryPoolInfo(MemoryPoolMXBean memoryPoolMxBean) {
+    name = memoryPoolMxBean.getName();
+    type = memoryPoolMxBean.getType();
+    memoryManagerNames = memoryPoolMxBean.getMemoryManagerNames();
+    usage = toExtendedMemoryUsage(memoryPoolMxBean.getUsage());
+    peakUsage = toExtendedMemoryUsage(memoryPoolMxBean.getPeakUsage());
+    collectionUsage = toExtendedMemoryUsage(memoryPoolMxBean.getCollectionUsage());
+    boolean usageThresholdSupported = memoryPoolMxBean.isUsageThresholdSupported();
+    usageThresholdInBytes = usageThresholdSupported ? memoryPoolMxBean.getUsageThreshold() : -1;
+    usageThresholdCount = usageThresholdSupported
+        ? memoryPoolMxBean.getUsageThresholdCount()
+        : -1;
+    boolean collectionUsageThresholdSupported
+        = memoryPoolMxBean.isCollectionUsageThresholdSupported();
+    collectionUsageThresholdInBytes = collectionUsageThresholdSupported
+        ? memoryPoolMxBean.getCollectionUsageThreshold()
+        : -1;
+    collectionUsageThresholdCount = collectionUsageThresholdSupported
+        ? memoryPoolMxBean.getCollectionUsageThresholdCount()
+        : -1;
+  }
+
+  /**
+   * Gets the name of the memory pool.
+   *
+   * @return Name of the memory pool.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the type of the memory pool.
+   *
+   * @return Type of the memory pool.
+   */
+  public MemoryType getType() {
+    return type;
+  }
+
+  /**
+   * Gets the names of the memory managers managing the memory pool.
+   *
+   * @return Names of the memory managers.
+   */
+  public String[] getMemoryManagerNames() {
+    return memoryManagerNames.clone();
+  }
+
+  /**
+   * Gets the current usage of the memory pool.
+   *
+   * @return Current usage of the memory pool, null if the pool is no longer valid.
+   */
+  public ExtendedMemoryUsage getUsage() {
+    return usage;
+  }
+
+  /**
+   * Gets the peak usage of the memory pool.
+   *
+   * @return Peak usage of the memory pool, null if the pool is no longer valid.
+   */
+  public ExtendedMemoryUsage getPeakUsage() {
+    return peakUsage;
+  }
+
+  /**
+   * Gets the usage of the memory pool right after the latest collection.
+   *
+   * @return Usage of the memory pool after the latest collection, null if not supported.
+   */
+  public ExtendedMemoryUsage getCollectionUsage() {
+    return collectionUsage;
+  }
+
+  /**
+   * Gets the usage threshold of the memory pool.
+   *
+   * @return Usage threshold in bytes, 0 if disabled, -1 if not supported.
+   */
+  public long getUsageThresholdInBytes() {
+    return usageThresholdInBytes;
+  }
+
+  /**
+   * Gets the number of times the usage crossed the usage threshold.
+   *
+   * @return Number of times the usage threshold was crossed, -1 if not supported.
+   */
+  public long getUsageThresholdCount() {
+    return usageThresholdCount;
+  }
+
+  /**
+   * Gets the collection usage threshold of the memory pool.
+   *
+   * @return Collection usage threshold in bytes, 0 if disabled, -1 if not supported.
+   */
+  public long getCollectionUsageThresholdInBytes() {
+    return collectionUsageThresholdInBytes;
+  }
+
+  /**
+   * Gets the number of times the collection usage crossed the collection usage threshold.
+   *
+   * @return Number of times the collection usage threshold was crossed, -1 if not supported.
+   */
+  public long getCollectionUsageThresholdCount() {
+    return collectionUsageThresholdCount;
+  }
+
+  /**
+   * Gets a JSON representation of an instance of this class.
+   *
+   * @return JSON representation of an instance of this class.
+   */
+  public JsonObject toJsonObject() {
+    JsonObject memoryPoolInfoJsonObject = new JsonObject();
+    memoryPoolInfoJsonObject.addProperty("name", name);
+    memoryPoolInfoJsonObject.addProperty("type", type.name());
+    JsonArray memoryManagerNamesJsonArray = new JsonArray();
+    Arrays.stream(memoryManagerNames)
+        .forEach(memoryManagerNamesJsonArray::add);
+    memoryPoolInfoJsonObject.add("memoryManagerNames", memoryManagerNamesJsonArray);
+    if (usage != null) {
+      memoryPoolInfoJsonObject.add("usage", usage.toJsonObject());
+    }
+    if (peakUsage != null) {
+      memoryPoolInfoJsonObject.add("peakUsage", peakUsage.toJsonObject());
+    }
+    if (collectionUsage != null) {
+      memoryPoolInfoJsonObject.add("collectionUsage", collectionUsage.toJsonObject());
+    }
+    memoryPoolInfoJsonObject.addProperty("usageThresholdInBytes", usageThresholdInBytes);
+    memoryPoolInfoJsonObject.addProperty("usageThresholdCount", usageThresholdCount);
+    memoryPoolInfoJsonObject.addProperty(
+        "collectionUsageThresholdInBytes",
+        collectionUsageThresholdInBytes
+    );
+    memoryPoolInfoJsonObject.addProperty(
+        "collectionUsageThresholdCount",
+        collectionUsageThresholdCount
+    );
+    return memoryPoolInfoJsonObject;
+  }
+
+  /**
+   * Wraps a MemoryUsage object, which may be null.
+   *
+   * @param memoryUsage MemoryUsage object to wrap.
+   * @return The ExtendedMemoryUsage object, null if memoryUsage is null.
+   */
+  private static ExtendedMemoryUsage toExtendedMemoryUsage(MemoryUsage memoryUsage) {
+    return memoryUsage == null ? null : new ExtendedMemoryUsage(memoryUsage);
+  }
+}
@@ -0,0 +1,259 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationFilter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.padaiyal.utilities.I18nUtility;
+import org.padaiyal.utilities.vaidhiyar.abstractions.MemoryThresholdEvent.ThresholdType;
+
+/**
+ * Tracks the usage of every memory pool and reports the crossings of their usage and collection
+ * usage thresholds. The crossings are detected by the JVM, which notifies them through the
+ * MemoryMXBean, so the listeners are called as soon as a pool fills up without any polling.
+ */
+public final class MemoryPoolMonitor implements AutoCloseable {
+
+  /**
+   * Logger object used to log information and errors.
+   */
+  private static final Logger logger = LogManager.getLogger(MemoryPoolMonitor.class);
+
+  static {
+    I18nUtility.addResourceBundle(
+        MemoryPoolMonitor.class,
+        MemoryPoolMonitor.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Memory pools of the JVM, by name.
+   */
+  private final Map<String, MemoryPoolMXBean> memoryPoolMxBeans = new LinkedHashMap<>();
+  /**
+   * Emitter of the memory threshold notifications.
+   */
+  private final NotificationEmitter notificationEmitter;
+  /**
+   * Listeners notified of every threshold crossing.
+   */
+  private final List<Consumer<MemoryThresholdEvent>> listeners = new CopyOnWriteArrayList<>();
+  /**
+   * Listener registered with the MemoryMXBean.
+   */
+  private final NotificationListener notificationListener = (notification, handback) ->
+      handleNotification(notification);
+  /**
+   * Filter only letting the threshold notifications through.
+   */
+  private final NotificationFilter notificationFilter = notification ->
+      MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED.equals(notification.getType())
+          || MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(
+              notification.getType()
+          );
+
+  /**
+   * Creates a monitor and starts listening to the threshold notifications.
+   */
+  public MemoryPoolMonitor() {
+    ManagementFactory.getMemoryPoolMXBeans()
+        .forEach(memoryPoolMxBean -> memoryPoolMxBeans.put(
+            memoryPoolMxBean.getName(),
+            memoryPoolMxBean
+        ));
+    notificationEmitter = (NotificationEmitter) ManagementFactory.getMemoryMXBean();
+    notificationEmitter.addNotificationListener(notificationListener, notificationFilter, null);
+  }
+
+  /**
+   * Gets the names of the memory pools.
+   *
+   * @return The names of the memory pools.
+   */
+  public String[] getMemoryPoolNames() {
+    return memoryPoolMxBeans.keySet()
+        .toArray(String[]::new);
+  }
+
+  /**
+   * Gets the usage information of all the valid memory pools.
+   *
+   * @return The usage information of the memory pools.
+   */
+  public MemoryPoolInfo[] getMemoryPoolInfos() {
+    return memoryPoolMxBeans.values()
+        .stream()
+        .filter(MemoryPoolMXBean::isValid)
+        .map(MemoryPoolInfo::new)
+        .toArray(MemoryPoolInfo[]::new);
+  }
+
+  /**
+   * Gets the usage information of a memory pool.
+   *
+   * @param poolName Name of the memory pool.
+   * @return The usage information of the memory pool.
+   */
+  public MemoryPoolInfo getMemoryPoolInfo(String poolName) {
+    return new MemoryPoolInfo(getMemoryPoolMxBean(poolName));
+  }
+
+  /**
+   * Sets the usage threshold of a memory pool. A USAGE event is notified when the usage of the pool
+   * grows beyond the threshold, and again only after it has dropped below it.
+   *
+   * @param poolName         Name of the memory pool.
+   * @param thresholdInBytes Threshold in bytes, 0 to disable the threshold.
+   */
+  public void setUsageThreshold(String poolName, long thresholdInBytes) {
+    MemoryPoolMXBean memoryPoolMxBean = getMemoryPoolMxBean(poolName);
+    validateThreshold(
+        poolName,
+        thresholdInBytes,
+        memoryPoolMxBean.isUsageThresholdSupported()
+    );
+    memoryPoolMxBean.setUsageThreshold(thresholdInBytes);
+  }
+
+  /**
+   * Sets the collection usage threshold of a memory pool. A COLLECTION_USAGE event is notified
+   * after every collection which leaves more than the threshold in use in the pool. Unlike the
+   * usage threshold, it isn't affected by garbage waiting to be collected.
+   *
+   * @param poolName         Name of the memory pool.
+   * @param thresholdInBytes Threshold in bytes, 0 to disable the threshold.
+   */
+  public void setCollectionUsageThreshold(String poolName, long thresholdInBytes) {
+    MemoryPoolMXBean memoryPoolMxBean = getMemoryPoolMxBean(poolName);
+    validateThreshold(
+        poolName,
+        thresholdInBytes,
+        memoryPoolMxBean.isCollectionUsageThresholdSupported()
+    );
+    memoryPoolMxBean.setCollectionUsageThreshold(thresholdInBytes);
+  }
+
+  /**
+   * Adds a listener notified of every threshold crossing, on the thread delivering the JMX
+   * notifications.
+   *
+   * @param listener The listener.
+   */
+  public void addListener(Consumer<MemoryThresholdEvent> listener) {
+    listeners.add(Objects.requireNonNull(listener));
+  }
+
+  /**
+   * Removes a listener.
+   *
+   * @param listener The listener.
+   * @return true if the listener was registered, else false.
+   */
+  public boolean removeListener(Consumer<MemoryThresholdEvent> listener) {
+    return listeners.remove(listener);
+  }
+
+  /**
+   * Stops listening to the threshold notifications. The thresholds are left as they are.
+   */
+  @Override
+  public void close() {
+    try {
+      notificationEmitter.removeNotificationListener(notificationListener);
+    } catch (ListenerNotFoundException e) {
+      // Already removed by a previous call.
+    }
+  }
+
+  /**
+   * Gets a memory pool.
+   *
+   * @param poolName Name of the memory pool.
+   * @return The memory pool.
+   */
+  private MemoryPoolMXBean getMemoryPoolMxBean(String poolName) {
+    Objects.requireNonNull(poolName);
+    MemoryPoolMXBean memoryPoolMxBean = memoryPoolMxBeans.get(poolName);
+    if (memoryPoolMxBean == null) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "MemoryPoolMonitor.error.unknownMemoryPool",
+              poolName
+          )
+      );
+    }
+    return memoryPoolMxBean;
+  }
+
+  /**
+   * Validates a threshold to set on a memory pool.
+   *
+   * @param poolName           Name of the memory pool.
+   * @param thresholdInBytes   Threshold in bytes.
+   * @param thresholdSupported true if the memory pool supports the threshold, else false.
+   */
+  private static void validateThreshold(
+      String poolName,
+      long thresholdInBytes,
+      boolean thresholdSupported
+  ) {
+    if (thresholdInBytes < 0) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "MemoryPoolMonitor.error.negativeThreshold",
+              thresholdInBytes
+          )
+      );
+    } else if (!thresholdSupported) {
+      throw new UnsupportedOperationException(
+          I18nUtility.getFormattedString(
+              "MemoryPoolMonitor.error.thresholdNotSupported",
+              poolName
+          )
+      );
+    }
+  }
+
+  /**
+   * Notifies the listeners of the threshold crossing described by a notification.
+   *
+   * @param notification Memory threshold notification.
+   */
+  private void handleNotification(Notification notification) {
+    MemoryNotificationInfo memoryNotificationInfo
+        = MemoryNotificationInfo.from((CompositeData) notification.getUserData());
+    MemoryThresholdEvent memoryThresholdEvent = new MemoryThresholdEvent(
+        memoryNotificationInfo.getPoolName(),
+        MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED.equals(notification.getType())
+            ? ThresholdType.USAGE
+            : ThresholdType.COLLECTION_USAGE,
+        new ExtendedMemoryUsage(memoryNotificationInfo.getUsage()),
+        memoryNotificationInfo.getCount(),
+        Instant.ofEpochMilli(notification.getTimeStamp())
+    );
+    for (Consumer<MemoryThresholdEvent> listener : listeners) {
+      try {
+        listener.accept(memoryThresholdEvent);
+      } catch (RuntimeException e) {
+        // A failing listener mustn't prevent the others from being notified.
+        logger.error(e);
+      }
+    }
+  }
+}
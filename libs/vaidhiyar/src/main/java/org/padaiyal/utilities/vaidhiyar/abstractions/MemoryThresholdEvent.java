@@ -0,0 +1,129 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import com.google.gson.JsonObject;
+import java.time.Instant;
+
+/**
+ * Stores the information of a memory pool crossing its usage or collection usage threshold, as
+ * notified by the MemoryMXBean.
+ */
+public class MemoryThresholdEvent {
+
+  /**
+   * Name of the memory pool.
+   */
+  private final String poolName;
+  /**
+   * Threshold that was crossed.
+   */
+  private final ThresholdType thresholdType;
+  /**
+   * Usage of the memory pool when the threshold was crossed.
+   */
+  private final ExtendedMemoryUsage usage;
+  /**
+   * Number of times the threshold was crossed, including this one.
+   */
+  private final long count;
+  /**
+   * Time at which the crossing was notified.
+   */
+  private final Instant timestamp;
+
+  /**
+   * Abstracts the information of a threshold crossing.
+   *
+   * @param poolName      Name of the memory pool.
+   * @param thresholdType Threshold that was crossed.
+   * @param usage         Usage of the memory pool when the threshold was crossed.
+   * @param count         Number of times the threshold was crossed, including this one.
+   * @param timestamp     Time at which the crossing was notified.
+   */
+  public MemoryThresholdEvent(
+      String poolName,
+      ThresholdType thresholdType,
+      ExtendedMemoryUsage usage,
+      long count,
+      Instant timestamp
+  ) {
+    this.poolName = poolName;
+    this.thresholdType = thresholdType;
+    this.usage = usage;
+    this.count = count;
+    this.timestamp = timestamp;
+  }
+
+  /**
+   * Gets the name of the memory pool.
+   *
+   * @return Name of the memory pool.
+   */
+  public String getPoolName() {
+    return poolName;
+  }
+
+  /**
+   * Gets the threshold that was crossed.
+   *
+   * @return Threshold that was crossed.
+   */
+  public ThresholdType getThresholdType() {
+    return thresholdType;
+  }
+
+  /**
+   * Gets the usage of the memory pool when the threshold was crossed.
+   *
+   * @return Usage of the memory pool.
+   */
+  public ExtendedMemoryUsage getUsage() {
+    return usage;
+  }
+
+  /**
+   * Gets the number of times the threshold was crossed, including this one.
+   *
+   * @return Number of times the threshold was crossed.
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Gets the time at which the crossing was notified.
+   *
+   * @return Time at which the crossing was notified.
+   */
+  public Instant getTimestamp() {
+    return timestamp;
+  }
+
+  /**
+   * Gets a JSON representation of an instance of this class.
+   *
+   * @return JSON representation of an instance of this class.
+   */
+  public JsonObject toJsonObject() {
+    JsonObject memoryThresholdEventJsonObject = new JsonObject();
+    memoryThresholdEventJsonObject.addProperty("poolName", poolName);
+    memoryThresholdEventJsonObject.addProperty("thresholdType", thresholdType.name());
+    memoryThresholdEventJsonObject.add("usage", usage.toJsonObject());
+    memoryThresholdEventJsonObject.addProperty("count", count);
+    memoryThresholdEventJsonObject.addProperty("timestamp", timestamp.toString());
+    return memoryThresholdEventJsonObject;
+  }
+
+  /**
+   * Thresholds of a memory pool.
+   */
+  public enum ThresholdType {
+    /**
+     * Threshold on the current usage, checked by the JVM as the usage grows.
+     */
+    USAGE,
+    /**
+     * Threshold on the usage right after a collection, i.e. on the live data of the pool.
+     */
+    COLLECTION_USAGE
+  }
+}
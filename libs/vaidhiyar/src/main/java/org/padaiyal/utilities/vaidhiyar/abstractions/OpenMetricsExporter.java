@@ -0,0 +1,543 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.MemoryUsage;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Serves the JVM metrics in the OpenMetrics text format, for Prometheus to scrape, with an HTTP
+ * server bound to the loopback address.
+ *
+ * <p>The metrics are the heap, non heap and memory pool usages, the garbage collection counters,
+ * and the thread counts, CPU usages and allocations per thread group. Threads are grouped by
+ * their names stripped of their trailing digits, so that the threads of a pool share a group.
+ *
+ * <p>The metrics are encoded into a reused buffer at most once per cache interval, and the
+ * scrapes within the interval are served the same encoded bytes.
+ */
+public final class OpenMetricsExporter implements AutoCloseable {
+
+  /**
+   * Path the metrics are served at.
+   */
+  public static final String METRICS_PATH = "/metrics";
+  /**
+   * Content type of the OpenMetrics text format.
+   */
+  static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+  /**
+   * Logger object used to log information and errors.
+   */
+  private static final Logger logger = LogManager.getLogger(OpenMetricsExporter.class);
+
+  static {
+    I18nUtility.addResourceBundle(
+        OpenMetricsExporter.class,
+        OpenMetricsExporter.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Supplies the telemetry the memory, garbage collection and thread metrics are computed from.
+   */
+  private final Supplier<TelemetrySnapshot> telemetrySnapshotSupplier;
+  /**
+   * Supplies the usages of the memory pools.
+   */
+  private final Supplier<MemoryPoolInfo[]> memoryPoolInfosSupplier;
+  /**
+   * Minimum interval between two encodings of the metrics.
+   */
+  private final Duration cacheInterval;
+  /**
+   * Executor handling the HTTP requests.
+   */
+  private final ExecutorService executorService;
+  /**
+   * HTTP server serving the metrics.
+   */
+  private final HttpServer httpServer;
+  /**
+   * Buffer the metrics are encoded in, reused across the encodings.
+   */
+  private final StringBuilder metricsBuilder = new StringBuilder(16_384);
+  /**
+   * Metrics per thread group, reused across the encodings: threads count, sum of the known CPU
+   * usages, sum of the known allocated bytes and sum of the known allocation rates.
+   */
+  private final Map<String, double[]> threadGroupMetrics = new TreeMap<>();
+  /**
+   * Latest encoded metrics, or null if not encoded yet.
+   */
+  private byte[] encodedMetrics;
+  /**
+   * System.nanoTime() of the latest encoding.
+   */
+  private long encodedMetricsNanoTime;
+  /**
+   * Number of times the metrics were encoded.
+   */
+  private long encodingsCount;
+
+  /**
+   * Starts serving the metrics at http://localhost:port/metrics.
+   *
+   * @param port                      Port to listen on, or 0 for an ephemeral port.
+   * @param cacheInterval             Minimum interval between two encodings of the metrics, zero
+   *                                  to encode them on every scrape.
+   * @param telemetrySnapshotSupplier Supplies the telemetry the memory, garbage collection and
+   *                                  thread metrics are computed from.
+   * @param memoryPoolInfosSupplier   Supplies the usages of the memory pools.
+   * @throws IOException If the server cannot listen on the port.
+   */
+  public OpenMetricsExporter(
+      int port,
+      Duration cacheInterval,
+      Supplier<TelemetrySnapshot> telemetrySnapshotSupplier,
+      Supplier<MemoryPoolInfo[]> memoryPoolInfosSupplier
+  ) throws IOException {
+    if (port < 0 || port > 65_535) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString("OpenMetricsExporter.error.invalidPort", port)
+      );
+    }
+    Objects.requireNonNull(cacheInterval);
+    if (cacheInterval.isNegative()) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "OpenMetricsExporter.error.negativeCacheInterval",
+              cacheInterval
+          )
+      );
+    }
+    this.cacheInterval = cacheInterval;
+    this.telemetrySnapshotSupplier = Objects.requireNonNull(telemetrySnapshotSupplier);
+    this.memoryPoolInfosSupplier = Objects.requireNonNull(memoryPoolInfosSupplier);
+
+    httpServer = HttpServer.create(
+        new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+        0
+    );
+    executorService = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, OpenMetricsExporter.class.getSimpleName());
+      thread.setDaemon(true);
+      return thread;
+    });
+    httpServer.setExecutor(executorService);
+    httpServer.createContext(METRICS_PATH, this::handle);
+    httpServer.start();
+  }
+
+  /**
+   * Gets the port the server listens on.
+   *
+   * @return The port the server listens on.
+   */
+  public int getPort() {
+    return httpServer.getAddress().getPort();
+  }
+
+  /**
+   * Gets the minimum interval between two encodings of the metrics.
+   *
+   * @return Minimum interval between two encodings of the metrics.
+   */
+  public Duration getCacheInterval() {
+    return cacheInterval;
+  }
+
+  /**
+   * Gets the number of times the metrics were encoded.
+   *
+   * @return Number of times the metrics were encoded.
+   */
+  public synchronized long getEncodingsCount() {
+    return encodingsCount;
+  }
+
+  /**
+   * Stops serving the metrics.
+   */
+  @Override
+  public void close() {
+    httpServer.stop(0);
+    executorService.shutdown();
+    try {
+      executorService.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (InterruptedException e) {
+      logger.error(e);
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Gets the metrics in the OpenMetrics text format, encoding them if the latest encoding is
+   * older than the cache interval.
+   *
+   * @return The UTF-8 encoded metrics.
+   */
+  synchronized byte[] getEncodedMetrics() {
+    long nanoTime = System.nanoTime();
+    if (encodedMetrics != null && nanoTime - encodedMetricsNanoTime < cacheInterval.toNanos()) {
+      return encodedMetrics;
+    }
+    metricsBuilder.setLength(0);
+    TelemetrySnapshot telemetrySnapshot = telemetrySnapshotSupplier.get();
+    appendMemoryMetrics(telemetrySnapshot);
+    appendMemoryPoolMetrics(memoryPoolInfosSupplier.get());
+    appendGarbageCollectionMetrics(telemetrySnapshot.getGarbageCollectionInfos());
+    appendThreadGroupMetrics(telemetrySnapshot);
+    metricsBuilder.append("# EOF\n");
+    encodedMetrics = metricsBuilder.toString().getBytes(StandardCharsets.UTF_8);
+    encodedMetricsNanoTime = nanoTime;
+    encodingsCount++;
+    return encodedMetrics;
+  }
+
+  /**
+   * Serves the metrics to a GET or HEAD request.
+   *
+   * @param httpExchange The HTTP request and its response.
+   * @throws IOException If there is an issue sending the response.
+   */
+  private void handle(HttpExchange httpExchange) throws IOException {
+    try {
+      String requestMethod = httpExchange.getRequestMethod();
+      if (!requestMethod.equals("GET") && !requestMethod.equals("HEAD")) {
+        httpExchange.getResponseHeaders().set("Allow", "GET, HEAD");
+        httpExchange.sendResponseHeaders(405, -1);
+        return;
+      }
+      byte[] metrics;
+      try {
+        metrics = getEncodedMetrics();
+      } catch (RuntimeException e) {
+        logger.error(e);
+        httpExchange.sendResponseHeaders(500, -1);
+        return;
+      }
+      httpExchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+      if (requestMethod.equals("HEAD")) {
+        httpExchange.sendResponseHeaders(200, -1);
+        return;
+      }
+      httpExchange.sendResponseHeaders(200, metrics.length);
+      try (OutputStream responseBody = httpExchange.getResponseBody()) {
+        responseBody.write(metrics);
+      }
+    } finally {
+      httpExchange.close();
+    }
+  }
+
+  /**
+   * Appends the heap and non heap usages.
+   *
+   * @param telemetrySnapshot The telemetry.
+   */
+  private void appendMemoryMetrics(TelemetrySnapshot telemetrySnapshot) {
+    MemoryUsage heapUsage = telemetrySnapshot.getHeapUsage();
+    MemoryUsage nonHeapUsage = telemetrySnapshot.getNonHeapUsage();
+    appendFamily("jvm_memory_used_bytes", "gauge", "bytes", "Memory used, by area.");
+    appendSample("jvm_memory_used_bytes", "area", "heap", heapUsage.getUsed());
+    appendSample("jvm_memory_used_bytes", "area", "nonheap", nonHeapUsage.getUsed());
+    appendFamily(
+        "jvm_memory_committed_bytes",
+        "gauge",
+        "bytes",
+        "Memory committed by the JVM, by area."
+    );
+    appendSample("jvm_memory_committed_bytes", "area", "heap", heapUsage.getCommitted());
+    appendSample("jvm_memory_committed_bytes", "area", "nonheap", nonHeapUsage.getCommitted());
+    appendFamily(
+        "jvm_memory_max_bytes",
+        "gauge",
+        "bytes",
+        "Maximum memory usable by the JVM, by area, if defined."
+    );
+    appendDefinedSample("jvm_memory_max_bytes", "area", "heap", heapUsage.getMax());
+    appendDefinedSample("jvm_memory_max_bytes", "area", "nonheap", nonHeapUsage.getMax());
+  }
+
+  /**
+   * Appends the usages of the memory pools.
+   *
+   * @param memoryPoolInfos The memory pools.
+   */
+  private void appendMemoryPoolMetrics(MemoryPoolInfo[] memoryPoolInfos) {
+    appendFamily("jvm_memory_pool_used_bytes", "gauge", "bytes", "Memory used, by pool.");
+    for (MemoryPoolInfo memoryPoolInfo : memoryPoolInfos) {
+      // Pools no longer valid have no usage.
+      if (memoryPoolInfo.getUsage() != null) {
+        appendSample(
+            "jvm_memory_pool_used_bytes",
+            "pool",
+            memoryPoolInfo.getName(),
+            memoryPoolInfo.getUsage().getUsed()
+        );
+      }
+    }
+    appendFamily(
+        "jvm_memory_pool_committed_bytes",
+        "gauge",
+        "bytes",
+        "Memory committed by the JVM, by pool."
+    );
+    for (MemoryPoolInfo memoryPoolInfo : memoryPoolInfos) {
+      if (memoryPoolInfo.getUsage() != null) {
+        appendSample(
+            "jvm_memory_pool_committed_bytes",
+            "pool",
+            memoryPoolInfo.getName(),
+            memoryPoolInfo.getUsage().getCommitted()
+        );
+      }
+    }
+    appendFamily(
+        "jvm_memory_pool_max_bytes",
+        "gauge",
+        "bytes",
+        "Maximum memory usable by the JVM, by pool, if defined."
+    );
+    for (MemoryPoolInfo memoryPoolInfo : memoryPoolInfos) {
+      if (memoryPoolInfo.getUsage() != null) {
+        appendDefinedSample(
+            "jvm_memory_pool_max_bytes",
+            "pool",
+            memoryPoolInfo.getName(),
+            memoryPoolInfo.getUsage().getMax()
+        );
+      }
+    }
+  }
+
+  /**
+   * Appends the garbage collection counters.
+   *
+   * @param garbageCollectionInfos The garbage collection information of the collectors.
+   */
+  private void appendGarbageCollectionMetrics(GarbageCollectionInfo[] garbageCollectionInfos) {
+    appendFamily(
+        "jvm_gc_collections",
+        "counter",
+        null,
+        "Garbage collections, by collector."
+    );
+    for (GarbageCollectionInfo garbageCollectionInfo : garbageCollectionInfos) {
+      appendSample(
+          "jvm_gc_collections_total",
+          "gc",
+          garbageCollectionInfo.getName(),
+          garbageCollectionInfo.getCollectionCount()
+      );
+    }
+    appendFamily(
+        "jvm_gc_collection_seconds",
+        "counter",
+        "seconds",
+        "Time spent in garbage collections, by collector."
+    );
+    for (GarbageCollectionInfo garbageCollectionInfo : garbageCollectionInfos) {
+      appendSample(
+          "jvm_gc_collection_seconds_total",
+          "gc",
+          garbageCollectionInfo.getName(),
+          garbageCollectionInfo.getCollectionTime().toMillis() / 1_000.0
+      );
+    }
+  }
+
+  /**
+   * Appends the thread counts, CPU usages and allocations per thread group.
+   *
+   * @param telemetrySnapshot The telemetry.
+   */
+  private void appendThreadGroupMetrics(TelemetrySnapshot telemetrySnapshot) {
+    // Sums reset rather than maps cleared, so that the groups seen before aren't reallocated.
+    threadGroupMetrics.values().forEach(metrics -> Arrays.fill(metrics, 0));
+    for (int index = 0; index < telemetrySnapshot.getThreadsCount(); index++) {
+      double[] metrics = threadGroupMetrics.computeIfAbsent(
+          getThreadGroupName(telemetrySnapshot.getThreadNameAt(index)),
+          threadGroupName -> new double[4]
+      );
+      metrics[0]++;
+      // Unknown values are negative.
+      metrics[1] += Math.max(telemetrySnapshot.getCpuUsageAt(index), 0);
+      metrics[2] += Math.max(telemetrySnapshot.getAllocatedBytesAt(index), 0);
+      metrics[3] += Math.max(telemetrySnapshot.getAllocationRateAt(index), 0);
+    }
+    // Groups whose threads all terminated are dropped.
+    threadGroupMetrics.values().removeIf(metrics -> metrics[0] == 0);
+
+    appendFamily("jvm_thread_group_threads", "gauge", null, "Live threads, by thread group.");
+    threadGroupMetrics.forEach((threadGroupName, metrics) ->
+        appendSample("jvm_thread_group_threads", "group", threadGroupName, (long) metrics[0])
+    );
+    appendFamily(
+        "jvm_thread_group_cpu_usage_ratio",
+        "gauge",
+        "ratio",
+        "CPU usage of the threads, by thread group, as a ratio of one core."
+    );
+    threadGroupMetrics.forEach((threadGroupName, metrics) ->
+        appendSample(
+            "jvm_thread_group_cpu_usage_ratio",
+            "group",
+            threadGroupName,
+            metrics[1] / 100
+        )
+    );
+    appendFamily(
+        "jvm_thread_group_allocated_bytes",
+        "gauge",
+        "bytes",
+        "Memory allocated by the live threads since they started, by thread group."
+    );
+    threadGroupMetrics.forEach((threadGroupName, metrics) ->
+        appendSample(
+            "jvm_thread_group_allocated_bytes",
+            "group",
+            threadGroupName,
+            (long) metrics[2]
+        )
+    );
+    appendFamily(
+        "jvm_thread_group_allocation_rate_bytes_per_second",
+        "gauge",
+        "bytes_per_second",
+        "Allocation rate of the threads, by thread group."
+    );
+    threadGroupMetrics.forEach((threadGroupName, metrics) ->
+        appendSample(
+            "jvm_thread_group_allocation_rate_bytes_per_second",
+            "group",
+            threadGroupName,
+            metrics[3]
+        )
+    );
+  }
+
+  /**
+   * Appends the metadata of a metric family.
+   *
+   * @param name Name of the family.
+   * @param type Type of the family.
+   * @param unit Unit of the family, or null if it has none.
+   * @param help Description of the family.
+   */
+  private void appendFamily(String name, String type, String unit, String help) {
+    metricsBuilder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    if (unit != null) {
+      metricsBuilder.append("# UNIT ").append(name).append(' ').append(unit).append('\n');
+    }
+    metricsBuilder.append("# HELP ").append(name).append(' ').append(help).append('\n');
+  }
+
+  /**
+   * Appends the name and label of a sample.
+   *
+   * @param name       Name of the sample.
+   * @param labelName  Name of the label of the sample.
+   * @param labelValue Value of the label of the sample.
+   */
+  private void appendSampleName(String name, String labelName, String labelValue) {
+    metricsBuilder.append(name).append('{').append(labelName).append("=\"");
+    for (int index = 0; index < labelValue.length(); index++) {
+      char character = labelValue.charAt(index);
+      switch (character) {
+        case '\\':
+          metricsBuilder.append("\\\\");
+          break;
+        case '"':
+          metricsBuilder.append("\\\"");
+          break;
+        case '\n':
+          metricsBuilder.append("\\n");
+          break;
+        default:
+          metricsBuilder.append(character);
+      }
+    }
+    metricsBuilder.append("\"} ");
+  }
+
+  /**
+   * Appends an integral sample.
+   *
+   * @param name       Name of the sample.
+   * @param labelName  Name of the label of the sample.
+   * @param labelValue Value of the label of the sample.
+   * @param value      Value of the sample.
+   */
+  private void appendSample(String name, String labelName, String labelValue, long value) {
+    appendSampleName(name, labelName, labelValue);
+    metricsBuilder.append(value).append('\n');
+  }
+
+  /**
+   * Appends a floating point sample.
+   *
+   * @param name       Name of the sample.
+   * @param labelName  Name of the label of the sample.
+   * @param labelValue Value of the label of the sample.
+   * @param value      Value of the sample.
+   */
+  private void appendSample(String name, String labelName, String labelValue, double value) {
+    appendSampleName(name, labelName, labelValue);
+    if (Double.isNaN(value)) {
+      metricsBuilder.append("NaN");
+    } else if (Double.isInfinite(value)) {
+      metricsBuilder.append(value > 0 ? "+Inf" : "-Inf");
+    } else {
+      metricsBuilder.append(value);
+    }
+    metricsBuilder.append('\n');
+  }
+
+  /**
+   * Appends an integral sample if its value is defined, i.e. not negative.
+   *
+   * @param name       Name of the sample.
+   * @param labelName  Name of the label of the sample.
+   * @param labelValue Value of the label of the sample.
+   * @param value      Value of the sample, negative if undefined.
+   */
+  private void appendDefinedSample(String name, String labelName, String labelValue, long value) {
+    if (value >= 0) {
+      appendSample(name, labelName, labelValue, value);
+    }
+  }
+
+  /**
+   * Gets the group of a thread, i.e. its name stripped of its trailing digits.
+   *
+   * @param threadName Name of the thread.
+   * @return The name of the group of the thread.
+   */
+  static String getThreadGroupName(String threadName) {
+    int length = threadName.length();
+    while (length > 0 && Character.isDigit(threadName.charAt(length - 1))) {
+      length--;
+    }
+    return length == 0 ? threadName : threadName.substring(0, length);
+  }
+}
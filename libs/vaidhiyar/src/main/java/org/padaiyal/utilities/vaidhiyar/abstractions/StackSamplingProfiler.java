@@ -0,0 +1,547 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Sampling stack profiler: captures the stacks of the threads at a fixed rate, either of the
+ * RUNNABLE threads only or of all of them, and aggregates them in a trie of interned frames. Each
+ * sampled stack is counted once, and weighted by the CPU time its thread used since the previous
+ * sample, estimated from the CPU usages of the thread usage snapshots. The profile is written as
+ * collapsed stacks, the input format of the flame graph tools, or as a JSON tree.
+ *
+ * <p>The CPU time used by the profiler itself is capped: when a sample costs more than
+ * maxCpuOverhead of the time until the next one, the next sample is delayed accordingly.
+ */
+public final class StackSamplingProfiler implements AutoCloseable {
+
+  /**
+   * Initial capacity of the trie and of its child table, it has to be a power of 2.
+   */
+  private static final int INITIAL_CAPACITY = 1 << 10;
+  /**
+   * Key used to mark an empty slot of the child table, node keys are never negative.
+   */
+  private static final long EMPTY_SLOT = -1;
+  /**
+   * Logger object used to log information and errors.
+   */
+  private static final Logger logger = LogManager.getLogger(StackSamplingProfiler.class);
+
+  static {
+    I18nUtility.addResourceBundle(
+        StackSamplingProfiler.class,
+        StackSamplingProfiler.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * ThreadMXBean the stacks are sampled from.
+   */
+  private final ThreadMXBean threadMxBean;
+  /**
+   * Supplies the latest thread CPU usages, used to weight the samples.
+   */
+  private final Supplier<ThreadUsageSnapshot> threadUsageSnapshotSupplier;
+  /**
+   * Interval between two samples, unless the CPU overhead cap delays them.
+   */
+  private final Duration samplingInterval;
+  /**
+   * Depth of the sampled stacks.
+   */
+  private final int stackDepth;
+  /**
+   * Whether only the RUNNABLE threads are sampled.
+   */
+  private final boolean runnableThreadsOnly;
+  /**
+   * Maximum fraction of one core the profiler may use.
+   */
+  private final double maxCpuOverhead;
+  /**
+   * Names of the interned frames, indexed by frame ID.
+   */
+  private final List<String> frameNames = new ArrayList<>();
+  /**
+   * Frame IDs per frame name.
+   */
+  private final Map<String, Integer> frameIdsByName = new HashMap<>();
+  /**
+   * Frame IDs per stack trace element, so that known frames are interned without building their
+   * name.
+   */
+  private final Map<StackTraceElement, Integer> frameIdsByStackTraceElement = new HashMap<>();
+  /**
+   * Parent node of each trie node, -1 for the root.
+   */
+  private int[] nodeParents;
+  /**
+   * Frame ID of each trie node, -1 for the root.
+   */
+  private int[] nodeFrameIds;
+  /**
+   * Number of samples whose stack ends at each trie node.
+   */
+  private long[] nodeSamplesCounts;
+  /**
+   * CPU time in nanoseconds of the samples whose stack ends at each trie node.
+   */
+  private long[] nodeCpuTimesInNanoSeconds;
+  /**
+   * Number of trie nodes, including the root.
+   */
+  private int nodesCount;
+  /**
+   * Keys of the child table slots, parent node and frame ID combined, EMPTY_SLOT for empty slots.
+   */
+  private long[] childKeys;
+  /**
+   * Child node of each child table slot.
+   */
+  private int[] childNodes;
+  /**
+   * Executor running the sampler, null when stopped.
+   */
+  private ScheduledExecutorService scheduledExecutorService;
+  /**
+   * Time of the previous sample, from System.nanoTime(), 0 before the first sample.
+   */
+  private long previousSampleNanoTime;
+  /**
+   * Number of samples taken.
+   */
+  private long samplesCount;
+  /**
+   * CPU time used by the samples in nanoseconds.
+   */
+  private long samplingCpuTimeInNanoSeconds;
+  /**
+   * Time spent profiling in nanoseconds, over the previous start() / stop() periods.
+   */
+  private long profilingTimeInNanoSeconds;
+  /**
+   * Time at which the profiler was last started, from System.nanoTime().
+   */
+  private long startNanoTime;
+
+  /**
+   * Creates a stopped profiler.
+   *
+   * @param threadMxBean                ThreadMXBean to sample the stacks from.
+   * @param threadUsageSnapshotSupplier Supplies the latest thread CPU usages, e.g.
+   *                                    JvmUtility::getThreadUsageSnapshot.
+   * @param samplingInterval            Interval between two samples.
+   * @param stackDepth                  Depth of the sampled stacks.
+   * @param runnableThreadsOnly         true to sample the RUNNABLE threads only, false to sample
+   *                                    all the threads.
+   * @param maxCpuOverhead              Maximum fraction of one core the profiler may use, between
+   *                                    0 exclusive and 1 inclusive.
+   */
+  public StackSamplingProfiler(
+      ThreadMXBean threadMxBean,
+      Supplier<ThreadUsageSnapshot> threadUsageSnapshotSupplier,
+      Duration samplingInterval,
+      int stackDepth,
+      boolean runnableThreadsOnly,
+      double maxCpuOverhead
+  ) {
+    Objects.requireNonNull(threadMxBean);
+    Objects.requireNonNull(threadUsageSnapshotSupplier);
+    Objects.requireNonNull(samplingInterval);
+    if (samplingInterval.isNegative() || samplingInterval.isZero()) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "StackSamplingProfiler.error.nonPositiveSamplingInterval",
+              samplingInterval
+          )
+      );
+    }
+    if (stackDepth < 1) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "StackSamplingProfiler.error.nonPositiveStackDepth",
+              stackDepth
+          )
+      );
+    }
+    if (!(maxCpuOverhead > 0 && maxCpuOverhead <= 1)) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "StackSamplingProfiler.error.invalidMaxCpuOverhead",
+              maxCpuOverhead
+          )
+      );
+    }
+    this.threadMxBean = threadMxBean;
+    this.threadUsageSnapshotSupplier = threadUsageSnapshotSupplier;
+    this.samplingInterval = samplingInterval;
+    this.stackDepth = stackDepth;
+    this.runnableThreadsOnly = runnableThreadsOnly;
+    this.maxCpuOverhead = maxCpuOverhead;
+    reset();
+  }
+
+  /**
+   * Starts sampling, does nothing if already started.
+   */
+  public synchronized void start() {
+    if (scheduledExecutorService != null) {
+      return;
+    }
+    scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, StackSamplingProfiler.class.getSimpleName());
+      thread.setDaemon(true);
+      return thread;
+    });
+    startNanoTime = System.nanoTime();
+    previousSampleNanoTime = 0;
+    scheduledExecutorService.schedule(this::runSampler, 0, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Stops sampling, does nothing if already stopped. The profile is kept until reset() is called.
+   */
+  public void stop() {
+    ScheduledExecutorService stoppedScheduledExecutorService;
+    synchronized (this) {
+      if (scheduledExecutorService == null) {
+        return;
+      }
+      stoppedScheduledExecutorService = scheduledExecutorService;
+      scheduledExecutorService = null;
+      profilingTimeInNanoSeconds += System.nanoTime() - startNanoTime;
+    }
+    // Cancels the next sample, and waits for the current one outside the lock it needs.
+    stoppedScheduledExecutorService.shutdownNow();
+    try {
+      stoppedScheduledExecutorService.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (InterruptedException e) {
+      logger.error(e);
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Checks whether the profiler is sampling.
+   *
+   * @return true if the profiler is sampling, false otherwise.
+   */
+  public synchronized boolean isRunning() {
+    return scheduledExecutorService != null;
+  }
+
+  /**
+   * Stops sampling.
+   */
+  @Override
+  public void close() {
+    stop();
+  }
+
+  /**
+   * Discards the profile.
+   */
+  public synchronized void reset() {
+    frameNames.clear();
+    frameIdsByName.clear();
+    frameIdsByStackTraceElement.clear();
+    nodeParents = new int[INITIAL_CAPACITY];
+    nodeFrameIds = new int[INITIAL_CAPACITY];
+    nodeSamplesCounts = new long[INITIAL_CAPACITY];
+    nodeCpuTimesInNanoSeconds = new long[INITIAL_CAPACITY];
+    nodeParents[0] = -1;
+    nodeFrameIds[0] = -1;
+    nodesCount = 1;
+    childKeys = new long[INITIAL_CAPACITY * 2];
+    Arrays.fill(childKeys, EMPTY_SLOT);
+    childNodes = new int[INITIAL_CAPACITY * 2];
+    samplesCount = 0;
+    samplingCpuTimeInNanoSeconds = 0;
+    profilingTimeInNanoSeconds = 0;
+    startNanoTime = System.nanoTime();
+  }
+
+  /**
+   * Gets the number of samples taken since the profile was reset.
+   *
+   * @return The number of samples taken.
+   */
+  public synchronized long getSamplesCount() {
+    return samplesCount;
+  }
+
+  /**
+   * Gets the CPU time used by the profiler as a fraction of the time spent profiling, since the
+   * profile was reset.
+   *
+   * @return The CPU overhead of the profiler, as a fraction of one core.
+   */
+  public synchronized double getCpuOverhead() {
+    long elapsedTimeInNanoSeconds = profilingTimeInNanoSeconds
+        + (scheduledExecutorService == null ? 0 : System.nanoTime() - startNanoTime);
+    return elapsedTimeInNanoSeconds <= 0
+        ? 0
+        : (double) samplingCpuTimeInNanoSeconds / elapsedTimeInNanoSeconds;
+  }
+
+  /**
+   * Writes the profile as collapsed stacks: one line per distinct stack, with its frames from the
+   * root to the top separated by semicolons, followed by a space and its weight. This is the input
+   * format of flamegraph.pl and of most flame graph viewers.
+   *
+   * @param writer Writer to write the collapsed stacks to.
+   * @param weight Weight of the stacks.
+   * @throws IOException If there is an issue writing the collapsed stacks.
+   */
+  public synchronized void writeCollapsedStacks(Writer writer, Weight weight) throws IOException {
+    Objects.requireNonNull(writer);
+    Objects.requireNonNull(weight);
+    long[] nodeWeights = weight == Weight.SAMPLES ? nodeSamplesCounts : nodeCpuTimesInNanoSeconds;
+    int[] pathNodes = new int[stackDepth];
+    StringBuilder lineBuilder = new StringBuilder();
+    for (int node = 1; node < nodesCount; node++) {
+      if (nodeWeights[node] == 0) {
+        continue;
+      }
+      int pathLength = 0;
+      for (int pathNode = node; pathNode > 0; pathNode = nodeParents[pathNode]) {
+        pathNodes[pathLength++] = pathNode;
+      }
+      lineBuilder.setLength(0);
+      for (int index = pathLength - 1; index >= 0; index--) {
+        lineBuilder.append(frameNames.get(nodeFrameIds[pathNodes[index]]));
+        lineBuilder.append(index == 0 ? ' ' : ';');
+      }
+      lineBuilder.append(nodeWeights[node]).append('\n');
+      writer.write(lineBuilder.toString());
+    }
+    writer.flush();
+  }
+
+  /**
+   * Gets a JSON tree of the profile. Each node has the name of its frame, the number of samples and
+   * the CPU time of the stacks going through it (total) and ending at it (self), and its children.
+   *
+   * @return JSON tree of the profile, rooted at a node named "root".
+   */
+  public synchronized JsonObject toJsonObject() {
+    long[] totalSamplesCounts = Arrays.copyOf(nodeSamplesCounts, nodesCount);
+    long[] totalCpuTimesInNanoSeconds = Arrays.copyOf(nodeCpuTimesInNanoSeconds, nodesCount);
+    JsonObject[] nodeJsonObjects = new JsonObject[nodesCount];
+    // Children are always created after their parent, so iterating backwards visits them first.
+    for (int node = nodesCount - 1; node > 0; node--) {
+      totalSamplesCounts[nodeParents[node]] += totalSamplesCounts[node];
+      totalCpuTimesInNanoSeconds[nodeParents[node]] += totalCpuTimesInNanoSeconds[node];
+    }
+    for (int node = 0; node < nodesCount; node++) {
+      JsonObject nodeJsonObject = new JsonObject();
+      nodeJsonObject.addProperty(
+          "name",
+          node == 0 ? "root" : frameNames.get(nodeFrameIds[node])
+      );
+      nodeJsonObject.addProperty("totalSamplesCount", totalSamplesCounts[node]);
+      nodeJsonObject.addProperty("selfSamplesCount", nodeSamplesCounts[node]);
+      nodeJsonObject.addProperty(
+          "totalCpuTimeInNanoSeconds",
+          totalCpuTimesInNanoSeconds[node]
+      );
+      nodeJsonObject.addProperty("selfCpuTimeInNanoSeconds", nodeCpuTimesInNanoSeconds[node]);
+      nodeJsonObject.add("children", new JsonArray());
+      nodeJsonObjects[node] = nodeJsonObject;
+      if (node > 0) {
+        nodeJsonObjects[nodeParents[node]].getAsJsonArray("children").add(nodeJsonObject);
+      }
+    }
+    return nodeJsonObjects[0];
+  }
+
+  /**
+   * Samples the stacks of the threads and adds them to the profile.
+   */
+  synchronized void sample() {
+    long sampleNanoTime = System.nanoTime();
+    long intervalInNanoSeconds = previousSampleNanoTime == 0
+        ? samplingInterval.toNanos()
+        : sampleNanoTime - previousSampleNanoTime;
+    previousSampleNanoTime = sampleNanoTime;
+    ThreadUsageSnapshot threadUsageSnapshot = threadUsageSnapshotSupplier.get();
+    long currentThreadId = Thread.currentThread().getId();
+    ThreadInfo[] threadInfos = threadMxBean.getThreadInfo(
+        threadMxBean.getAllThreadIds(),
+        stackDepth
+    );
+    for (ThreadInfo threadInfo : threadInfos) {
+      // Terminated since its ID was retrieved.
+      if (threadInfo == null
+          || threadInfo.getThreadId() == currentThreadId
+          || runnableThreadsOnly && threadInfo.getThreadState() != Thread.State.RUNNABLE) {
+        continue;
+      }
+      StackTraceElement[] stackTrace = threadInfo.getStackTrace();
+      if (stackTrace.length == 0) {
+        continue;
+      }
+      int node = 0;
+      for (int index = stackTrace.length - 1; index >= 0; index--) {
+        node = findOrInsertChild(node, internFrame(stackTrace[index]));
+      }
+      double cpuUsage = threadUsageSnapshot.getCpuUsage(threadInfo.getThreadId());
+      nodeSamplesCounts[node]++;
+      if (cpuUsage > 0) {
+        nodeCpuTimesInNanoSeconds[node] += Math.round(cpuUsage / 100 * intervalInNanoSeconds);
+      }
+    }
+    samplesCount++;
+  }
+
+  /**
+   * Takes a sample and schedules the next one, delayed if needed to keep the CPU overhead under
+   * its cap. Runs on the sampler thread only.
+   */
+  private void runSampler() {
+    boolean isCpuTimeSupported = threadMxBean.isCurrentThreadCpuTimeSupported()
+        && threadMxBean.isThreadCpuTimeEnabled();
+    long startTimeInNanoSeconds = isCpuTimeSupported
+        ? threadMxBean.getCurrentThreadCpuTime()
+        : System.nanoTime();
+    try {
+      sample();
+    } catch (RuntimeException e) {
+      logger.error(e);
+    }
+    long sampleCostInNanoSeconds = (isCpuTimeSupported
+        ? threadMxBean.getCurrentThreadCpuTime()
+        : System.nanoTime()) - startTimeInNanoSeconds;
+    long delayInNanoSeconds = Math.max(
+        samplingInterval.toNanos(),
+        (long) (sampleCostInNanoSeconds / maxCpuOverhead)
+    );
+    synchronized (this) {
+      samplingCpuTimeInNanoSeconds += sampleCostInNanoSeconds;
+      if (scheduledExecutorService != null && !scheduledExecutorService.isShutdown()) {
+        scheduledExecutorService.schedule(
+            this::runSampler,
+            delayInNanoSeconds,
+            TimeUnit.NANOSECONDS
+        );
+      }
+    }
+  }
+
+  /**
+   * Gets the ID of a frame, interning it if it's new. Frames are named after their class and
+   * method, so that the lines of a method are aggregated.
+   *
+   * @param stackTraceElement The frame.
+   * @return ID of the frame.
+   */
+  private int internFrame(StackTraceElement stackTraceElement) {
+    Integer frameId = frameIdsByStackTraceElement.get(stackTraceElement);
+    if (frameId == null) {
+      frameId = frameIdsByName.computeIfAbsent(
+          stackTraceElement.getClassName() + "." + stackTraceElement.getMethodName(),
+          frameName -> {
+            frameNames.add(frameName);
+            return frameNames.size() - 1;
+          }
+      );
+      frameIdsByStackTraceElement.put(stackTraceElement, frameId);
+    }
+    return frameId;
+  }
+
+  /**
+   * Finds the child of a node for a frame, inserting it if it isn't present.
+   *
+   * @param parentNode Parent node.
+   * @param frameId    ID of the frame.
+   * @return The child node.
+   */
+  private int findOrInsertChild(int parentNode, int frameId) {
+    long key = ((long) parentNode << Integer.SIZE) | frameId;
+    int mask = childKeys.length - 1;
+    int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+    while (childKeys[slot] != EMPTY_SLOT) {
+      if (childKeys[slot] == key) {
+        return childNodes[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    if (nodesCount == nodeParents.length) {
+      int capacity = nodesCount * 2;
+      nodeParents = Arrays.copyOf(nodeParents, capacity);
+      nodeFrameIds = Arrays.copyOf(nodeFrameIds, capacity);
+      nodeSamplesCounts = Arrays.copyOf(nodeSamplesCounts, capacity);
+      nodeCpuTimesInNanoSeconds = Arrays.copyOf(nodeCpuTimesInNanoSeconds, capacity);
+    }
+    int node = nodesCount++;
+    nodeParents[node] = parentNode;
+    nodeFrameIds[node] = frameId;
+    childKeys[slot] = key;
+    childNodes[slot] = node;
+    // Keeps the child table at most half full.
+    if (nodesCount * 2 > childKeys.length) {
+      rehashChildTable();
+    }
+    return node;
+  }
+
+  /**
+   * Doubles the capacity of the child table.
+   */
+  private void rehashChildTable() {
+    long[] previousChildKeys = childKeys;
+    int[] previousChildNodes = childNodes;
+    childKeys = new long[previousChildKeys.length * 2];
+    Arrays.fill(childKeys, EMPTY_SLOT);
+    childNodes = new int[previousChildNodes.length * 2];
+    int mask = childKeys.length - 1;
+    for (int index = 0; index < previousChildKeys.length; index++) {
+      if (previousChildKeys[index] == EMPTY_SLOT) {
+        continue;
+      }
+      int slot = Long.hashCode(previousChildKeys[index] * 0x9E3779B97F4A7C15L) & mask;
+      while (childKeys[slot] != EMPTY_SLOT) {
+        slot = (slot + 1) & mask;
+      }
+      childKeys[slot] = previousChildKeys[index];
+      childNodes[slot] = previousChildNodes[index];
+    }
+  }
+
+  /**
+   * Weights of the collapsed stacks.
+   */
+  public enum Weight {
+    /**
+     * Number of samples of the stack.
+     */
+    SAMPLES,
+    /**
+     * CPU time in nanoseconds used by the threads while sampled in the stack.
+     */
+    CPU_TIME
+  }
+}
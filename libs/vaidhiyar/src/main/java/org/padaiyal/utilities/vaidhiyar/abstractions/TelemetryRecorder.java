@@ -0,0 +1,534 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Always-on flight recorder: samples TelemetrySnapshot objects at a fixed rate and appends them to
+ * a fixed set of pre-allocated, memory-mapped segment files, reusing the oldest segment once they
+ * are all full. The disk usage is therefore bounded by the number of segments times their size.
+ *
+ * <p>Each segment starts with a header (magic, sequence number of the segment) followed by framed
+ * records: the payload length, the CRC32 of the payload, the timestamp in milliseconds and the
+ * payload. The payloads of a segment concatenated form a TelemetrySnapshotWriter stream, so each
+ * segment can be decoded on its own. A record is published by writing its length last, after its
+ * payload and the zero length terminating the segment, so a segment stays readable up to its last
+ * complete record if the JVM dies while writing. The writes are plain memory copies into the
+ * mapped segments and never wait for the disk, the OS flushes the pages on its own, even after the
+ * JVM crashed.
+ */
+public final class TelemetryRecorder implements AutoCloseable {
+
+  /**
+   * Magic number starting every segment, "VTRS".
+   */
+  static final int SEGMENT_MAGIC = 0x56545253;
+  /**
+   * Size of the segment header: magic, unused, sequence number.
+   */
+  static final int SEGMENT_HEADER_SIZE = 16;
+  /**
+   * Size of the record header: payload length, payload CRC32, timestamp.
+   */
+  static final int RECORD_HEADER_SIZE = 16;
+  /**
+   * Minimum size of a segment.
+   */
+  static final int MIN_SEGMENT_SIZE_IN_BYTES = 4096;
+  /**
+   * Prefix of the segment file names.
+   */
+  static final String SEGMENT_FILE_NAME_PREFIX = "telemetry-";
+  /**
+   * Suffix of the segment file names.
+   */
+  static final String SEGMENT_FILE_NAME_SUFFIX = ".seg";
+  /**
+   * Logger object used to log information and errors.
+   */
+  private static final Logger logger = LogManager.getLogger(TelemetryRecorder.class);
+
+  static {
+    I18nUtility.addResourceBundle(
+        TelemetryRecorder.class,
+        TelemetryRecorder.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Directory containing the segments.
+   */
+  private final Path directory;
+  /**
+   * Size of each segment in bytes.
+   */
+  private final int segmentSizeInBytes;
+  /**
+   * Interval between two samples.
+   */
+  private final Duration samplingInterval;
+  /**
+   * Supplies the snapshots to record.
+   */
+  private final Supplier<TelemetrySnapshot> telemetrySnapshotSupplier;
+  /**
+   * Memory-mapped segments.
+   */
+  private final MappedByteBuffer[] segments;
+  /**
+   * Buffer the snapshots are encoded into before being copied into the current segment, reused for
+   * every sample.
+   */
+  private final RecordBuffer recordBuffer = new RecordBuffer();
+  /**
+   * Encodes the snapshots into the record buffer, reset at the start of every segment.
+   */
+  private final TelemetrySnapshotWriter telemetrySnapshotWriter;
+  /**
+   * Checksum of the record payloads, reused for every sample.
+   */
+  private final CRC32 crc32 = new CRC32();
+  /**
+   * Executor running the sampler.
+   */
+  private final ScheduledExecutorService scheduledExecutorService;
+  /**
+   * Index of the segment being written.
+   */
+  private int currentSegmentIndex;
+  /**
+   * Sequence number of the segment being written.
+   */
+  private long currentSegmentSequence;
+  /**
+   * Whether the stream of the segment being written has been started, false until the first
+   * sample of a segment.
+   */
+  private boolean segmentStreamStarted;
+  /**
+   * Number of samples recorded.
+   */
+  private volatile long recordedSamplesCount;
+  /**
+   * Number of samples which couldn't be recorded.
+   */
+  private volatile long droppedSamplesCount;
+
+  /**
+   * Creates the segments and starts recording. Segments left in the directory by a previous
+   * recorder are kept until they are reused, so that the telemetry preceding a crash can still be
+   * read after a restart.
+   *
+   * @param directory                 Directory in which to create the segments.
+   * @param diskBudgetInBytes         Maximum disk space used by the segments.
+   * @param segmentSizeInBytes        Size of each segment.
+   * @param samplingInterval          Interval between two samples.
+   * @param telemetrySnapshotSupplier Supplies the snapshots to record.
+   * @throws IOException If the segments cannot be created.
+   */
+  public TelemetryRecorder(
+      Path directory,
+      long diskBudgetInBytes,
+      int segmentSizeInBytes,
+      Duration samplingInterval,
+      Supplier<TelemetrySnapshot> telemetrySnapshotSupplier
+  ) throws IOException {
+    Objects.requireNonNull(directory);
+    Objects.requireNonNull(samplingInterval);
+    Objects.requireNonNull(telemetrySnapshotSupplier);
+    if (segmentSizeInBytes < MIN_SEGMENT_SIZE_IN_BYTES) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "TelemetryRecorder.error.segmentSizeTooSmall",
+              segmentSizeInBytes,
+              MIN_SEGMENT_SIZE_IN_BYTES
+          )
+      );
+    }
+    // At least two segments, so that rotating never wipes all the recorded telemetry.
+    if (diskBudgetInBytes / segmentSizeInBytes < 2) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "TelemetryRecorder.error.diskBudgetTooSmall",
+              diskBudgetInBytes,
+              segmentSizeInBytes
+          )
+      );
+    }
+    if (samplingInterval.isNegative() || samplingInterval.isZero()) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "TelemetryRecorder.error.nonPositiveSamplingInterval",
+              samplingInterval
+          )
+      );
+    }
+    this.directory = directory;
+    this.segmentSizeInBytes = segmentSizeInBytes;
+    this.samplingInterval = samplingInterval;
+    this.telemetrySnapshotSupplier = telemetrySnapshotSupplier;
+
+    telemetrySnapshotWriter = new TelemetrySnapshotWriter(recordBuffer);
+    Files.createDirectories(directory);
+    segments = new MappedByteBuffer[(int) Math.min(
+        diskBudgetInBytes / segmentSizeInBytes,
+        Integer.MAX_VALUE
+    )];
+    long latestSegmentSequence = 0;
+    int latestSegmentIndex = segments.length - 1;
+    for (int index = 0; index < segments.length; index++) {
+      try (
+          RandomAccessFile randomAccessFile = new RandomAccessFile(
+              getSegmentPath(directory, index).toFile(),
+              "rw"
+          )
+      ) {
+        randomAccessFile.setLength(segmentSizeInBytes);
+        // The mapping stays valid once the file is closed.
+        segments[index] = randomAccessFile.getChannel()
+            .map(FileChannel.MapMode.READ_WRITE, 0, segmentSizeInBytes);
+      }
+      if (segments[index].getInt(0) == SEGMENT_MAGIC) {
+        long segmentSequence = segments[index].getLong(8);
+        if (segmentSequence > latestSegmentSequence) {
+          latestSegmentSequence = segmentSequence;
+          latestSegmentIndex = index;
+        }
+      }
+    }
+    currentSegmentIndex = latestSegmentIndex;
+    currentSegmentSequence = latestSegmentSequence;
+    // Start on a new segment, the previous recorder may have died in the middle of a record.
+    startNextSegment();
+
+    scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, TelemetryRecorder.class.getSimpleName());
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduledExecutorService.scheduleAtFixedRate(
+        this::sample,
+        0,
+        samplingInterval.toNanos(),
+        TimeUnit.NANOSECONDS
+    );
+  }
+
+  /**
+   * Gets the directory containing the segments.
+   *
+   * @return The directory containing the segments.
+   */
+  public Path getDirectory() {
+    return directory;
+  }
+
+  /**
+   * Gets the number of segments.
+   *
+   * @return The number of segments.
+   */
+  public int getSegmentsCount() {
+    return segments.length;
+  }
+
+  /**
+   * Gets the size of each segment in bytes.
+   *
+   * @return The size of each segment in bytes.
+   */
+  public int getSegmentSizeInBytes() {
+    return segmentSizeInBytes;
+  }
+
+  /**
+   * Gets the interval between two samples.
+   *
+   * @return The interval between two samples.
+   */
+  public Duration getSamplingInterval() {
+    return samplingInterval;
+  }
+
+  /**
+   * Gets the number of samples recorded.
+   *
+   * @return The number of samples recorded.
+   */
+  public long getRecordedSamplesCount() {
+    return recordedSamplesCount;
+  }
+
+  /**
+   * Gets the number of samples which couldn't be recorded, either because capturing them failed
+   * or because they don't fit in a segment.
+   *
+   * @return The number of samples which couldn't be recorded.
+   */
+  public long getDroppedSamplesCount() {
+    return droppedSamplesCount;
+  }
+
+  /**
+   * Stops recording and flushes the segments to the disk.
+   */
+  @Override
+  public void close() {
+    scheduledExecutorService.shutdown();
+    try {
+      scheduledExecutorService.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (InterruptedException e) {
+      logger.error(e);
+      Thread.currentThread().interrupt();
+    }
+    for (MappedByteBuffer segment : segments) {
+      segment.force();
+    }
+  }
+
+  /**
+   * Reads the snapshots recorded within a time window from the segments of a directory. The
+   * segments can be read while they are being recorded, and after the recorder died.
+   *
+   * @param directory Directory containing the segments.
+   * @param from      Start of the time window, inclusive.
+   * @param to        End of the time window, inclusive.
+   * @return The snapshots recorded within the time window, oldest first.
+   * @throws IOException If there is an issue reading the segments.
+   */
+  public static List<TelemetrySnapshot> read(Path directory, Instant from, Instant to)
+      throws IOException {
+    Objects.requireNonNull(directory);
+    Objects.requireNonNull(from);
+    Objects.requireNonNull(to);
+    long fromInMilliSeconds = from.toEpochMilli();
+    long toInMilliSeconds = to.toEpochMilli();
+
+    List<ByteBuffer> segments = new ArrayList<>();
+    try (
+        DirectoryStream<Path> segmentPaths = Files.newDirectoryStream(
+            directory,
+            SEGMENT_FILE_NAME_PREFIX + "*" + SEGMENT_FILE_NAME_SUFFIX
+        )
+    ) {
+      for (Path segmentPath : segmentPaths) {
+        ByteBuffer segment = ByteBuffer.wrap(Files.readAllBytes(segmentPath));
+        if (segment.limit() >= SEGMENT_HEADER_SIZE && segment.getInt(0) == SEGMENT_MAGIC) {
+          segments.add(segment);
+        }
+      }
+    }
+    segments.sort(Comparator.comparingLong(segment -> segment.getLong(8)));
+
+    List<TelemetrySnapshot> telemetrySnapshots = new ArrayList<>();
+    CRC32 payloadCrc32 = new CRC32();
+    for (ByteBuffer segment : segments) {
+      ByteArrayOutputStream segmentPayloads = new ByteArrayOutputStream();
+      long firstTimestampInMilliSeconds = Long.MAX_VALUE;
+      long lastTimestampInMilliSeconds = Long.MIN_VALUE;
+      int position = SEGMENT_HEADER_SIZE;
+      while (position + RECORD_HEADER_SIZE <= segment.limit()) {
+        int payloadLength = segment.getInt(position);
+        if (payloadLength <= 0
+            || payloadLength > segment.limit() - position - RECORD_HEADER_SIZE) {
+          break;
+        }
+        payloadCrc32.reset();
+        payloadCrc32.update(segment.array(), position + RECORD_HEADER_SIZE, payloadLength);
+        if ((int) payloadCrc32.getValue() != segment.getInt(position + 4)) {
+          break;
+        }
+        long timestampInMilliSeconds = segment.getLong(position + 8);
+        firstTimestampInMilliSeconds = Math.min(
+            firstTimestampInMilliSeconds,
+            timestampInMilliSeconds
+        );
+        lastTimestampInMilliSeconds = timestampInMilliSeconds;
+        segmentPayloads.write(segment.array(), position + RECORD_HEADER_SIZE, payloadLength);
+        position += RECORD_HEADER_SIZE + payloadLength;
+      }
+      // The whole segment has to be decoded to get any of its snapshots, skip it if it can't have
+      // any snapshot within the time window.
+      if (segmentPayloads.size() == 0
+          || lastTimestampInMilliSeconds < fromInMilliSeconds
+          || firstTimestampInMilliSeconds > toInMilliSeconds) {
+        continue;
+      }
+      try (
+          TelemetrySnapshotReader telemetrySnapshotReader = new TelemetrySnapshotReader(
+              new ByteArrayInputStream(segmentPayloads.toByteArray())
+          )
+      ) {
+        TelemetrySnapshot telemetrySnapshot = telemetrySnapshotReader.read();
+        while (telemetrySnapshot != null) {
+          long timestampInMilliSeconds = telemetrySnapshot.getTimestamp().toEpochMilli();
+          if (timestampInMilliSeconds >= fromInMilliSeconds
+              && timestampInMilliSeconds <= toInMilliSeconds) {
+            telemetrySnapshots.add(telemetrySnapshot);
+          }
+          telemetrySnapshot = telemetrySnapshotReader.read();
+        }
+      }
+    }
+    return telemetrySnapshots;
+  }
+
+  /**
+   * Gets the path of a segment.
+   *
+   * @param directory Directory containing the segments.
+   * @param index     Index of the segment.
+   * @return The path of the segment.
+   */
+  static Path getSegmentPath(Path directory, int index) {
+    return directory.resolve(SEGMENT_FILE_NAME_PREFIX + index + SEGMENT_FILE_NAME_SUFFIX);
+  }
+
+  /**
+   * Captures a snapshot and appends it to the current segment, moving to the next segment if it
+   * doesn't fit. Runs on the sampler thread only.
+   */
+  private void sample() {
+    TelemetrySnapshot telemetrySnapshot;
+    try {
+      telemetrySnapshot = telemetrySnapshotSupplier.get();
+    } catch (RuntimeException e) {
+      droppedSamplesCount++;
+      logger.error(e);
+      return;
+    }
+    try {
+      MappedByteBuffer segment = segments[currentSegmentIndex];
+      if (!segmentStreamStarted || !encode(telemetrySnapshot, segment)) {
+        if (segmentStreamStarted) {
+          startNextSegment();
+          segment = segments[currentSegmentIndex];
+        }
+        // The first snapshot of a segment is encoded against nothing, along with the stream header.
+        telemetrySnapshotWriter.flush();
+        recordBuffer.reset();
+        telemetrySnapshotWriter.reset();
+        segmentStreamStarted = true;
+        if (!encode(telemetrySnapshot, segment)) {
+          segmentStreamStarted = false;
+          droppedSamplesCount++;
+          logger.warn(
+              I18nUtility.getString("TelemetryRecorder.warning.snapshotTooLarge"),
+              recordBuffer.size(),
+              segmentSizeInBytes
+          );
+          return;
+        }
+      }
+      append(telemetrySnapshot.getTimestamp().toEpochMilli(), segment);
+      recordedSamplesCount++;
+    } catch (IOException | RuntimeException e) {
+      // The stream of the current segment is in an unknown state, continue on a new segment.
+      startNextSegment();
+      droppedSamplesCount++;
+      logger.error(e);
+    }
+  }
+
+  /**
+   * Encodes a snapshot into the record buffer, after any bytes already in it.
+   *
+   * @param telemetrySnapshot The snapshot.
+   * @param segment           Segment the snapshot is to be appended to.
+   * @return true if the encoded snapshot fits in the segment, false otherwise.
+   * @throws IOException If there is an issue encoding the snapshot.
+   */
+  private boolean encode(TelemetrySnapshot telemetrySnapshot, MappedByteBuffer segment)
+      throws IOException {
+    telemetrySnapshotWriter.write(telemetrySnapshot);
+    telemetrySnapshotWriter.flush();
+    // Room is kept for the zero length terminating the segment.
+    return segment.position() + RECORD_HEADER_SIZE + recordBuffer.size() + Integer.BYTES
+        <= segment.limit();
+  }
+
+  /**
+   * Appends the record buffer to a segment as a record, then clears the record buffer.
+   *
+   * @param timestampInMilliSeconds Timestamp of the snapshot in the record buffer.
+   * @param segment                 The segment.
+   */
+  private void append(long timestampInMilliSeconds, MappedByteBuffer segment) {
+    int position = segment.position();
+    segment.position(position + RECORD_HEADER_SIZE);
+    recordBuffer.copyTo(segment);
+    crc32.reset();
+    recordBuffer.updateChecksum(crc32);
+    segment.putInt(segment.position(), 0);
+    segment.putLong(position + 8, timestampInMilliSeconds);
+    segment.putInt(position + 4, (int) crc32.getValue());
+    // Publishes the record.
+    segment.putInt(position, recordBuffer.size());
+    recordBuffer.reset();
+  }
+
+  /**
+   * Moves to the next segment, overwriting the oldest one.
+   */
+  private void startNextSegment() {
+    currentSegmentIndex = (currentSegmentIndex + 1) % segments.length;
+    currentSegmentSequence++;
+    MappedByteBuffer segment = segments[currentSegmentIndex];
+    // Terminates the segment before renumbering it, so that its previous records are never read
+    // as part of the new sequence.
+    segment.putInt(SEGMENT_HEADER_SIZE, 0);
+    segment.putLong(8, currentSegmentSequence);
+    segment.putInt(4, 0);
+    segment.putInt(0, SEGMENT_MAGIC);
+    segment.position(SEGMENT_HEADER_SIZE);
+    segmentStreamStarted = false;
+  }
+
+  /**
+   * ByteArrayOutputStream whose content can be copied into a ByteBuffer without allocating.
+   */
+  private static final class RecordBuffer extends ByteArrayOutputStream {
+
+    /**
+     * Copies the content into a buffer, at its position.
+     *
+     * @param byteBuffer The buffer.
+     */
+    void copyTo(ByteBuffer byteBuffer) {
+      byteBuffer.put(buf, 0, count);
+    }
+
+    /**
+     * Updates a checksum with the content.
+     *
+     * @param checksum The checksum.
+     */
+    void updateChecksum(CRC32 checksum) {
+      checksum.update(buf, 0, count);
+    }
+  }
+}
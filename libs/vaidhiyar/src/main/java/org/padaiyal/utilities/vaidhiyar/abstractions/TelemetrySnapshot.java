@@ -0,0 +1,263 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.time.Instant;
+
+/**
+ * Snapshot of the JVM telemetry: heap and non heap usage, garbage collection info, and the CPU
+ * usage, allocated memory, allocation rate and optionally the stack of every thread. Snapshots are
+ * written and read in a compact binary format by TelemetrySnapshotWriter and
+ * TelemetrySnapshotReader.
+ */
+public final class TelemetrySnapshot {
+
+  /**
+   * Time at which the snapshot was captured.
+   */
+  private final Instant timestamp;
+  /**
+   * Heap memory usage.
+   */
+  private final ExtendedMemoryUsage heapUsage;
+  /**
+   * Non heap memory usage.
+   */
+  private final ExtendedMemoryUsage nonHeapUsage;
+  /**
+   * Garbage collection info of each garbage collector.
+   */
+  private final GarbageCollectionInfo[] garbageCollectionInfos;
+  /**
+   * IDs of the threads, in ascending order.
+   */
+  private final long[] threadIds;
+  /**
+   * Names of the threads, indexed like threadIds.
+   */
+  private final String[] threadNames;
+  /**
+   * States of the threads, indexed like threadIds.
+   */
+  private final Thread.State[] threadStates;
+  /**
+   * CPU usages of the threads, -1 if unknown. Indexed like threadIds.
+   */
+  private final double[] cpuUsages;
+  /**
+   * Memory allocated by the threads since they started in bytes, -1 if unknown. Indexed like
+   * threadIds.
+   */
+  private final long[] allocatedBytes;
+  /**
+   * Allocation rates of the threads in bytes per second, -1 if unknown. Indexed like threadIds.
+   */
+  private final double[] allocationRates;
+  /**
+   * Stack frames of the threads, top frame first. Indexed like threadIds.
+   */
+  private final String[][] stackTraces;
+
+  /**
+   * Creates a snapshot. The arrays are owned by the snapshot and must not be modified afterwards.
+   *
+   * @param timestamp              Time at which the snapshot was captured.
+   * @param heapUsage              Heap memory usage.
+   * @param nonHeapUsage           Non heap memory usage.
+   * @param garbageCollectionInfos Garbage collection info of each garbage collector.
+   * @param threadIds              IDs of the threads, in ascending order.
+   * @param threadNames            Names of the threads.
+   * @param threadStates           States of the threads.
+   * @param cpuUsages              CPU usages of the threads, -1 if unknown.
+   * @param allocatedBytes         Memory allocated by the threads in bytes, -1 if unknown.
+   * @param allocationRates        Allocation rates of the threads in bytes per second, -1 if
+   *                               unknown.
+   * @param stackTraces            Stack frames of the threads, top frame first.
+   */
+  public TelemetrySnapshot(
+      Instant timestamp,
+      ExtendedMemoryUsage heapUsage,
+      ExtendedMemoryUsage nonHeapUsage,
+      GarbageCollectionInfo[] garbageCollectionInfos,
+      long[] threadIds,
+      String[] threadNames,
+      Thread.State[] threadStates,
+      double[] cpuUsages,
+      long[] allocatedBytes,
+      double[] allocationRates,
+      String[][] stackTraces
+  ) {
+    this.timestamp = timestamp;
+    this.heapUsage = heapUsage;
+    this.nonHeapUsage = nonHeapUsage;
+    this.garbageCollectionInfos = garbageCollectionInfos;
+    this.threadIds = threadIds;
+    this.threadNames = threadNames;
+    this.threadStates = threadStates;
+    this.cpuUsages = cpuUsages;
+    this.allocatedBytes = allocatedBytes;
+    this.allocationRates = allocationRates;
+    this.stackTraces = stackTraces;
+  }
+
+  /**
+   * Gets the time at which the snapshot was captured.
+   *
+   * @return The time at which the snapshot was captured.
+   */
+  public Instant getTimestamp() {
+    return timestamp;
+  }
+
+  /**
+   * Gets the heap memory usage.
+   *
+   * @return The heap memory usage.
+   */
+  public ExtendedMemoryUsage getHeapUsage() {
+    return heapUsage;
+  }
+
+  /**
+   * Gets the non heap memory usage.
+   *
+   * @return The non heap memory usage.
+   */
+  public ExtendedMemoryUsage getNonHeapUsage() {
+    return nonHeapUsage;
+  }
+
+  /**
+   * Gets the garbage collection info of each garbage collector.
+   *
+   * @return The garbage collection info of each garbage collector.
+   */
+  public GarbageCollectionInfo[] getGarbageCollectionInfos() {
+    return garbageCollectionInfos.clone();
+  }
+
+  /**
+   * Gets the number of threads.
+   *
+   * @return The number of threads.
+   */
+  public int getThreadsCount() {
+    return threadIds.length;
+  }
+
+  /**
+   * Gets the ID of the thread at an index, the threads are indexed in ascending order of their ID.
+   *
+   * @param index Index of the thread.
+   * @return ID of the thread.
+   */
+  public long getThreadIdAt(int index) {
+    return threadIds[index];
+  }
+
+  /**
+   * Gets the name of the thread at an index.
+   *
+   * @param index Index of the thread.
+   * @return Name of the thread.
+   */
+  public String getThreadNameAt(int index) {
+    return threadNames[index];
+  }
+
+  /**
+   * Gets the state of the thread at an index.
+   *
+   * @param index Index of the thread.
+   * @return State of the thread.
+   */
+  public Thread.State getThreadStateAt(int index) {
+    return threadStates[index];
+  }
+
+  /**
+   * Gets the CPU usage of the thread at an index.
+   *
+   * @param index Index of the thread.
+   * @return CPU usage of the thread, -1 if it isn't known.
+   */
+  public double getCpuUsageAt(int index) {
+    return cpuUsages[index];
+  }
+
+  /**
+   * Gets the memory allocated by the thread at an index.
+   *
+   * @param index Index of the thread.
+   * @return Memory allocated by the thread in bytes, -1 if it isn't known.
+   */
+  public long getAllocatedBytesAt(int index) {
+    return allocatedBytes[index];
+  }
+
+  /**
+   * Gets the allocation rate of the thread at an index.
+   *
+   * @param index Index of the thread.
+   * @return Allocation rate of the thread in bytes per second, -1 if it isn't known.
+   */
+  public double getAllocationRateAt(int index) {
+    return allocationRates[index];
+  }
+
+  /**
+   * Gets the stack frames of the thread at an index.
+   *
+   * @param index Index of the thread.
+   * @return Stack frames of the thread, top frame first.
+   */
+  public String[] getStackTraceAt(int index) {
+    return stackTraces[index].clone();
+  }
+
+  /**
+   * Gets a JSON representation of an instance of this class, in the format of
+   * JvmUtility.dumpJvmInformationToFile().
+   *
+   * @return JSON representation of an instance of this class.
+   */
+  public JsonObject toJsonObject() {
+    JsonObject telemetrySnapshotJsonObject = new JsonObject();
+    telemetrySnapshotJsonObject.addProperty("timestamp", timestamp.toString());
+    telemetrySnapshotJsonObject.add("heapUsage", heapUsage.toJsonObject());
+    telemetrySnapshotJsonObject.add("nonHeapUsage", nonHeapUsage.toJsonObject());
+    JsonArray garbageCollectionInfosJsonArray = new JsonArray();
+    for (GarbageCollectionInfo garbageCollectionInfo : garbageCollectionInfos) {
+      JsonObject garbageCollectionInfoJsonObject = new JsonObject();
+      garbageCollectionInfoJsonObject.addProperty("name", garbageCollectionInfo.getName());
+      garbageCollectionInfoJsonObject.addProperty(
+          "collectionCount",
+          garbageCollectionInfo.getCollectionCount()
+      );
+      garbageCollectionInfoJsonObject.addProperty(
+          "collectionTimeInMilliSeconds",
+          garbageCollectionInfo.getCollectionTime().toMillis()
+      );
+      garbageCollectionInfosJsonArray.add(garbageCollectionInfoJsonObject);
+    }
+    telemetrySnapshotJsonObject.add("garbageCollectionInfos", garbageCollectionInfosJsonArray);
+    JsonArray threadInfosJsonArray = new JsonArray();
+    for (int index = 0; index < threadIds.length; index++) {
+      JsonObject threadInfoJsonObject = new JsonObject();
+      threadInfoJsonObject.addProperty("name", threadNames[index]);
+      threadInfoJsonObject.addProperty("id", threadIds[index]);
+      threadInfoJsonObject.addProperty("state", threadStates[index].toString());
+      threadInfoJsonObject.addProperty("cpuUsage", cpuUsages[index]);
+      threadInfoJsonObject.addProperty("memoryAllocatedInBytes", allocatedBytes[index]);
+      threadInfoJsonObject.addProperty("allocationRateInBytesPerSecond", allocationRates[index]);
+      JsonArray stackTraceJsonArray = new JsonArray();
+      for (String stackFrame : stackTraces[index]) {
+        stackTraceJsonArray.add(stackFrame);
+      }
+      threadInfoJsonObject.add("stackTrace", stackTraceJsonArray);
+      threadInfosJsonArray.add(threadInfoJsonObject);
+    }
+    telemetrySnapshotJsonObject.add("threadInfos", threadInfosJsonArray);
+    return telemetrySnapshotJsonObject;
+  }
+}
@@ -0,0 +1,307 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import com.google.gson.JsonArray;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Reads the TelemetrySnapshot objects written by TelemetrySnapshotWriter, and converts them back
+ * to the JSON format of JvmUtility.dumpJvmInformationToFile() on demand.
+ */
+public final class TelemetrySnapshotReader implements Closeable {
+
+  static {
+    I18nUtility.addResourceBundle(
+        TelemetrySnapshotReader.class,
+        TelemetrySnapshotReader.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Thread states, indexed by ordinal.
+   */
+  private static final Thread.State[] THREAD_STATES = Thread.State.values();
+
+  /**
+   * Stream the snapshots are read from.
+   */
+  private final InputStream inputStream;
+  /**
+   * Strings read so far, indexed like the string table of the writer.
+   */
+  private final List<String> stringTable = new ArrayList<>();
+  /**
+   * Previous snapshot read, which the next one is decoded against.
+   */
+  private TelemetrySnapshot previousSnapshot = TelemetrySnapshotWriter.EMPTY_SNAPSHOT;
+
+  /**
+   * Creates a reader and reads the header of the stream.
+   *
+   * @param inputStream Stream to read the snapshots from.
+   * @throws IOException If the stream doesn't start with a valid header.
+   */
+  public TelemetrySnapshotReader(InputStream inputStream) throws IOException {
+    this.inputStream = new BufferedInputStream(Objects.requireNonNull(inputStream));
+    byte[] magic = this.inputStream.readNBytes(TelemetrySnapshotWriter.MAGIC.length);
+    if (!Arrays.equals(TelemetrySnapshotWriter.MAGIC, magic)) {
+      throw new IOException(
+          I18nUtility.getString("TelemetrySnapshotReader.error.invalidMagic")
+      );
+    }
+    long version = readVarLong();
+    if (version != TelemetrySnapshotWriter.VERSION) {
+      throw new IOException(
+          I18nUtility.getFormattedString(
+              "TelemetrySnapshotReader.error.unsupportedVersion",
+              version
+          )
+      );
+    }
+  }
+
+  /**
+   * Reads the next snapshot.
+   *
+   * @return The next snapshot, null if the end of the stream has been reached.
+   * @throws IOException If there is an issue reading the snapshot, e.g. if it's truncated.
+   */
+  public TelemetrySnapshot read() throws IOException {
+    inputStream.mark(1);
+    if (inputStream.read() == -1) {
+      return null;
+    }
+    inputStream.reset();
+
+    Instant timestamp = Instant.ofEpochMilli(
+        previousSnapshot.getTimestamp().toEpochMilli() + readSignedVarLong()
+    );
+    ExtendedMemoryUsage heapUsage = readMemoryUsage(previousSnapshot.getHeapUsage());
+    ExtendedMemoryUsage nonHeapUsage = readMemoryUsage(previousSnapshot.getNonHeapUsage());
+
+    GarbageCollectionInfo[] previousGarbageCollectionInfos
+        = previousSnapshot.getGarbageCollectionInfos();
+    GarbageCollectionInfo[] garbageCollectionInfos = new GarbageCollectionInfo[readCount()];
+    for (int index = 0; index < garbageCollectionInfos.length; index++) {
+      String name = readString();
+      GarbageCollectionInfo previousGarbageCollectionInfo
+          = TelemetrySnapshotWriter.getPreviousGarbageCollectionInfo(
+              previousGarbageCollectionInfos,
+              index,
+              name
+          );
+      long collectionCount = previousGarbageCollectionInfo.getCollectionCount()
+          + readSignedVarLong();
+      long collectionTimeInMilliSeconds = previousGarbageCollectionInfo.getCollectionTime()
+          .toMillis() + readSignedVarLong();
+      garbageCollectionInfos[index] = new GarbageCollectionInfo(
+          name,
+          collectionCount,
+          collectionTimeInMilliSeconds
+      );
+    }
+
+    int threadsCount = readCount();
+    long[] threadIds = new long[threadsCount];
+    String[] threadNames = new String[threadsCount];
+    Thread.State[] threadStates = new Thread.State[threadsCount];
+    double[] cpuUsages = new double[threadsCount];
+    long[] allocatedBytes = new long[threadsCount];
+    double[] allocationRates = new double[threadsCount];
+    String[][] stackTraces = new String[threadsCount][];
+    long previousThreadId = 0;
+    for (int index = 0; index < threadsCount; index++) {
+      long threadId = previousThreadId + readSignedVarLong();
+      previousThreadId = threadId;
+      threadIds[index] = threadId;
+      threadNames[index] = readString();
+      threadStates[index] = readThreadState();
+      cpuUsages[index] = readSignedVarLong() / TelemetrySnapshotWriter.CPU_USAGE_SCALE;
+      allocatedBytes[index] = TelemetrySnapshotWriter.getPreviousAllocatedBytes(
+          previousSnapshot,
+          threadId
+      ) + readSignedVarLong();
+      allocationRates[index] = readSignedVarLong();
+      String[] stackTrace = new String[readCount()];
+      for (int frameIndex = 0; frameIndex < stackTrace.length; frameIndex++) {
+        stackTrace[frameIndex] = readString();
+      }
+      stackTraces[index] = stackTrace;
+    }
+
+    previousSnapshot = new TelemetrySnapshot(
+        timestamp,
+        heapUsage,
+        nonHeapUsage,
+        garbageCollectionInfos,
+        threadIds,
+        threadNames,
+        threadStates,
+        cpuUsages,
+        allocatedBytes,
+        allocationRates,
+        stackTraces
+    );
+    return previousSnapshot;
+  }
+
+  /**
+   * Reads all the remaining snapshots and converts them to JSON.
+   *
+   * @return The JSON representations of the snapshots, in the order they were written.
+   * @throws IOException If there is an issue reading the snapshots.
+   */
+  public JsonArray readAllAsJsonArray() throws IOException {
+    JsonArray telemetrySnapshots = new JsonArray();
+    TelemetrySnapshot telemetrySnapshot = read();
+    while (telemetrySnapshot != null) {
+      telemetrySnapshots.add(telemetrySnapshot.toJsonObject());
+      telemetrySnapshot = read();
+    }
+    return telemetrySnapshots;
+  }
+
+  /**
+   * Closes the underlying stream.
+   *
+   * @throws IOException If there is an issue closing the stream.
+   */
+  @Override
+  public void close() throws IOException {
+    inputStream.close();
+  }
+
+  /**
+   * Reads a memory usage written as deltas against the previous one.
+   *
+   * @param previousMemoryUsage The previous memory usage.
+   * @return The memory usage.
+   * @throws IOException If there is an issue reading the memory usage.
+   */
+  private ExtendedMemoryUsage readMemoryUsage(ExtendedMemoryUsage previousMemoryUsage)
+      throws IOException {
+    long init = previousMemoryUsage.getInit() + readSignedVarLong();
+    long used = previousMemoryUsage.getUsed() + readSignedVarLong();
+    long committed = previousMemoryUsage.getCommitted() + readSignedVarLong();
+    long max = previousMemoryUsage.getMax() + readSignedVarLong();
+    return new ExtendedMemoryUsage(init, used, committed, max);
+  }
+
+  /**
+   * Reads a thread state.
+   *
+   * @return The thread state.
+   * @throws IOException If there is an issue reading the thread state.
+   */
+  private Thread.State readThreadState() throws IOException {
+    long ordinal = readVarLong();
+    if (ordinal >= THREAD_STATES.length) {
+      throw new IOException(
+          I18nUtility.getFormattedString(
+              "TelemetrySnapshotReader.error.invalidValue",
+              ordinal
+          )
+      );
+    }
+    return THREAD_STATES[(int) ordinal];
+  }
+
+  /**
+   * Reads a string, either inline or as a reference to the string table.
+   *
+   * @return The string.
+   * @throws IOException If there is an issue reading the string.
+   */
+  private String readString() throws IOException {
+    long reference = readVarLong();
+    if (reference > 0) {
+      if (reference > stringTable.size()) {
+        throw new IOException(
+            I18nUtility.getFormattedString(
+                "TelemetrySnapshotReader.error.invalidValue",
+                reference
+            )
+        );
+      }
+      return stringTable.get((int) reference - 1);
+    }
+    int length = readCount();
+    byte[] stringBytes = inputStream.readNBytes(length);
+    if (stringBytes.length < length) {
+      throw new EOFException();
+    }
+    String string = new String(stringBytes, StandardCharsets.UTF_8);
+    if (stringTable.size() < TelemetrySnapshotWriter.MAX_STRING_TABLE_SIZE) {
+      stringTable.add(string);
+    }
+    return string;
+  }
+
+  /**
+   * Reads a count, e.g. of threads or stack frames.
+   *
+   * @return The count.
+   * @throws IOException If there is an issue reading the count or if it's out of range.
+   */
+  private int readCount() throws IOException {
+    long count = readVarLong();
+    if (count > Integer.MAX_VALUE - 8) {
+      throw new IOException(
+          I18nUtility.getFormattedString(
+              "TelemetrySnapshotReader.error.invalidValue",
+              count
+          )
+      );
+    }
+    return (int) count;
+  }
+
+  /**
+   * Reads a zigzag encoded signed integer.
+   *
+   * @return The integer.
+   * @throws IOException If there is an issue reading the integer.
+   */
+  private long readSignedVarLong() throws IOException {
+    long value = readVarLong();
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  /**
+   * Reads an unsigned integer written 7 bits per byte.
+   *
+   * @return The integer.
+   * @throws IOException If there is an issue reading the integer.
+   */
+  private long readVarLong() throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < Long.SIZE; shift += 7) {
+      int readByte = inputStream.read();
+      if (readByte == -1) {
+        throw new EOFException();
+      }
+      value |= (long) (readByte & 0x7F) << shift;
+      if ((readByte & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException(
+        I18nUtility.getFormattedString(
+            "TelemetrySnapshotReader.error.invalidValue",
+            value
+        )
+    );
+  }
+}
@@ -0,0 +1,295 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Writes TelemetrySnapshot objects to a stream in a compact binary format, read back by
+ * TelemetrySnapshotReader.
+ *
+ * <p>The stream starts with the MAGIC bytes and the VERSION, followed by one record per snapshot.
+ * All the integers are written as variable length integers, 7 bits per byte, and the signed ones
+ * are zigzag encoded first so that small negative values stay short. Most values are written as
+ * deltas against the previous snapshot of the stream:
+ *  - Timestamp, as a delta in milliseconds.
+ *  - Heap and non heap init, used, committed and max memory, as deltas.
+ *  - Garbage collector count, then the name, collection count delta and collection time delta of
+ *    each garbage collector.
+ *  - Thread count, then for each thread in ascending ID order: the ID delta against the previous
+ *    thread of the record, the name, the state, the CPU usage in hundredths of a percent, the
+ *    allocated memory delta against the same thread in the previous snapshot, the allocation rate
+ *    in bytes per second and the stack frames.
+ * Strings, i.e. thread names and stack frames, are written once per stream: the first occurrence
+ * is written as 0 followed by its UTF-8 length and bytes, and the next ones as its index in the
+ * string table plus 1. The CPU usages and allocation rates are rounded, everything else is
+ * lossless.
+ */
+public final class TelemetrySnapshotWriter implements Closeable {
+
+  /**
+   * Bytes starting a telemetry snapshot stream.
+   */
+  static final byte[] MAGIC = {'V', 'T', 'S'};
+  /**
+   * Version of the format.
+   */
+  static final int VERSION = 1;
+  /**
+   * Maximum number of strings in the string table, further strings are written inline every time.
+   */
+  static final int MAX_STRING_TABLE_SIZE = 1 << 16;
+  /**
+   * Factor applied to the CPU usages before rounding them.
+   */
+  static final double CPU_USAGE_SCALE = 100;
+  /**
+   * Snapshot without any value, which the first snapshot of a stream is encoded against.
+   */
+  static final TelemetrySnapshot EMPTY_SNAPSHOT = new TelemetrySnapshot(
+      Instant.EPOCH,
+      new ExtendedMemoryUsage(0, 0, 0, 0),
+      new ExtendedMemoryUsage(0, 0, 0, 0),
+      new GarbageCollectionInfo[0],
+      new long[0],
+      new String[0],
+      new Thread.State[0],
+      new double[0],
+      new long[0],
+      new double[0],
+      new String[0][]
+  );
+
+  /**
+   * Stream the snapshots are written to.
+   */
+  private final OutputStream outputStream;
+  /**
+   * Indexes of the strings written so far.
+   */
+  private final Map<String, Integer> stringTable = new HashMap<>();
+  /**
+   * Previous snapshot written, which the next one is encoded against.
+   */
+  private TelemetrySnapshot previousSnapshot = EMPTY_SNAPSHOT;
+
+  /**
+   * Creates a writer and writes the header of the stream.
+   *
+   * @param outputStream Stream to write the snapshots to.
+   * @throws IOException If there is an issue writing the header.
+   */
+  public TelemetrySnapshotWriter(OutputStream outputStream) throws IOException {
+    this.outputStream = new BufferedOutputStream(Objects.requireNonNull(outputStream));
+    this.outputStream.write(MAGIC);
+    writeVarLong(VERSION);
+  }
+
+  /**
+   * Writes a snapshot.
+   *
+   * @param telemetrySnapshot The snapshot to write.
+   * @throws IOException If there is an issue writing the snapshot.
+   */
+  public void write(TelemetrySnapshot telemetrySnapshot) throws IOException {
+    Objects.requireNonNull(telemetrySnapshot);
+    writeSignedVarLong(
+        telemetrySnapshot.getTimestamp().toEpochMilli()
+            - previousSnapshot.getTimestamp().toEpochMilli()
+    );
+    writeMemoryUsage(telemetrySnapshot.getHeapUsage(), previousSnapshot.getHeapUsage());
+    writeMemoryUsage(telemetrySnapshot.getNonHeapUsage(), previousSnapshot.getNonHeapUsage());
+
+    GarbageCollectionInfo[] garbageCollectionInfos = telemetrySnapshot.getGarbageCollectionInfos();
+    GarbageCollectionInfo[] previousGarbageCollectionInfos
+        = previousSnapshot.getGarbageCollectionInfos();
+    writeVarLong(garbageCollectionInfos.length);
+    for (int index = 0; index < garbageCollectionInfos.length; index++) {
+      GarbageCollectionInfo garbageCollectionInfo = garbageCollectionInfos[index];
+      GarbageCollectionInfo previousGarbageCollectionInfo = getPreviousGarbageCollectionInfo(
+          previousGarbageCollectionInfos,
+          index,
+          garbageCollectionInfo.getName()
+      );
+      writeString(garbageCollectionInfo.getName());
+      writeSignedVarLong(
+          garbageCollectionInfo.getCollectionCount()
+              - previousGarbageCollectionInfo.getCollectionCount()
+      );
+      writeSignedVarLong(
+          garbageCollectionInfo.getCollectionTime().toMillis()
+              - previousGarbageCollectionInfo.getCollectionTime().toMillis()
+      );
+    }
+
+    int threadsCount = telemetrySnapshot.getThreadsCount();
+    writeVarLong(threadsCount);
+    long previousThreadId = 0;
+    for (int index = 0; index < threadsCount; index++) {
+      long threadId = telemetrySnapshot.getThreadIdAt(index);
+      writeSignedVarLong(threadId - previousThreadId);
+      previousThreadId = threadId;
+      writeString(telemetrySnapshot.getThreadNameAt(index));
+      writeVarLong(telemetrySnapshot.getThreadStateAt(index).ordinal());
+      writeSignedVarLong(Math.round(telemetrySnapshot.getCpuUsageAt(index) * CPU_USAGE_SCALE));
+      writeSignedVarLong(
+          telemetrySnapshot.getAllocatedBytesAt(index)
+              - getPreviousAllocatedBytes(previousSnapshot, threadId)
+      );
+      writeSignedVarLong(Math.round(telemetrySnapshot.getAllocationRateAt(index)));
+      String[] stackTrace = telemetrySnapshot.getStackTraceAt(index);
+      writeVarLong(stackTrace.length);
+      for (String stackFrame : stackTrace) {
+        writeString(stackFrame);
+      }
+    }
+    previousSnapshot = telemetrySnapshot;
+  }
+
+  /**
+   * Starts a new stream on the underlying stream: writes the header again and forgets the string
+   * table and the previous snapshot, so that the next snapshots can be decoded without the ones
+   * written before. Lets a writer be reused instead of creating one per stream.
+   *
+   * @throws IOException If there is an issue writing the header.
+   */
+  public void reset() throws IOException {
+    stringTable.clear();
+    previousSnapshot = EMPTY_SNAPSHOT;
+    outputStream.write(MAGIC);
+    writeVarLong(VERSION);
+  }
+
+  /**
+   * Flushes the snapshots written so far to the underlying stream.
+   *
+   * @throws IOException If there is an issue flushing the stream.
+   */
+  public void flush() throws IOException {
+    outputStream.flush();
+  }
+
+  /**
+   * Flushes and closes the underlying stream.
+   *
+   * @throws IOException If there is an issue closing the stream.
+   */
+  @Override
+  public void close() throws IOException {
+    outputStream.close();
+  }
+
+  /**
+   * Gets the garbage collection info of the previous snapshot which a garbage collection info is
+   * encoded against. The garbage collectors of a JVM don't change, so the one at the same index is
+   * expected to match.
+   *
+   * @param previousGarbageCollectionInfos Garbage collection infos of the previous snapshot.
+   * @param index                          Index of the garbage collection info.
+   * @param name                           Name of the garbage collector.
+   * @return The garbage collection info to encode against, zeroed if there is none.
+   */
+  static GarbageCollectionInfo getPreviousGarbageCollectionInfo(
+      GarbageCollectionInfo[] previousGarbageCollectionInfos,
+      int index,
+      String name
+  ) {
+    return index < previousGarbageCollectionInfos.length
+        && previousGarbageCollectionInfos[index].getName().equals(name)
+        ? previousGarbageCollectionInfos[index]
+        : new GarbageCollectionInfo(name, 0, 0);
+  }
+
+  /**
+   * Gets the memory allocated by a thread in the previous snapshot, which its allocated memory is
+   * encoded against.
+   *
+   * @param previousSnapshot The previous snapshot.
+   * @param threadId         ID of the thread.
+   * @return The memory allocated by the thread in the previous snapshot, 0 if it isn't part of it.
+   */
+  static long getPreviousAllocatedBytes(TelemetrySnapshot previousSnapshot, long threadId) {
+    int low = 0;
+    int high = previousSnapshot.getThreadsCount() - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      long middleThreadId = previousSnapshot.getThreadIdAt(middle);
+      if (middleThreadId < threadId) {
+        low = middle + 1;
+      } else if (middleThreadId > threadId) {
+        high = middle - 1;
+      } else {
+        return previousSnapshot.getAllocatedBytesAt(middle);
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Writes a memory usage as deltas against the previous one.
+   *
+   * @param memoryUsage         The memory usage.
+   * @param previousMemoryUsage The previous memory usage.
+   * @throws IOException If there is an issue writing the memory usage.
+   */
+  private void writeMemoryUsage(MemoryUsage memoryUsage, MemoryUsage previousMemoryUsage)
+      throws IOException {
+    writeSignedVarLong(memoryUsage.getInit() - previousMemoryUsage.getInit());
+    writeSignedVarLong(memoryUsage.getUsed() - previousMemoryUsage.getUsed());
+    writeSignedVarLong(memoryUsage.getCommitted() - previousMemoryUsage.getCommitted());
+    writeSignedVarLong(memoryUsage.getMax() - previousMemoryUsage.getMax());
+  }
+
+  /**
+   * Writes a string, as a reference to the string table if it has already been written.
+   *
+   * @param string The string.
+   * @throws IOException If there is an issue writing the string.
+   */
+  private void writeString(String string) throws IOException {
+    Integer stringIndex = stringTable.get(string);
+    if (stringIndex != null) {
+      writeVarLong(stringIndex + 1);
+      return;
+    }
+    writeVarLong(0);
+    byte[] stringBytes = string.getBytes(StandardCharsets.UTF_8);
+    writeVarLong(stringBytes.length);
+    outputStream.write(stringBytes);
+    if (stringTable.size() < MAX_STRING_TABLE_SIZE) {
+      stringTable.put(string, stringTable.size());
+    }
+  }
+
+  /**
+   * Writes a signed integer, zigzag encoded so that small negative values stay short.
+   *
+   * @param value The integer.
+   * @throws IOException If there is an issue writing the integer.
+   */
+  private void writeSignedVarLong(long value) throws IOException {
+    writeVarLong((value << 1) ^ (value >> 63));
+  }
+
+  /**
+   * Writes an unsigned integer, 7 bits per byte, the highest bit being set on all but the last
+   * byte.
+   *
+   * @param value The integer.
+   * @throws IOException If there is an issue writing the integer.
+   */
+  private void writeVarLong(long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      outputStream.write((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    outputStream.write((int) value);
+  }
+}
@@ -0,0 +1,102 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+/**
+ * Stores a thread container of a thread dump, e.g. an executor or a structured task scope, and the
+ * threads it started.
+ */
+public class ThreadContainerInfo {
+
+  /**
+   * Name of the container.
+   */
+  private final String name;
+  /**
+   * Name of the parent container, or null for the root container.
+   */
+  private final String parentName;
+  /**
+   * ID of the thread owning the container, or -1 if it has no owner.
+   */
+  private final long ownerThreadId;
+  /**
+   * Threads of the container.
+   */
+  private final DumpedThreadInfo[] threadInfos;
+
+  /**
+   * Abstracts a thread container of a thread dump.
+   *
+   * @param name          Name of the container.
+   * @param parentName    Name of the parent container, or null for the root container.
+   * @param ownerThreadId ID of the thread owning the container, or -1 if it has no owner.
+   * @param threadInfos   Threads of the container.
+   */
+  public ThreadContainerInfo(
+      String name,
+      String parentName,
+      long ownerThreadId,
+      DumpedThreadInfo[] threadInfos
+  ) {
+    this.name = name;
+    this.parentName = parentName;
+    this.ownerThreadId = ownerThreadId;
+    this.threadInfos = threadInfos.clone();
+  }
+
+  /**
+   * Gets the name of the container.
+   *
+   * @return Name of the container.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the name of the parent container.
+   *
+   * @return Name of the parent container, or null for the root container.
+   */
+  public String getParentName() {
+    return parentName;
+  }
+
+  /**
+   * Gets the ID of the thread owning the container.
+   *
+   * @return ID of the thread owning the container, or -1 if it has no owner.
+   */
+  public long getOwnerThreadId() {
+    return ownerThreadId;
+  }
+
+  /**
+   * Gets the threads of the container.
+   *
+   * @return Threads of the container.
+   */
+  public DumpedThreadInfo[] getThreadInfos() {
+    return threadInfos.clone();
+  }
+
+  /**
+   * Gets a JSON representation of an instance of this class.
+   *
+   * @return JSON representation of an instance of this class.
+   */
+  public JsonObject toJsonObject() {
+    JsonObject threadContainerInfoJsonObject = new JsonObject();
+    threadContainerInfoJsonObject.addProperty("name", name);
+    threadContainerInfoJsonObject.addProperty("parentName", parentName);
+    threadContainerInfoJsonObject.addProperty("ownerThreadId", ownerThreadId);
+    JsonArray threadInfosJsonArray = new JsonArray();
+    for (DumpedThreadInfo threadInfo : threadInfos) {
+      threadInfosJsonArray.add(threadInfo.toJsonObject());
+    }
+    threadContainerInfoJsonObject.add("threadInfos", threadInfosJsonArray);
+    return threadContainerInfoJsonObject;
+  }
+}
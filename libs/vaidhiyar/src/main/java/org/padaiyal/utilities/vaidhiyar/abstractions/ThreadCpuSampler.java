@@ -0,0 +1,373 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import com.sun.management.ThreadMXBean;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Samples the CPU time and allocated memory of all the JVM threads and computes their CPU usage and
+ * allocation rate since the previous sample. The CPU times are retrieved with a single bulk
+ * ThreadMXBean call and stored in an open addressing table of primitive arrays keyed by thread ID,
+ * so that the bookkeeping doesn't allocate once the table has grown to fit the threads. Each
+ * sample is published as an immutable ThreadUsageSnapshot through a single volatile write, so
+ * readers never block and always see the values of one interval.
+ */
+public final class ThreadCpuSampler {
+
+  /**
+   * Initial capacity of the table, it has to be a power of 2.
+   */
+  private static final int INITIAL_CAPACITY = 256;
+  /**
+   * Thread ID used to mark an empty slot, thread IDs are always positive.
+   */
+  private static final long EMPTY_SLOT = 0;
+
+  /**
+   * ThreadMXBean used to get the thread CPU times.
+   */
+  private final ThreadMXBean threadMxBean;
+  /**
+   * Snapshot of the latest sampling interval.
+   */
+  private volatile ThreadUsageSnapshot latestSnapshot = ThreadUsageSnapshot.EMPTY;
+
+  /**
+   * Thread IDs of the table slots, EMPTY_SLOT for empty slots.
+   */
+  private long[] threadIds;
+  /**
+   * Thread CPU times in nanoseconds, as of the sample in which the thread was last seen.
+   */
+  private long[] cpuTimesInNanoSeconds;
+  /**
+   * Thread CPU usages computed in the sample in which the thread was last seen, -1 if unknown.
+   */
+  private double[] cpuUsages;
+  /**
+   * Number of the sample in which the thread was last seen.
+   */
+  private long[] lastSeenSamples;
+  /**
+   * Spare arrays used when the table is rehashed, so that pruning doesn't allocate.
+   */
+  private long[] spareThreadIds;
+  /**
+   * Spare thread CPU times array used when the table is rehashed.
+   */
+  private long[] spareCpuTimesInNanoSeconds;
+  /**
+   * Spare thread CPU usages array used when the table is rehashed.
+   */
+  private double[] spareCpuUsages;
+  /**
+   * Spare last seen samples array used when the table is rehashed.
+   */
+  private long[] spareLastSeenSamples;
+  /**
+   * Number of occupied slots, including the ones of threads that are no longer alive.
+   */
+  private int occupiedSlotsCount;
+  /**
+   * Number of samples taken.
+   */
+  private long samplesCount;
+  /**
+   * Time at which the latest sample was taken, from System.nanoTime().
+   */
+  private long latestSampleNanoTime;
+
+  /**
+   * Creates a thread CPU sampler.
+   *
+   * @param threadMxBean ThreadMXBean used to get the thread CPU times.
+   */
+  public ThreadCpuSampler(ThreadMXBean threadMxBean) {
+    this.threadMxBean = Objects.requireNonNull(threadMxBean);
+    allocateTable(INITIAL_CAPACITY);
+  }
+
+  /**
+   * Samples the CPU time and allocated memory of all the threads, computes the CPU usage and
+   * allocation rate of the threads that were also seen in the previous sample, and publishes the
+   * result as the latest snapshot.
+   */
+  public synchronized void sample() {
+    long[] sampledThreadIds = threadMxBean.getAllThreadIds();
+    long[] sampledCpuTimesInNanoSeconds = threadMxBean.getThreadCpuTime(sampledThreadIds);
+    long[] sampledAllocatedBytes = threadMxBean.getThreadAllocatedBytes(sampledThreadIds);
+    long sampleNanoTime = System.nanoTime();
+
+    long intervalInNanoSeconds = samplesCount == 0 ? 0 : sampleNanoTime - latestSampleNanoTime;
+    long previousSample = samplesCount;
+    long currentSample = ++samplesCount;
+    int threadsCount = 0;
+    for (int index = 0; index < sampledThreadIds.length; index++) {
+      long cpuTimeInNanoSeconds = sampledCpuTimesInNanoSeconds[index];
+      // A negative CPU time means that the thread has terminated or CPU time measurement is
+      // disabled.
+      if (cpuTimeInNanoSeconds < 0) {
+        continue;
+      }
+      int slot = findOrInsertSlot(sampledThreadIds[index]);
+      boolean isSeenPreviously = previousSample > 0 && lastSeenSamples[slot] == previousSample
+          && cpuTimeInNanoSeconds >= cpuTimesInNanoSeconds[slot];
+      cpuUsages[slot] = isSeenPreviously && intervalInNanoSeconds > 0
+          ? (cpuTimeInNanoSeconds - cpuTimesInNanoSeconds[slot]) * 100.0 / intervalInNanoSeconds
+          : -1;
+      cpuTimesInNanoSeconds[slot] = cpuTimeInNanoSeconds;
+      lastSeenSamples[slot] = currentSample;
+      // Compact the sampled values of the live threads to the front, for the snapshot.
+      sampledThreadIds[threadsCount] = sampledThreadIds[index];
+      sampledAllocatedBytes[threadsCount] = sampledAllocatedBytes[index];
+      threadsCount++;
+    }
+    latestSampleNanoTime = sampleNanoTime;
+
+    // Prune the threads that are no longer alive once they fill half the table.
+    if (occupiedSlotsCount > threadIds.length / 2) {
+      rehash();
+    }
+
+    latestSnapshot = createSnapshot(
+        Instant.now(),
+        Duration.ofNanos(intervalInNanoSeconds),
+        sampledThreadIds,
+        sampledAllocatedBytes,
+        threadsCount
+    );
+  }
+
+  /**
+   * Gets the snapshot of the latest sampling interval.
+   *
+   * @return The snapshot of the latest sampling interval, ThreadUsageSnapshot.EMPTY if no sample
+   *         has been taken.
+   */
+  public ThreadUsageSnapshot getLatestSnapshot() {
+    return latestSnapshot;
+  }
+
+  /**
+   * Gets the CPU usage of a thread over the latest sampling interval.
+   *
+   * @param threadId ID of the thread.
+   * @return CPU usage of the thread as a percentage of one core, -1 if it isn't known.
+   */
+  public double getCpuUsage(long threadId) {
+    return latestSnapshot.getCpuUsage(threadId);
+  }
+
+  /**
+   * Gets the number of samples taken.
+   *
+   * @return The number of samples taken.
+   */
+  public synchronized long getSamplesCount() {
+    return samplesCount;
+  }
+
+  /**
+   * Discards all the samples taken.
+   */
+  public synchronized void reset() {
+    Arrays.fill(threadIds, EMPTY_SLOT);
+    occupiedSlotsCount = 0;
+    samplesCount = 0;
+    latestSnapshot = ThreadUsageSnapshot.EMPTY;
+  }
+
+  /**
+   * Creates a snapshot from the sampled values and the CPU usages in the table. The allocation
+   * rates are computed against the previous snapshot.
+   *
+   * @param sampleInstant         Time at which the sample was taken.
+   * @param interval              Time elapsed since the previous sample.
+   * @param sampledThreadIds      IDs of the sampled threads, the first threadsCount are used.
+   * @param sampledAllocatedBytes Memory allocated by the sampled threads, indexed like
+   *                              sampledThreadIds.
+   * @param threadsCount          Number of sampled threads.
+   * @return The snapshot.
+   */
+  private ThreadUsageSnapshot createSnapshot(
+      Instant sampleInstant,
+      Duration interval,
+      long[] sampledThreadIds,
+      long[] sampledAllocatedBytes,
+      int threadsCount
+  ) {
+    long[] snapshotThreadIds = Arrays.copyOf(sampledThreadIds, threadsCount);
+    Arrays.sort(snapshotThreadIds);
+    double[] snapshotCpuUsages = new double[threadsCount];
+    long[] snapshotAllocatedBytes = new long[threadsCount];
+    for (int index = 0; index < threadsCount; index++) {
+      snapshotCpuUsages[index] = cpuUsages[findSlot(snapshotThreadIds[index])];
+    }
+    // The allocated bytes are indexed in sampling order, map them to the sorted order.
+    for (int index = 0; index < threadsCount; index++) {
+      int snapshotIndex = Arrays.binarySearch(snapshotThreadIds, sampledThreadIds[index]);
+      snapshotAllocatedBytes[snapshotIndex] = sampledAllocatedBytes[index];
+    }
+
+    // Both snapshots are sorted by thread ID, so merge them to compute the allocation rates.
+    ThreadUsageSnapshot previousSnapshot = latestSnapshot;
+    double intervalInSeconds = interval.toNanos() / 1_000_000_000.0;
+    double[] snapshotAllocationRates = new double[threadsCount];
+    double totalAllocationRate = 0;
+    int previousIndex = 0;
+    for (int index = 0; index < threadsCount; index++) {
+      long threadId = snapshotThreadIds[index];
+      while (previousIndex < previousSnapshot.getThreadsCount()
+          && previousSnapshot.getThreadIdAt(previousIndex) < threadId) {
+        previousIndex++;
+      }
+      long previousAllocatedBytes = previousIndex < previousSnapshot.getThreadsCount()
+          && previousSnapshot.getThreadIdAt(previousIndex) == threadId
+          ? previousSnapshot.getAllocatedBytesAt(previousIndex)
+          : -1;
+      boolean isAllocationRateKnown = previousAllocatedBytes >= 0
+          && snapshotAllocatedBytes[index] >= previousAllocatedBytes
+          && intervalInSeconds > 0;
+      snapshotAllocationRates[index] = isAllocationRateKnown
+          ? (snapshotAllocatedBytes[index] - previousAllocatedBytes) / intervalInSeconds
+          : -1;
+      if (isAllocationRateKnown) {
+        totalAllocationRate += snapshotAllocationRates[index];
+      }
+    }
+
+    return new ThreadUsageSnapshot(
+        sampleInstant,
+        interval,
+        snapshotThreadIds,
+        snapshotCpuUsages,
+        snapshotAllocatedBytes,
+        snapshotAllocationRates,
+        totalAllocationRate
+    );
+  }
+
+  /**
+   * Finds the slot of a thread that is present in the table.
+   *
+   * @param threadId ID of the thread.
+   * @return Slot of the thread.
+   */
+  private int findSlot(long threadId) {
+    int mask = threadIds.length - 1;
+    int slot = hash(threadId) & mask;
+    while (threadIds[slot] != threadId) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * Finds the slot of a thread, inserting it if it isn't present.
+   *
+   * @param threadId ID of the thread.
+   * @return Slot of the thread.
+   */
+  private int findOrInsertSlot(long threadId) {
+    // Keep the load factor under 0.75, so that probing terminates quickly.
+    if ((occupiedSlotsCount + 1) * 4L > threadIds.length * 3L) {
+      rehash();
+    }
+    int mask = threadIds.length - 1;
+    int slot = hash(threadId) & mask;
+    while (threadIds[slot] != threadId) {
+      if (threadIds[slot] == EMPTY_SLOT) {
+        threadIds[slot] = threadId;
+        lastSeenSamples[slot] = 0;
+        occupiedSlotsCount++;
+        break;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * Moves the threads seen in the latest two samples to the spare arrays and swaps them with the
+   * table. The table grows when these threads fill more than a quarter of it, it is only then that
+   * new arrays are allocated.
+   */
+  private void rehash() {
+    long oldestKeptSample = samplesCount - 1;
+    int keptThreadsCount = 0;
+    for (int slot = 0; slot < threadIds.length; slot++) {
+      if (threadIds[slot] != EMPTY_SLOT && lastSeenSamples[slot] >= oldestKeptSample) {
+        keptThreadsCount++;
+      }
+    }
+    int capacity = threadIds.length;
+    while ((keptThreadsCount + 1) * 4L > capacity) {
+      capacity *= 2;
+    }
+
+    long[] oldThreadIds = threadIds;
+    long[] oldCpuTimesInNanoSeconds = cpuTimesInNanoSeconds;
+    double[] oldCpuUsages = cpuUsages;
+    long[] oldLastSeenSamples = lastSeenSamples;
+    if (capacity == oldThreadIds.length) {
+      threadIds = spareThreadIds;
+      cpuTimesInNanoSeconds = spareCpuTimesInNanoSeconds;
+      cpuUsages = spareCpuUsages;
+      lastSeenSamples = spareLastSeenSamples;
+      spareThreadIds = oldThreadIds;
+      spareCpuTimesInNanoSeconds = oldCpuTimesInNanoSeconds;
+      spareCpuUsages = oldCpuUsages;
+      spareLastSeenSamples = oldLastSeenSamples;
+      Arrays.fill(threadIds, EMPTY_SLOT);
+    } else {
+      allocateTable(capacity);
+    }
+
+    occupiedSlotsCount = 0;
+    int mask = capacity - 1;
+    for (int oldSlot = 0; oldSlot < oldThreadIds.length; oldSlot++) {
+      long threadId = oldThreadIds[oldSlot];
+      if (threadId == EMPTY_SLOT || oldLastSeenSamples[oldSlot] < oldestKeptSample) {
+        continue;
+      }
+      int slot = hash(threadId) & mask;
+      while (threadIds[slot] != EMPTY_SLOT) {
+        slot = (slot + 1) & mask;
+      }
+      threadIds[slot] = threadId;
+      cpuTimesInNanoSeconds[slot] = oldCpuTimesInNanoSeconds[oldSlot];
+      cpuUsages[slot] = oldCpuUsages[oldSlot];
+      lastSeenSamples[slot] = oldLastSeenSamples[oldSlot];
+      occupiedSlotsCount++;
+    }
+  }
+
+  /**
+   * Allocates the table and the spare arrays.
+   *
+   * @param capacity Capacity of the table, it has to be a power of 2.
+   */
+  private void allocateTable(int capacity) {
+    threadIds = new long[capacity];
+    cpuTimesInNanoSeconds = new long[capacity];
+    cpuUsages = new double[capacity];
+    lastSeenSamples = new long[capacity];
+    spareThreadIds = new long[capacity];
+    spareCpuTimesInNanoSeconds = new long[capacity];
+    spareCpuUsages = new double[capacity];
+    spareLastSeenSamples = new long[capacity];
+  }
+
+  /**
+   * Spreads the bits of a thread ID, as thread IDs are mostly sequential.
+   *
+   * @param threadId ID of the thread.
+   * @return Hash of the thread ID.
+   */
+  private static int hash(long threadId) {
+    long hash = threadId * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32));
+  }
+}
@@ -0,0 +1,193 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Stores a dump of all the threads of the JVM, virtual threads included, grouped by the thread
+ * container which started them.
+ */
+public class ThreadDump {
+
+  /**
+   * ID of the JVM process.
+   */
+  private final long processId;
+  /**
+   * Time at which the threads were dumped.
+   */
+  private final Instant timestamp;
+  /**
+   * Version of the Java runtime.
+   */
+  private final String runtimeVersion;
+  /**
+   * Thread containers, the root container first.
+   */
+  private final ThreadContainerInfo[] threadContainerInfos;
+
+  /**
+   * Abstracts a dump of all the threads of the JVM.
+   *
+   * @param processId            ID of the JVM process.
+   * @param timestamp            Time at which the threads were dumped.
+   * @param runtimeVersion       Version of the Java runtime.
+   * @param threadContainerInfos Thread containers, the root container first.
+   */
+  public ThreadDump(
+      long processId,
+      Instant timestamp,
+      String runtimeVersion,
+      ThreadContainerInfo[] threadContainerInfos
+  ) {
+    this.processId = processId;
+    this.timestamp = timestamp;
+    this.runtimeVersion = runtimeVersion;
+    this.threadContainerInfos = threadContainerInfos.clone();
+  }
+
+  /**
+   * Parses a thread dump written by HotSpotDiagnosticMXBean.dumpThreads() in the JSON format.
+   * Runtimes which don't flag the virtual threads in the dump have them told apart from the
+   * platform threads by their IDs.
+   *
+   * @param threadDumpJsonObject The JSON thread dump.
+   * @param platformThreadIds    IDs of the platform threads.
+   * @return The thread dump.
+   */
+  public static ThreadDump fromJsonObject(
+      JsonObject threadDumpJsonObject,
+      Set<Long> platformThreadIds
+  ) {
+    JsonObject threadDump = threadDumpJsonObject.getAsJsonObject("threadDump");
+    JsonArray threadContainersJsonArray = threadDump.getAsJsonArray("threadContainers");
+    ThreadContainerInfo[] threadContainerInfos
+        = new ThreadContainerInfo[threadContainersJsonArray.size()];
+    for (int index = 0; index < threadContainerInfos.length; index++) {
+      JsonObject threadContainer = threadContainersJsonArray.get(index).getAsJsonObject();
+      JsonArray threadsJsonArray = threadContainer.getAsJsonArray("threads");
+      DumpedThreadInfo[] threadInfos = new DumpedThreadInfo[threadsJsonArray.size()];
+      for (int threadIndex = 0; threadIndex < threadInfos.length; threadIndex++) {
+        JsonObject thread = threadsJsonArray.get(threadIndex).getAsJsonObject();
+        long threadId = thread.get("tid").getAsLong();
+        JsonElement virtual = thread.get("virtual");
+        JsonArray stackJsonArray = thread.getAsJsonArray("stack");
+        String[] stackTrace = new String[stackJsonArray.size()];
+        for (int frameIndex = 0; frameIndex < stackTrace.length; frameIndex++) {
+          stackTrace[frameIndex] = stackJsonArray.get(frameIndex).getAsString();
+        }
+        threadInfos[threadIndex] = new DumpedThreadInfo(
+            threadId,
+            thread.get("name").getAsString(),
+            virtual == null ? !platformThreadIds.contains(threadId) : virtual.getAsBoolean(),
+            stackTrace
+        );
+      }
+      String ownerThreadId = getNullableString(threadContainer, "owner");
+      threadContainerInfos[index] = new ThreadContainerInfo(
+          threadContainer.get("container").getAsString(),
+          getNullableString(threadContainer, "parent"),
+          ownerThreadId == null ? -1 : Long.parseLong(ownerThreadId),
+          threadInfos
+      );
+    }
+    return new ThreadDump(
+        threadDump.get("processId").getAsLong(),
+        Instant.parse(threadDump.get("time").getAsString()),
+        threadDump.get("runtimeVersion").getAsString(),
+        threadContainerInfos
+    );
+  }
+
+  /**
+   * Gets the ID of the JVM process.
+   *
+   * @return ID of the JVM process.
+   */
+  public long getProcessId() {
+    return processId;
+  }
+
+  /**
+   * Gets the time at which the threads were dumped.
+   *
+   * @return Time at which the threads were dumped.
+   */
+  public Instant getTimestamp() {
+    return timestamp;
+  }
+
+  /**
+   * Gets the version of the Java runtime.
+   *
+   * @return Version of the Java runtime.
+   */
+  public String getRuntimeVersion() {
+    return runtimeVersion;
+  }
+
+  /**
+   * Gets the thread containers.
+   *
+   * @return Thread containers, the root container first.
+   */
+  public ThreadContainerInfo[] getThreadContainerInfos() {
+    return threadContainerInfos.clone();
+  }
+
+  /**
+   * Gets the threads of all the containers.
+   *
+   * @return Threads of all the containers.
+   */
+  public DumpedThreadInfo[] getAllThreadInfos() {
+    return Arrays.stream(threadContainerInfos)
+        .flatMap(threadContainerInfo -> Arrays.stream(threadContainerInfo.getThreadInfos()))
+        .toArray(DumpedThreadInfo[]::new);
+  }
+
+  /**
+   * Gets the number of virtual threads in the dump.
+   *
+   * @return Number of virtual threads.
+   */
+  public long getVirtualThreadsCount() {
+    return Arrays.stream(getAllThreadInfos())
+        .filter(DumpedThreadInfo::isVirtual)
+        .count();
+  }
+
+  /**
+   * Gets a JSON representation of an instance of this class.
+   *
+   * @return JSON representation of an instance of this class.
+   */
+  public JsonObject toJsonObject() {
+    JsonObject threadDumpJsonObject = new JsonObject();
+    threadDumpJsonObject.addProperty("processId", processId);
+    threadDumpJsonObject.addProperty("timestamp", timestamp.toString());
+    threadDumpJsonObject.addProperty("runtimeVersion", runtimeVersion);
+    JsonArray threadContainerInfosJsonArray = new JsonArray();
+    for (ThreadContainerInfo threadContainerInfo : threadContainerInfos) {
+      threadContainerInfosJsonArray.add(threadContainerInfo.toJsonObject());
+    }
+    threadDumpJsonObject.add("threadContainerInfos", threadContainerInfosJsonArray);
+    return threadDumpJsonObject;
+  }
+
+  /**
+   * Gets a string property of a JSON object which may be null.
+   *
+   * @param jsonObject   The JSON object.
+   * @param propertyName Name of the property.
+   * @return The value of the property, or null if missing or null.
+   */
+  private static String getNullableString(JsonObject jsonObject, String propertyName) {
+    JsonElement jsonElement = jsonObject.get(propertyName);
+    return jsonElement == null || jsonElement.isJsonNull() ? null : jsonElement.getAsString();
+  }
+}
@@ -0,0 +1,322 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Keeps a bounded history of the CPU usage and allocation rate of every live thread, built from
+ * consecutive ThreadUsageSnapshot objects. Each thread's history is a ring buffer of primitive
+ * arrays holding the latest samples, along with exponentially weighted moving averages. The history
+ * of a thread is discarded as soon as it's missing from a snapshot, so short-lived threads don't
+ * accumulate.
+ */
+public final class ThreadUsageHistory {
+
+  /**
+   * Smoothing factors of the moving averages decaying over 1, 5 and 15 samples.
+   */
+  private static final double[] EWMA_ALPHAS = {
+      1 - Math.exp(-1.0),
+      1 - Math.exp(-1.0 / 5),
+      1 - Math.exp(-1.0 / 15)
+    };
+  /**
+   * Thread ID array used when no thread is tracked.
+   */
+  private static final long[] NO_THREAD_IDS = new long[0];
+  /**
+   * Thread series array used when no thread is tracked.
+   */
+  private static final ThreadSeries[] NO_THREAD_SERIES = new ThreadSeries[0];
+
+  static {
+    I18nUtility.addResourceBundle(
+        ThreadUsageHistory.class,
+        ThreadUsageHistory.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Maximum number of samples kept per thread.
+   */
+  private final int capacity;
+  /**
+   * Scratch array used to sort a window when computing percentiles.
+   */
+  private final double[] sortedWindow;
+  /**
+   * IDs of the tracked threads, in ascending order.
+   */
+  private long[] threadIds = NO_THREAD_IDS;
+  /**
+   * History of the tracked threads, indexed like threadIds.
+   */
+  private ThreadSeries[] threadSeries = NO_THREAD_SERIES;
+
+  /**
+   * Creates an empty history.
+   *
+   * @param capacity Maximum number of samples kept per thread.
+   */
+  public ThreadUsageHistory(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "ThreadUsageHistory.error.nonPositiveCapacity",
+              capacity
+          )
+      );
+    }
+    this.capacity = capacity;
+    sortedWindow = new double[capacity];
+  }
+
+  /**
+   * Gets the maximum number of samples kept per thread.
+   *
+   * @return The maximum number of samples kept per thread.
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Appends the values of a snapshot to the history of its threads, and discards the history of
+   * the threads that aren't part of it. Nothing is appended for threads whose CPU usage isn't known
+   * yet.
+   *
+   * @param threadUsageSnapshot Snapshot to record.
+   */
+  public synchronized void record(ThreadUsageSnapshot threadUsageSnapshot) {
+    Objects.requireNonNull(threadUsageSnapshot);
+    int threadsCount = threadUsageSnapshot.getThreadsCount();
+    if (!hasSameThreads(threadUsageSnapshot)) {
+      long[] newThreadIds = new long[threadsCount];
+      ThreadSeries[] newThreadSeries = new ThreadSeries[threadsCount];
+      // Both the snapshot and the history are sorted by thread ID, so merge them.
+      int index = 0;
+      for (int snapshotIndex = 0; snapshotIndex < threadsCount; snapshotIndex++) {
+        long threadId = threadUsageSnapshot.getThreadIdAt(snapshotIndex);
+        while (index < threadIds.length && threadIds[index] < threadId) {
+          index++;
+        }
+        newThreadIds[snapshotIndex] = threadId;
+        newThreadSeries[snapshotIndex] = index < threadIds.length && threadIds[index] == threadId
+            ? threadSeries[index]
+            : new ThreadSeries(capacity);
+      }
+      threadIds = newThreadIds;
+      threadSeries = newThreadSeries;
+    }
+
+    for (int index = 0; index < threadsCount; index++) {
+      threadSeries[index].add(
+          threadUsageSnapshot.getCpuUsageAt(index),
+          threadUsageSnapshot.getAllocationRateAt(index)
+      );
+    }
+  }
+
+  /**
+   * Gets the IDs of the tracked threads.
+   *
+   * @return The IDs of the tracked threads, in ascending order.
+   */
+  public synchronized long[] getThreadIds() {
+    return threadIds.clone();
+  }
+
+  /**
+   * Gets the statistics of the CPU usage of a thread, as a percentage of one core.
+   *
+   * @param threadId ID of the thread.
+   * @return The statistics of the CPU usage of the thread, null if it has no samples.
+   */
+  public synchronized UsageStatistics getCpuUsageStatistics(long threadId) {
+    ThreadSeries series = getThreadSeries(threadId);
+    return series == null ? null : computeStatistics(series, series.cpuUsages, series.cpuEwmas);
+  }
+
+  /**
+   * Gets the statistics of the allocation rate of a thread, in bytes per second.
+   *
+   * @param threadId ID of the thread.
+   * @return The statistics of the allocation rate of the thread, null if it has no samples.
+   */
+  public synchronized UsageStatistics getAllocationRateStatistics(long threadId) {
+    ThreadSeries series = getThreadSeries(threadId);
+    return series == null
+        ? null
+        : computeStatistics(series, series.allocationRates, series.allocationRateEwmas);
+  }
+
+  /**
+   * Gets the threads with the highest CPU usage averaged over the last 15 samples, which are the
+   * persistently hot threads rather than those with a single busy sample.
+   *
+   * @param count Maximum number of threads to return.
+   * @return IDs of the hottest threads, hottest first.
+   */
+  public synchronized long[] getHottestThreadIds(int count) {
+    if (count < 0) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "ThreadUsageHistory.error.negativeCount",
+              count
+          )
+      );
+    }
+    return IntStream.range(0, threadSeries.length)
+        .filter(index -> threadSeries[index].samplesCount > 0)
+        .boxed()
+        .sorted((index1, index2) -> Double.compare(
+            threadSeries[index2].cpuEwmas[2],
+            threadSeries[index1].cpuEwmas[2]
+        ))
+        .limit(count)
+        .mapToLong(index -> threadIds[index])
+        .toArray();
+  }
+
+  /**
+   * Checks if a snapshot has the same threads as the ones tracked.
+   *
+   * @param threadUsageSnapshot The snapshot.
+   * @return true if the snapshot has the same threads as the ones tracked, else false.
+   */
+  private boolean hasSameThreads(ThreadUsageSnapshot threadUsageSnapshot) {
+    if (threadUsageSnapshot.getThreadsCount() != threadIds.length) {
+      return false;
+    }
+    for (int index = 0; index < threadIds.length; index++) {
+      if (threadUsageSnapshot.getThreadIdAt(index) != threadIds[index]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Gets the history of a thread.
+   *
+   * @param threadId ID of the thread.
+   * @return History of the thread, null if it isn't tracked or has no samples.
+   */
+  private ThreadSeries getThreadSeries(long threadId) {
+    int index = Arrays.binarySearch(threadIds, threadId);
+    return index < 0 || threadSeries[index].samplesCount == 0 ? null : threadSeries[index];
+  }
+
+  /**
+   * Computes the statistics of one metric of a thread's history.
+   *
+   * @param series History of the thread.
+   * @param window Ring buffer of the metric.
+   * @param ewmas  Moving averages of the metric.
+   * @return The statistics of the metric.
+   */
+  private UsageStatistics computeStatistics(ThreadSeries series, double[] window, double[] ewmas) {
+    int samplesCount = series.samplesCount;
+    System.arraycopy(window, 0, sortedWindow, 0, samplesCount);
+    Arrays.sort(sortedWindow, 0, samplesCount);
+    int latestIndex = (series.nextIndex + capacity - 1) % capacity;
+    return new UsageStatistics(
+        samplesCount,
+        window[latestIndex],
+        ewmas[0],
+        ewmas[1],
+        ewmas[2],
+        sortedWindow[samplesCount - 1],
+        getPercentile(samplesCount, 0.50),
+        getPercentile(samplesCount, 0.95),
+        getPercentile(samplesCount, 0.99)
+    );
+  }
+
+  /**
+   * Gets a percentile of the sorted window, using the nearest rank method.
+   *
+   * @param samplesCount Number of samples in the sorted window.
+   * @param percentile   The percentile, between 0 and 1.
+   * @return The value at the percentile.
+   */
+  private double getPercentile(int samplesCount, double percentile) {
+    int rank = (int) Math.ceil(percentile * samplesCount);
+    return sortedWindow[Math.max(0, rank - 1)];
+  }
+
+  /**
+   * History of a single thread.
+   */
+  private static final class ThreadSeries {
+
+    /**
+     * Ring buffer of the CPU usages.
+     */
+    private final double[] cpuUsages;
+    /**
+     * Ring buffer of the allocation rates in bytes per second, indexed like cpuUsages.
+     */
+    private final double[] allocationRates;
+    /**
+     * Moving averages of the CPU usage, decaying over 1, 5 and 15 samples.
+     */
+    private final double[] cpuEwmas = new double[EWMA_ALPHAS.length];
+    /**
+     * Moving averages of the allocation rate, decaying over 1, 5 and 15 samples.
+     */
+    private final double[] allocationRateEwmas = new double[EWMA_ALPHAS.length];
+    /**
+     * Index of the ring buffers at which the next sample is written.
+     */
+    private int nextIndex;
+    /**
+     * Number of samples in the ring buffers.
+     */
+    private int samplesCount;
+
+    /**
+     * Creates an empty thread history.
+     *
+     * @param capacity Maximum number of samples kept.
+     */
+    private ThreadSeries(int capacity) {
+      cpuUsages = new double[capacity];
+      allocationRates = new double[capacity];
+    }
+
+    /**
+     * Appends a sample.
+     *
+     * @param cpuUsage       CPU usage of the thread, -1 if it isn't known.
+     * @param allocationRate Allocation rate of the thread in bytes per second, -1 if it isn't
+     *                       known.
+     */
+    private void add(double cpuUsage, double allocationRate) {
+      if (cpuUsage < 0) {
+        return;
+      }
+      // The allocation rate is recorded as 0 when it isn't known, e.g. if allocation measurement is
+      // disabled.
+      allocationRate = Math.max(0, allocationRate);
+
+      cpuUsages[nextIndex] = cpuUsage;
+      allocationRates[nextIndex] = allocationRate;
+      nextIndex = (nextIndex + 1) % cpuUsages.length;
+      for (int index = 0; index < EWMA_ALPHAS.length; index++) {
+        cpuEwmas[index] = samplesCount == 0
+            ? cpuUsage
+            : cpuEwmas[index] + EWMA_ALPHAS[index] * (cpuUsage - cpuEwmas[index]);
+        allocationRateEwmas[index] = samplesCount == 0
+            ? allocationRate
+            : allocationRateEwmas[index]
+                + EWMA_ALPHAS[index] * (allocationRate - allocationRateEwmas[index]);
+      }
+      samplesCount = Math.min(samplesCount + 1, cpuUsages.length);
+    }
+  }
+}
@@ -0,0 +1,205 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Immutable snapshot of the CPU usage, allocated memory and allocation rate of all the threads over
+ * one sampling interval. All the values of a snapshot come from the same pair of samples.
+ */
+public final class ThreadUsageSnapshot {
+
+  /**
+   * Snapshot without any thread, published before the first sample.
+   */
+  public static final ThreadUsageSnapshot EMPTY = new ThreadUsageSnapshot(
+      Instant.EPOCH,
+      Duration.ZERO,
+      new long[0],
+      new double[0],
+      new long[0],
+      new double[0],
+      0
+  );
+
+  /**
+   * Time at which the interval ended.
+   */
+  private final Instant timestamp;
+  /**
+   * Length of the interval.
+   */
+  private final Duration interval;
+  /**
+   * IDs of the sampled threads, in ascending order.
+   */
+  private final long[] threadIds;
+  /**
+   * CPU usages of the threads over the interval, -1 if unknown. Indexed like threadIds.
+   */
+  private final double[] cpuUsages;
+  /**
+   * Memory allocated by the threads since they started, in bytes. Indexed like threadIds.
+   */
+  private final long[] allocatedBytes;
+  /**
+   * Allocation rates of the threads over the interval in bytes per second, -1 if unknown. Indexed
+   * like threadIds.
+   */
+  private final double[] allocationRates;
+  /**
+   * Sum of the known allocation rates of the threads in bytes per second.
+   */
+  private final double totalAllocationRate;
+
+  /**
+   * Creates a snapshot. The arrays are owned by the snapshot and must not be modified afterwards.
+   *
+   * @param timestamp           Time at which the interval ended.
+   * @param interval            Length of the interval.
+   * @param threadIds           IDs of the sampled threads, in ascending order.
+   * @param cpuUsages           CPU usages of the threads over the interval, -1 if unknown.
+   * @param allocatedBytes      Memory allocated by the threads since they started, in bytes.
+   * @param allocationRates     Allocation rates of the threads over the interval in bytes per
+   *                            second, -1 if unknown.
+   * @param totalAllocationRate Sum of the known allocation rates of the threads in bytes per
+   *                            second.
+   */
+  ThreadUsageSnapshot(
+      Instant timestamp,
+      Duration interval,
+      long[] threadIds,
+      double[] cpuUsages,
+      long[] allocatedBytes,
+      double[] allocationRates,
+      double totalAllocationRate
+  ) {
+    this.timestamp = timestamp;
+    this.interval = interval;
+    this.threadIds = threadIds;
+    this.cpuUsages = cpuUsages;
+    this.allocatedBytes = allocatedBytes;
+    this.allocationRates = allocationRates;
+    this.totalAllocationRate = totalAllocationRate;
+  }
+
+  /**
+   * Gets the time at which the interval ended.
+   *
+   * @return The time at which the interval ended.
+   */
+  public Instant getTimestamp() {
+    return timestamp;
+  }
+
+  /**
+   * Gets the length of the interval.
+   *
+   * @return The length of the interval.
+   */
+  public Duration getInterval() {
+    return interval;
+  }
+
+  /**
+   * Gets the number of sampled threads.
+   *
+   * @return The number of sampled threads.
+   */
+  public int getThreadsCount() {
+    return threadIds.length;
+  }
+
+  /**
+   * Gets the IDs of the sampled threads.
+   *
+   * @return The IDs of the sampled threads, in ascending order.
+   */
+  public long[] getThreadIds() {
+    return threadIds.clone();
+  }
+
+  /**
+   * Gets the CPU usage of a thread over the interval.
+   *
+   * @param threadId ID of the thread.
+   * @return CPU usage of the thread as a percentage of one core, -1 if it isn't known.
+   */
+  public double getCpuUsage(long threadId) {
+    int index = Arrays.binarySearch(threadIds, threadId);
+    return index < 0 ? -1 : cpuUsages[index];
+  }
+
+  /**
+   * Gets the memory allocated by a thread since it started, as of the end of the interval.
+   *
+   * @param threadId ID of the thread.
+   * @return Memory allocated by the thread in bytes, -1 if it isn't known.
+   */
+  public long getAllocatedBytes(long threadId) {
+    int index = Arrays.binarySearch(threadIds, threadId);
+    return index < 0 ? -1 : allocatedBytes[index];
+  }
+
+  /**
+   * Gets the allocation rate of a thread over the interval.
+   *
+   * @param threadId ID of the thread.
+   * @return Allocation rate of the thread in bytes per second, -1 if it isn't known.
+   */
+  public double getAllocationRate(long threadId) {
+    int index = Arrays.binarySearch(threadIds, threadId);
+    return index < 0 ? -1 : allocationRates[index];
+  }
+
+  /**
+   * Gets the allocation rate of the whole JVM over the interval. Memory allocated by threads that
+   * terminated during the interval isn't accounted for.
+   *
+   * @return Sum of the known allocation rates of the threads in bytes per second.
+   */
+  public double getTotalAllocationRate() {
+    return totalAllocationRate;
+  }
+
+  /**
+   * Gets the ID of the thread at an index, the threads are indexed in ascending order of their ID.
+   *
+   * @param index Index of the thread.
+   * @return ID of the thread.
+   */
+  long getThreadIdAt(int index) {
+    return threadIds[index];
+  }
+
+  /**
+   * Gets the CPU usage of the thread at an index.
+   *
+   * @param index Index of the thread.
+   * @return CPU usage of the thread, -1 if it isn't known.
+   */
+  double getCpuUsageAt(int index) {
+    return cpuUsages[index];
+  }
+
+  /**
+   * Gets the memory allocated by the thread at an index.
+   *
+   * @param index Index of the thread.
+   * @return Memory allocated by the thread in bytes, -1 if it isn't known.
+   */
+  long getAllocatedBytesAt(int index) {
+    return allocatedBytes[index];
+  }
+
+  /**
+   * Gets the allocation rate of the thread at an index.
+   *
+   * @param index Index of the thread.
+   * @return Allocation rate of the thread in bytes per second, -1 if it isn't known.
+   */
+  double getAllocationRateAt(int index) {
+    return allocationRates[index];
+  }
+}
@@ -0,0 +1,183 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Statistics of a usage metric over the window of a ThreadUsageHistory. The exponentially weighted
+ * moving averages decay over 1, 5 and 15 sampling intervals, like the load averages of an operating
+ * system decay over 1, 5 and 15 minutes.
+ */
+public class UsageStatistics {
+
+  /**
+   * Number of samples in the window.
+   */
+  private final int samplesCount;
+  /**
+   * Latest sampled value.
+   */
+  private final double latest;
+  /**
+   * Moving average decaying over 1 interval.
+   */
+  private final double ewma1;
+  /**
+   * Moving average decaying over 5 intervals.
+   */
+  private final double ewma5;
+  /**
+   * Moving average decaying over 15 intervals.
+   */
+  private final double ewma15;
+  /**
+   * Maximum value in the window.
+   */
+  private final double max;
+  /**
+   * Median of the window.
+   */
+  private final double p50;
+  /**
+   * 95th percentile of the window.
+   */
+  private final double p95;
+  /**
+   * 99th percentile of the window.
+   */
+  private final double p99;
+
+  /**
+   * Abstracts the statistics of a usage metric.
+   *
+   * @param samplesCount Number of samples in the window.
+   * @param latest       Latest sampled value.
+   * @param ewma1        Moving average decaying over 1 interval.
+   * @param ewma5        Moving average decaying over 5 intervals.
+   * @param ewma15       Moving average decaying over 15 intervals.
+   * @param max          Maximum value in the window.
+   * @param p50          Median of the window.
+   * @param p95          95th percentile of the window.
+   * @param p99          99th percentile of the window.
+   */
+  public UsageStatistics(
+      int samplesCount,
+      double latest,
+      double ewma1,
+      double ewma5,
+      double ewma15,
+      double max,
+      double p50,
+      double p95,
+      double p99
+  ) {
+    this.samplesCount = samplesCount;
+    this.latest = latest;
+    this.ewma1 = ewma1;
+    this.ewma5 = ewma5;
+    this.ewma15 = ewma15;
+    this.max = max;
+    this.p50 = p50;
+    this.p95 = p95;
+    this.p99 = p99;
+  }
+
+  /**
+   * Gets the number of samples in the window.
+   *
+   * @return The number of samples in the window.
+   */
+  public int getSamplesCount() {
+    return samplesCount;
+  }
+
+  /**
+   * Gets the latest sampled value.
+   *
+   * @return The latest sampled value.
+   */
+  public double getLatest() {
+    return latest;
+  }
+
+  /**
+   * Gets the moving average decaying over 1 interval.
+   *
+   * @return The moving average decaying over 1 interval.
+   */
+  public double getEwma1() {
+    return ewma1;
+  }
+
+  /**
+   * Gets the moving average decaying over 5 intervals.
+   *
+   * @return The moving average decaying over 5 intervals.
+   */
+  public double getEwma5() {
+    return ewma5;
+  }
+
+  /**
+   * Gets the moving average decaying over 15 intervals.
+   *
+   * @return The moving average decaying over 15 intervals.
+   */
+  public double getEwma15() {
+    return ewma15;
+  }
+
+  /**
+   * Gets the maximum value in the window.
+   *
+   * @return The maximum value in the window.
+   */
+  public double getMax() {
+    return max;
+  }
+
+  /**
+   * Gets the median of the window.
+   *
+   * @return The median of the window.
+   */
+  public double getP50() {
+    return p50;
+  }
+
+  /**
+   * Gets the 95th percentile of the window.
+   *
+   * @return The 95th percentile of the window.
+   */
+  public double getP95() {
+    return p95;
+  }
+
+  /**
+   * Gets the 99th percentile of the window.
+   *
+   * @return The 99th percentile of the window.
+   */
+  public double getP99() {
+    return p99;
+  }
+
+  /**
+   * Gets a JSON representation of an instance of this class.
+   *
+   * @return JSON representation of an instance of this class.
+   */
+  public JsonObject toJsonObject() {
+    JsonObject usageStatisticsJsonObject = new JsonObject();
+    usageStatisticsJsonObject.addProperty("samplesCount", samplesCount);
+    usageStatisticsJsonObject.addProperty("latest", latest);
+    usageStatisticsJsonObject.addProperty("ewma1", ewma1);
+    usageStatisticsJsonObject.addProperty("ewma5", ewma5);
+    usageStatisticsJsonObject.addProperty("ewma15", ewma15);
+    usageStatisticsJsonObject.addProperty("max", max);
+    usageStatisticsJsonObject.addProperty("p50", p50);
+    usageStatisticsJsonObject.addProperty("p95", p95);
+    usageStatisticsJsonObject.addProperty("p99", p99);
+    return usageStatisticsJsonObject;
+  }
+}
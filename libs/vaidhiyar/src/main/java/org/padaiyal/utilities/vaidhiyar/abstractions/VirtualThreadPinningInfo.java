@@ -0,0 +1,109 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.time.Duration;
+
+/**
+ * Stores the pinnings of virtual threads to their carrier threads aggregated by JfrEventAnalyzer
+ * for a stack, i.e. for a place in the code where virtual threads park while pinned.
+ */
+public class VirtualThreadPinningInfo {
+
+  /**
+   * Stack of the pinned virtual threads, top frame first.
+   */
+  private final String[] stackTrace;
+  /**
+   * Number of times virtual threads were pinned with this stack.
+   */
+  private final long pinningsCount;
+  /**
+   * Total time virtual threads were pinned with this stack.
+   */
+  private final Duration pinnedTime;
+  /**
+   * Longest time a virtual thread was pinned with this stack.
+   */
+  private final Duration longestPinnedTime;
+
+  /**
+   * Abstracts the pinnings of virtual threads with a stack.
+   *
+   * @param stackTrace        Stack of the pinned virtual threads, top frame first.
+   * @param pinningsCount     Number of times virtual threads were pinned with this stack.
+   * @param pinnedTime        Total time virtual threads were pinned with this stack.
+   * @param longestPinnedTime Longest time a virtual thread was pinned with this stack.
+   */
+  public VirtualThreadPinningInfo(
+      String[] stackTrace,
+      long pinningsCount,
+      Duration pinnedTime,
+      Duration longestPinnedTime
+  ) {
+    this.stackTrace = stackTrace.clone();
+    this.pinningsCount = pinningsCount;
+    this.pinnedTime = pinnedTime;
+    this.longestPinnedTime = longestPinnedTime;
+  }
+
+  /**
+   * Gets the stack of the pinned virtual threads.
+   *
+   * @return Stack of the pinned virtual threads, top frame first.
+   */
+  public String[] getStackTrace() {
+    return stackTrace.clone();
+  }
+
+  /**
+   * Gets the number of times virtual threads were pinned with this stack.
+   *
+   * @return Number of pinnings.
+   */
+  public long getPinningsCount() {
+    return pinningsCount;
+  }
+
+  /**
+   * Gets the total time virtual threads were pinned with this stack.
+   *
+   * @return Total pinned time.
+   */
+  public Duration getPinnedTime() {
+    return pinnedTime;
+  }
+
+  /**
+   * Gets the longest time a virtual thread was pinned with this stack.
+   *
+   * @return Longest pinned time.
+   */
+  public Duration getLongestPinnedTime() {
+    return longestPinnedTime;
+  }
+
+  /**
+   * Gets a JSON representation of an instance of this class.
+   *
+   * @return JSON representation of an instance of this class.
+   */
+  public JsonObject toJsonObject() {
+    JsonObject virtualThreadPinningInfoJsonObject = new JsonObject();
+    JsonArray stackTraceJsonArray = new JsonArray();
+    for (String stackFrame : stackTrace) {
+      stackTraceJsonArray.add(stackFrame);
+    }
+    virtualThreadPinningInfoJsonObject.add("stackTrace", stackTraceJsonArray);
+    virtualThreadPinningInfoJsonObject.addProperty("pinningsCount", pinningsCount);
+    virtualThreadPinningInfoJsonObject.addProperty(
+        "pinnedTimeInMilliSeconds",
+        pinnedTime.toMillis()
+    );
+    virtualThreadPinningInfoJsonObject.addProperty(
+        "longestPinnedTimeInMilliSeconds",
+        longestPinnedTime.toMillis()
+    );
+    return virtualThreadPinningInfoJsonObject;
+  }
+}
@@ -0,0 +1,174 @@
+package org.padaiyal.utilities.vaidhiyar;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.padaiyal.utilities.vaidhiyar.abstractions.ExtendedThreadInfo;
+import org.padaiyal.utilities.vaidhiyar.abstractions.JvmInformationDumpOptions;
+
+/**
+ * Compares dumping the JVM information by streaming it with JsonWriter against building the whole
+ * JSON tree before writing it. Run with the JMH runner, e.g. org.openjdk.jmh.Main
+ * JvmInformationDump, and with -prof gc: gc.alloc.rate.norm is the memory allocated per dump, all
+ * of which is live at once when the tree is built, while the streaming dump only keeps one batch
+ * of threads live at a time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JvmInformationDumpBenchmark {
+
+  /**
+   * Depth of the thread stacks to dump.
+   */
+  private static final int threadStackDepth = 20;
+
+  /**
+   * Number of waiting threads started in addition to the JVM threads.
+   */
+  @Param({"1000", "10000"})
+  private int threadsCount;
+
+  /**
+   * Latch the waiting threads wait on.
+   */
+  private CountDownLatch countDownLatch;
+  /**
+   * The waiting threads.
+   */
+  private List<Thread> threads;
+  /**
+   * Directory the dumps are written to.
+   */
+  private Path destinationDirectory;
+
+  /**
+   * Starts the waiting threads, each one waiting deeper than the dumped stack depth.
+   *
+   * @throws IOException If the destination directory cannot be created.
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    destinationDirectory = Files.createTempDirectory("jvm_info_benchmark");
+    countDownLatch = new CountDownLatch(1);
+    threads = new ArrayList<>(threadsCount);
+    for (int index = 0; index < threadsCount; index++) {
+      Thread thread = new Thread(() -> awaitAtDepth(threadStackDepth));
+      thread.setDaemon(true);
+      thread.start();
+      threads.add(thread);
+    }
+  }
+
+  /**
+   * Stops the waiting threads and deletes the dumps.
+   *
+   * @throws InterruptedException If waiting for the threads is interrupted.
+   * @throws IOException          If the dumps cannot be deleted.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws InterruptedException, IOException {
+    countDownLatch.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    try (var dumpFiles = Files.list(destinationDirectory)) {
+      for (Path dumpFile : dumpFiles.toList()) {
+        Files.delete(dumpFile);
+      }
+    }
+    Files.delete(destinationDirectory);
+  }
+
+  /**
+   * Dumps the JVM information by streaming it.
+   *
+   * @return Path of the dump.
+   * @throws IOException If there is an issue writing the dump.
+   */
+  @Benchmark
+  public Path streamingDump() throws IOException {
+    return JvmUtility.dumpJvmInformationToFile(
+        destinationDirectory,
+        "streaming",
+        new JvmInformationDumpOptions(threadStackDepth)
+    );
+  }
+
+  /**
+   * Dumps the JVM information by building the whole JSON tree first, as the dump used to.
+   *
+   * @return Path of the dump.
+   * @throws IOException If there is an issue writing the dump.
+   */
+  @Benchmark
+  public Path treeDump() throws IOException {
+    Gson gsonObject = new GsonBuilder()
+        .setPrettyPrinting()
+        .create();
+    JsonObject jvmInformation = new JsonObject();
+    jvmInformation.addProperty("timestamp", Instant.now().toString());
+    jvmInformation.add("heapUsage", JvmUtility.getHeapMemoryUsage().toJsonObject());
+    jvmInformation.add("nonHeapUsage", JvmUtility.getNonHeapMemoryUsage().toJsonObject());
+    jvmInformation.add("vmOptions", JvmUtility.getAllVmOptions());
+    jvmInformation.add(
+        "garbageCollectionInfos",
+        gsonObject.toJsonTree(JvmUtility.getGarbageCollectionInfo())
+    );
+    JsonArray extendedThreadInfos = new JsonArray();
+    Arrays.stream(JvmUtility.getAllExtendedThreadInfo(threadStackDepth))
+        .map(ExtendedThreadInfo::toJsonObject)
+        .forEach(extendedThreadInfos::add);
+    jvmInformation.add("threadInfos", extendedThreadInfos);
+
+    Path destinationFile = destinationDirectory.resolve("tree.json");
+    try (BufferedWriter bufferedWriter = Files.newBufferedWriter(destinationFile)) {
+      gsonObject.toJson(jvmInformation, bufferedWriter);
+    }
+    return destinationFile;
+  }
+
+  /**
+   * Waits on the latch once the stack is at least a given number of frames deep.
+   *
+   * @param depth Number of frames to add to the stack before waiting.
+   */
+  private void awaitAtDepth(int depth) {
+    if (depth > 0) {
+      awaitAtDepth(depth - 1);
+      return;
+    }
+    try {
+      countDownLatch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -1,22 +1,33 @@
 package org.padaiyal.utilities.vaidhiyar;
 
 import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.sun.management.OperatingSystemMXBean;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Locale;
-import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
 import javax.management.MBeanServerConnection;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -28,10 +39,31 @@ import org.mockito.Mockito;
 import org.padaiyal.utilities.I18nUtility;
 import org.padaiyal.utilities.PropertyUtility;
 import org.padaiyal.utilities.unittestextras.parameterconverters.ExceptionClassConverter;
+import org.padaiyal.utilities.vaidhiyar.abstractions.CarrierPoolInfo;
+import org.padaiyal.utilities.vaidhiyar.abstractions.ClassHistogram;
+import org.padaiyal.utilities.vaidhiyar.abstractions.ClassHistogramEntry;
+import org.padaiyal.utilities.vaidhiyar.abstractions.ClassHistogramMonitor;
 import org.padaiyal.utilities.vaidhiyar.abstractions.CpuLoadGenerator;
+import org.padaiyal.utilities.vaidhiyar.abstractions.DumpedThreadInfo;
 import org.padaiyal.utilities.vaidhiyar.abstractions.ExtendedMemoryUsage;
 import org.padaiyal.utilities.vaidhiyar.abstractions.ExtendedThreadInfo;
 import org.padaiyal.utilities.vaidhiyar.abstractions.GarbageCollectionInfo;
+import org.padaiyal.utilities.vaidhiyar.abstractions.GarbageCollectionMonitor;
+import org.padaiyal.utilities.vaidhiyar.abstractions.HeapDumpResult;
+import org.padaiyal.utilities.vaidhiyar.abstractions.JfrEventAnalyzer;
+import org.padaiyal.utilities.vaidhiyar.abstractions.JvmInformationDumpOptions;
+import org.padaiyal.utilities.vaidhiyar.abstractions.LockContentionProfiler;
+import org.padaiyal.utilities.vaidhiyar.abstractions.MemoryPoolInfo;
+import org.padaiyal.utilities.vaidhiyar.abstractions.OpenMetricsExporter;
+import org.padaiyal.utilities.vaidhiyar.abstractions.StackSamplingProfiler;
+import org.padaiyal.utilities.vaidhiyar.abstractions.TelemetryRecorder;
+import org.padaiyal.utilities.vaidhiyar.abstractions.TelemetrySnapshot;
+import org.padaiyal.utilities.vaidhiyar.abstractions.TelemetrySnapshotReader;
+import org.padaiyal.utilities.vaidhiyar.abstractions.TelemetrySnapshotWriter;
+import org.padaiyal.utilities.vaidhiyar.abstractions.ThreadDump;
+import org.padaiyal.utilities.vaidhiyar.abstractions.ThreadUsageHistory;
+import org.padaiyal.utilities.vaidhiyar.abstractions.ThreadUsageSnapshot;
+import org.padaiyal.utilities.vaidhiyar.abstractions.UsageStatistics;
 
 /**
  * Tests JvmUtility.
@@ -50,22 +82,6 @@ public final class JvmUtilityTest {
    * OperatingSystemMxBean object used to get the number of CPU cores in this system.
    */
   private static OperatingSystemMXBean operatingSystemMxBean;
-  /**
-   * Duration over which the CPU thread times have been sampled. (Test value)
-   */
-  private static Long samplingDurationInMilliSeconds;
-  /**
-   * Initial thread CPU times. (Test values)
-   */
-  private static Map<Long, Long> initialThreadCpuTimesInNanoSeconds;
-  /**
-   * Current thread CPU times. (Test values)
-   */
-  private static Map<Long, Long> currentThreadCpuTimesInNanoSeconds;
-  /**
-   * Stores the computed thread CPU usages.
-   */
-  private static Map<Long, Double> threadCpuUsages;
 
   /**
    * Sets up dependant values needed for the test.
@@ -90,23 +106,6 @@ public final class JvmUtilityTest {
     );
 
     operatingSystemMxBean = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
-    samplingDurationInMilliSeconds = 1L;
-    initialThreadCpuTimesInNanoSeconds = new HashMap<>();
-    initialThreadCpuTimesInNanoSeconds.put(996L, 112_000L);
-    initialThreadCpuTimesInNanoSeconds.put(997L, 34_000L);
-    initialThreadCpuTimesInNanoSeconds.put(998L, 232_000L);
-
-    currentThreadCpuTimesInNanoSeconds = new HashMap<>();
-    currentThreadCpuTimesInNanoSeconds.put(997L, 112_000L);
-    currentThreadCpuTimesInNanoSeconds.put(998L, 580_000L);
-    currentThreadCpuTimesInNanoSeconds.put(999L, 930_000L);
-
-    // Valid values
-    threadCpuUsages = JvmUtility.getThreadCpuUsages(
-        initialThreadCpuTimesInNanoSeconds,
-        currentThreadCpuTimesInNanoSeconds,
-        samplingDurationInMilliSeconds
-    );
   }
 
   /**
@@ -204,6 +203,49 @@ public final class JvmUtilityTest {
 
   }
 
+  /**
+   * Tests that the thread CPU usage collector publishes snapshots covering all the threads.
+   *
+   * @throws InterruptedException If the thread sleep is interrupted.
+   */
+  @Test
+  public void testThreadUsageSnapshot() throws InterruptedException {
+    JvmUtility.setRunThreadCpuUsageCollectorSwitch(true);
+    Thread.sleep(durationToWaitForCpuLoadGeneratorInMilliSeconds);
+
+    ThreadUsageSnapshot threadUsageSnapshot = JvmUtility.getThreadUsageSnapshot();
+    long threadId = Thread.currentThread().getId();
+    Assertions.assertTrue(threadUsageSnapshot.getThreadsCount() > 0);
+    Assertions.assertTrue(threadUsageSnapshot.getInterval().toNanos() > 0);
+    Assertions.assertTrue(threadUsageSnapshot.getCpuUsage(threadId) >= 0);
+    Assertions.assertTrue(threadUsageSnapshot.getAllocatedBytes(threadId) > 0);
+    Assertions.assertTrue(
+        threadUsageSnapshot.getTimestamp().isAfter(Instant.now().minusSeconds(60))
+    );
+  }
+
+  /**
+   * Tests that the thread CPU usage collector records the history of the threads.
+   *
+   * @throws InterruptedException If the thread sleep is interrupted.
+   */
+  @Test
+  public void testThreadUsageHistory() throws InterruptedException {
+    JvmUtility.setRunThreadCpuUsageCollectorSwitch(true);
+    Thread.sleep(durationToWaitForCpuLoadGeneratorInMilliSeconds);
+
+    ThreadUsageHistory threadUsageHistory = JvmUtility.getThreadUsageHistory();
+    long threadId = Thread.currentThread().getId();
+    Assertions.assertTrue(threadUsageHistory.getThreadIds().length > 0);
+    UsageStatistics cpuUsageStatistics = threadUsageHistory.getCpuUsageStatistics(threadId);
+    Assertions.assertTrue(cpuUsageStatistics.getSamplesCount() > 1);
+    Assertions.assertTrue(cpuUsageStatistics.getP99() <= cpuUsageStatistics.getMax());
+    Assertions.assertTrue(
+        threadUsageHistory.getAllocationRateStatistics(threadId).getEwma15() >= 0
+    );
+    Assertions.assertEquals(1, threadUsageHistory.getHottestThreadIds(1).length);
+  }
+
   /**
    * Tests starting/terminating the thread CPU usage collector.
    *
@@ -262,163 +304,6 @@ public final class JvmUtilityTest {
     }
   }
 
-  /**
-   * Tests thread CPU usage computation given invalid inputs - initial thread CPU times,
-   * current thread CPU times and the sampling duration.
-   */
-  @Test
-  void testGetThreadCpuUsages() {
-
-    Map<Long, Long> initialThreadCpuTimesInNanoSecondsWithNullValues = new HashMap<>();
-    initialThreadCpuTimesInNanoSecondsWithNullValues.put(998L, null);
-
-    Map<Long, Long> currentThreadCpuTimesInNanoSecondsWithNullValues = new HashMap<>();
-    currentThreadCpuTimesInNanoSecondsWithNullValues.put(998L, null);
-
-    Map<Long, Long> initialThreadCpuTimesInNanoSecondsWithInitialTimeGreaterThanCurrentTime
-        = new HashMap<>();
-    initialThreadCpuTimesInNanoSecondsWithInitialTimeGreaterThanCurrentTime.put(998L, 800L);
-
-    Map<Long, Long> currentThreadCpuTimesInNanoSecondsWithCurrentTimeLesserThanInitialTime
-        = new HashMap<>();
-    currentThreadCpuTimesInNanoSecondsWithCurrentTimeLesserThanInitialTime.put(998L, 600L);
-
-    Map<Long, Long> initialThreadCpuTimesInNanoSecondsWithNegativeValues = new HashMap<>();
-    initialThreadCpuTimesInNanoSecondsWithNegativeValues.put(998L, -100L);
-
-    Map<Long, Long> currentThreadCpuTimesInNanoSecondsWithNegativeValues = new HashMap<>();
-    currentThreadCpuTimesInNanoSecondsWithNegativeValues.put(998L, -800L);
-
-
-    // Null inputs
-    Assertions.assertThrows(
-        NullPointerException.class,
-        () -> JvmUtility.getThreadCpuUsages(
-            null,
-            currentThreadCpuTimesInNanoSeconds,
-            samplingDurationInMilliSeconds
-        )
-    );
-    Assertions.assertThrows(
-        NullPointerException.class,
-        () -> JvmUtility.getThreadCpuUsages(
-            initialThreadCpuTimesInNanoSeconds,
-            null,
-            samplingDurationInMilliSeconds
-        )
-    );
-    Assertions.assertThrows(
-        NullPointerException.class,
-        () -> JvmUtility.getThreadCpuUsages(
-            initialThreadCpuTimesInNanoSeconds,
-            currentThreadCpuTimesInNanoSeconds,
-            null
-        )
-    );
-    Assertions.assertThrows(
-        NullPointerException.class,
-        () -> JvmUtility.getThreadCpuUsages(
-            null,
-            null,
-            samplingDurationInMilliSeconds
-        )
-    );
-    Assertions.assertThrows(
-        NullPointerException.class,
-        () -> JvmUtility.getThreadCpuUsages(
-            initialThreadCpuTimesInNanoSeconds,
-            null,
-            null
-        )
-    );
-    Assertions.assertThrows(
-        NullPointerException.class,
-        () -> JvmUtility.getThreadCpuUsages(
-            null,
-            currentThreadCpuTimesInNanoSeconds,
-            null
-        )
-    );
-    Assertions.assertThrows(
-        NullPointerException.class,
-        () -> JvmUtility.getThreadCpuUsages(
-            null,
-            null,
-            null
-        )
-    );
-    Assertions.assertThrows(
-        NullPointerException.class,
-        () -> JvmUtility.getThreadCpuUsages(
-            initialThreadCpuTimesInNanoSecondsWithNullValues,
-            currentThreadCpuTimesInNanoSeconds,
-            samplingDurationInMilliSeconds
-        )
-    );
-    Assertions.assertThrows(
-        NullPointerException.class,
-        () -> JvmUtility.getThreadCpuUsages(
-            initialThreadCpuTimesInNanoSeconds,
-            currentThreadCpuTimesInNanoSecondsWithNullValues,
-            samplingDurationInMilliSeconds
-        )
-    );
-
-    // Invalid inputs
-    // currentThreadTime < initialThreadTime
-    Assertions.assertThrows(
-        IllegalArgumentException.class,
-        () -> JvmUtility.getThreadCpuUsages(
-            initialThreadCpuTimesInNanoSecondsWithInitialTimeGreaterThanCurrentTime,
-            currentThreadCpuTimesInNanoSecondsWithCurrentTimeLesserThanInitialTime,
-            samplingDurationInMilliSeconds
-        )
-    );
-
-    // initialThreadTime < 0
-    Assertions.assertThrows(
-        IllegalArgumentException.class,
-        () -> JvmUtility.getThreadCpuUsages(
-            initialThreadCpuTimesInNanoSecondsWithNegativeValues,
-            currentThreadCpuTimesInNanoSeconds,
-            samplingDurationInMilliSeconds
-        )
-    );
-
-    // currentThreadTime < 0
-    Assertions.assertThrows(
-        IllegalArgumentException.class,
-        () -> JvmUtility.getThreadCpuUsages(
-            initialThreadCpuTimesInNanoSecondsWithInitialTimeGreaterThanCurrentTime,
-            currentThreadCpuTimesInNanoSecondsWithNegativeValues,
-            samplingDurationInMilliSeconds
-        )
-    );
-  }
-
-  /**
-   * Tests thread CPU usage computation given valid inputs - initial thread CPU times,
-   * current thread CPU times and the sampling duration.
-   *
-   * @param threadId          Thread ID for which the CPU usage has to be retrieved.
-   * @param expectedCpuUsage  Expected CPU usage for the specified thread ID.
-   */
-  @ParameterizedTest
-  @CsvSource({
-      // Should return null as Thread 996 does not have a currentThreadCPUTime.
-      "996,",
-      // Should return null as Thread 996 does not have a initialThreadCPUTime.
-      "999,",
-      "997,7.8",
-      "998,34.8",
-  })
-  void testGetThreadCpuUsagesWithValidInputs(long threadId, Double expectedCpuUsage) {
-    Assertions.assertEquals(
-        expectedCpuUsage,
-        threadCpuUsages.get(threadId)
-    );
-  }
-
   /**
    * Tests initializing dependant values when an IOException is thrown while adding a property file.
    */
@@ -474,6 +359,43 @@ public final class JvmUtilityTest {
     );
   }
 
+  /**
+   * Tests JvmUtility::getAllocationRateInBytesPerSecond() when an invalid thread ID is supplied.
+   *
+   * @param threadId Thread ID for which the allocation rate is to be retrieved.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "-100",
+      "0"
+  })
+  void testGetAllocationRateWithInvalidInput(long threadId) {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> JvmUtility.getAllocationRateInBytesPerSecond(threadId)
+    );
+  }
+
+  /**
+   * Tests that the allocation rates are sampled along with the thread CPU usages.
+   *
+   * @throws InterruptedException If the thread sleep is interrupted.
+   */
+  @Test
+  public void testAllocationRate() throws InterruptedException {
+    JvmUtility.setRunThreadCpuUsageCollectorSwitch(true);
+    Thread.sleep(durationToWaitForCpuLoadGeneratorInMilliSeconds);
+
+    long threadId = Thread.currentThread().getId();
+    Assertions.assertTrue(JvmUtility.getAllocationRateInBytesPerSecond(threadId) >= 0);
+    Assertions.assertTrue(JvmUtility.getTotalAllocationRateInBytesPerSecond() >= 0);
+    Assertions.assertTrue(
+        Arrays.stream(JvmUtility.getAllExtendedThreadInfo(0))
+            .anyMatch(extendedThreadInfo -> extendedThreadInfo.getThreadInfo().getThreadId()
+                == threadId && extendedThreadInfo.getAllocationRateInBytesPerSecond() >= 0)
+    );
+  }
+
   /**
    * Tests if a specified value is within a desired range.
    *
@@ -632,6 +554,42 @@ public final class JvmUtilityTest {
     Assertions.assertTrue(garbageCollectionDuration.toMillis() >= 0);
   }
 
+  /**
+   * Tests JvmUtility::getMemoryPoolInfos().
+   */
+  @Test
+  public void testGetMemoryPoolInfos() {
+    MemoryPoolInfo[] memoryPoolInfos = JvmUtility.getMemoryPoolInfos();
+    Assertions.assertEquals(
+        JvmUtility.getMemoryPoolMonitor().getMemoryPoolNames().length,
+        memoryPoolInfos.length
+    );
+    long heapPoolsUsedMemory = Arrays.stream(memoryPoolInfos)
+        .filter(memoryPoolInfo -> memoryPoolInfo.getType() == MemoryType.HEAP)
+        .mapToLong(memoryPoolInfo -> memoryPoolInfo.getUsage().getUsed())
+        .sum();
+    Assertions.assertTrue(heapPoolsUsedMemory > 0);
+  }
+
+  /**
+   * Tests that JvmUtility::runGarbageCollector() is captured by the garbage collection monitor.
+   *
+   * @throws InterruptedException If the thread sleep is interrupted.
+   */
+  @Test
+  public void testGarbageCollectionMonitor() throws InterruptedException {
+    GarbageCollectionMonitor garbageCollectionMonitor = JvmUtility.getGarbageCollectionMonitor();
+    Assertions.assertEquals(256, garbageCollectionMonitor.getCapacity());
+    long pausesCount = garbageCollectionMonitor.getPausesCount();
+    JvmUtility.runGarbageCollector();
+    for (int attempt = 0; attempt < 100
+        && garbageCollectionMonitor.getPausesCount() == pausesCount; attempt++) {
+      Thread.sleep(100);
+    }
+    Assertions.assertTrue(garbageCollectionMonitor.getPausesCount() > pausesCount);
+    Assertions.assertTrue(garbageCollectionMonitor.getEvents().length > 0);
+  }
+
   /**
    * Tests JvmUtility::generateHeapDump() with valid inputs.
    *
@@ -721,6 +679,91 @@ public final class JvmUtilityTest {
     );
   }
 
+  /**
+   * Tests that JvmUtility::generateHeapDumpAsync() generates concurrently requested heap dumps,
+   * compressing them if asked to.
+   *
+   * @throws Exception When there is an issue generating the heap dumps.
+   */
+  @Test
+  void testGenerateHeapDumpAsync() throws Exception {
+    Path destinationDirectoryPath = Files.createTempDirectory("heap_destination");
+    Future<HeapDumpResult> heapDumpResultFuture = JvmUtility.generateHeapDumpAsync(
+        destinationDirectoryPath,
+        "heapDump",
+        true,
+        false
+    );
+    Future<HeapDumpResult> compressedHeapDumpResultFuture = JvmUtility.generateHeapDumpAsync(
+        destinationDirectoryPath,
+        "compressedHeapDump",
+        true,
+        true
+    );
+
+    HeapDumpResult heapDumpResult = heapDumpResultFuture.get();
+    Assertions.assertEquals(
+        destinationDirectoryPath.resolve("heapDump.hprof"),
+        heapDumpResult.getHeapDumpFilePath()
+    );
+    Assertions.assertEquals(
+        Files.size(heapDumpResult.getHeapDumpFilePath()),
+        heapDumpResult.getHeapDumpFileSizeInBytes()
+    );
+    Assertions.assertEquals(
+        heapDumpResult.getHeapDumpSizeInBytes(),
+        heapDumpResult.getHeapDumpFileSizeInBytes()
+    );
+    Assertions.assertEquals(Duration.ZERO, heapDumpResult.getCompressionDuration());
+
+    HeapDumpResult compressedHeapDumpResult = compressedHeapDumpResultFuture.get();
+    Path compressedHeapDumpFilePath = destinationDirectoryPath.resolve(
+        "compressedHeapDump.hprof.gz"
+    );
+    Assertions.assertEquals(
+        compressedHeapDumpFilePath,
+        compressedHeapDumpResult.getHeapDumpFilePath()
+    );
+    Assertions.assertFalse(
+        Files.exists(destinationDirectoryPath.resolve("compressedHeapDump.hprof"))
+    );
+    Assertions.assertTrue(
+        compressedHeapDumpResult.getHeapDumpFileSizeInBytes()
+            < compressedHeapDumpResult.getHeapDumpSizeInBytes()
+    );
+    Assertions.assertFalse(compressedHeapDumpResult.getGenerationDuration().isNegative());
+    Assertions.assertFalse(compressedHeapDumpResult.getCompressionDuration().isNegative());
+    try (
+        GZIPInputStream gzipInputStream = new GZIPInputStream(
+            Files.newInputStream(compressedHeapDumpFilePath)
+        )
+    ) {
+      Assertions.assertEquals(
+          "JAVA PROFILE",
+          new String(gzipInputStream.readNBytes(12), StandardCharsets.US_ASCII)
+      );
+    }
+    Assertions.assertEquals(
+        compressedHeapDumpFilePath.toAbsolutePath().toString(),
+        compressedHeapDumpResult.toJsonObject().get("heapDumpFilePath").getAsString()
+    );
+
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> JvmUtility.generateHeapDumpAsync(
+            destinationDirectoryPath.resolve("nonExistentDirectory"),
+            "heapDump",
+            true,
+            true
+        )
+    );
+
+    // Clean test bed.
+    Files.deleteIfExists(heapDumpResult.getHeapDumpFilePath());
+    Files.deleteIfExists(compressedHeapDumpFilePath);
+    Files.deleteIfExists(destinationDirectoryPath);
+  }
+
   /**
    * Tests JvmUtility::getAllVmOptions().
    */
@@ -808,4 +851,376 @@ public final class JvmUtilityTest {
 
     Files.delete(destinationDirectoryPath.resolve(expectedFileName));
   }
+
+  /**
+   * Tests JvmUtility::dumpJvmInformationToFile() with GZIP compression, an excluded section and
+   * per thread state stack depths.
+   *
+   * @throws IOException If there is an issue writing or reading the file.
+   */
+  @Test
+  public void testDumpingJvmInformationToFileWithOptions() throws IOException {
+    Path tempDirectory = Files.createTempDirectory("jvm_info_destination");
+    JvmInformationDumpOptions jvmInformationDumpOptions = new JvmInformationDumpOptions(3)
+        .excludeSection(JvmInformationDumpOptions.Section.VM_OPTIONS)
+        .setThreadStackDepth(Thread.State.WAITING, 0)
+        .setThreadStackDepth(Thread.State.RUNNABLE, 10)
+        .setGzipCompressed(true)
+        .setPrettyPrinted(false);
+    Assertions.assertEquals(10, jvmInformationDumpOptions.getMaxThreadStackDepth());
+    Path dumpFile = JvmUtility.dumpJvmInformationToFile(
+        tempDirectory,
+        "jvm_info",
+        jvmInformationDumpOptions
+    );
+    Assertions.assertEquals(tempDirectory.resolve("jvm_info.json.gz"), dumpFile);
+
+    JsonObject jvmInformation;
+    try (
+        Reader reader = new InputStreamReader(
+            new GZIPInputStream(Files.newInputStream(dumpFile)),
+            StandardCharsets.UTF_8
+        )
+    ) {
+      jvmInformation = JsonParser.parseReader(reader).getAsJsonObject();
+    }
+    Assertions.assertFalse(jvmInformation.has("vmOptions"));
+    Assertions.assertTrue(jvmInformation.has("heapUsage"));
+    Assertions.assertTrue(jvmInformation.getAsJsonArray("memoryPools").size() > 0);
+    Assertions.assertTrue(jvmInformation.getAsJsonArray("garbageCollectionInfos").size() > 0);
+    JsonArray threadInfos = jvmInformation.getAsJsonArray("threadInfos");
+    Assertions.assertTrue(threadInfos.size() > 0);
+    threadInfos.forEach(threadInfo -> {
+      JsonObject threadInfoJsonObject = threadInfo.getAsJsonObject();
+      Thread.State threadState = Thread.State.valueOf(
+          threadInfoJsonObject.get("state").getAsString()
+      );
+      Assertions.assertTrue(
+          threadInfoJsonObject.getAsJsonArray("stackTrace").size()
+              <= jvmInformationDumpOptions.getThreadStackDepth(threadState)
+      );
+    });
+    // The current thread is running this test, so its stack is deeper than 3 frames.
+    long currentThreadId = Thread.currentThread().getId();
+    threadInfos.forEach(threadInfo -> {
+      if (threadInfo.getAsJsonObject().get("id").getAsLong() == currentThreadId) {
+        Assertions.assertEquals(
+            10,
+            threadInfo.getAsJsonObject().getAsJsonArray("stackTrace").size()
+        );
+      }
+    });
+
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new JvmInformationDumpOptions(-1)
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> jvmInformationDumpOptions.setThreadStackDepth(Thread.State.BLOCKED, -1)
+    );
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> JvmUtility.dumpJvmInformationToFile(tempDirectory, "jvm_info", null)
+    );
+
+    Files.delete(dumpFile);
+    Files.delete(tempDirectory);
+  }
+
+  /**
+   * Tests that JvmUtility::getTelemetrySnapshot() captures the current thread and that the snapshot
+   * survives a round trip through the binary format.
+   *
+   * @throws IOException If there is an issue writing or reading the snapshot.
+   */
+  @Test
+  public void testGetTelemetrySnapshot() throws IOException {
+    TelemetrySnapshot telemetrySnapshot = JvmUtility.getTelemetrySnapshot(5);
+    Assertions.assertTrue(telemetrySnapshot.getHeapUsage().getUsed() > 0);
+    int currentThreadIndex = -1;
+    for (int index = 0; index < telemetrySnapshot.getThreadsCount(); index++) {
+      if (index > 0) {
+        Assertions.assertTrue(
+            telemetrySnapshot.getThreadIdAt(index) > telemetrySnapshot.getThreadIdAt(index - 1)
+        );
+      }
+      Assertions.assertTrue(telemetrySnapshot.getStackTraceAt(index).length <= 5);
+      if (telemetrySnapshot.getThreadIdAt(index) == Thread.currentThread().getId()) {
+        currentThreadIndex = index;
+      }
+    }
+    Assertions.assertTrue(currentThreadIndex >= 0);
+    Assertions.assertEquals(
+        Thread.State.RUNNABLE,
+        telemetrySnapshot.getThreadStateAt(currentThreadIndex)
+    );
+
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    try (TelemetrySnapshotWriter telemetrySnapshotWriter
+        = new TelemetrySnapshotWriter(byteArrayOutputStream)) {
+      telemetrySnapshotWriter.write(telemetrySnapshot);
+    }
+    try (TelemetrySnapshotReader telemetrySnapshotReader = new TelemetrySnapshotReader(
+        new ByteArrayInputStream(byteArrayOutputStream.toByteArray())
+    )) {
+      TelemetrySnapshot readTelemetrySnapshot = telemetrySnapshotReader.read();
+      Assertions.assertEquals(
+          telemetrySnapshot.getThreadsCount(),
+          readTelemetrySnapshot.getThreadsCount()
+      );
+      Assertions.assertArrayEquals(
+          telemetrySnapshot.getStackTraceAt(currentThreadIndex),
+          readTelemetrySnapshot.getStackTraceAt(currentThreadIndex)
+      );
+    }
+
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> JvmUtility.getTelemetrySnapshot(-1)
+    );
+  }
+
+  /**
+   * Tests that JvmUtility::startTelemetryRecorder() records the JVM telemetry.
+   *
+   * @throws IOException          If there is an issue with the segments.
+   * @throws InterruptedException If the thread sleep is interrupted.
+   */
+  @Test
+  public void testStartTelemetryRecorder() throws IOException, InterruptedException {
+    Path tempDirectory = Files.createTempDirectory("telemetry_recorder");
+    TelemetryRecorder telemetryRecorder = JvmUtility.startTelemetryRecorder(tempDirectory);
+    Assertions.assertEquals(16, telemetryRecorder.getSegmentsCount());
+    for (int attempt = 0; attempt < 100
+        && telemetryRecorder.getRecordedSamplesCount() == 0; attempt++) {
+      Thread.sleep(100);
+    }
+    telemetryRecorder.close();
+    Assertions.assertTrue(telemetryRecorder.getRecordedSamplesCount() > 0);
+
+    // The directory only holds the segments of this recorder.
+    TelemetrySnapshot telemetrySnapshot = TelemetryRecorder.read(
+        tempDirectory,
+        Instant.EPOCH,
+        Instant.now()
+    ).get(0);
+    Assertions.assertTrue(telemetrySnapshot.getThreadsCount() > 0);
+    Assertions.assertTrue(telemetrySnapshot.getStackTraceAt(0).length <= 8);
+
+    try (var segmentPaths = Files.list(tempDirectory)) {
+      for (Path segmentPath : segmentPaths.toList()) {
+        Files.delete(segmentPath);
+      }
+    }
+    Files.delete(tempDirectory);
+  }
+
+  /**
+   * Tests that JvmUtility::startLockContentionProfiler() enables thread contention monitoring until
+   * the profiler is closed.
+   */
+  @Test
+  public void testStartLockContentionProfiler() {
+    ThreadMXBean threadMxBean = ManagementFactory.getThreadMXBean();
+    boolean threadContentionMonitoringWasEnabled
+        = threadMxBean.isThreadContentionMonitoringEnabled();
+    LockContentionProfiler lockContentionProfiler = JvmUtility.startLockContentionProfiler();
+    Assertions.assertTrue(threadMxBean.isThreadContentionMonitoringEnabled());
+    lockContentionProfiler.close();
+    Assertions.assertEquals(
+        threadContentionMonitoringWasEnabled,
+        threadMxBean.isThreadContentionMonitoringEnabled()
+    );
+    Assertions.assertEquals(Duration.ofSeconds(1), lockContentionProfiler.getSamplingInterval());
+    Assertions.assertEquals(20, lockContentionProfiler.getStackDepth());
+  }
+
+  /**
+   * Tests that JvmUtility::startStackSamplingProfiler() returns a running profiler.
+   *
+   * @throws InterruptedException If the thread sleep is interrupted.
+   */
+  @Test
+  public void testStartStackSamplingProfiler() throws InterruptedException {
+    StackSamplingProfiler stackSamplingProfiler = JvmUtility.startStackSamplingProfiler();
+    Assertions.assertTrue(stackSamplingProfiler.isRunning());
+    for (int attempt = 0; attempt < 100
+        && stackSamplingProfiler.getSamplesCount() == 0; attempt++) {
+      Thread.sleep(100);
+    }
+    stackSamplingProfiler.stop();
+    Assertions.assertFalse(stackSamplingProfiler.isRunning());
+    Assertions.assertTrue(stackSamplingProfiler.getSamplesCount() > 0);
+    Assertions.assertTrue(stackSamplingProfiler.getCpuOverhead() < 1);
+  }
+
+  /**
+   * Tests that JvmUtility::startJfrEventAnalyzer() records the garbage collections.
+   *
+   * @throws InterruptedException If the thread sleep is interrupted.
+   */
+  @Test
+  public void testStartJfrEventAnalyzer() throws InterruptedException {
+    try (JfrEventAnalyzer jfrEventAnalyzer = JvmUtility.startJfrEventAnalyzer()) {
+      Assertions.assertEquals(
+          Duration.ofSeconds(600),
+          jfrEventAnalyzer.getJfrRecordingOptions().getMaxAge()
+      );
+      System.gc();
+      for (int attempt = 0; attempt < 100
+          && jfrEventAnalyzer.getGarbageCollectionCount() == 0; attempt++) {
+        Thread.sleep(100);
+      }
+      Assertions.assertTrue(jfrEventAnalyzer.getGarbageCollectionCount() > 0);
+    }
+  }
+
+  /**
+   * Tests that JvmUtility::startOpenMetricsExporter() serves the metrics as configured.
+   *
+   * @throws IOException If the server cannot listen on the configured port.
+   */
+  @Test
+  public void testStartOpenMetricsExporter() throws IOException {
+    try (OpenMetricsExporter openMetricsExporter = JvmUtility.startOpenMetricsExporter()) {
+      Assertions.assertEquals(9404, openMetricsExporter.getPort());
+      Assertions.assertEquals(Duration.ofSeconds(1), openMetricsExporter.getCacheInterval());
+    }
+  }
+
+  /**
+   * Tests that JvmUtility::getClassHistogram() counts the instances of the classes on the heap,
+   * with or without the unreachable objects.
+   *
+   * @throws IOException If there is an issue taking the histogram.
+   */
+  @Test
+  public void testGetClassHistogram() throws IOException {
+    StringBuilder[] stringBuilders = new StringBuilder[1_000];
+    Arrays.setAll(stringBuilders, index -> new StringBuilder());
+    ClassHistogram classHistogram = JvmUtility.getClassHistogram(true);
+    Assertions.assertTrue(classHistogram.getTotalSizeInBytes() > 0);
+    Assertions.assertTrue(
+        Arrays.stream(classHistogram.getEntries())
+            .filter(entry -> entry.getClassName().equals("java.lang.StringBuilder"))
+            .mapToLong(ClassHistogramEntry::getInstancesCount)
+            .sum() >= stringBuilders.length
+    );
+
+    ClassHistogram allObjectsClassHistogram = JvmUtility.getClassHistogram(false);
+    Assertions.assertTrue(allObjectsClassHistogram.getEntries().length > 0);
+  }
+
+  /**
+   * Tests that JvmUtility::startClassHistogramMonitor() takes a first histogram right away, as
+   * configured.
+   *
+   * @throws InterruptedException If waiting for the histogram is interrupted.
+   */
+  @Test
+  public void testStartClassHistogramMonitor() throws InterruptedException {
+    try (ClassHistogramMonitor classHistogramMonitor = JvmUtility.startClassHistogramMonitor()) {
+      Assertions.assertEquals(Duration.ofSeconds(60), classHistogramMonitor.getInterval());
+      Assertions.assertEquals(10, classHistogramMonitor.getCapacity());
+      for (int attempt = 0; attempt < 100
+          && classHistogramMonitor.getHistogramsCount() == 0; attempt++) {
+        Thread.sleep(100);
+      }
+      Assertions.assertEquals(1, classHistogramMonitor.getHistogramsCount());
+      Assertions.assertTrue(
+          classHistogramMonitor.getLatestClassHistogram().getTotalSizeInBytes() > 0
+      );
+    }
+  }
+
+  /**
+   * Tests that JvmUtility::getThreadDump() includes the virtual threads, or isn't supported
+   * before Java 21.
+   *
+   * @throws IOException                  If there is an issue dumping the threads.
+   * @throws ReflectiveOperationException If the virtual thread can't be started.
+   * @throws InterruptedException         If waiting for the virtual thread is interrupted.
+   */
+  @Test
+  public void testGetThreadDump() throws IOException, ReflectiveOperationException,
+      InterruptedException {
+    if (Runtime.version().feature() < 21) {
+      Assertions.assertThrows(UnsupportedOperationException.class, JvmUtility::getThreadDump);
+      return;
+    }
+    CountDownLatch countDownLatch = new CountDownLatch(1);
+    // Started reflectively, as the tests are compiled for Java 17.
+    Thread virtualThread = (Thread) Thread.class.getMethod("startVirtualThread", Runnable.class)
+        .invoke(null, (Runnable) () -> {
+          try {
+            countDownLatch.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+    virtualThread.setName("dumped-virtual-thread");
+    ThreadDump threadDump;
+    try {
+      threadDump = JvmUtility.getThreadDump();
+    } finally {
+      countDownLatch.countDown();
+      virtualThread.join();
+    }
+
+    Assertions.assertEquals(ProcessHandle.current().pid(), threadDump.getProcessId());
+    Assertions.assertNull(threadDump.getThreadContainerInfos()[0].getParentName());
+    DumpedThreadInfo dumpedVirtualThreadInfo = Arrays.stream(threadDump.getAllThreadInfos())
+        .filter(dumpedThreadInfo -> dumpedThreadInfo.getThreadId() == virtualThread.getId())
+        .findAny()
+        .orElseThrow();
+    Assertions.assertEquals("dumped-virtual-thread", dumpedVirtualThreadInfo.getThreadName());
+    Assertions.assertTrue(dumpedVirtualThreadInfo.isVirtual());
+    Assertions.assertTrue(threadDump.getVirtualThreadsCount() >= 1);
+    Assertions.assertTrue(
+        Arrays.stream(threadDump.getAllThreadInfos())
+            .filter(dumpedThreadInfo -> dumpedThreadInfo.getThreadId()
+                == Thread.currentThread().getId())
+            .noneMatch(DumpedThreadInfo::isVirtual)
+    );
+  }
+
+  /**
+   * Tests that JvmUtility::getCarrierPoolInfo() counts the carrier threads running a virtual
+   * thread.
+   *
+   * @throws ReflectiveOperationException If the virtual thread can't be started.
+   * @throws InterruptedException         If waiting for the virtual thread is interrupted.
+   */
+  @Test
+  public void testGetCarrierPoolInfo() throws ReflectiveOperationException,
+      InterruptedException {
+    CarrierPoolInfo carrierPoolInfo = JvmUtility.getCarrierPoolInfo();
+    Assertions.assertTrue(carrierPoolInfo.getParallelism() > 0);
+    Assumptions.assumeTrue(Runtime.version().feature() >= 21);
+
+    CountDownLatch startedLatch = new CountDownLatch(1);
+    CountDownLatch releaseLatch = new CountDownLatch(1);
+    // A virtual thread spinning stays mounted on its carrier thread.
+    Thread virtualThread = (Thread) Thread.class.getMethod("startVirtualThread", Runnable.class)
+        .invoke(null, (Runnable) () -> {
+          startedLatch.countDown();
+          while (releaseLatch.getCount() > 0) {
+            Thread.onSpinWait();
+          }
+        });
+    try {
+      startedLatch.await();
+      carrierPoolInfo = JvmUtility.getCarrierPoolInfo();
+    } finally {
+      releaseLatch.countDown();
+      virtualThread.join();
+    }
+    Assertions.assertTrue(carrierPoolInfo.getMountedCarrierThreadsCount() >= 1);
+    Assertions.assertTrue(carrierPoolInfo.getUtilization() > 0);
+    Assertions.assertEquals(
+        carrierPoolInfo.getMountedCarrierThreadsCount(),
+        carrierPoolInfo.toJsonObject().get("mountedCarrierThreadsCount").getAsLong()
+    );
+  }
 }
@@ -0,0 +1,186 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the functionality of ClassHistogramMonitor.
+ */
+public class ClassHistogramMonitorTest {
+
+  /**
+   * Tests that the classes growing across every interval are told apart from the ones which grew
+   * once, and that only the last histograms are kept.
+   *
+   * @throws Exception If a histogram cannot be taken.
+   */
+  @Test
+  public void testGetSteadilyGrowingClasses() throws Exception {
+    Instant timestamp = Instant.now();
+    AtomicInteger histogramsCount = new AtomicInteger();
+    // app.Session grows steadily, [B grows once then shrinks, app.Cache appears late.
+    Callable<ClassHistogram> classHistogramCallable = () -> {
+      int histogramIndex = histogramsCount.getAndIncrement();
+      ClassHistogramEntry sessionEntry = new ClassHistogramEntry(
+          "app.Session",
+          10 + histogramIndex,
+          160 + histogramIndex * 16L
+      );
+      ClassHistogramEntry[] entries = histogramIndex < 2
+          ? new ClassHistogramEntry[]{
+              new ClassHistogramEntry("[B", 10, 1_000 + histogramIndex * 10_000L),
+              sessionEntry
+            }
+          : new ClassHistogramEntry[]{
+              new ClassHistogramEntry("[B", 10, 500),
+              sessionEntry,
+              new ClassHistogramEntry("app.Cache", 1, 64L * histogramIndex)
+            };
+      return new ClassHistogram(timestamp.plusSeconds(histogramIndex * 60L), entries);
+    };
+
+    try (ClassHistogramMonitor classHistogramMonitor = new ClassHistogramMonitor(
+        classHistogramCallable,
+        Duration.ofHours(1),
+        4
+    )) {
+      // The first histogram is taken right away.
+      for (int attempt = 0; attempt < 100
+          && classHistogramMonitor.getHistogramsCount() == 0; attempt++) {
+        Thread.sleep(10);
+      }
+      Assertions.assertEquals(1, classHistogramMonitor.getHistogramsCount());
+      Assertions.assertEquals(0, classHistogramMonitor.getTopGrowingClasses(10).length);
+
+      classHistogramMonitor.sample();
+      ClassGrowthInfo[] topGrowingClasses = classHistogramMonitor.getTopGrowingClasses(10);
+      Assertions.assertEquals(2, topGrowingClasses.length);
+      Assertions.assertEquals("[B", topGrowingClasses[0].getClassName());
+      Assertions.assertEquals(10_000, topGrowingClasses[0].getSizeDeltaInBytes());
+      Assertions.assertEquals(Duration.ofMinutes(1), topGrowingClasses[0].getInterval());
+      Assertions.assertEquals(0, classHistogramMonitor.getSteadilyGrowingClasses(10).length);
+
+      classHistogramMonitor.sample();
+      ClassGrowthInfo[] steadilyGrowingClasses
+          = classHistogramMonitor.getSteadilyGrowingClasses(10);
+      Assertions.assertEquals(1, steadilyGrowingClasses.length);
+      Assertions.assertEquals("app.Session", steadilyGrowingClasses[0].getClassName());
+      Assertions.assertEquals(2, steadilyGrowingClasses[0].getInstancesCountDelta());
+      Assertions.assertEquals(32, steadilyGrowingClasses[0].getSizeDeltaInBytes());
+      Assertions.assertEquals(Duration.ofMinutes(2), steadilyGrowingClasses[0].getInterval());
+      Assertions.assertEquals(
+          "app.Cache",
+          classHistogramMonitor.getTopGrowingClasses(10)[0].getClassName()
+      );
+
+      // Evicts the first histogram.
+      classHistogramMonitor.sample();
+      classHistogramMonitor.sample();
+      Assertions.assertEquals(4, classHistogramMonitor.getHistogramsCount());
+      steadilyGrowingClasses = classHistogramMonitor.getSteadilyGrowingClasses(10);
+      Assertions.assertEquals(2, steadilyGrowingClasses.length);
+      Assertions.assertEquals("app.Cache", steadilyGrowingClasses[0].getClassName());
+      Assertions.assertEquals(256, steadilyGrowingClasses[0].getSizeDeltaInBytes());
+      Assertions.assertEquals("app.Session", steadilyGrowingClasses[1].getClassName());
+      Assertions.assertEquals(1, classHistogramMonitor.getSteadilyGrowingClasses(1).length);
+
+      ClassHistogram latestClassHistogram = classHistogramMonitor.getLatestClassHistogram();
+      Assertions.assertEquals(timestamp.plusSeconds(240), latestClassHistogram.getTimestamp());
+      ClassHistogramEntry[] latestEntries = latestClassHistogram.getEntries();
+      Assertions.assertEquals(3, latestEntries.length);
+      Assertions.assertEquals("[B", latestEntries[0].getClassName());
+      Assertions.assertEquals("app.Session", latestEntries[2].getClassName());
+      Assertions.assertEquals(14, latestEntries[2].getInstancesCount());
+    }
+  }
+
+  /**
+   * Tests that the classes only listed in evicted histograms are dropped, and that the growth of
+   * the remaining classes is still computed once they are renumbered.
+   *
+   * @throws Exception If a histogram cannot be taken.
+   */
+  @Test
+  public void testPruneClasses() throws Exception {
+    Instant timestamp = Instant.now();
+    AtomicInteger histogramsCount = new AtomicInteger();
+    // A class short lived enough to be listed in a single histogram, listed before app.Session.
+    Callable<ClassHistogram> classHistogramCallable = () -> {
+      int histogramIndex = histogramsCount.getAndIncrement();
+      return new ClassHistogram(
+          timestamp.plusSeconds(histogramIndex * 60L),
+          new ClassHistogramEntry[]{
+              new ClassHistogramEntry("app.Request" + histogramIndex, 1, 10_000),
+              new ClassHistogramEntry("app.Session", 10 + histogramIndex, 160 + histogramIndex)
+            }
+      );
+    };
+
+    try (ClassHistogramMonitor classHistogramMonitor = new ClassHistogramMonitor(
+        classHistogramCallable,
+        Duration.ofHours(1),
+        2
+    )) {
+      for (int attempt = 0; attempt < 100
+          && classHistogramMonitor.getHistogramsCount() == 0; attempt++) {
+        Thread.sleep(10);
+      }
+      for (int sampleIndex = 0; sampleIndex < 10; sampleIndex++) {
+        classHistogramMonitor.sample();
+      }
+      Assertions.assertEquals(2, classHistogramMonitor.getHistogramsCount());
+      // app.Session, and the app.Request classes of the last 2 histograms.
+      Assertions.assertEquals(3, classHistogramMonitor.getClassesCount());
+
+      ClassGrowthInfo[] topGrowingClasses = classHistogramMonitor.getTopGrowingClasses(10);
+      Assertions.assertEquals(2, topGrowingClasses.length);
+      Assertions.assertEquals("app.Request10", topGrowingClasses[0].getClassName());
+      Assertions.assertEquals(10_000, topGrowingClasses[0].getSizeDeltaInBytes());
+      Assertions.assertEquals("app.Session", topGrowingClasses[1].getClassName());
+      Assertions.assertEquals(1, topGrowingClasses[1].getInstancesCountDelta());
+      Assertions.assertEquals(
+          "app.Session",
+          classHistogramMonitor.getLatestClassHistogram().getEntries()[1].getClassName()
+      );
+    }
+  }
+
+  /**
+   * Tests ClassHistogramMonitor with invalid inputs.
+   */
+  @Test
+  public void testInvalidInputs() {
+    Callable<ClassHistogram> classHistogramCallable
+        = () -> new ClassHistogram(Instant.now(), new ClassHistogramEntry[0]);
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new ClassHistogramMonitor(classHistogramCallable, Duration.ZERO, 2)
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new ClassHistogramMonitor(classHistogramCallable, Duration.ofSeconds(1), 1)
+    );
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> new ClassHistogramMonitor(null, Duration.ofSeconds(1), 2)
+    );
+    try (ClassHistogramMonitor classHistogramMonitor = new ClassHistogramMonitor(
+        classHistogramCallable,
+        Duration.ofHours(1),
+        2
+    )) {
+      Assertions.assertThrows(
+          IllegalArgumentException.class,
+          () -> classHistogramMonitor.getTopGrowingClasses(-1)
+      );
+      Assertions.assertThrows(
+          IllegalArgumentException.class,
+          () -> classHistogramMonitor.getSteadilyGrowingClasses(-1)
+      );
+    }
+  }
+}
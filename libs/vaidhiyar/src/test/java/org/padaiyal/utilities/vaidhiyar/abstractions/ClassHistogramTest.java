@@ -0,0 +1,112 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the functionality of ClassHistogram.
+ */
+public class ClassHistogramTest {
+
+  /**
+   * Output of the gcClassHistogram diagnostic command, with a class loaded by two class loaders.
+   */
+  private static final String CLASS_HISTOGRAM_OUTPUT = """
+       num     #instances         #bytes  class name (module)
+      -------------------------------------------------------
+         1:          5206         243656  [B (java.base@17.0.9)
+         2:          1539         186360  java.lang.Class (java.base@17.0.9)
+         3:          5101         122424  java.lang.String (java.base@17.0.9)
+         4:           100           1600  app.Session
+         5:            50            800  app.Session
+      Total         11996         554840
+      """;
+
+  /**
+   * Tests that the class lines are parsed, with the module left out of the class name.
+   */
+  @Test
+  public void testParse() {
+    Instant timestamp = Instant.now();
+    ClassHistogram classHistogram = ClassHistogram.parse(timestamp, CLASS_HISTOGRAM_OUTPUT);
+
+    Assertions.assertEquals(timestamp, classHistogram.getTimestamp());
+    ClassHistogramEntry[] entries = classHistogram.getEntries();
+    Assertions.assertEquals(5, entries.length);
+    Assertions.assertEquals("[B", entries[0].getClassName());
+    Assertions.assertEquals(5206, entries[0].getInstancesCount());
+    Assertions.assertEquals(243656, entries[0].getSizeInBytes());
+    Assertions.assertEquals("app.Session", entries[3].getClassName());
+    Assertions.assertEquals(11996, classHistogram.getTotalInstancesCount());
+    Assertions.assertEquals(554840, classHistogram.getTotalSizeInBytes());
+    Assertions.assertEquals(
+        5,
+        classHistogram.toJsonObject().getAsJsonArray("entries").size()
+    );
+  }
+
+  /**
+   * Tests that the classes which grew are ranked by descending size delta, with the classes
+   * loaded by several class loaders summed up.
+   */
+  @Test
+  public void testGetTopGrowingClasses() {
+    Instant timestamp = Instant.now();
+    ClassHistogram previousClassHistogram = new ClassHistogram(
+        timestamp,
+        new ClassHistogramEntry[]{
+            new ClassHistogramEntry("[B", 100, 10_000),
+            new ClassHistogramEntry("java.lang.String", 100, 2_400),
+            new ClassHistogramEntry("app.Session", 10, 160)
+          }
+    );
+    ClassHistogram classHistogram = ClassHistogram.parse(
+        timestamp.plusSeconds(10),
+        CLASS_HISTOGRAM_OUTPUT
+    );
+
+    ClassGrowthInfo[] classGrowthInfos = classHistogram.getTopGrowingClasses(
+        previousClassHistogram,
+        10
+    );
+    Assertions.assertEquals(4, classGrowthInfos.length);
+    Assertions.assertEquals("[B", classGrowthInfos[0].getClassName());
+    Assertions.assertEquals(5106, classGrowthInfos[0].getInstancesCountDelta());
+    Assertions.assertEquals(233656, classGrowthInfos[0].getSizeDeltaInBytes());
+    Assertions.assertEquals(Duration.ofSeconds(10), classGrowthInfos[0].getInterval());
+    Assertions.assertEquals(23365.6, classGrowthInfos[0].getSizeGrowthRate(), 0.001);
+    // Not in the previous histogram.
+    Assertions.assertEquals("java.lang.Class", classGrowthInfos[1].getClassName());
+    Assertions.assertEquals(186360, classGrowthInfos[1].getSizeDeltaInBytes());
+    Assertions.assertEquals("app.Session", classGrowthInfos[3].getClassName());
+    Assertions.assertEquals(140, classGrowthInfos[3].getInstancesCountDelta());
+    Assertions.assertEquals(2240, classGrowthInfos[3].getSizeDeltaInBytes());
+
+    Assertions.assertEquals(
+        1,
+        classHistogram.getTopGrowingClasses(previousClassHistogram, 1).length
+    );
+    Assertions.assertEquals(
+        0,
+        previousClassHistogram.getTopGrowingClasses(previousClassHistogram, 10).length
+    );
+  }
+
+  /**
+   * Tests ClassHistogram::getTopGrowingClasses() with invalid inputs.
+   */
+  @Test
+  public void testGetTopGrowingClassesWithInvalidInputs() {
+    ClassHistogram classHistogram = ClassHistogram.parse(Instant.now(), CLASS_HISTOGRAM_OUTPUT);
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> classHistogram.getTopGrowingClasses(classHistogram, -1)
+    );
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> classHistogram.getTopGrowingClasses(null, 1)
+    );
+  }
+}
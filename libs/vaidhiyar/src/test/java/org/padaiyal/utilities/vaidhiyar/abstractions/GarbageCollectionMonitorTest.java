@@ -0,0 +1,114 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the functionality of GarbageCollectionMonitor.
+ */
+public class GarbageCollectionMonitorTest {
+
+  /**
+   * Maximum time to wait for the notification of a garbage collection.
+   */
+  private static final long notificationTimeoutInSeconds = 10;
+
+  /**
+   * Tests that the collections are recorded and that the listeners are notified of them.
+   *
+   * @throws InterruptedException If the thread is interrupted while waiting for a notification.
+   */
+  @Test
+  public void testCollectionsCapture() throws InterruptedException {
+    try (GarbageCollectionMonitor garbageCollectionMonitor = new GarbageCollectionMonitor(2)) {
+      CountDownLatch notificationsLatch = new CountDownLatch(3);
+      Consumer<GarbageCollectionEvent> listener = garbageCollectionEvent ->
+          notificationsLatch.countDown();
+      garbageCollectionMonitor.addListener(listener);
+      Instant testStartInstant = Instant.now().minusSeconds(1);
+      for (int collection = 0; collection < 3; collection++) {
+        System.gc();
+      }
+      Assertions.assertTrue(
+          notificationsLatch.await(notificationTimeoutInSeconds, TimeUnit.SECONDS)
+      );
+
+      GarbageCollectionEvent[] garbageCollectionEvents = garbageCollectionMonitor.getEvents();
+      Assertions.assertEquals(2, garbageCollectionEvents.length);
+      for (GarbageCollectionEvent garbageCollectionEvent : garbageCollectionEvents) {
+        Assertions.assertNotNull(garbageCollectionEvent.getGarbageCollectorName());
+        Assertions.assertNotNull(garbageCollectionEvent.getAction());
+        Assertions.assertNotNull(garbageCollectionEvent.getCause());
+        Assertions.assertTrue(garbageCollectionEvent.getStartInstant().isAfter(testStartInstant));
+        Assertions.assertFalse(garbageCollectionEvent.getDuration().isNegative());
+        Assertions.assertFalse(garbageCollectionEvent.getMemoryUsagesBeforeCollection().isEmpty());
+        Assertions.assertEquals(
+            garbageCollectionEvent.getMemoryUsagesBeforeCollection().keySet(),
+            garbageCollectionEvent.getMemoryUsagesAfterCollection().keySet()
+        );
+        Assertions.assertTrue(garbageCollectionEvent.getPromotedBytes() >= 0);
+        Assertions.assertEquals(
+            garbageCollectionEvent.getId(),
+            garbageCollectionEvent.toJsonObject().get("id").getAsLong()
+        );
+      }
+      // Only the first collection seen by the monitor has no previous heap usage to compare to.
+      Assertions.assertTrue(garbageCollectionEvents[1].getAllocatedBytes() >= 0);
+      Assertions.assertTrue(garbageCollectionMonitor.getAllocationRateInBytesPerSecond() >= 0);
+      Assertions.assertTrue(garbageCollectionMonitor.getPromotionRateInBytesPerSecond() >= 0);
+
+      Assertions.assertEquals(
+          garbageCollectionMonitor.getPausesCount(),
+          Arrays.stream(garbageCollectionMonitor.getPauseTimeHistogram()).sum()
+      );
+      Assertions.assertEquals(
+          GarbageCollectionMonitor.getPauseTimeBucketUpperBoundsInMilliSeconds().length,
+          garbageCollectionMonitor.getPauseTimeHistogram().length
+      );
+      Assertions.assertTrue(garbageCollectionMonitor.getPausesCount() > 0);
+      Assertions.assertTrue(garbageCollectionMonitor.getTotalPauseTime().compareTo(Duration.ZERO)
+          >= 0);
+      Assertions.assertTrue(garbageCollectionMonitor.removeListener(listener));
+      Assertions.assertFalse(garbageCollectionMonitor.removeListener(listener));
+    }
+  }
+
+  /**
+   * Tests that no collections are recorded once the monitor is closed.
+   *
+   * @throws InterruptedException If the thread sleep is interrupted.
+   */
+  @Test
+  public void testClose() throws InterruptedException {
+    GarbageCollectionMonitor garbageCollectionMonitor = new GarbageCollectionMonitor(10);
+    garbageCollectionMonitor.close();
+    garbageCollectionMonitor.close();
+    System.gc();
+    Thread.sleep(500);
+    Assertions.assertEquals(0, garbageCollectionMonitor.getEvents().length);
+    Assertions.assertEquals(-1, garbageCollectionMonitor.getAllocationRateInBytesPerSecond());
+  }
+
+  /**
+   * Tests GarbageCollectionMonitor with invalid inputs.
+   */
+  @Test
+  public void testInvalidInputs() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new GarbageCollectionMonitor(0)
+    );
+    try (GarbageCollectionMonitor garbageCollectionMonitor = new GarbageCollectionMonitor(1)) {
+      Assertions.assertThrows(
+          NullPointerException.class,
+          () -> garbageCollectionMonitor.addListener(null)
+      );
+    }
+  }
+}
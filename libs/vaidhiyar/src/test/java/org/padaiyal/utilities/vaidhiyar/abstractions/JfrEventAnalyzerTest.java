@@ -0,0 +1,295 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the functionality of JfrEventAnalyzer.
+ */
+public class JfrEventAnalyzerTest {
+
+  /**
+   * Sink of the allocated arrays, so that the allocations aren't eliminated.
+   */
+  private static volatile Object allocationSink;
+
+  /**
+   * Tests that the monitor enters and waits, the allocations and the garbage collections of the
+   * JVM are aggregated.
+   *
+   * @throws InterruptedException If waiting for the threads is interrupted.
+   */
+  @Test
+  public void testAnalyze() throws InterruptedException {
+    JfrRecordingOptions jfrRecordingOptions = new JfrRecordingOptions()
+        .setPeriod(Duration.ofMillis(100))
+        .setThreshold(Duration.ofMillis(10));
+    try (JfrEventAnalyzer jfrEventAnalyzer = new JfrEventAnalyzer(jfrRecordingOptions)) {
+      Object monitor = new Object();
+      Object waitMonitor = new Object();
+      CountDownLatch ownerLatch = new CountDownLatch(1);
+      Thread ownerThread = new Thread(() -> {
+        try {
+          synchronized (monitor) {
+            ownerLatch.countDown();
+            Thread.sleep(200);
+          }
+          synchronized (waitMonitor) {
+            waitMonitor.wait(100);
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }, "jfr-monitor-owner");
+      ownerThread.start();
+      ownerLatch.await();
+      Thread contendingThread = new Thread(() -> {
+        synchronized (monitor) {
+          for (int index = 0; index < 10_000; index++) {
+            allocationSink = new byte[1_024];
+          }
+        }
+      }, "jfr-monitor-contender");
+      contendingThread.start();
+      ownerThread.join();
+      contendingThread.join();
+      System.gc();
+
+      long ownerThreadId = ownerThread.getId();
+      long contendingThreadId = contendingThread.getId();
+      waitFor(() -> getThreadStatistics(jfrEventAnalyzer, contendingThreadId) != null
+          && getThreadStatistics(jfrEventAnalyzer, contendingThreadId).getMonitorEnterCount() > 0
+          && getThreadStatistics(jfrEventAnalyzer, ownerThreadId) != null
+          && getThreadStatistics(jfrEventAnalyzer, ownerThreadId).getMonitorWaitCount() > 0
+          && jfrEventAnalyzer.getGarbageCollectionCount() > 0);
+
+      JfrThreadStatistics contendingThreadStatistics
+          = getThreadStatistics(jfrEventAnalyzer, contendingThreadId);
+      Assertions.assertNotNull(contendingThreadStatistics);
+      Assertions.assertEquals("jfr-monitor-contender", contendingThreadStatistics.getThreadName());
+      Assertions.assertEquals(1, contendingThreadStatistics.getMonitorEnterCount());
+      Assertions.assertTrue(contendingThreadStatistics.getMonitorEnterTime().toMillis() >= 100);
+      Assertions.assertTrue(contendingThreadStatistics.getSampledAllocatedBytes() > 0);
+      JfrThreadStatistics ownerThreadStatistics
+          = getThreadStatistics(jfrEventAnalyzer, ownerThreadId);
+      Assertions.assertNotNull(ownerThreadStatistics);
+      Assertions.assertEquals(1, ownerThreadStatistics.getMonitorWaitCount());
+      Assertions.assertTrue(ownerThreadStatistics.getMonitorWaitTime().toMillis() >= 90);
+      Assertions.assertTrue(jfrEventAnalyzer.getGarbageCollectionCount() > 0);
+      Assertions.assertTrue(
+          jfrEventAnalyzer.getGarbageCollectionPauseTime().compareTo(
+              jfrEventAnalyzer.getLongestGarbageCollectionPause()
+          ) >= 0
+      );
+      Assertions.assertEquals(
+          jfrEventAnalyzer.getThreadStatistics().length,
+          jfrEventAnalyzer.toJsonObject().getAsJsonArray("threadStatistics").size()
+      );
+    }
+  }
+
+  /**
+   * Tests that the statistics of a thread are dropped once it had no event recorded for the max
+   * age.
+   *
+   * @throws InterruptedException If waiting for the thread is interrupted.
+   */
+  @Test
+  public void testPruneThreadStatistics() throws InterruptedException {
+    JfrRecordingOptions jfrRecordingOptions = new JfrRecordingOptions()
+        .setThreshold(Duration.ofMillis(10))
+        .setMaxAge(Duration.ofSeconds(1));
+    try (JfrEventAnalyzer jfrEventAnalyzer = new JfrEventAnalyzer(jfrRecordingOptions)) {
+      Object waitMonitor = new Object();
+      Thread waitingThread = new Thread(() -> {
+        synchronized (waitMonitor) {
+          try {
+            waitMonitor.wait(50);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+      }, "jfr-monitor-waiter");
+      waitingThread.start();
+      waitingThread.join();
+
+      long waitingThreadId = waitingThread.getId();
+      waitFor(() -> getThreadStatistics(jfrEventAnalyzer, waitingThreadId) != null);
+      Assertions.assertNotNull(getThreadStatistics(jfrEventAnalyzer, waitingThreadId));
+      // Terminated, so no further event is recorded for it.
+      waitFor(() -> getThreadStatistics(jfrEventAnalyzer, waitingThreadId) == null);
+      Assertions.assertNull(getThreadStatistics(jfrEventAnalyzer, waitingThreadId));
+    }
+  }
+
+  /**
+   * Tests that the excluded events aren't recorded and that the recording can be dumped to a file.
+   *
+   * @throws InterruptedException If the thread sleep is interrupted.
+   * @throws IOException          If there is an issue writing or reading the dump.
+   */
+  @Test
+  public void testExcludeEventAndDump() throws InterruptedException, IOException {
+    JfrRecordingOptions jfrRecordingOptions = new JfrRecordingOptions();
+    for (JfrRecordingOptions.Event event : JfrRecordingOptions.Event.values()) {
+      jfrRecordingOptions.excludeEvent(event);
+    }
+    jfrRecordingOptions.includeEvent(JfrRecordingOptions.Event.GARBAGE_COLLECTION);
+    Assertions.assertEquals(1, jfrRecordingOptions.getEvents().size());
+
+    Path dumpPath = Files.createTempDirectory("jfrEventAnalyzer").resolve("recording.jfr");
+    try (JfrEventAnalyzer jfrEventAnalyzer = new JfrEventAnalyzer(jfrRecordingOptions)) {
+      System.gc();
+      waitFor(() -> jfrEventAnalyzer.getGarbageCollectionCount() > 0);
+      Assertions.assertTrue(jfrEventAnalyzer.getGarbageCollectionCount() > 0);
+      Assertions.assertEquals(0, jfrEventAnalyzer.getSafepointCount());
+      Assertions.assertEquals(0, jfrEventAnalyzer.getThreadStatistics().length);
+      jfrEventAnalyzer.dump(dumpPath);
+    }
+    Assertions.assertTrue(
+        RecordingFile.readAllEvents(dumpPath)
+            .stream()
+            .anyMatch(recordedEvent -> recordedEvent.getEventType().getName().equals(
+                JfrRecordingOptions.Event.GARBAGE_COLLECTION.getName()
+            ))
+    );
+    Files.delete(dumpPath);
+    Files.delete(dumpPath.getParent());
+  }
+
+  /**
+   * Tests that virtual threads parking in a synchronized block are reported as pinned, with the
+   * stack of the block.
+   *
+   * @throws ReflectiveOperationException If the virtual threads can't be started.
+   * @throws InterruptedException         If waiting for the threads is interrupted.
+   */
+  @Test
+  public void testVirtualThreadPinning() throws ReflectiveOperationException,
+      InterruptedException {
+    Assumptions.assumeTrue(Runtime.version().feature() >= 21);
+    JfrRecordingOptions jfrRecordingOptions = new JfrRecordingOptions()
+        .setThreshold(Duration.ofMillis(10));
+    try (JfrEventAnalyzer jfrEventAnalyzer = new JfrEventAnalyzer(jfrRecordingOptions)) {
+      Object monitor = new Object();
+      List<Thread> virtualThreads = new ArrayList<>();
+      for (int index = 0; index < 2; index++) {
+        // Started reflectively, as the tests are compiled for Java 17.
+        virtualThreads.add((Thread) Thread.class.getMethod("startVirtualThread", Runnable.class)
+            .invoke(null, (Runnable) () -> sleepPinned(monitor)));
+      }
+      for (Thread virtualThread : virtualThreads) {
+        virtualThread.join();
+      }
+      waitFor(() -> jfrEventAnalyzer.getTopVirtualThreadPinnings(1).length > 0);
+
+      VirtualThreadPinningInfo[] virtualThreadPinningInfos
+          = jfrEventAnalyzer.getTopVirtualThreadPinnings(1);
+      Assertions.assertEquals(1, virtualThreadPinningInfos.length);
+      Assertions.assertTrue(virtualThreadPinningInfos[0].getPinnedTime().toMillis() >= 50);
+      Assertions.assertTrue(
+          virtualThreadPinningInfos[0].getPinnedTime().compareTo(
+              virtualThreadPinningInfos[0].getLongestPinnedTime()
+          ) >= 0
+      );
+      Assertions.assertTrue(
+          Arrays.stream(virtualThreadPinningInfos[0].getStackTrace())
+              .anyMatch(stackFrame -> stackFrame.startsWith(
+                  JfrEventAnalyzerTest.class.getName() + ".sleepPinned"
+              ))
+      );
+      Assertions.assertEquals(0, jfrEventAnalyzer.getVirtualThreadSubmitFailedCount());
+      Assertions.assertTrue(
+          jfrEventAnalyzer.toJsonObject().getAsJsonArray("virtualThreadPinnings").size() > 0
+      );
+    }
+  }
+
+  /**
+   * Tests JfrEventAnalyzer and JfrRecordingOptions with invalid inputs.
+   */
+  @Test
+  public void testInvalidInputs() {
+    Assertions.assertThrows(NullPointerException.class, () -> new JfrEventAnalyzer(null));
+    JfrRecordingOptions jfrRecordingOptions = new JfrRecordingOptions();
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> jfrRecordingOptions.setPeriod(Duration.ZERO)
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> jfrRecordingOptions.setMaxAge(Duration.ofSeconds(-1))
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> jfrRecordingOptions.setThreshold(Duration.ofMillis(-1))
+    );
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> jfrRecordingOptions.includeEvent(null)
+    );
+    Assertions.assertEquals(Duration.ZERO, jfrRecordingOptions.setThreshold(Duration.ZERO)
+        .getThreshold());
+    try (JfrEventAnalyzer jfrEventAnalyzer = new JfrEventAnalyzer(jfrRecordingOptions)) {
+      Assertions.assertThrows(
+          IllegalArgumentException.class,
+          () -> jfrEventAnalyzer.getTopVirtualThreadPinnings(-1)
+      );
+    }
+  }
+
+  /**
+   * Gets the statistics of a thread.
+   *
+   * @param jfrEventAnalyzer The analyzer.
+   * @param threadId         ID of the thread.
+   * @return The statistics of the thread, or null if it had no events recorded.
+   */
+  private static JfrThreadStatistics getThreadStatistics(
+      JfrEventAnalyzer jfrEventAnalyzer,
+      long threadId
+  ) {
+    return Arrays.stream(jfrEventAnalyzer.getThreadStatistics())
+        .filter(jfrThreadStatistics -> jfrThreadStatistics.getThreadId() == threadId)
+        .findAny()
+        .orElse(null);
+  }
+
+  /**
+   * Sleeps in a synchronized block, which pins a virtual thread to its carrier thread.
+   *
+   * @param monitor Monitor to synchronize on.
+   */
+  private static void sleepPinned(Object monitor) {
+    synchronized (monitor) {
+      try {
+        Thread.sleep(50);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Waits up to 10 seconds for a condition, the events being streamed about once a second.
+   *
+   * @param condition The condition.
+   * @throws InterruptedException If the thread sleep is interrupted.
+   */
+  private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+    for (int attempt = 0; attempt < 100 && !condition.getAsBoolean(); attempt++) {
+      Thread.sleep(100);
+    }
+  }
+}
@@ -0,0 +1,272 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the functionality of LockContentionProfiler.
+ */
+public class LockContentionProfilerTest {
+
+  /**
+   * ThreadMXBean the threads are sampled from.
+   */
+  private static final ThreadMXBean threadMxBean = ManagementFactory.getThreadMXBean();
+
+  /**
+   * Tests that the time threads spend blocked on a monitor is attributed to it and its owner.
+   *
+   * @throws InterruptedException If waiting for the threads is interrupted.
+   */
+  @Test
+  public void testContendedMonitor() throws InterruptedException {
+    Object monitor = new Object();
+    CountDownLatch ownerLatch = new CountDownLatch(1);
+    CountDownLatch releaseLatch = new CountDownLatch(1);
+    Thread ownerThread = new Thread(() -> {
+      synchronized (monitor) {
+        ownerLatch.countDown();
+        try {
+          releaseLatch.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }, "monitor-owner");
+    ownerThread.start();
+    ownerLatch.await();
+    Thread[] contendingThreads = new Thread[2];
+    // The blocked time of a thread is only measured if it blocks after the monitoring is enabled.
+    LockContentionProfiler lockContentionProfiler = new LockContentionProfiler(
+        threadMxBean,
+        Duration.ofHours(1),
+        10
+    );
+    for (int index = 0; index < contendingThreads.length; index++) {
+      contendingThreads[index] = new Thread(() -> {
+        synchronized (monitor) {
+          monitor.notifyAll();
+        }
+      }, "monitor-contender-" + index);
+      contendingThreads[index].start();
+    }
+    for (Thread contendingThread : contendingThreads) {
+      while (contendingThread.getState() != Thread.State.BLOCKED) {
+        Thread.sleep(10);
+      }
+    }
+
+    lockContentionProfiler.sample();
+    Thread.sleep(200);
+    lockContentionProfiler.sample();
+    Assertions.assertTrue(threadMxBean.isThreadContentionMonitoringEnabled());
+    releaseLatch.countDown();
+    ownerThread.join();
+    for (Thread contendingThread : contendingThreads) {
+      contendingThread.join();
+    }
+    lockContentionProfiler.close();
+
+    LockContentionInfo[] lockContentionInfos = lockContentionProfiler.getTopContendedLocks(1);
+    Assertions.assertEquals(1, lockContentionInfos.length);
+    LockContentionInfo lockContentionInfo = lockContentionInfos[0];
+    Assertions.assertEquals(
+        Object.class.getName() + "@" + Integer.toHexString(System.identityHashCode(monitor)),
+        lockContentionInfo.getLockName()
+    );
+    Assertions.assertTrue(lockContentionInfo.getSamplesCount() >= 2);
+    // Blocked during the whole interval, i.e. at least 200 ms per contending thread.
+    Assertions.assertTrue(lockContentionInfo.getBlockedTime().toMillis() >= 300);
+    Assertions.assertEquals(
+        lockContentionInfo.getBlockedTime(),
+        lockContentionInfo.getOwnerThreadContendedTimes().get("monitor-owner")
+    );
+    Assertions.assertTrue(lockContentionInfo.getSampleThreadName().startsWith("monitor-contender"));
+    Assertions.assertTrue(
+        Arrays.stream(lockContentionInfo.getSampleStackTrace())
+            .anyMatch(stackFrame -> stackFrame.contains(LockContentionProfilerTest.class.getName()))
+    );
+    Assertions.assertEquals(
+        "monitor-owner",
+        lockContentionInfo.toJsonObject()
+            .getAsJsonObject("ownerThreadContendedTimesInMilliSeconds")
+            .keySet()
+            .iterator()
+            .next()
+    );
+
+    lockContentionProfiler.reset();
+    Assertions.assertEquals(0, lockContentionProfiler.getTopContendedLocks(10).length);
+  }
+
+  /**
+   * Tests that thread contention monitoring stays enabled until the last profiler enabling it is
+   * closed.
+   */
+  @Test
+  public void testThreadContentionMonitoringEnablement() {
+    threadMxBean.setThreadContentionMonitoringEnabled(false);
+    try (LockContentionProfiler lockContentionProfiler = new LockContentionProfiler(
+        threadMxBean,
+        Duration.ofHours(1),
+        0
+    )) {
+      Assertions.assertTrue(threadMxBean.isThreadContentionMonitoringEnabled());
+      LockContentionProfiler otherLockContentionProfiler = new LockContentionProfiler(
+          threadMxBean,
+          Duration.ofHours(1),
+          0
+      );
+      otherLockContentionProfiler.close();
+      // Closing a profiler again doesn't release the monitoring twice.
+      otherLockContentionProfiler.close();
+      Assertions.assertTrue(threadMxBean.isThreadContentionMonitoringEnabled());
+      Assertions.assertEquals(0, lockContentionProfiler.getStackDepth());
+    }
+    Assertions.assertFalse(threadMxBean.isThreadContentionMonitoringEnabled());
+
+    // Left enabled if it was enabled before the first profiler.
+    threadMxBean.setThreadContentionMonitoringEnabled(true);
+    new LockContentionProfiler(threadMxBean, Duration.ofHours(1), 0).close();
+    Assertions.assertTrue(threadMxBean.isThreadContentionMonitoringEnabled());
+    threadMxBean.setThreadContentionMonitoringEnabled(false);
+  }
+
+  /**
+   * Tests that a deadlock is sent to the deadlock listeners once.
+   *
+   * @throws InterruptedException If waiting for the threads is interrupted.
+   */
+  @Test
+  public void testDeadlockDetection() throws InterruptedException {
+    ReentrantLock firstLock = new ReentrantLock();
+    ReentrantLock secondLock = new ReentrantLock();
+    CountDownLatch lockedLatch = new CountDownLatch(2);
+    Thread firstThread = new Thread(
+        () -> lockBoth(firstLock, secondLock, lockedLatch),
+        "deadlocked-1"
+    );
+    Thread secondThread = new Thread(
+        () -> lockBoth(secondLock, firstLock, lockedLatch),
+        "deadlocked-2"
+    );
+    firstThread.start();
+    secondThread.start();
+    lockedLatch.await();
+    while (firstThread.getState() != Thread.State.WAITING
+        || secondThread.getState() != Thread.State.WAITING) {
+      Thread.sleep(10);
+    }
+
+    LockContentionProfiler lockContentionProfiler = new LockContentionProfiler(
+        threadMxBean,
+        Duration.ofHours(1),
+        10
+    );
+    List<DeadlockEvent> deadlockEvents = new CopyOnWriteArrayList<>();
+    Consumer<DeadlockEvent> deadlockListener = deadlockEvents::add;
+    lockContentionProfiler.addDeadlockListener(event -> {
+      throw new IllegalStateException();
+    });
+    lockContentionProfiler.addDeadlockListener(deadlockListener);
+    lockContentionProfiler.sample();
+    lockContentionProfiler.sample();
+    firstThread.interrupt();
+    secondThread.interrupt();
+    firstThread.join();
+    secondThread.join();
+    lockContentionProfiler.close();
+
+    Assertions.assertEquals(1, deadlockEvents.size());
+    Assertions.assertTrue(lockContentionProfiler.removeDeadlockListener(deadlockListener));
+    String[] deadlockedThreadNames = Arrays.stream(
+        deadlockEvents.get(0).getDeadlockedThreadInfos()
+    )
+        .map(extendedThreadInfo -> extendedThreadInfo.getThreadInfo().getThreadName())
+        .sorted()
+        .toArray(String[]::new);
+    Assertions.assertArrayEquals(
+        new String[]{"deadlocked-1", "deadlocked-2"},
+        deadlockedThreadNames
+    );
+
+    // The deadlock is over, so a new profiler reports it again only if it reappears.
+    LockContentionProfiler newLockContentionProfiler = new LockContentionProfiler(
+        threadMxBean,
+        Duration.ofHours(1),
+        0
+    );
+    List<DeadlockEvent> newDeadlockEvents = new CopyOnWriteArrayList<>();
+    newLockContentionProfiler.addDeadlockListener(newDeadlockEvents::add);
+    newLockContentionProfiler.sample();
+    newLockContentionProfiler.close();
+    Assertions.assertTrue(newDeadlockEvents.isEmpty());
+  }
+
+  /**
+   * Tests LockContentionProfiler with invalid inputs.
+   */
+  @Test
+  public void testInvalidInputs() {
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> new LockContentionProfiler(null, Duration.ofSeconds(1), 1)
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new LockContentionProfiler(threadMxBean, Duration.ZERO, 1)
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new LockContentionProfiler(threadMxBean, Duration.ofSeconds(1), -1)
+    );
+    LockContentionProfiler lockContentionProfiler = new LockContentionProfiler(
+        threadMxBean,
+        Duration.ofHours(1),
+        1
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> lockContentionProfiler.getTopContendedLocks(-1)
+    );
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> lockContentionProfiler.addDeadlockListener(null)
+    );
+    lockContentionProfiler.close();
+  }
+
+  /**
+   * Locks two locks in order, once both locks have been locked by the deadlocking threads.
+   *
+   * @param firstLock   Lock to lock first.
+   * @param secondLock  Lock to lock second.
+   * @param lockedLatch Counted down once the first lock is locked.
+   */
+  private static void lockBoth(
+      ReentrantLock firstLock,
+      ReentrantLock secondLock,
+      CountDownLatch lockedLatch
+  ) {
+    firstLock.lock();
+    try {
+      lockedLatch.countDown();
+      lockedLatch.await();
+      secondLock.lockInterruptibly();
+      secondLock.unlock();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      firstLock.unlock();
+    }
+  }
+}
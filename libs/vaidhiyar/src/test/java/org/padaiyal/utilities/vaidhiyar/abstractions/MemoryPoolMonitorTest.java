@@ -0,0 +1,156 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import java.lang.management.MemoryType;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.padaiyal.utilities.vaidhiyar.abstractions.MemoryThresholdEvent.ThresholdType;
+
+/**
+ * Tests the functionality of MemoryPoolMonitor.
+ */
+public class MemoryPoolMonitorTest {
+
+  /**
+   * Maximum time to wait for the notification of a threshold crossing.
+   */
+  private static final long notificationTimeoutInSeconds = 10;
+
+  /**
+   * Tests the usage information of the memory pools.
+   */
+  @Test
+  public void testMemoryPoolInfos() {
+    try (MemoryPoolMonitor memoryPoolMonitor = new MemoryPoolMonitor()) {
+      MemoryPoolInfo[] memoryPoolInfos = memoryPoolMonitor.getMemoryPoolInfos();
+      Assertions.assertEquals(
+          memoryPoolMonitor.getMemoryPoolNames().length,
+          memoryPoolInfos.length
+      );
+      Assertions.assertTrue(
+          Arrays.stream(memoryPoolInfos)
+              .anyMatch(memoryPoolInfo -> memoryPoolInfo.getType() == MemoryType.HEAP)
+      );
+      Assertions.assertTrue(
+          Arrays.stream(memoryPoolInfos)
+              .anyMatch(memoryPoolInfo -> memoryPoolInfo.getType() == MemoryType.NON_HEAP)
+      );
+      for (MemoryPoolInfo memoryPoolInfo : memoryPoolInfos) {
+        Assertions.assertTrue(memoryPoolInfo.getUsage().getUsed() >= 0);
+        Assertions.assertTrue(
+            memoryPoolInfo.getPeakUsage().getUsed() >= memoryPoolInfo.getUsage().getUsed()
+        );
+        Assertions.assertTrue(memoryPoolInfo.getUsageThresholdInBytes() >= -1);
+        Assertions.assertTrue(memoryPoolInfo.getMemoryManagerNames().length > 0);
+        Assertions.assertEquals(
+            memoryPoolInfo.getName(),
+            memoryPoolInfo.toJsonObject().get("name").getAsString()
+        );
+        Assertions.assertEquals(
+            memoryPoolInfo.getName(),
+            memoryPoolMonitor.getMemoryPoolInfo(memoryPoolInfo.getName()).getName()
+        );
+      }
+    }
+  }
+
+  /**
+   * Tests that a collection usage threshold crossing is notified to the listeners.
+   *
+   * @throws ExecutionException   If the listener completes the future exceptionally.
+   * @throws InterruptedException If the thread is interrupted while waiting for a notification.
+   * @throws TimeoutException     If no notification is received in time.
+   */
+  @Test
+  public void testCollectionUsageThreshold()
+      throws ExecutionException, InterruptedException, TimeoutException {
+    try (MemoryPoolMonitor memoryPoolMonitor = new MemoryPoolMonitor()) {
+      // The old generation keeps the long lived objects of the JVM after a full collection.
+      String poolName = Arrays.stream(memoryPoolMonitor.getMemoryPoolNames())
+          .filter(memoryPoolName -> memoryPoolName.contains("Old")
+              || memoryPoolName.contains("Tenured"))
+          .findFirst()
+          .orElseThrow();
+      CompletableFuture<MemoryThresholdEvent> memoryThresholdEventFuture
+          = new CompletableFuture<>();
+      memoryPoolMonitor.addListener(memoryThresholdEvent -> {
+        if (memoryThresholdEvent.getPoolName().equals(poolName)) {
+          memoryThresholdEventFuture.complete(memoryThresholdEvent);
+        }
+      });
+
+      // Any data left in the pool by a collection crosses a 1 byte threshold.
+      memoryPoolMonitor.setCollectionUsageThreshold(poolName, 1);
+      try {
+        Assertions.assertEquals(
+            1,
+            memoryPoolMonitor.getMemoryPoolInfo(poolName).getCollectionUsageThresholdInBytes()
+        );
+        MemoryThresholdEvent memoryThresholdEvent = null;
+        for (int attempt = 0; attempt < notificationTimeoutInSeconds
+            && memoryThresholdEvent == null; attempt++) {
+          System.gc();
+          try {
+            memoryThresholdEvent = memoryThresholdEventFuture.get(1, TimeUnit.SECONDS);
+          } catch (TimeoutException e) {
+            // Collect again, the notification may have been missed.
+          }
+        }
+        Assertions.assertNotNull(memoryThresholdEvent);
+        Assertions.assertEquals(
+            ThresholdType.COLLECTION_USAGE,
+            memoryThresholdEvent.getThresholdType()
+        );
+        Assertions.assertTrue(memoryThresholdEvent.getCount() > 0);
+        Assertions.assertTrue(memoryThresholdEvent.getUsage().getUsed() >= 1);
+        Assertions.assertEquals(
+            poolName,
+            memoryThresholdEvent.toJsonObject().get("poolName").getAsString()
+        );
+      } finally {
+        memoryPoolMonitor.setCollectionUsageThreshold(poolName, 0);
+      }
+    }
+  }
+
+  /**
+   * Tests MemoryPoolMonitor with invalid inputs.
+   */
+  @Test
+  public void testInvalidInputs() {
+    try (MemoryPoolMonitor memoryPoolMonitor = new MemoryPoolMonitor()) {
+      Assertions.assertThrows(
+          NullPointerException.class,
+          () -> memoryPoolMonitor.getMemoryPoolInfo(null)
+      );
+      Assertions.assertThrows(
+          IllegalArgumentException.class,
+          () -> memoryPoolMonitor.setUsageThreshold("Nonexistent pool", 1)
+      );
+      String poolName = memoryPoolMonitor.getMemoryPoolNames()[0];
+      Assertions.assertThrows(
+          IllegalArgumentException.class,
+          () -> memoryPoolMonitor.setUsageThreshold(poolName, -1)
+      );
+      Assertions.assertThrows(
+          IllegalArgumentException.class,
+          () -> memoryPoolMonitor.setCollectionUsageThreshold(poolName, -1)
+      );
+      Arrays.stream(memoryPoolMonitor.getMemoryPoolInfos())
+          .filter(memoryPoolInfo -> memoryPoolInfo.getCollectionUsageThresholdInBytes() == -1)
+          .findFirst()
+          .ifPresent(memoryPoolInfo -> Assertions.assertThrows(
+              UnsupportedOperationException.class,
+              () -> memoryPoolMonitor.setCollectionUsageThreshold(memoryPoolInfo.getName(), 1)
+          ));
+      Assertions.assertThrows(
+          NullPointerException.class,
+          () -> memoryPoolMonitor.addListener(null)
+      );
+    }
+  }
+}
@@ -0,0 +1,240 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the functionality of OpenMetricsExporter.
+ */
+public class OpenMetricsExporterTest {
+
+  /**
+   * Client scraping the exporters under test.
+   */
+  private static final HttpClient httpClient = HttpClient.newHttpClient();
+  /**
+   * Usages of the memory pools of the JVM.
+   */
+  private static final Supplier<MemoryPoolInfo[]> memoryPoolInfosSupplier
+      = () -> ManagementFactory.getMemoryPoolMXBeans()
+          .stream()
+          .map(MemoryPoolInfo::new)
+          .toArray(MemoryPoolInfo[]::new);
+
+  /**
+   * Tests that the metrics are served in the OpenMetrics text format, with the threads grouped
+   * and the label values escaped.
+   *
+   * @throws IOException          If there is an issue scraping the metrics.
+   * @throws InterruptedException If the scrape is interrupted.
+   */
+  @Test
+  public void testScrape() throws IOException, InterruptedException {
+    try (OpenMetricsExporter openMetricsExporter = new OpenMetricsExporter(
+        0,
+        Duration.ZERO,
+        OpenMetricsExporterTest::createTelemetrySnapshot,
+        memoryPoolInfosSupplier
+    )) {
+      HttpResponse<String> httpResponse = scrape(openMetricsExporter, "GET");
+      Assertions.assertEquals(200, httpResponse.statusCode());
+      Assertions.assertEquals(
+          OpenMetricsExporter.CONTENT_TYPE,
+          httpResponse.headers().firstValue("Content-Type").orElseThrow()
+      );
+      List<String> lines = httpResponse.body().lines().toList();
+      Assertions.assertEquals("# EOF", lines.get(lines.size() - 1));
+      Assertions.assertTrue(lines.contains("# TYPE jvm_memory_used_bytes gauge"));
+      Assertions.assertTrue(lines.contains("# UNIT jvm_memory_used_bytes bytes"));
+      Assertions.assertTrue(lines.contains("jvm_memory_used_bytes{area=\"heap\"} 200"));
+      Assertions.assertTrue(lines.contains("jvm_memory_max_bytes{area=\"heap\"} 1000"));
+      // The non heap max is undefined.
+      Assertions.assertTrue(
+          lines.stream().noneMatch(line -> line.startsWith("jvm_memory_max_bytes{area=\"nonheap"))
+      );
+      Assertions.assertTrue(
+          lines.stream().anyMatch(line -> line.startsWith("jvm_memory_pool_used_bytes{pool="))
+      );
+      Assertions.assertTrue(lines.contains("# TYPE jvm_gc_collections counter"));
+      Assertions.assertTrue(
+          lines.contains("jvm_gc_collections_total{gc=\"G1 \\\"Young\\\" Generation\"} 3")
+      );
+      Assertions.assertTrue(
+          lines.contains("jvm_gc_collection_seconds_total{gc=\"G1 \\\"Young\\\" Generation\"} 1.5")
+      );
+      Assertions.assertTrue(lines.contains("jvm_thread_group_threads{group=\"worker-\"} 2"));
+      Assertions.assertTrue(lines.contains("jvm_thread_group_threads{group=\"main\"} 1"));
+      // The unknown CPU usage of worker-2 is left out of the sum.
+      Assertions.assertTrue(
+          lines.contains("jvm_thread_group_cpu_usage_ratio{group=\"worker-\"} 0.5")
+      );
+      Assertions.assertTrue(
+          lines.contains("jvm_thread_group_allocated_bytes{group=\"worker-\"} 3072")
+      );
+      Assertions.assertTrue(
+          lines.contains(
+              "jvm_thread_group_allocation_rate_bytes_per_second{group=\"worker-\"} 768.0"
+          )
+      );
+
+      HttpResponse<String> postHttpResponse = scrape(openMetricsExporter, "POST");
+      Assertions.assertEquals(405, postHttpResponse.statusCode());
+      Assertions.assertEquals(
+          "GET, HEAD",
+          postHttpResponse.headers().firstValue("Allow").orElseThrow()
+      );
+      // Last, as the server closes the connection after a HEAD response.
+      HttpResponse<String> headHttpResponse = scrape(openMetricsExporter, "HEAD");
+      Assertions.assertEquals(200, headHttpResponse.statusCode());
+      Assertions.assertTrue(headHttpResponse.body().isEmpty());
+    }
+  }
+
+  /**
+   * Tests that the metrics are encoded once per cache interval, and that the scrapes fail while
+   * the metrics can't be computed.
+   *
+   * @throws IOException          If there is an issue scraping the metrics.
+   * @throws InterruptedException If the scrape is interrupted.
+   */
+  @Test
+  public void testCache() throws IOException, InterruptedException {
+    AtomicInteger suppliedSnapshotsCount = new AtomicInteger();
+    try (OpenMetricsExporter openMetricsExporter = new OpenMetricsExporter(
+        0,
+        Duration.ofHours(1),
+        () -> {
+          suppliedSnapshotsCount.incrementAndGet();
+          return createTelemetrySnapshot();
+        },
+        memoryPoolInfosSupplier
+    )) {
+      String body = scrape(openMetricsExporter, "GET").body();
+      for (int scrape = 0; scrape < 5; scrape++) {
+        Assertions.assertEquals(body, scrape(openMetricsExporter, "GET").body());
+      }
+      Assertions.assertEquals(1, openMetricsExporter.getEncodingsCount());
+      Assertions.assertEquals(1, suppliedSnapshotsCount.get());
+    }
+
+    try (OpenMetricsExporter openMetricsExporter = new OpenMetricsExporter(
+        0,
+        Duration.ZERO,
+        () -> {
+          throw new IllegalStateException();
+        },
+        memoryPoolInfosSupplier
+    )) {
+      Assertions.assertEquals(500, scrape(openMetricsExporter, "GET").statusCode());
+      Assertions.assertEquals(0, openMetricsExporter.getEncodingsCount());
+    }
+  }
+
+  /**
+   * Tests OpenMetricsExporter with invalid inputs.
+   */
+  @Test
+  public void testInvalidInputs() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new OpenMetricsExporter(
+            -1,
+            Duration.ZERO,
+            OpenMetricsExporterTest::createTelemetrySnapshot,
+            memoryPoolInfosSupplier
+        )
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new OpenMetricsExporter(
+            65_536,
+            Duration.ZERO,
+            OpenMetricsExporterTest::createTelemetrySnapshot,
+            memoryPoolInfosSupplier
+        )
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new OpenMetricsExporter(
+            0,
+            Duration.ofSeconds(-1),
+            OpenMetricsExporterTest::createTelemetrySnapshot,
+            memoryPoolInfosSupplier
+        )
+    );
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> new OpenMetricsExporter(0, Duration.ZERO, null, memoryPoolInfosSupplier)
+    );
+    Assertions.assertEquals("pool-1-thread-", OpenMetricsExporter.getThreadGroupName(
+        "pool-1-thread-12"
+    ));
+    Assertions.assertEquals("main", OpenMetricsExporter.getThreadGroupName("main"));
+    Assertions.assertEquals("42", OpenMetricsExporter.getThreadGroupName("42"));
+  }
+
+  /**
+   * Scrapes the metrics of an exporter.
+   *
+   * @param openMetricsExporter The exporter.
+   * @param requestMethod       Method of the HTTP request.
+   * @return The HTTP response.
+   * @throws IOException          If there is an issue scraping the metrics.
+   * @throws InterruptedException If the scrape is interrupted.
+   */
+  private static HttpResponse<String> scrape(
+      OpenMetricsExporter openMetricsExporter,
+      String requestMethod
+  ) throws IOException, InterruptedException {
+    return httpClient.send(
+        HttpRequest.newBuilder(
+            URI.create(
+                "http://127.0.0.1:" + openMetricsExporter.getPort()
+                    + OpenMetricsExporter.METRICS_PATH
+            )
+        )
+            .method(requestMethod, HttpRequest.BodyPublishers.noBody())
+            .build(),
+        HttpResponse.BodyHandlers.ofString()
+    );
+  }
+
+  /**
+   * Creates the telemetry of a JVM with a main thread and two worker threads, one of them with an
+   * unknown CPU usage.
+   *
+   * @return The telemetry.
+   */
+  private static TelemetrySnapshot createTelemetrySnapshot() {
+    return new TelemetrySnapshot(
+        Instant.now(),
+        new ExtendedMemoryUsage(100, 200, 300, 1_000),
+        new ExtendedMemoryUsage(10, 20, 30, -1),
+        new GarbageCollectionInfo[]{
+            new GarbageCollectionInfo("G1 \"Young\" Generation", 3, 1_500)
+          },
+        new long[]{1, 2, 3},
+        new String[]{"main", "worker-1", "worker-2"},
+        new Thread.State[]{
+            Thread.State.RUNNABLE,
+            Thread.State.RUNNABLE,
+            Thread.State.WAITING
+          },
+        new double[]{10, 50, -1},
+        new long[]{4_096, 1_024, 2_048},
+        new double[]{0, 512, 256},
+        new String[][]{new String[0], new String[0], new String[0]}
+    );
+  }
+}
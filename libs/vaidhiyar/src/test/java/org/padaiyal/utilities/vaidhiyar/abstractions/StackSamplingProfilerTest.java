@@ -0,0 +1,281 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import com.google.gson.JsonObject;
+import com.sun.management.ThreadMXBean;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the functionality of StackSamplingProfiler.
+ */
+public class StackSamplingProfilerTest {
+
+  /**
+   * ThreadMXBean used by the profilers under test.
+   */
+  private static final ThreadMXBean threadMxBean
+      = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  /**
+   * Tests that the stacks of a busy thread are counted and weighted by its CPU time, and that the
+   * stacks of a waiting thread are only sampled when all the threads are.
+   *
+   * @throws InterruptedException If the thread sleep is interrupted.
+   * @throws IOException          If there is an issue writing the collapsed stacks.
+   */
+  @Test
+  public void testProfile() throws InterruptedException, IOException {
+    AtomicBoolean isRunning = new AtomicBoolean(true);
+    Thread busyThread = new Thread(() -> spin(isRunning));
+    CountDownLatch countDownLatch = new CountDownLatch(1);
+    Thread waitingThread = new Thread(() -> awaitLatch(countDownLatch));
+    busyThread.start();
+    waitingThread.start();
+    while (waitingThread.getState() != Thread.State.WAITING) {
+      Thread.sleep(10);
+    }
+
+    ThreadCpuSampler threadCpuSampler = new ThreadCpuSampler(threadMxBean);
+    StackSamplingProfiler runnableThreadsProfiler = new StackSamplingProfiler(
+        threadMxBean,
+        () -> {
+          threadCpuSampler.sample();
+          return threadCpuSampler.getLatestSnapshot();
+        },
+        Duration.ofHours(1),
+        64,
+        true,
+        0.5
+    );
+    StackSamplingProfiler allThreadsProfiler = new StackSamplingProfiler(
+        threadMxBean,
+        () -> ThreadUsageSnapshot.EMPTY,
+        Duration.ofHours(1),
+        64,
+        false,
+        0.5
+    );
+    try {
+      for (int sample = 0; sample < 5; sample++) {
+        Thread.sleep(20);
+        runnableThreadsProfiler.sample();
+        allThreadsProfiler.sample();
+      }
+    } finally {
+      isRunning.set(false);
+      countDownLatch.countDown();
+      busyThread.join();
+      waitingThread.join();
+    }
+    Assertions.assertEquals(5, runnableThreadsProfiler.getSamplesCount());
+
+    String spinFrame = StackSamplingProfilerTest.class.getName() + ".spin";
+    String awaitLatchFrame = StackSamplingProfilerTest.class.getName() + ".awaitLatch";
+    String[] collapsedStacks = getCollapsedStacks(
+        runnableThreadsProfiler,
+        StackSamplingProfiler.Weight.SAMPLES
+    );
+    Assertions.assertEquals(
+        5,
+        Arrays.stream(collapsedStacks)
+            .filter(collapsedStack -> collapsedStack.contains(spinFrame))
+            .mapToLong(StackSamplingProfilerTest::getWeight)
+            .sum()
+    );
+    Assertions.assertTrue(
+        Arrays.stream(collapsedStacks)
+            .noneMatch(collapsedStack -> collapsedStack.contains(awaitLatchFrame))
+    );
+    // Root frame first, the frames of Thread.run() are below the ones of the test.
+    Assertions.assertTrue(
+        Arrays.stream(collapsedStacks)
+            .filter(collapsedStack -> collapsedStack.contains(spinFrame))
+            .allMatch(collapsedStack -> collapsedStack.startsWith("java.lang.Thread.run"))
+    );
+    // The first sample has no CPU usage yet, the next ones are weighted by the busy thread CPU.
+    Assertions.assertTrue(
+        Arrays.stream(getCollapsedStacks(
+            runnableThreadsProfiler,
+            StackSamplingProfiler.Weight.CPU_TIME
+        ))
+            .filter(collapsedStack -> collapsedStack.contains(spinFrame))
+            .mapToLong(StackSamplingProfilerTest::getWeight)
+            .sum() >= Duration.ofMillis(20).toNanos()
+    );
+    Assertions.assertTrue(
+        Arrays.stream(getCollapsedStacks(
+            allThreadsProfiler,
+            StackSamplingProfiler.Weight.SAMPLES
+        ))
+            .anyMatch(collapsedStack -> collapsedStack.contains(awaitLatchFrame))
+    );
+
+    JsonObject profileJsonObject = runnableThreadsProfiler.toJsonObject();
+    Assertions.assertEquals("root", profileJsonObject.get("name").getAsString());
+    Assertions.assertEquals(0, profileJsonObject.get("selfSamplesCount").getAsLong());
+    Assertions.assertTrue(profileJsonObject.get("totalSamplesCount").getAsLong() >= 5);
+    Assertions.assertTrue(profileJsonObject.getAsJsonArray("children").size() > 0);
+
+    runnableThreadsProfiler.reset();
+    Assertions.assertEquals(0, runnableThreadsProfiler.getSamplesCount());
+    Assertions.assertEquals(
+        0,
+        getCollapsedStacks(runnableThreadsProfiler, StackSamplingProfiler.Weight.SAMPLES).length
+    );
+  }
+
+  /**
+   * Tests that the profiler samples between start() and stop() only, and that it keeps under its
+   * CPU overhead cap by sampling less often.
+   *
+   * @throws InterruptedException If the thread sleep is interrupted.
+   */
+  @Test
+  public void testStartStop() throws InterruptedException {
+    StackSamplingProfiler stackSamplingProfiler = new StackSamplingProfiler(
+        threadMxBean,
+        () -> ThreadUsageSnapshot.EMPTY,
+        Duration.ofMillis(1),
+        64,
+        false,
+        1
+    );
+    Assertions.assertFalse(stackSamplingProfiler.isRunning());
+    stackSamplingProfiler.start();
+    stackSamplingProfiler.start();
+    Assertions.assertTrue(stackSamplingProfiler.isRunning());
+    Thread.sleep(200);
+    stackSamplingProfiler.stop();
+    Assertions.assertFalse(stackSamplingProfiler.isRunning());
+    long samplesCount = stackSamplingProfiler.getSamplesCount();
+    Assertions.assertTrue(samplesCount > 10);
+    Thread.sleep(50);
+    Assertions.assertEquals(samplesCount, stackSamplingProfiler.getSamplesCount());
+    Assertions.assertTrue(stackSamplingProfiler.getCpuOverhead() <= 1);
+
+    StackSamplingProfiler cappedStackSamplingProfiler = new StackSamplingProfiler(
+        threadMxBean,
+        () -> ThreadUsageSnapshot.EMPTY,
+        Duration.ofMillis(1),
+        64,
+        false,
+        0.001
+    );
+    cappedStackSamplingProfiler.start();
+    Thread.sleep(200);
+    cappedStackSamplingProfiler.close();
+    Assertions.assertTrue(cappedStackSamplingProfiler.getSamplesCount() > 0);
+    Assertions.assertTrue(cappedStackSamplingProfiler.getSamplesCount() < samplesCount);
+  }
+
+  /**
+   * Tests StackSamplingProfiler with invalid inputs.
+   */
+  @Test
+  public void testInvalidInputs() {
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> new StackSamplingProfiler(
+            threadMxBean,
+            null,
+            Duration.ofMillis(10),
+            64,
+            true,
+            0.01
+        )
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new StackSamplingProfiler(
+            threadMxBean,
+            () -> ThreadUsageSnapshot.EMPTY,
+            Duration.ZERO,
+            64,
+            true,
+            0.01
+        )
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new StackSamplingProfiler(
+            threadMxBean,
+            () -> ThreadUsageSnapshot.EMPTY,
+            Duration.ofMillis(10),
+            0,
+            true,
+            0.01
+        )
+    );
+    for (double maxCpuOverhead : new double[]{0, 1.5, Double.NaN}) {
+      Assertions.assertThrows(
+          IllegalArgumentException.class,
+          () -> new StackSamplingProfiler(
+              threadMxBean,
+              () -> ThreadUsageSnapshot.EMPTY,
+              Duration.ofMillis(10),
+              64,
+              true,
+              maxCpuOverhead
+          )
+      );
+    }
+  }
+
+  /**
+   * Gets the collapsed stacks of a profiler.
+   *
+   * @param stackSamplingProfiler The profiler.
+   * @param weight                Weight of the stacks.
+   * @return The collapsed stacks, one per line.
+   * @throws IOException If there is an issue writing the collapsed stacks.
+   */
+  private static String[] getCollapsedStacks(
+      StackSamplingProfiler stackSamplingProfiler,
+      StackSamplingProfiler.Weight weight
+  ) throws IOException {
+    StringWriter stringWriter = new StringWriter();
+    stackSamplingProfiler.writeCollapsedStacks(stringWriter, weight);
+    return stringWriter.toString().lines().toArray(String[]::new);
+  }
+
+  /**
+   * Gets the weight of a collapsed stack.
+   *
+   * @param collapsedStack The collapsed stack.
+   * @return The weight of the collapsed stack.
+   */
+  private static long getWeight(String collapsedStack) {
+    return Long.parseLong(collapsedStack.substring(collapsedStack.lastIndexOf(' ') + 1));
+  }
+
+  /**
+   * Keeps the CPU busy while a flag is set.
+   *
+   * @param isRunning The flag.
+   */
+  private static void spin(AtomicBoolean isRunning) {
+    while (isRunning.get()) {
+      Thread.onSpinWait();
+    }
+  }
+
+  /**
+   * Waits on a latch.
+   *
+   * @param countDownLatch The latch.
+   */
+  private static void awaitLatch(CountDownLatch countDownLatch) {
+    try {
+      countDownLatch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
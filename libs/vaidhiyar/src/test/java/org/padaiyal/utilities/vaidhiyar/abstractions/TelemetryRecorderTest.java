@@ -0,0 +1,296 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the functionality of TelemetryRecorder.
+ */
+public class TelemetryRecorderTest {
+
+  /**
+   * Timestamp of the first snapshot supplied.
+   */
+  private static final long baseTimestampInMilliSeconds = 1_600_000_000_000L;
+
+  /**
+   * Tests that the latest snapshots are kept once the segments have been reused, and that they can
+   * be read by time window.
+   *
+   * @throws IOException          If there is an issue with the segments.
+   * @throws InterruptedException If the thread sleep is interrupted.
+   */
+  @Test
+  public void testRecordingAndReading() throws IOException, InterruptedException {
+    Path directory = Files.createTempDirectory("telemetry_recorder");
+    AtomicLong suppliedSamplesCount = new AtomicLong();
+    TelemetryRecorder telemetryRecorder = new TelemetryRecorder(
+        directory,
+        3 * TelemetryRecorder.MIN_SEGMENT_SIZE_IN_BYTES,
+        TelemetryRecorder.MIN_SEGMENT_SIZE_IN_BYTES,
+        Duration.ofMillis(1),
+        createSnapshotSupplier(suppliedSamplesCount)
+    );
+    Assertions.assertEquals(3, telemetryRecorder.getSegmentsCount());
+    waitForRecordedSamples(telemetryRecorder, 2_000);
+    telemetryRecorder.close();
+    long recordedSamplesCount = telemetryRecorder.getRecordedSamplesCount();
+    Assertions.assertEquals(0, telemetryRecorder.getDroppedSamplesCount());
+    Assertions.assertEquals(suppliedSamplesCount.get(), recordedSamplesCount);
+    try (var segmentPaths = Files.list(directory)) {
+      Assertions.assertEquals(3, segmentPaths.count());
+    }
+
+    Instant lastTimestamp = Instant.ofEpochMilli(
+        baseTimestampInMilliSeconds + (recordedSamplesCount - 1) * 1_000
+    );
+    List<TelemetrySnapshot> telemetrySnapshots = TelemetryRecorder.read(
+        directory,
+        Instant.ofEpochMilli(baseTimestampInMilliSeconds),
+        lastTimestamp
+    );
+    // The oldest segments have been overwritten, the remaining snapshots are contiguous.
+    Assertions.assertTrue(telemetrySnapshots.size() > 0);
+    Assertions.assertTrue(telemetrySnapshots.size() < recordedSamplesCount);
+    Assertions.assertEquals(
+        lastTimestamp,
+        telemetrySnapshots.get(telemetrySnapshots.size() - 1).getTimestamp()
+    );
+    for (int index = 1; index < telemetrySnapshots.size(); index++) {
+      Assertions.assertEquals(
+          Duration.ofSeconds(1),
+          Duration.between(
+              telemetrySnapshots.get(index - 1).getTimestamp(),
+              telemetrySnapshots.get(index).getTimestamp()
+          )
+      );
+    }
+
+    List<TelemetrySnapshot> windowTelemetrySnapshots = TelemetryRecorder.read(
+        directory,
+        lastTimestamp.minusSeconds(9),
+        lastTimestamp.minusSeconds(5)
+    );
+    Assertions.assertEquals(5, windowTelemetrySnapshots.size());
+    Assertions.assertEquals(
+        lastTimestamp.minusSeconds(9),
+        windowTelemetrySnapshots.get(0).getTimestamp()
+    );
+    Assertions.assertEquals(
+        "worker-" + (recordedSamplesCount - 10),
+        windowTelemetrySnapshots.get(0).getThreadNameAt(0)
+    );
+
+    deleteDirectory(directory);
+  }
+
+  /**
+   * Tests that the snapshots recorded before a restart can still be read, and that a torn record is
+   * skipped.
+   *
+   * @throws IOException          If there is an issue with the segments.
+   * @throws InterruptedException If the thread sleep is interrupted.
+   */
+  @Test
+  public void testRecovery() throws IOException, InterruptedException {
+    Path directory = Files.createTempDirectory("telemetry_recorder");
+    Instant from = Instant.ofEpochMilli(baseTimestampInMilliSeconds);
+    Instant to = from.plus(Duration.ofDays(1));
+    TelemetryRecorder telemetryRecorder = new TelemetryRecorder(
+        directory,
+        2 * TelemetryRecorder.MIN_SEGMENT_SIZE_IN_BYTES,
+        TelemetryRecorder.MIN_SEGMENT_SIZE_IN_BYTES,
+        Duration.ofMillis(1),
+        createSnapshotSupplier(new AtomicLong())
+    );
+    waitForRecordedSamples(telemetryRecorder, 10);
+    telemetryRecorder.close();
+    int recordedSnapshotsCount = TelemetryRecorder.read(directory, from, to).size();
+    Assertions.assertTrue(recordedSnapshotsCount >= 10);
+
+    // A restarted recorder failing to capture anything keeps the previous snapshots.
+    TelemetryRecorder failingTelemetryRecorder = new TelemetryRecorder(
+        directory,
+        2 * TelemetryRecorder.MIN_SEGMENT_SIZE_IN_BYTES,
+        TelemetryRecorder.MIN_SEGMENT_SIZE_IN_BYTES,
+        Duration.ofMillis(1),
+        () -> {
+          throw new IllegalStateException();
+        }
+    );
+    for (int attempt = 0; attempt < 100
+        && failingTelemetryRecorder.getDroppedSamplesCount() == 0; attempt++) {
+      Thread.sleep(10);
+    }
+    failingTelemetryRecorder.close();
+    Assertions.assertTrue(failingTelemetryRecorder.getDroppedSamplesCount() > 0);
+    Assertions.assertEquals(0, failingTelemetryRecorder.getRecordedSamplesCount());
+    Assertions.assertEquals(
+        recordedSnapshotsCount,
+        TelemetryRecorder.read(directory, from, to).size()
+    );
+
+    // Corrupts the last record, as if the JVM died while writing it.
+    for (int index = 0; index < 2; index++) {
+      try (
+          RandomAccessFile segment = new RandomAccessFile(
+              TelemetryRecorder.getSegmentPath(directory, index).toFile(),
+              "rw"
+          )
+      ) {
+        int lastRecordPosition = -1;
+        int position = TelemetryRecorder.SEGMENT_HEADER_SIZE;
+        segment.seek(position);
+        int payloadLength = segment.readInt();
+        while (payloadLength > 0) {
+          lastRecordPosition = position;
+          position += TelemetryRecorder.RECORD_HEADER_SIZE + payloadLength;
+          segment.seek(position);
+          payloadLength = segment.readInt();
+        }
+        if (lastRecordPosition >= 0) {
+          segment.seek(lastRecordPosition + TelemetryRecorder.RECORD_HEADER_SIZE);
+          int payloadByte = segment.read();
+          segment.seek(lastRecordPosition + TelemetryRecorder.RECORD_HEADER_SIZE);
+          segment.write(payloadByte ^ 0xFF);
+          break;
+        }
+      }
+    }
+    Assertions.assertEquals(
+        recordedSnapshotsCount - 1,
+        TelemetryRecorder.read(directory, from, to).size()
+    );
+
+    deleteDirectory(directory);
+  }
+
+  /**
+   * Tests TelemetryRecorder with invalid inputs.
+   *
+   * @throws IOException If there is an issue with the temporary directory.
+   */
+  @Test
+  public void testInvalidInputs() throws IOException {
+    Path directory = Files.createTempDirectory("telemetry_recorder");
+    Supplier<TelemetrySnapshot> telemetrySnapshotSupplier = createSnapshotSupplier(
+        new AtomicLong()
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new TelemetryRecorder(
+            directory,
+            1 << 20,
+            TelemetryRecorder.MIN_SEGMENT_SIZE_IN_BYTES - 1,
+            Duration.ofSeconds(1),
+            telemetrySnapshotSupplier
+        )
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new TelemetryRecorder(
+            directory,
+            TelemetryRecorder.MIN_SEGMENT_SIZE_IN_BYTES,
+            TelemetryRecorder.MIN_SEGMENT_SIZE_IN_BYTES,
+            Duration.ofSeconds(1),
+            telemetrySnapshotSupplier
+        )
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new TelemetryRecorder(
+            directory,
+            1 << 20,
+            TelemetryRecorder.MIN_SEGMENT_SIZE_IN_BYTES,
+            Duration.ZERO,
+            telemetrySnapshotSupplier
+        )
+    );
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> new TelemetryRecorder(
+            directory,
+            1 << 20,
+            TelemetryRecorder.MIN_SEGMENT_SIZE_IN_BYTES,
+            Duration.ofSeconds(1),
+            null
+        )
+    );
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> TelemetryRecorder.read(directory, null, Instant.now())
+    );
+    deleteDirectory(directory);
+  }
+
+  /**
+   * Creates a supplier of single thread snapshots one second apart.
+   *
+   * @param suppliedSamplesCount Incremented for every snapshot supplied.
+   * @return The supplier.
+   */
+  private static Supplier<TelemetrySnapshot> createSnapshotSupplier(
+      AtomicLong suppliedSamplesCount
+  ) {
+    return () -> {
+      long sampleIndex = suppliedSamplesCount.getAndIncrement();
+      return new TelemetrySnapshot(
+          Instant.ofEpochMilli(baseTimestampInMilliSeconds + sampleIndex * 1_000),
+          new ExtendedMemoryUsage(1_024, 512 + sampleIndex % 1_024, 2_048, 4_096),
+          new ExtendedMemoryUsage(0, 300, 400, -1),
+          new GarbageCollectionInfo[]{
+              new GarbageCollectionInfo("G1 Young Generation", sampleIndex / 10, sampleIndex)
+            },
+          new long[]{1},
+          new String[]{"worker-" + sampleIndex},
+          new Thread.State[]{Thread.State.RUNNABLE},
+          new double[]{12.5},
+          new long[]{sampleIndex * 1_000},
+          new double[]{1_000},
+          new String[][]{{"org.example.Worker.run(Worker.java:17)"}}
+      );
+    };
+  }
+
+  /**
+   * Waits until a recorder has recorded a number of samples.
+   *
+   * @param telemetryRecorder    The recorder.
+   * @param recordedSamplesCount Number of samples to wait for.
+   * @throws InterruptedException If the thread sleep is interrupted.
+   */
+  private static void waitForRecordedSamples(
+      TelemetryRecorder telemetryRecorder,
+      long recordedSamplesCount
+  ) throws InterruptedException {
+    for (int attempt = 0; attempt < 1_000
+        && telemetryRecorder.getRecordedSamplesCount() < recordedSamplesCount; attempt++) {
+      Thread.sleep(10);
+    }
+    Assertions.assertTrue(telemetryRecorder.getRecordedSamplesCount() >= recordedSamplesCount);
+  }
+
+  /**
+   * Deletes a directory and the files in it.
+   *
+   * @param directory The directory.
+   * @throws IOException If there is an issue deleting the directory.
+   */
+  private static void deleteDirectory(Path directory) throws IOException {
+    try (var paths = Files.list(directory)) {
+      for (Path path : paths.toList()) {
+        Files.delete(path);
+      }
+    }
+    Files.delete(directory);
+  }
+}
@@ -0,0 +1,252 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the functionality of TelemetrySnapshotWriter and TelemetrySnapshotReader.
+ */
+public class TelemetrySnapshotWriterTest {
+
+  /**
+   * Tests that the snapshots read are the ones written, and that unchanged values are encoded in a
+   * few bytes.
+   *
+   * @throws IOException If there is an issue writing or reading the snapshots.
+   */
+  @Test
+  public void testRoundTrip() throws IOException {
+    TelemetrySnapshot firstSnapshot = createSnapshot(
+        Instant.ofEpochMilli(1_600_000_000_000L),
+        new long[]{1, 2, 1_000},
+        new long[]{5_000_000, 0, 123}
+    );
+    // Same threads and stacks a second later, thread 2 terminated and thread 1_001 started.
+    TelemetrySnapshot secondSnapshot = createSnapshot(
+        Instant.ofEpochMilli(1_600_000_001_000L),
+        new long[]{1, 1_000, 1_001},
+        new long[]{5_100_000, 123, 42}
+    );
+
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    int firstSnapshotSize;
+    try (TelemetrySnapshotWriter telemetrySnapshotWriter
+        = new TelemetrySnapshotWriter(byteArrayOutputStream)) {
+      telemetrySnapshotWriter.write(firstSnapshot);
+      telemetrySnapshotWriter.flush();
+      firstSnapshotSize = byteArrayOutputStream.size();
+      telemetrySnapshotWriter.write(secondSnapshot);
+    }
+    byte[] bytes = byteArrayOutputStream.toByteArray();
+    // The strings of the second snapshot are references to the string table.
+    Assertions.assertTrue(bytes.length - firstSnapshotSize < firstSnapshotSize / 2);
+
+    try (TelemetrySnapshotReader telemetrySnapshotReader
+        = new TelemetrySnapshotReader(new ByteArrayInputStream(bytes))) {
+      assertSnapshotEquals(firstSnapshot, telemetrySnapshotReader.read());
+      assertSnapshotEquals(secondSnapshot, telemetrySnapshotReader.read());
+      Assertions.assertNull(telemetrySnapshotReader.read());
+    }
+
+    try (TelemetrySnapshotReader telemetrySnapshotReader
+        = new TelemetrySnapshotReader(new ByteArrayInputStream(bytes))) {
+      JsonArray telemetrySnapshots = telemetrySnapshotReader.readAllAsJsonArray();
+      Assertions.assertEquals(2, telemetrySnapshots.size());
+      Assertions.assertEquals(
+          secondSnapshot.toJsonObject(),
+          telemetrySnapshots.get(1).getAsJsonObject()
+      );
+      JsonObject threadInfo = telemetrySnapshots.get(0).getAsJsonObject()
+          .getAsJsonArray("threadInfos")
+          .get(0)
+          .getAsJsonObject();
+      Assertions.assertEquals("worker-1", threadInfo.get("name").getAsString());
+      Assertions.assertEquals(3, threadInfo.getAsJsonArray("stackTrace").size());
+    }
+  }
+
+  /**
+   * Tests that the snapshots written after a reset form a stream decodable on its own.
+   *
+   * @throws IOException If there is an issue writing or reading the snapshots.
+   */
+  @Test
+  public void testReset() throws IOException {
+    TelemetrySnapshot firstSnapshot = createSnapshot(
+        Instant.ofEpochMilli(1_600_000_000_000L),
+        new long[]{1, 2},
+        new long[]{5_000_000, 0}
+    );
+    TelemetrySnapshot secondSnapshot = createSnapshot(
+        Instant.ofEpochMilli(1_600_000_001_000L),
+        new long[]{1, 2},
+        new long[]{5_100_000, 10}
+    );
+
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    try (TelemetrySnapshotWriter telemetrySnapshotWriter
+        = new TelemetrySnapshotWriter(byteArrayOutputStream)) {
+      telemetrySnapshotWriter.write(firstSnapshot);
+      telemetrySnapshotWriter.flush();
+      byteArrayOutputStream.reset();
+      telemetrySnapshotWriter.reset();
+      telemetrySnapshotWriter.write(secondSnapshot);
+    }
+
+    try (TelemetrySnapshotReader telemetrySnapshotReader = new TelemetrySnapshotReader(
+        new ByteArrayInputStream(byteArrayOutputStream.toByteArray())
+    )) {
+      assertSnapshotEquals(secondSnapshot, telemetrySnapshotReader.read());
+      Assertions.assertNull(telemetrySnapshotReader.read());
+    }
+  }
+
+  /**
+   * Tests TelemetrySnapshotWriter and TelemetrySnapshotReader with invalid inputs.
+   *
+   * @throws IOException If there is an issue writing the snapshots.
+   */
+  @Test
+  public void testInvalidInputs() throws IOException {
+    Assertions.assertThrows(NullPointerException.class, () -> new TelemetrySnapshotWriter(null));
+    Assertions.assertThrows(NullPointerException.class, () -> new TelemetrySnapshotReader(null));
+    Assertions.assertThrows(
+        IOException.class,
+        () -> new TelemetrySnapshotReader(new ByteArrayInputStream(new byte[]{'{', '}'}))
+    );
+    Assertions.assertThrows(
+        IOException.class,
+        () -> new TelemetrySnapshotReader(new ByteArrayInputStream(new byte[]{'V', 'T', 'S', 9}))
+    );
+
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    try (TelemetrySnapshotWriter telemetrySnapshotWriter
+        = new TelemetrySnapshotWriter(byteArrayOutputStream)) {
+      Assertions.assertThrows(
+          NullPointerException.class,
+          () -> telemetrySnapshotWriter.write(null)
+      );
+      telemetrySnapshotWriter.write(
+          createSnapshot(Instant.now(), new long[]{1}, new long[]{1})
+      );
+    }
+    byte[] bytes = byteArrayOutputStream.toByteArray();
+    TelemetrySnapshotReader telemetrySnapshotReader = new TelemetrySnapshotReader(
+        new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1))
+    );
+    Assertions.assertThrows(EOFException.class, telemetrySnapshotReader::read);
+  }
+
+  /**
+   * Creates a snapshot of threads sharing the same stack.
+   *
+   * @param timestamp      Time at which the snapshot was captured.
+   * @param threadIds      IDs of the threads, in ascending order.
+   * @param allocatedBytes Memory allocated by the threads.
+   * @return The snapshot.
+   */
+  private static TelemetrySnapshot createSnapshot(
+      Instant timestamp,
+      long[] threadIds,
+      long[] allocatedBytes
+  ) {
+    int threadsCount = threadIds.length;
+    String[] threadNames = new String[threadsCount];
+    Thread.State[] threadStates = new Thread.State[threadsCount];
+    double[] cpuUsages = new double[threadsCount];
+    double[] allocationRates = new double[threadsCount];
+    String[][] stackTraces = new String[threadsCount][];
+    for (int index = 0; index < threadsCount; index++) {
+      threadNames[index] = "worker-" + threadIds[index];
+      threadStates[index] = Thread.State.values()[index % Thread.State.values().length];
+      cpuUsages[index] = index == 0 ? -1 : 12.34 * index;
+      allocationRates[index] = index == 0 ? -1 : 1_000 * index;
+      stackTraces[index] = new String[]{
+          "java.base/java.lang.Object.wait(Native Method)",
+          "org.example.Worker.take(Worker.java:42)",
+          "org.example.Worker.run(Worker.java:17)"
+        };
+    }
+    return new TelemetrySnapshot(
+        timestamp,
+        new ExtendedMemoryUsage(1_024, 512 + timestamp.toEpochMilli() % 100, 1_024, 4_096),
+        new ExtendedMemoryUsage(0, 300, 400, -1),
+        new GarbageCollectionInfo[]{
+            new GarbageCollectionInfo("G1 Young Generation", 10, 50),
+            new GarbageCollectionInfo("G1 Old Generation", 1, 200)
+          },
+        threadIds,
+        threadNames,
+        threadStates,
+        cpuUsages,
+        allocatedBytes,
+        allocationRates,
+        stackTraces
+    );
+  }
+
+  /**
+   * Asserts that a snapshot read is the one written.
+   *
+   * @param expectedSnapshot The snapshot written.
+   * @param actualSnapshot   The snapshot read.
+   */
+  private static void assertSnapshotEquals(
+      TelemetrySnapshot expectedSnapshot,
+      TelemetrySnapshot actualSnapshot
+  ) {
+    Assertions.assertEquals(expectedSnapshot.getTimestamp(), actualSnapshot.getTimestamp());
+    Assertions.assertEquals(
+        expectedSnapshot.getHeapUsage().toJsonObject(),
+        actualSnapshot.getHeapUsage().toJsonObject()
+    );
+    Assertions.assertEquals(
+        expectedSnapshot.getNonHeapUsage().toJsonObject(),
+        actualSnapshot.getNonHeapUsage().toJsonObject()
+    );
+    Assertions.assertEquals(
+        expectedSnapshot.getGarbageCollectionInfos()[1].getCollectionTime(),
+        actualSnapshot.getGarbageCollectionInfos()[1].getCollectionTime()
+    );
+    Assertions.assertEquals(expectedSnapshot.getThreadsCount(), actualSnapshot.getThreadsCount());
+    for (int index = 0; index < expectedSnapshot.getThreadsCount(); index++) {
+      Assertions.assertEquals(
+          expectedSnapshot.getThreadIdAt(index),
+          actualSnapshot.getThreadIdAt(index)
+      );
+      Assertions.assertEquals(
+          expectedSnapshot.getThreadNameAt(index),
+          actualSnapshot.getThreadNameAt(index)
+      );
+      Assertions.assertEquals(
+          expectedSnapshot.getThreadStateAt(index),
+          actualSnapshot.getThreadStateAt(index)
+      );
+      Assertions.assertEquals(
+          expectedSnapshot.getCpuUsageAt(index),
+          actualSnapshot.getCpuUsageAt(index),
+          0.005
+      );
+      Assertions.assertEquals(
+          expectedSnapshot.getAllocatedBytesAt(index),
+          actualSnapshot.getAllocatedBytesAt(index)
+      );
+      Assertions.assertEquals(
+          expectedSnapshot.getAllocationRateAt(index),
+          actualSnapshot.getAllocationRateAt(index)
+      );
+      Assertions.assertArrayEquals(
+          expectedSnapshot.getStackTraceAt(index),
+          actualSnapshot.getStackTraceAt(index)
+      );
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import com.sun.management.ThreadMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares sampling the thread CPU times with ThreadCpuSampler against sampling them one thread at
+ * a time into boxed maps. Run with the JMH runner, e.g. org.openjdk.jmh.Main ThreadCpuSampler, and
+ * with -prof gc to compare the allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ThreadCpuSamplerBenchmark {
+
+  /**
+   * ThreadMXBean used to get the thread CPU times.
+   */
+  private final ThreadMXBean threadMxBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  /**
+   * Number of idle threads started in addition to the JVM threads.
+   */
+  @Param({"100", "1000", "10000"})
+  private int threadsCount;
+
+  /**
+   * Latch the idle threads wait on.
+   */
+  private CountDownLatch countDownLatch;
+  /**
+   * The idle threads.
+   */
+  private List<Thread> threads;
+  /**
+   * Sampler under test.
+   */
+  private ThreadCpuSampler threadCpuSampler;
+
+  /**
+   * Starts the idle threads and primes the sampler.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    countDownLatch = new CountDownLatch(1);
+    threads = new ArrayList<>(threadsCount);
+    for (int index = 0; index < threadsCount; index++) {
+      Thread thread = new Thread(() -> {
+        try {
+          countDownLatch.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+      thread.setDaemon(true);
+      thread.start();
+      threads.add(thread);
+    }
+    threadCpuSampler = new ThreadCpuSampler(threadMxBean);
+    threadCpuSampler.sample();
+  }
+
+  /**
+   * Stops the idle threads.
+   *
+   * @throws InterruptedException If waiting for the threads is interrupted.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws InterruptedException {
+    countDownLatch.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+  }
+
+  /**
+   * Samples the thread CPU times with ThreadCpuSampler.
+   *
+   * @return CPU usage of the current thread, so that the sample isn't eliminated.
+   */
+  @Benchmark
+  public double bulkPrimitiveSample() {
+    threadCpuSampler.sample();
+    return threadCpuSampler.getCpuUsage(Thread.currentThread().getId());
+  }
+
+  /**
+   * Samples the thread CPU times one thread at a time into a boxed map, as the collector used to.
+   *
+   * @return The sampled thread CPU times.
+   */
+  @Benchmark
+  public Map<Long, Long> perThreadBoxedSample() {
+    return Arrays.stream(threadMxBean.getAllThreadIds())
+        .boxed()
+        .collect(
+            Collectors.toMap(
+                threadId -> threadId,
+                threadMxBean::getThreadCpuTime
+            )
+        );
+  }
+}
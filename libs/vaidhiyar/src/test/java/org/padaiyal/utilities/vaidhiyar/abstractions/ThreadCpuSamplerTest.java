@@ -0,0 +1,215 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import com.sun.management.ThreadMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+/**
+ * Tests the functionality of ThreadCpuSampler.
+ */
+public class ThreadCpuSamplerTest {
+
+  /**
+   * ThreadMXBean used by the samplers under test.
+   */
+  private static final ThreadMXBean threadMxBean
+      = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  /**
+   * Tests that a busy thread has a higher CPU usage than an idle thread.
+   *
+   * @throws InterruptedException If the thread sleep is interrupted.
+   */
+  @Test
+  public void testCpuUsage() throws InterruptedException {
+    AtomicBoolean isRunning = new AtomicBoolean(true);
+    Thread busyThread = new Thread(() -> {
+      while (isRunning.get()) {
+        Thread.onSpinWait();
+      }
+    });
+    busyThread.start();
+    try {
+      ThreadCpuSampler threadCpuSampler = new ThreadCpuSampler(threadMxBean);
+      threadCpuSampler.sample();
+      Assertions.assertEquals(-1, threadCpuSampler.getCpuUsage(busyThread.getId()));
+
+      Thread.sleep(500);
+      threadCpuSampler.sample();
+      Assertions.assertEquals(2, threadCpuSampler.getSamplesCount());
+      Assertions.assertTrue(threadCpuSampler.getLatestSnapshot().getThreadsCount() >= 2);
+      Assertions.assertTrue(threadCpuSampler.getCpuUsage(busyThread.getId()) > 20);
+      double idleThreadCpuUsage = threadCpuSampler.getCpuUsage(Thread.currentThread().getId());
+      Assertions.assertTrue(idleThreadCpuUsage >= 0 && idleThreadCpuUsage < 20);
+      Assertions.assertEquals(-1, threadCpuSampler.getCpuUsage(Long.MAX_VALUE));
+
+      threadCpuSampler.reset();
+      Assertions.assertEquals(0, threadCpuSampler.getSamplesCount());
+      Assertions.assertEquals(-1, threadCpuSampler.getCpuUsage(busyThread.getId()));
+      Assertions.assertSame(ThreadUsageSnapshot.EMPTY, threadCpuSampler.getLatestSnapshot());
+    } finally {
+      isRunning.set(false);
+      busyThread.join();
+    }
+  }
+
+  /**
+   * Tests that the table grows to fit many threads and that terminated threads are pruned.
+   *
+   * @throws InterruptedException If waiting for the threads is interrupted.
+   */
+  @Test
+  public void testTerminatedThreadsArePruned() throws InterruptedException {
+    CountDownLatch countDownLatch = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int index = 0; index < 500; index++) {
+      Thread thread = new Thread(() -> {
+        try {
+          countDownLatch.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+
+    ThreadCpuSampler threadCpuSampler = new ThreadCpuSampler(threadMxBean);
+    threadCpuSampler.sample();
+    threadCpuSampler.sample();
+    int sampledThreadsCount = threadCpuSampler.getLatestSnapshot().getThreadsCount();
+    Assertions.assertTrue(sampledThreadsCount >= 500);
+    threads.forEach(thread ->
+        Assertions.assertTrue(threadCpuSampler.getCpuUsage(thread.getId()) >= 0));
+
+    countDownLatch.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    threadCpuSampler.sample();
+    threadCpuSampler.sample();
+    Assertions.assertTrue(
+        threadCpuSampler.getLatestSnapshot().getThreadsCount() <= sampledThreadsCount - 500
+    );
+    threads.forEach(thread ->
+        Assertions.assertEquals(-1, threadCpuSampler.getCpuUsage(thread.getId())));
+  }
+
+  /**
+   * Tests that a published snapshot is consistent and isn't modified by later samples.
+   *
+   * @throws InterruptedException If the thread sleep is interrupted.
+   */
+  @Test
+  public void testSnapshot() throws InterruptedException {
+    ThreadCpuSampler threadCpuSampler = new ThreadCpuSampler(threadMxBean);
+    Assertions.assertSame(ThreadUsageSnapshot.EMPTY, threadCpuSampler.getLatestSnapshot());
+    threadCpuSampler.sample();
+    Thread.sleep(100);
+    threadCpuSampler.sample();
+
+    ThreadUsageSnapshot threadUsageSnapshot = threadCpuSampler.getLatestSnapshot();
+    long[] threadIds = threadUsageSnapshot.getThreadIds();
+    long[] sortedThreadIds = threadIds.clone();
+    Arrays.sort(sortedThreadIds);
+    Assertions.assertArrayEquals(sortedThreadIds, threadIds);
+    Assertions.assertTrue(threadUsageSnapshot.getInterval().toMillis() >= 100);
+    long threadId = Thread.currentThread().getId();
+    Assertions.assertTrue(threadUsageSnapshot.getAllocatedBytes(threadId) > 0);
+    Assertions.assertEquals(-1, threadUsageSnapshot.getAllocatedBytes(Long.MAX_VALUE));
+    double cpuUsage = threadUsageSnapshot.getCpuUsage(threadId);
+    Assertions.assertTrue(cpuUsage >= 0);
+
+    threadCpuSampler.sample();
+    Assertions.assertNotSame(threadUsageSnapshot, threadCpuSampler.getLatestSnapshot());
+    Assertions.assertEquals(cpuUsage, threadUsageSnapshot.getCpuUsage(threadId));
+    Assertions.assertArrayEquals(threadIds, threadUsageSnapshot.getThreadIds());
+  }
+
+  /**
+   * Tests that the allocation rate of a thread accounts for the memory it allocated between two
+   * samples.
+   */
+  @Test
+  public void testAllocationRate() {
+    ThreadCpuSampler threadCpuSampler = new ThreadCpuSampler(threadMxBean);
+    threadCpuSampler.sample();
+    Assertions.assertEquals(
+        -1,
+        threadCpuSampler.getLatestSnapshot().getAllocationRate(Thread.currentThread().getId())
+    );
+
+    long allocatedBytesCount = 0;
+    for (int index = 0; index < 100; index++) {
+      allocatedBytesCount += new byte[100 * 1024].length;
+    }
+    threadCpuSampler.sample();
+
+    ThreadUsageSnapshot threadUsageSnapshot = threadCpuSampler.getLatestSnapshot();
+    double intervalInSeconds = threadUsageSnapshot.getInterval().toNanos() / 1_000_000_000.0;
+    double allocationRate
+        = threadUsageSnapshot.getAllocationRate(Thread.currentThread().getId());
+    Assertions.assertTrue(allocationRate * intervalInSeconds >= allocatedBytesCount);
+    Assertions.assertTrue(threadUsageSnapshot.getTotalAllocationRate() >= allocationRate);
+  }
+
+  /**
+   * Tests that invalid thread CPU times reported by the ThreadMXBean don't yield a CPU usage:
+   * negative CPU times, CPU times lower than the ones of the previous sample and threads missing
+   * from the previous sample.
+   *
+   * @throws InterruptedException If the thread sleep is interrupted.
+   */
+  @Test
+  public void testInvalidThreadCpuTimes() throws InterruptedException {
+    ThreadMXBean mockedThreadMxBean = Mockito.mock(ThreadMXBean.class);
+    Mockito.when(mockedThreadMxBean.getAllThreadIds()).thenReturn(
+        new long[]{996, 997, 998},
+        new long[]{996, 997, 998, 999},
+        new long[]{996}
+    );
+    Mockito.when(mockedThreadMxBean.getThreadCpuTime(ArgumentMatchers.any(long[].class)))
+        .thenReturn(
+            new long[]{112_000, 800, 232_000},
+            new long[]{-100, 600, 580_000, 930_000},
+            new long[]{500_000}
+        );
+    Mockito.when(mockedThreadMxBean.getThreadAllocatedBytes(ArgumentMatchers.any(long[].class)))
+        .thenReturn(new long[3], new long[4], new long[1]);
+
+    ThreadCpuSampler threadCpuSampler = new ThreadCpuSampler(mockedThreadMxBean);
+    threadCpuSampler.sample();
+    Thread.sleep(10);
+    threadCpuSampler.sample();
+    // The thread with a negative CPU time isn't part of the snapshot.
+    Assertions.assertEquals(3, threadCpuSampler.getLatestSnapshot().getThreadsCount());
+    Assertions.assertEquals(-1, threadCpuSampler.getCpuUsage(996));
+    // The current CPU time is lower than the previous one.
+    Assertions.assertEquals(-1, threadCpuSampler.getCpuUsage(997));
+    Assertions.assertTrue(threadCpuSampler.getCpuUsage(998) > 0);
+    // The thread wasn't part of the previous sample.
+    Assertions.assertEquals(-1, threadCpuSampler.getCpuUsage(999));
+
+    Thread.sleep(10);
+    threadCpuSampler.sample();
+    // The previous CPU time of the thread was negative, so it wasn't seen in the previous sample.
+    Assertions.assertEquals(1, threadCpuSampler.getLatestSnapshot().getThreadsCount());
+    Assertions.assertEquals(-1, threadCpuSampler.getCpuUsage(996));
+  }
+
+  /**
+   * Tests ThreadCpuSampler with invalid inputs.
+   */
+  @Test
+  public void testInvalidInputs() {
+    Assertions.assertThrows(NullPointerException.class, () -> new ThreadCpuSampler(null));
+  }
+}
@@ -0,0 +1,121 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.time.Instant;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the functionality of ThreadDump.
+ */
+public class ThreadDumpTest {
+
+  /**
+   * Thread dump in the JSON format of HotSpotDiagnosticMXBean.dumpThreads(). The virtual threads
+   * are flagged in the executor container only, like runtimes after Java 21 do.
+   */
+  private static final String THREAD_DUMP_JSON = """
+      {
+        "threadDump": {
+          "processId": "4242",
+          "time": "2026-10-19T12:29:35.358063446Z",
+          "runtimeVersion": "21.0.1+12-LTS",
+          "threadContainers": [
+            {
+              "container": "<root>",
+              "parent": null,
+              "owner": null,
+              "threads": [
+                {
+                  "tid": "1",
+                  "name": "main",
+                  "stack": [
+                    "java.base/java.lang.Thread.sleep(Thread.java:509)",
+                    "app/Main.main(Main.java:12)"
+                  ]
+                },
+                {
+                  "tid": "21",
+                  "name": "",
+                  "stack": []
+                }
+              ],
+              "threadCount": "2"
+            },
+            {
+              "container": "java.util.concurrent.ThreadPerTaskExecutor@41a2befb",
+              "parent": "<root>",
+              "owner": "1",
+              "threads": [
+                {
+                  "tid": "22",
+                  "name": "request-handler",
+                  "virtual": true,
+                  "stack": [
+                    "java.base/java.lang.VirtualThread.park(VirtualThread.java:582)"
+                  ]
+                }
+              ],
+              "threadCount": "1"
+            }
+          ]
+        }
+      }
+      """;
+
+  /**
+   * Tests that the containers and their threads are parsed, the virtual threads being told apart
+   * from the platform threads by their flag or else by their IDs.
+   */
+  @Test
+  public void testFromJsonObject() {
+    JsonObject threadDumpJsonObject = JsonParser.parseString(THREAD_DUMP_JSON).getAsJsonObject();
+    ThreadDump threadDump = ThreadDump.fromJsonObject(threadDumpJsonObject, Set.of(1L));
+
+    Assertions.assertEquals(4242, threadDump.getProcessId());
+    Assertions.assertEquals(
+        Instant.parse("2026-10-19T12:29:35.358063446Z"),
+        threadDump.getTimestamp()
+    );
+    Assertions.assertEquals("21.0.1+12-LTS", threadDump.getRuntimeVersion());
+    ThreadContainerInfo[] threadContainerInfos = threadDump.getThreadContainerInfos();
+    Assertions.assertEquals(2, threadContainerInfos.length);
+    Assertions.assertEquals("<root>", threadContainerInfos[0].getName());
+    Assertions.assertNull(threadContainerInfos[0].getParentName());
+    Assertions.assertEquals(-1, threadContainerInfos[0].getOwnerThreadId());
+    Assertions.assertEquals("<root>", threadContainerInfos[1].getParentName());
+    Assertions.assertEquals(1, threadContainerInfos[1].getOwnerThreadId());
+
+    DumpedThreadInfo[] dumpedThreadInfos = threadDump.getAllThreadInfos();
+    Assertions.assertEquals(3, dumpedThreadInfos.length);
+    Assertions.assertEquals("main", dumpedThreadInfos[0].getThreadName());
+    Assertions.assertFalse(dumpedThreadInfos[0].isVirtual());
+    Assertions.assertArrayEquals(
+        new String[]{
+            "java.base/java.lang.Thread.sleep(Thread.java:509)",
+            "app/Main.main(Main.java:12)"
+          },
+        dumpedThreadInfos[0].getStackTrace()
+    );
+    Assertions.assertEquals(21, dumpedThreadInfos[1].getThreadId());
+    Assertions.assertTrue(dumpedThreadInfos[1].isVirtual());
+    Assertions.assertEquals(0, dumpedThreadInfos[1].getStackTrace().length);
+    Assertions.assertTrue(dumpedThreadInfos[2].isVirtual());
+    Assertions.assertEquals(2, threadDump.getVirtualThreadsCount());
+
+    JsonObject parsedThreadDumpJsonObject = threadDump.toJsonObject();
+    Assertions.assertEquals(
+        "request-handler",
+        parsedThreadDumpJsonObject.getAsJsonArray("threadContainerInfos")
+            .get(1)
+            .getAsJsonObject()
+            .getAsJsonArray("threadInfos")
+            .get(0)
+            .getAsJsonObject()
+            .get("threadName")
+            .getAsString()
+    );
+  }
+}
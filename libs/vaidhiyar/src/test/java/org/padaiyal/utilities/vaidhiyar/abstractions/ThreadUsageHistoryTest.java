@@ -0,0 +1,123 @@
+package org.padaiyal.utilities.vaidhiyar.abstractions;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the functionality of ThreadUsageHistory.
+ */
+public class ThreadUsageHistoryTest {
+
+  /**
+   * Interval of the test snapshots.
+   */
+  private static final Duration interval = Duration.ofMillis(100);
+
+  /**
+   * Tests the statistics computed over a window that has wrapped around.
+   */
+  @Test
+  public void testStatistics() {
+    ThreadUsageHistory threadUsageHistory = new ThreadUsageHistory(50);
+    threadUsageHistory.record(createSnapshot(new long[]{7}, new double[]{-1}, new double[]{-1}));
+    Assertions.assertNull(threadUsageHistory.getCpuUsageStatistics(7));
+
+    for (int sample = 1; sample <= 100; sample++) {
+      threadUsageHistory.record(
+          createSnapshot(new long[]{7}, new double[]{sample}, new double[]{10_000})
+      );
+    }
+
+    UsageStatistics cpuUsageStatistics = threadUsageHistory.getCpuUsageStatistics(7);
+    Assertions.assertEquals(50, cpuUsageStatistics.getSamplesCount());
+    Assertions.assertEquals(100, cpuUsageStatistics.getLatest());
+    Assertions.assertEquals(100, cpuUsageStatistics.getMax());
+    Assertions.assertEquals(75, cpuUsageStatistics.getP50());
+    Assertions.assertEquals(98, cpuUsageStatistics.getP95());
+    Assertions.assertEquals(100, cpuUsageStatistics.getP99());
+    // The shorter the average, the closer it follows the increasing usage.
+    Assertions.assertTrue(cpuUsageStatistics.getEwma1() > cpuUsageStatistics.getEwma5());
+    Assertions.assertTrue(cpuUsageStatistics.getEwma5() > cpuUsageStatistics.getEwma15());
+    Assertions.assertTrue(cpuUsageStatistics.getEwma15() > 80);
+
+    UsageStatistics allocationRateStatistics = threadUsageHistory.getAllocationRateStatistics(7);
+    Assertions.assertEquals(10_000, allocationRateStatistics.getP50(), 0.001);
+    Assertions.assertEquals(10_000, allocationRateStatistics.getEwma15(), 0.001);
+    Assertions.assertEquals(10_000, allocationRateStatistics.getMax(), 0.001);
+    Assertions.assertEquals(
+        50,
+        allocationRateStatistics.toJsonObject().get("samplesCount").getAsInt()
+    );
+  }
+
+  /**
+   * Tests that threads missing from a snapshot are discarded and that the hottest threads are
+   * ranked by their average usage.
+   */
+  @Test
+  public void testThreadsTracking() {
+    ThreadUsageHistory threadUsageHistory = new ThreadUsageHistory(10);
+    for (int sample = 0; sample < 20; sample++) {
+      // Thread 2 has a single busy sample, thread 3 is persistently busy.
+      threadUsageHistory.record(createSnapshot(
+          new long[]{1, 2, 3},
+          new double[]{1, sample == 19 ? 100 : 0, 50},
+          new double[]{0, 0, 0}
+      ));
+    }
+    Assertions.assertArrayEquals(new long[]{1, 2, 3}, threadUsageHistory.getThreadIds());
+    Assertions.assertArrayEquals(new long[]{3, 2}, threadUsageHistory.getHottestThreadIds(2));
+    Assertions.assertEquals(100, threadUsageHistory.getCpuUsageStatistics(2).getMax());
+
+    threadUsageHistory.record(
+        createSnapshot(new long[]{1, 3, 4}, new double[]{1, 50, -1}, new double[]{0, 0, -1})
+    );
+    Assertions.assertArrayEquals(new long[]{1, 3, 4}, threadUsageHistory.getThreadIds());
+    Assertions.assertNull(threadUsageHistory.getCpuUsageStatistics(2));
+    Assertions.assertNull(threadUsageHistory.getAllocationRateStatistics(4));
+    Assertions.assertEquals(10, threadUsageHistory.getCpuUsageStatistics(3).getSamplesCount());
+    Assertions.assertArrayEquals(new long[]{3, 1}, threadUsageHistory.getHottestThreadIds(5));
+    Assertions.assertArrayEquals(new long[0], threadUsageHistory.getHottestThreadIds(0));
+  }
+
+  /**
+   * Tests ThreadUsageHistory with invalid inputs.
+   */
+  @Test
+  public void testInvalidInputs() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new ThreadUsageHistory(0));
+    ThreadUsageHistory threadUsageHistory = new ThreadUsageHistory(1);
+    Assertions.assertThrows(NullPointerException.class, () -> threadUsageHistory.record(null));
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> threadUsageHistory.getHottestThreadIds(-1)
+    );
+  }
+
+  /**
+   * Creates a snapshot of the test interval.
+   *
+   * @param threadIds       IDs of the threads, in ascending order.
+   * @param cpuUsages       CPU usages of the threads.
+   * @param allocationRates Allocation rates of the threads.
+   * @return The snapshot.
+   */
+  private static ThreadUsageSnapshot createSnapshot(
+      long[] threadIds,
+      double[] cpuUsages,
+      double[] allocationRates
+  ) {
+    return new ThreadUsageSnapshot(
+        Instant.now(),
+        interval,
+        threadIds,
+        cpuUsages,
+        new long[threadIds.length],
+        allocationRates,
+        Arrays.stream(allocationRates).filter(allocationRate -> allocationRate >= 0).sum()
+    );
+  }
+}